@@ -2,13 +2,15 @@ package com.example;
 
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
+import javafx.application.Platform;
+import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.CheckBox;
 import javafx.scene.control.Dialog;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
-import javafx.util.Duration;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 
 import com.example.models.*;
 import com.example.models.lottery.*;
@@ -16,26 +18,66 @@ import com.example.view.DiscountView;
 import com.example.view.HELBHotelView;
 import com.example.view.LotteryView;
 import com.example.view.RatingView;
-import com.example.observer.RoomObserver;
+import com.example.observer.NotificationCoalescer;
 import com.example.parser.*;
+import com.example.persistence.FsyncPolicy;
+import com.example.persistence.HotelSnapshot;
+import com.example.persistence.ReservationJournal;
+import com.example.utils.ReservationFileWatcher;
 
 import java.io.IOException;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class HELBHotelController {
 
     private static final String HOTEL_CONFIG_PATH = "src/main/resources/hotel.hconf";
     private static final String RESERVATION_FILE_PATH = "src/main/resources/reservation.csv";
-    private static final int REFRESH_INTERVAL_SECONDS = 10;
+    private static final String QUARANTINE_FILE_PATH = "src/main/resources/reservation.rejected";
+    private static final String JOURNAL_FILE_PATH = "src/main/resources/reservation.journal";
+    private static final String SNAPSHOT_FILE_PATH = "src/main/resources/hotel.snapshot";
+    private static final int SNAPSHOT_INTERVAL_SECONDS = 300;
+    private static final long WATCH_DEBOUNCE_MILLIS = 250;          // regroupe les écritures rapprochées
+    private static final long WATCH_MAX_WAIT_MILLIS = 1_000;         // ingestion garantie même si le fichier ne se calme pas
+    private static final long SAFETY_POLL_INTERVAL_MILLIS = 60_000;  // si le système de fichiers ne notifie pas
+    private static final int DAY_CHECK_INTERVAL_SECONDS = 60;
+    private static final String JOURNAL_FAILURE_MESSAGE =
+            "Le journal des réservations est arrêté après une erreur d'écriture : l'action n'a pas été enregistrée.";        // détection du changement de jour (check-in)
 
     public Hotel hotel;
     public final HELBHotelView view;
-    private final RoomObserver roomObserver;
+    // Les modèles notifient ce regroupeur ; les vues reçoivent un seul ensemble de changements par impulsion JavaFX
+    private final NotificationCoalescer notifications = new NotificationCoalescer(Platform::runLater);
     private final DiscountView discountView;
     private final Strategy strategyModel;
-    public final ReservationManager reservationManager = new ReservationManager();
-    ReservationParser parser = new ReservationParser(RESERVATION_FILE_PATH);
-    
+    public final ReservationRegistry reservationManager = new ReservationManager();
+    private final ReservationTailer reservationTailer;
+    private final ReservationFileWatcher reservationWatcher;
+    private final ReservationJournal journal;
+    private final long configChecksum;
+    private final Timeline snapshotTimeline;
+    private final Timeline dayRolloverTimeline;
+    private LocalDate lastRefreshDay;
+    // Un seul thread d'écriture : deux snapshots ne s'écrivent jamais en même temps,
+    // et les offsets du fichier de réservations sont confirmés dans l'ordre de lecture
+    private final ExecutorService snapshotWriter = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "hotel-snapshot-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Réservations lues en arrière-plan, en attente d'être ajoutées sur le thread JavaFX
+    private final Queue<Reservation> pendingReservations = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean(false);
+    // Position du fichier atteinte par les lectures déjà mises en attente, et dernière position confirmée
+    private final AtomicReference<ReservationTailer.Position> readPosition = new AtomicReference<>();
+    private ReservationTailer.Position committedPosition;
 
     private Room pendingRoomForRelease = EmptyRoom.getInstance();
     // ============================
@@ -44,33 +86,117 @@ public class HELBHotelController {
 
     /** Constructeur principal qui initialise l'hôtel, la vue, les observateurs et lance le rafraîchissement. */
     public HELBHotelController(Stage stage) throws IOException {
-        // === Étape 1 : Charger l’hôtel ou échouer immédiatement ===
-        HotelParser hotelParser = new HotelParser(HOTEL_CONFIG_PATH);
-        this.hotel = hotelParser.loadHotel(); // Peut lancer IOException ou IllegalArgumentException
+        // === Étape 1 : Charger l’hôtel depuis le snapshot, sinon depuis la configuration (ou échouer) ===
+        this.configChecksum = HotelSnapshot.checksumOf(HOTEL_CONFIG_PATH);
+        Optional<HotelSnapshot> snapshot = HotelSnapshot.load(SNAPSHOT_FILE_PATH, configChecksum);
+        long snapshotSequence = 0;
+        if (snapshot.isPresent()) {
+            this.hotel = snapshot.get().getHotel();
+            snapshot.get().restoreInto(reservationManager);
+            snapshotSequence = snapshot.get().getJournalSequence();
+        } else {
+            HotelParser hotelParser = new HotelParser(HOTEL_CONFIG_PATH);
+            this.hotel = hotelParser.loadHotel(); // Peut lancer IOException ou IllegalArgumentException
+        }
+
+        // === Étape 2 : Rejouer le journal après le snapshot (réservations, propositions, confirmations, libérations) ===
+        this.journal = new ReservationJournal(JOURNAL_FILE_PATH, FsyncPolicy.PERIODIC);
+        journal.replay(hotel, reservationManager, snapshotSequence);
+        if (journal.wasMigrated()) {
+            // L'ancien journal vient d'être archivé : l'état relu n'existe plus que dans un snapshot à jour
+            HotelSnapshot.save(SNAPSHOT_FILE_PATH, configChecksum, journal.getLastSequence(), hotel, reservationManager);
+        }
+        journal.start();
 
-        // === Étape 2 : Charger les réservations ===
-        ReservationParser parser = new ReservationParser(RESERVATION_FILE_PATH);
-        List<Reservation> loadedReservations = parser.loadReservations();
-        for (Reservation res : loadedReservations) {
-            reservationManager.add(res);
+        // === Étape 3 : Charger les réservations (lecture incrémentale depuis le dernier offset, rejets en quarantaine) ===
+        this.reservationTailer = new ReservationTailer(RESERVATION_FILE_PATH, new QuarantineFile(QUARANTINE_FILE_PATH));
+        List<Reservation> loadedReservations = reservationTailer.readNewReservations();
+        for (Reservation res : reservationManager.addAll(loadedReservations)) {
+            journal.recordAdded(res);
         }
-        parser.clearFile();
+        commitReadPosition(reservationTailer.getPosition());
 
-        // === Étape 3 : Initialiser la vue et le reste ===
+        // === Étape 4 : Initialiser la vue et le reste ===
         this.view = new HELBHotelView(this, stage);
-        reservationManager.addObserver(view.reservationView);
-        this.roomObserver = view;
+        reservationManager.addObserver(notifications);
+        hotel.getRoomEvents().subscribe(notifications);
+        notifications.addReservationObserver(view.reservationView);
+        notifications.addRoomObserver(view);
+        notifications.addFlushListener(() -> {
+            connectReservationButtons();
+            connectRoomButtons();
+        });
         this.discountView = new DiscountView(this);
         this.strategyModel = new Strategy(hotel, reservationManager);
         connectReservationButtons();
         
         initializeViewEvents();
         view.show();
+        view.reservationView.update(); // réservations chargées avant l'abonnement des vues
         refreshData();
 
-        Timeline timeline = new Timeline(new KeyFrame(Duration.seconds(REFRESH_INTERVAL_SECONDS), e -> refreshData()));
-        timeline.setCycleCount(Timeline.INDEFINITE);
-        timeline.play();
+        // === Étape 5 : Ingestion déclenchée par les modifications du fichier (plus de relecture toutes les 10 s) ===
+        this.reservationWatcher = new ReservationFileWatcher(RESERVATION_FILE_PATH,
+                WATCH_DEBOUNCE_MILLIS, WATCH_MAX_WAIT_MILLIS, SAFETY_POLL_INTERVAL_MILLIS, this::ingestNewReservations);
+        reservationWatcher.start();
+
+        // === Étape 6 : Snapshot périodique (encodé sur le thread JavaFX, écrit en arrière-plan) ===
+        this.snapshotTimeline = new Timeline(new KeyFrame(Duration.seconds(SNAPSHOT_INTERVAL_SECONDS), e -> saveSnapshotAsync()));
+        snapshotTimeline.setCycleCount(Timeline.INDEFINITE);
+        snapshotTimeline.play();
+
+        // === Étape 7 : Au changement de jour, rafraîchir pour faire le check-in des nouvelles arrivées ===
+        this.dayRolloverTimeline = new Timeline(new KeyFrame(Duration.seconds(DAY_CHECK_INTERVAL_SECONDS), e -> refreshOnNewDay()));
+        dayRolloverTimeline.setCycleCount(Timeline.INDEFINITE);
+        dayRolloverTimeline.play();
+        stage.setOnHidden(e -> shutdown());
+    }
+
+    /** Arrête proprement les traitements en arrière-plan à la fermeture de la fenêtre. */
+    public void shutdown() {
+        System.out.println("Ingestion : " + reservationTailer.getStatistics());
+        try {
+            reservationWatcher.close();
+        } catch (IOException e) {
+            System.err.println("Erreur lors de l'arrêt de la surveillance : " + e.getMessage());
+        }
+        snapshotTimeline.stop();
+        dayRolloverTimeline.stop();
+        snapshotWriter.shutdown();
+        try {
+            snapshotWriter.awaitTermination(5, TimeUnit.SECONDS);
+            long sequence = journal.getLastSequence();
+            HotelSnapshot.save(SNAPSHOT_FILE_PATH, configChecksum, sequence, hotel, reservationManager);
+            journal.compact(sequence);
+        } catch (IOException e) {
+            System.err.println("Erreur lors de l'écriture du snapshot : " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            System.err.println("Erreur lors de la fermeture du journal : " + e.getMessage());
+        }
+    }
+
+    // L'encodage lit les modèles, il se fait donc ici sur le thread JavaFX ; seule l'écriture disque part en arrière-plan.
+    // Une fois le snapshot sur disque, le journal est compacté jusqu'à la séquence qu'il contient.
+    private void saveSnapshotAsync() {
+        try {
+            long sequence = journal.getLastSequence();
+            byte[] data = HotelSnapshot.encode(configChecksum, sequence, hotel, reservationManager);
+            snapshotWriter.submit(() -> {
+                try {
+                    HotelSnapshot.write(SNAPSHOT_FILE_PATH, data);
+                    journal.compact(sequence);
+                } catch (IOException e) {
+                    System.err.println("Erreur lors de l'écriture du snapshot : " + e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("Erreur lors de l'encodage du snapshot : " + e.getMessage());
+        }
     }
 
     
@@ -89,42 +215,116 @@ public class HELBHotelController {
     // Gestion des Chambres (Rooms)
     // ============================
 
-    /** Rafraîchit l'état de l'hôtel : rechargement CSV, attribution, rendu. */
-    public void refreshData() {
+    // Appelée par le watcher (hors thread JavaFX) quand le fichier change :
+    // la lecture disque se fait ici, et un seul rafraîchissement est planifié
+    // sur le thread JavaFX même si plusieurs lectures arrivent avant qu'il ne s'exécute.
+    // La position n'est publiée qu'après les réservations : un rafraîchissement qui la voit voit aussi ses lignes.
+    private void ingestNewReservations() {
         try {
-            // Étape 1 : Recharger les nouvelles réservations du fichier
-            List<Reservation> newlyLoaded = parser.loadReservations();
-
-            // Étape 2 : Ajouter uniquement les réservations non déjà présentes
-            for (Reservation r : newlyLoaded) {
-                if (!reservationManager.contains(r)) {
-                    reservationManager.add(r);
-                }
+            List<Reservation> newlyLoaded = reservationTailer.readNewReservations();
+            ReservationTailer.Position position = reservationTailer.getPosition();
+            pendingReservations.addAll(newlyLoaded);
+            ReservationTailer.Position previous = readPosition.getAndSet(position);
+            if (newlyLoaded.isEmpty() && previous != null && previous.getOffset() == position.getOffset()) return;
+
+            if (refreshScheduled.compareAndSet(false, true)) {
+                Platform.runLater(() -> {
+                    refreshScheduled.set(false);
+                    refreshData();
+                });
             }
+        } catch (IOException e) {
+            System.err.println("Erreur lors de la lecture des réservations : " + e.getMessage());
+        }
+    }
 
-            // Étape 3 : Nettoyer le fichier pour enlever les lignes valides
-            parser.clearFile();
+    // Les ajouts lus jusqu'à position sont dans la file du journal : l'offset n'avance qu'une fois
+    // le journal synchronisé, sinon un crash perdrait des lignes que le fichier ne relira plus.
+    // Au premier passage et après une rotation, les sources des autres fichiers sont oubliées : leurs lignes ne
+    // seront plus relues, et la table des sources (écrite dans chaque snapshot) ne grossit pas avec tout l'historique.
+    private void commitReadPosition(ReservationTailer.Position position) {
+        boolean fileKnown = !position.getFileIdentity().isEmpty(); // vide : fichier pas encore créé
+        if (fileKnown && (committedPosition == null || !committedPosition.getFileIdentity().equals(position.getFileIdentity()))) {
+            reservationManager.retainSources(position.getSourcePrefix());
+        }
+        committedPosition = position;
+        snapshotWriter.submit(() -> {
+            try {
+                journal.flushAndSync();
+                reservationTailer.commit(position);
+            } catch (IOException e) {
+                System.err.println("Offset des réservations non enregistré : " + e.getMessage());
+            }
+        });
+    }
 
-            // Étape 4 : Libérer les chambres devenues obsolètes
-            hotel.releaseObsoleteRooms(roomObserver);
+    // Le check-in se fait à chaque rafraîchissement : il suffit d'en déclencher un quand le jour change
+    private void refreshOnNewDay() {
+        if (!hotel.today().equals(lastRefreshDay)) {
+            refreshData();
+        }
+    }
 
-            // Étape 5 : Proposer une chambre à chaque réservation sans proposition
-            for (Reservation reservation : reservationManager.getAllReservations()) {
-                if (!reservationManager.hasProposal(reservation)) {
-                    String label = proposeRoomForReservation(reservation);
-                    if (!label.isEmpty()) {
-                        reservationManager.proposeRoom(reservation, label);
-                    }
+    /** Rafraîchit l'état de l'hôtel : ajout des réservations lues, check-in, attribution, rendu (aucune lecture disque). */
+    public void refreshData() {
+        try {
+            // Ajouts, propositions et changements de chambres sont regroupés : les observateurs ne reçoivent qu'un seul lot.
+            // Chaque lot ouvert ici est fermé ici, même si refreshData est appelée dans un lot plus large.
+            reservationManager.beginBatch();
+            try {
+                hotel.getRoomEvents().beginBatch();
+                try {
+                    applyPendingChanges();
+                } finally {
+                    hotel.getRoomEvents().commitBatch();
                 }
+            } finally {
+                reservationManager.commitBatch();
             }
-
-            // Étape 6 : Rafraîchir les vues
-            view.reservationView.sortReservations(view.getSelectedSortMode());
-            connectReservationButtons();
-            view.roomView.render();     
-
         } catch (Exception e) {
             System.err.println("Erreur lors du rafraîchissement : " + e.getMessage());
+        } finally {
+            hotel.publishOccupancy(); // vue cohérente pour les lecteurs en arrière-plan
+
+            // Étape 4 : Transmettre aux vues, en une fois, tous les changements de ce rafraîchissement
+            notifications.flush();
+        }
+    }
+
+    private void applyPendingChanges() {
+        // Étape 1 : Ajouter les réservations lues en arrière-plan, si elles ne sont pas déjà présentes.
+        // La position est prise avant de vider la file : toutes ses lignes sont alors dans ce lot ou un précédent.
+        ReservationTailer.Position position = readPosition.get();
+        List<Reservation> drained = new ArrayList<>();
+        Reservation r;
+        while ((r = pendingReservations.poll()) != null) {
+            drained.add(r);
+        }
+        for (Reservation added : reservationManager.addAll(drained)) {
+            journal.recordAdded(added);
+        }
+        if (position != null && position != committedPosition) {
+            commitReadPosition(position);
+        }
+
+        // Étape 2 : Libérer les chambres devenues obsolètes
+        hotel.releaseObsoleteRooms();
+
+        // Étape 2 bis : Check-in des séjours réservés qui ont commencé (journalisé pour un rejeu identique)
+        lastRefreshDay = hotel.today();
+        for (Room room : hotel.checkInArrivals()) {
+            journal.recordCheckIn(room.getAssignedReservation(), room.getLabel());
+        }
+
+        // Étape 3 : Proposer une chambre à chaque réservation sans proposition
+        for (Reservation reservation : reservationManager.getAllReservations()) {
+            if (!reservationManager.hasProposal(reservation)) {
+                String label = proposeRoomForReservation(reservation);
+                if (!label.isEmpty()) {
+                    reservationManager.proposeRoom(reservation, label);
+                    journal.recordProposal(reservation, label);
+                }
+            }
         }
     }
 
@@ -136,20 +336,17 @@ public class HELBHotelController {
 
     /** Connecte les boutons des chambres pour afficher un popup lorsqu'elles sont occupées. */
     public void connectRoomButtons() {
-        for (Room room : hotel.getAllRooms()) {
-            String label = room.getLabel();
-            if (view.roomView.hasButton(label)) {
-                Button button = view.roomView.getButton(label); // jamais null ici
-    
-                button.setOnAction(e -> {
-                    if (room.isOccupied()) {
-                        Dialog<Void> dialog = view.roomView.createOccupiedRoomDialog(room);
-                        Button releaseBtn = view.roomView.getCurrentReleaseButton(); // garanti par construction
-                        releaseBtn.setOnAction(ev -> promptForRatingAndRelease(room, dialog));
-                        dialog.showAndWait();
-                    }
-                });
-            }
+        // Seuls les boutons affichés (l'étage courant) sont parcourus : aucun label n'est construit pour les autres chambres
+        for (Map.Entry<String, Button> entry : view.roomView.getRenderedButtons().entrySet()) {
+            Room room = hotel.getRoomByLabel(entry.getKey());
+            entry.getValue().setOnAction(e -> {
+                if (room.isOccupied()) {
+                    Dialog<Void> dialog = view.roomView.createOccupiedRoomDialog(room);
+                    Button releaseBtn = view.roomView.getCurrentReleaseButton(); // garanti par construction
+                    releaseBtn.setOnAction(ev -> promptForRatingAndRelease(room, dialog));
+                    dialog.showAndWait();
+                }
+            });
         }
     }
     
@@ -159,8 +356,13 @@ public class HELBHotelController {
     public void finalizeRoomRelease() {
         if (pendingRoomForRelease != EmptyRoom.getInstance()) {
             String label = pendingRoomForRelease.getLabel();
+            try {
+                journal.recordRelease(label); // d'abord : un journal arrêté laisse la chambre occupée
+            } catch (IllegalStateException e) {
+                reportJournalFailure(e);
+                return;
+            }
             hotel.releaseRoom(label);
-            roomObserver.onRoomReleased(label);
             pendingRoomForRelease = EmptyRoom.getInstance();
             refreshData();
         }
@@ -446,6 +648,12 @@ public class HELBHotelController {
     public void updateRoomProposal(Reservation reservation) {
         String label = proposeRoomForReservation(reservation);
         if (!label.isEmpty()) {
+            try {
+                journal.recordProposal(reservation, label);
+            } catch (IllegalStateException e) {
+                reportJournalFailure(e);
+                return;
+            }
             reservationManager.proposeRoom(reservation, label);
             refreshData();
         }
@@ -474,9 +682,11 @@ public class HELBHotelController {
 
                 confirmBtn.setOnAction(ev -> {
                     String label = roomField.getText().trim().toUpperCase();
-                    confirmReservation(res, label);
-                    view.reservationView.removeReservation(res);
-                    dialog.close();
+                    // En cas d'échec la réservation reste en attente et la fenêtre reste ouverte
+                    if (confirmReservation(res, label)) {
+                        view.reservationView.removeReservation(res);
+                        dialog.close();
+                    }
                 });
 
                 dialog.showAndWait();
@@ -486,30 +696,53 @@ public class HELBHotelController {
 
 
 
-    /** Confirme une réservation et assigne une chambre. */
-    public void confirmReservation(Reservation reservation, String roomLabel) {
-        // Vérifie si la chambre est valide et disponible
-        if (!hotel.confirmReservation(roomLabel, reservation)) {
-            System.err.println("Chambre non valide ou déjà occupée : " + roomLabel);
-            return;
+    /**
+     * Confirme une réservation et assigne une chambre. Retourne false sans rien modifier si la chambre
+     * n'est pas libre pour ce séjour ou si le journal est arrêté par une erreur d'écriture.
+     */
+    public boolean confirmReservation(Reservation reservation, String roomLabel) {
+        // Vérifie si la chambre est valide et disponible, sans encore la réserver
+        Room room = hotel.getRoomByLabel(roomLabel);
+        if (room instanceof EmptyRoom || !room.isFreeFor(reservation.getCheckIn(), reservation.getCheckOut())) {
+            System.err.println("Chambre non valide ou pas libre pour ce séjour : " + roomLabel);
+            return false;
         }
-    
-        // Marque la chambre comme occupée dans le modèle
-        roomObserver.onRoomAssigned(roomLabel);
-    
-        // Marque la réservation comme assignée (trace dans assignedClients)
-        reservationManager.assignReservation(reservation, roomLabel);
-    
-        // Supprime définitivement la réservation de la mémoire
-        reservationManager.remove(reservation);
-    
-        System.out.println("Réservation confirmée pour : " + reservation.getKey());
+
+        // Journalise d'abord : si le journal est arrêté, les modèles ne sont pas touchés
+        // (une confirmation visible mais absente du journal disparaîtrait au redémarrage)
+        try {
+            journal.recordConfirmation(reservation, roomLabel);
+            if (!reservation.isFutureStay(hotel.today())) {
+                journal.recordCheckIn(reservation, roomLabel);
+            }
+        } catch (IllegalStateException e) {
+            reportJournalFailure(e);
+            return false;
+        }
+        hotel.confirmReservation(roomLabel, reservation);
+
+        // Assignation puis suppression : une seule notification pour les deux
+        reservationManager.beginBatch();
+        try {
+            // Marque la réservation comme assignée (id -> chambre, gardé après sa suppression)
+            reservationManager.assignReservation(reservation, roomLabel);
+
+            // Supprime définitivement la réservation de la mémoire
+            reservationManager.remove(reservation);
+        } finally {
+            reservationManager.commitBatch();
+            hotel.publishOccupancy();
+        }
+        return true;
+    }
+
+    // Le journal a refusé une entrée (arrêté après une erreur d'écriture) : l'action n'a pas eu lieu
+    private void reportJournalFailure(IllegalStateException e) {
+        System.err.println(e.getMessage());
+        Alert alert = new Alert(Alert.AlertType.ERROR, JOURNAL_FAILURE_MESSAGE);
+        alert.setHeaderText(null);
+        alert.showAndWait();
     }
-    
-    
-    
-    
-    
 
     /** Utilise la stratégie sélectionnée pour proposer une chambre. */
     public String proposeRoomForReservation(Reservation reservation) {
@@ -1,5 +1,8 @@
 package com.example.models;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 public class ColorPalette {
 
     // === Couleurs par type de chambre ===
@@ -35,21 +38,37 @@ public class ColorPalette {
 
     
 
+    // Couleurs par type, indexées par l'enum (plus de switch sur une chaîne à chaque bouton affiché)
+    private static final Map<RoomType, String> COLORS = new EnumMap<>(RoomType.class);
+    private static final Map<RoomType, String> HOVER_COLORS = new EnumMap<>(RoomType.class);
+
+    static {
+        COLORS.put(RoomType.LUXURY, COLOR_LUXE);
+        COLORS.put(RoomType.BUSINESS, COLOR_BUSINESS);
+        COLORS.put(RoomType.ECONOMY, COLOR_ECO);
+        HOVER_COLORS.put(RoomType.LUXURY, COLOR_HOVER_LUXE);
+        HOVER_COLORS.put(RoomType.BUSINESS, COLOR_HOVER_BUSINESS);
+        HOVER_COLORS.put(RoomType.ECONOMY, COLOR_HOVER_ECO);
+    }
+
+    public static String getColor(RoomType type) {
+        return COLORS.getOrDefault(type, COLOR_DEFAULT);
+    }
+
+    public static String getHoverColor(RoomType type) {
+        return HOVER_COLORS.getOrDefault(type, COLOR_HOVER_DEFAULT);
+    }
+
+    // Versions à partir du code d'une lettre ("L", "B", "E") ; un code inconnu donne la couleur par défaut
     public static String getColor(String type) {
-        switch (type) {
-            case "L": return COLOR_LUXE;
-            case "B": return COLOR_BUSINESS;
-            case "E": return COLOR_ECO;
-            default:  return COLOR_DEFAULT;
-        }
+        return getColor(typeOf(type));
     }
 
     public static String getHoverColor(String type) {
-        switch (type) {
-            case "L": return COLOR_HOVER_LUXE;
-            case "B": return COLOR_HOVER_BUSINESS;
-            case "E": return COLOR_HOVER_ECO;
-            default:  return COLOR_HOVER_DEFAULT;
-        }
+        return getHoverColor(typeOf(type));
+    }
+
+    private static RoomType typeOf(String code) {
+        return code.length() == 1 ? RoomType.fromCode(code.charAt(0)) : null;
     }
 } 
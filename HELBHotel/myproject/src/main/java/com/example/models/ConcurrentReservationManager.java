@@ -0,0 +1,506 @@
+package com.example.models;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.example.observer.ReservationChange;
+import com.example.observer.ReservationObserver;
+
+/**
+ * Gestionnaire de réservations utilisable par plusieurs threads d'ingestion (CSV, API locale, import en lot)
+ * pendant que l'interface lit l'état.
+ *
+ * - Les états sont rangés dans des ConcurrentHashMap.
+ * - Chaque réservation est protégée par un verrou choisi parmi un jeu fixe (verrous répartis) :
+ *   proposer, assigner et supprimer une même réservation se font de façon atomique, sans bloquer les autres.
+ * - Une chambre ne peut être proposée qu'à une seule réservation : la réservation de la chambre
+ *   passe par un putIfAbsent sur l'index chambre -> réservation, aucune mise à jour n'est perdue.
+ *   Une réservation déjà supprimée ne peut plus prendre de chambre (vérifié sous son verrou).
+ * - Les observateurs sont notifiés depuis un seul thread de diffusion, dans l'ordre des modifications.
+ *   Un lot (beginBatch/commitBatch) est propre au thread qui l'a ouvert.
+ */
+public class ConcurrentReservationManager implements ReservationRegistry, Closeable {
+
+    private static final int LOCK_STRIPES = 64; // puissance de 2
+    private static final String DISPATCHER_THREAD_NAME = "reservation-dispatcher";
+
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    private final ConcurrentHashMap<Long, Reservation> reservations = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, String> proposedRooms = new ConcurrentHashMap<>();
+    // Label normalisé -> id de l'unique réservation à qui la chambre est proposée
+    private final ConcurrentHashMap<String, Long> proposalOwners = new ConcurrentHashMap<>();
+    // Positions des chambres proposées dans l'hôtel indexé (null tant qu'aucun hôtel ne l'est).
+    // Un bit est posé après la prise de la chambre dans proposalOwners et effacé avant sa libération.
+    private volatile ProposedRoomBits proposedRoomBits;
+    private final ConcurrentHashMap<Long, String> assignedRooms = new ConcurrentHashMap<>();
+    // Source de chaque ligne ingérée -> id de sa réservation (gardée après confirmation ou suppression)
+    private final ConcurrentHashMap<String, Long> idsBySource = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Set<Reservation>> reservationsByName = new ConcurrentHashMap<>();
+
+    // Les vues triées et les bitmaps ne sont pas thread-safe : ils sont mis à jour sous leur propre verrou
+    private final SortedReservationIndex sortedIndex = new SortedReservationIndex();
+    private final ReservationFilterIndex filterIndex = new ReservationFilterIndex();
+
+    private final Set<ReservationObserver> observers = new CopyOnWriteArraySet<>();
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, DISPATCHER_THREAD_NAME);
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Delta en cours d'accumulation pour le lot du thread courant
+    private static final class Batch {
+        private int depth;
+        private boolean dirty;
+        private final List<Reservation> added = new ArrayList<>();
+        private final List<Reservation> removed = new ArrayList<>();
+        private final List<Reservation> proposed = new ArrayList<>();
+    }
+
+    private final ThreadLocal<Batch> batches = ThreadLocal.withInitial(Batch::new);
+
+    // Bitmap sans verrou des positions de chambres proposées d'un hôtel
+    private static final class ProposedRoomBits {
+        private final Hotel hotel;
+        private final AtomicLongArray words;
+
+        private ProposedRoomBits(Hotel hotel) {
+            this.hotel = hotel;
+            this.words = new AtomicLongArray((hotel.getAllRooms().size() + 63) >>> 6);
+        }
+
+        private void set(String normalizedLabel, boolean proposed) {
+            int index = hotel.indexOfRoom(normalizedLabel);
+            if (index < 0) return;
+            long mask = 1L << index;
+            words.getAndUpdate(index >>> 6, word -> proposed ? word | mask : word & ~mask);
+        }
+
+        private boolean get(int index) {
+            return (words.get(index >>> 6) & (1L << index)) != 0;
+        }
+    }
+
+    public ConcurrentReservationManager() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    private Object lockFor(long id) {
+        return locks[Long.hashCode(id) & (LOCK_STRIPES - 1)];
+    }
+
+    // ============================
+    // Réservations
+    // ============================
+
+    @Override
+    public void add(Reservation reservation) {
+        long id = reservation.getId();
+        synchronized (lockFor(id)) {
+            Reservation previous = reservations.put(id, reservation);
+            if (previous != null) unlinkName(previous);
+            reservationsByName.computeIfAbsent(reservation.getKey(), k -> ConcurrentHashMap.newKeySet()).add(reservation);
+            if (reservation.hasSource()) idsBySource.put(reservation.getSource(), id);
+            synchronized (sortedIndex) {
+                sortedIndex.put(reservation, proposedRooms.getOrDefault(id, ""));
+            }
+            synchronized (filterIndex) {
+                filterIndex.put(reservation, proposedRooms.containsKey(id));
+            }
+        }
+        notifyChange(List.of(reservation), List.of(), List.of());
+    }
+
+    // Contrairement à contains() puis add(), l'ajout conditionnel est atomique : deux sources
+    // qui livrent la même réservation ne la comptent qu'une fois. La ligne d'origine est réservée
+    // par putIfAbsent : deux lectures de la même ligne (ids différents) n'en ajoutent qu'une.
+    @Override
+    public List<Reservation> addAll(Collection<Reservation> toAdd) {
+        List<Reservation> added = new ArrayList<>();
+        beginBatch();
+        try {
+            for (Reservation reservation : toAdd) {
+                if (addIfAbsent(reservation)) added.add(reservation);
+            }
+        } finally {
+            commitBatch();
+        }
+        return added;
+    }
+
+    private boolean addIfAbsent(Reservation reservation) {
+        long id = reservation.getId();
+        synchronized (lockFor(id)) {
+            if (reservations.containsKey(id)) return false;
+            if (reservation.hasSource()) {
+                Long owner = idsBySource.putIfAbsent(reservation.getSource(), id);
+                if (owner != null && owner != id) return false;
+            }
+            add(reservation);
+            return true;
+        }
+    }
+
+    @Override
+    public void remove(Reservation reservation) {
+        long id = reservation.getId();
+        synchronized (lockFor(id)) {
+            Reservation previous = reservations.remove(id);
+            if (previous != null) unlinkName(previous);
+            String proposal = proposedRooms.remove(id);
+            if (proposal != null) releaseRoom(ReservationManager.normalizeLabel(proposal), id);
+            synchronized (sortedIndex) {
+                sortedIndex.remove(id);
+            }
+            synchronized (filterIndex) {
+                filterIndex.remove(id);
+            }
+        }
+        notifyChange(List.of(), List.of(reservation), List.of());
+    }
+
+    private void unlinkName(Reservation reservation) {
+        reservationsByName.computeIfPresent(reservation.getKey(), (key, homonyms) -> {
+            homonyms.remove(reservation);
+            return homonyms.isEmpty() ? null : homonyms;
+        });
+    }
+
+    @Override
+    public boolean contains(Reservation reservation) {
+        return reservations.containsKey(reservation.getId());
+    }
+
+    @Override
+    public List<Reservation> getAllReservations() {
+        return new ArrayList<>(reservations.values());
+    }
+
+    @Override
+    public List<Reservation> findByName(String lastName, String firstName) {
+        return new ArrayList<>(reservationsByName.getOrDefault(lastName + ":" + firstName, Set.of()));
+    }
+
+    @Override
+    public List<Reservation> getSortedReservations(String sortMode) {
+        synchronized (sortedIndex) {
+            if ("Trier par : Nom".equals(sortMode)) return sortedIndex.sortedByName();
+            if ("Trier par : Chambre".equals(sortMode)) return sortedIndex.sortedByRoom();
+        }
+        return getAllReservations();
+    }
+
+    @Override
+    public List<Reservation> findReservations(ReservationFilter filter) {
+        synchronized (filterIndex) {
+            return filterIndex.find(filter);
+        }
+    }
+
+    @Override
+    public int countReservations(ReservationFilter filter) {
+        synchronized (filterIndex) {
+            return filterIndex.count(filter);
+        }
+    }
+
+    @Override
+    public void clear() {
+        // Tous les verrous sont pris dans l'ordre : aucune opération ne peut s'intercaler pendant le reset
+        runHoldingLocks(0, () -> {
+            reservations.clear();
+            proposedRooms.clear();
+            proposalOwners.clear();
+            ProposedRoomBits bits = proposedRoomBits;
+            if (bits != null) proposedRoomBits = new ProposedRoomBits(bits.hotel);
+            assignedRooms.clear();
+            idsBySource.clear();
+            reservationsByName.clear();
+            synchronized (sortedIndex) {
+                sortedIndex.clear();
+            }
+            synchronized (filterIndex) {
+                filterIndex.clear();
+            }
+        });
+        notifyChange(List.of(), List.of(), List.of());
+    }
+
+    private void runHoldingLocks(int stripe, Runnable action) {
+        if (stripe == LOCK_STRIPES) {
+            action.run();
+            return;
+        }
+        synchronized (locks[stripe]) {
+            runHoldingLocks(stripe + 1, action);
+        }
+    }
+
+    // ============================
+    // Propositions
+    // ============================
+
+    // Propose la chambre si elle est libre de toute proposition ; sinon la proposition est refusée
+    @Override
+    public void proposeRoom(Reservation reservation, String label) {
+        tryProposeRoom(reservation, label);
+    }
+
+    @Override
+    public boolean tryProposeRoom(Reservation reservation, String label) {
+        if (!link(reservation, label)) return false;
+        notifyChange(List.of(), List.of(), List.of(reservation));
+        return true;
+    }
+
+    @Override
+    public void setProposal(Reservation reservation, String roomLabel) {
+        link(reservation, roomLabel);
+    }
+
+    private boolean link(Reservation reservation, String label) {
+        long id = reservation.getId();
+        String normalized = ReservationManager.normalizeLabel(label);
+        synchronized (lockFor(id)) {
+            // Une stratégie a pu lire la réservation juste avant sa suppression : sans ce contrôle,
+            // la chambre resterait prise par un id qui n'existe plus, et ne serait plus jamais proposée
+            if (!reservations.containsKey(id)) return false;
+
+            // La chambre est prise atomiquement : un seul putIfAbsent peut réussir pour un label donné
+            Long owner = proposalOwners.putIfAbsent(normalized, id);
+            if (owner != null && owner != id) return false;
+            if (owner == null) setRoomBit(normalized, true);
+
+            String previous = proposedRooms.put(id, label);
+            if (previous != null && !ReservationManager.normalizeLabel(previous).equals(normalized)) {
+                releaseRoom(ReservationManager.normalizeLabel(previous), id);
+            }
+            synchronized (sortedIndex) {
+                sortedIndex.put(reservations.get(id), label);
+            }
+            synchronized (filterIndex) {
+                filterIndex.setProposed(id, true);
+            }
+            return true;
+        }
+    }
+
+    // Le bit est effacé avant de rendre la chambre : une autre réservation qui la prend ensuite
+    // repose son bit, il ne peut pas être effacé après coup
+    private void releaseRoom(String normalizedLabel, long id) {
+        Long owner = proposalOwners.get(normalizedLabel);
+        if (owner == null || owner != id) return;
+        setRoomBit(normalizedLabel, false);
+        proposalOwners.remove(normalizedLabel, id);
+    }
+
+    private void setRoomBit(String normalizedLabel, boolean proposed) {
+        ProposedRoomBits bits = proposedRoomBits;
+        if (bits != null) bits.set(normalizedLabel, proposed);
+    }
+
+    @Override
+    public void indexProposalsFor(Hotel hotel) {
+        ProposedRoomBits current = proposedRoomBits;
+        if (current != null && current.hotel == hotel) return;
+        // Tous les verrous : aucune proposition ne change pendant la reconstruction du bitmap
+        runHoldingLocks(0, () -> {
+            ProposedRoomBits bits = new ProposedRoomBits(hotel);
+            for (String normalizedLabel : proposalOwners.keySet()) {
+                bits.set(normalizedLabel, true);
+            }
+            proposedRoomBits = bits;
+        });
+    }
+
+    @Override
+    public String getProposedRoom(Reservation reservation) {
+        return proposedRooms.getOrDefault(reservation.getId(), "");
+    }
+
+    @Override
+    public String getProposalIfExists(long id) {
+        return proposedRooms.getOrDefault(id, "");
+    }
+
+    @Override
+    public boolean hasProposal(Reservation reservation) {
+        return proposedRooms.containsKey(reservation.getId());
+    }
+
+    @Override
+    public boolean isRoomAlreadyProposed(String roomLabel) {
+        return proposalOwners.containsKey(ReservationManager.normalizeLabel(roomLabel));
+    }
+
+    @Override
+    public boolean isRoomAlreadyProposed(Room room) {
+        ProposedRoomBits bits = proposedRoomBits;
+        if (bits != null && bits.hotel.isOwnRoom(room)) {
+            return bits.get(room.getSlot());
+        }
+        return isRoomAlreadyProposed(room.getLabel());
+    }
+
+    @Override
+    public long getReservationIdForProposedRoom(String roomLabel) {
+        return proposalOwners.getOrDefault(ReservationManager.normalizeLabel(roomLabel), Reservation.NO_ID);
+    }
+
+    @Override
+    public Map<Long, String> getProposedRoomMap() {
+        return new HashMap<>(proposedRooms);
+    }
+
+    // ============================
+    // Assignations
+    // ============================
+
+    @Override
+    public void assignReservation(Reservation reservation, String roomLabel) {
+        synchronized (lockFor(reservation.getId())) {
+            assignedRooms.put(reservation.getId(), roomLabel);
+        }
+        notifyChange(List.of(), List.of(), List.of());
+    }
+
+    @Override
+    public void restoreAssignment(long id, String roomLabel) {
+        Reservation.reserveId(id);
+        assignedRooms.put(id, roomLabel);
+    }
+
+    @Override
+    public Map<String, Long> getSourceMap() {
+        return new HashMap<>(idsBySource);
+    }
+
+    @Override
+    public void restoreSource(String source, long id) {
+        Reservation.reserveId(id);
+        idsBySource.put(source, id);
+    }
+
+    @Override
+    public int retainSources(String sourcePrefix) {
+        int before = idsBySource.size();
+        idsBySource.keySet().removeIf(source -> !source.startsWith(sourcePrefix));
+        return before - idsBySource.size();
+    }
+
+    @Override
+    public boolean isAlreadyAssigned(Reservation reservation) {
+        return assignedRooms.containsKey(reservation.getId());
+    }
+
+    @Override
+    public String getAssignedRoomLabel(long id) {
+        return assignedRooms.getOrDefault(id, "");
+    }
+
+    @Override
+    public Map<Long, String> getAssignedRoomMap() {
+        return new HashMap<>(assignedRooms);
+    }
+
+    // ============================
+    // Observateurs et lots
+    // ============================
+
+    @Override
+    public void addObserver(ReservationObserver observer) {
+        observers.add(observer);
+    }
+
+    @Override
+    public void removeObserver(ReservationObserver observer) {
+        observers.remove(observer);
+    }
+
+    @Override
+    public void beginBatch() {
+        batches.get().depth++;
+    }
+
+    @Override
+    public void commitBatch() {
+        Batch batch = batches.get();
+        if (batch.depth == 0) {
+            throw new IllegalStateException("commitBatch() appelé sans beginBatch()");
+        }
+        if (--batch.depth > 0) return;
+
+        batches.remove();
+        if (batch.dirty) {
+            dispatch(new ReservationChange(batch.added, batch.removed, batch.proposed));
+        }
+    }
+
+    @Override
+    public boolean isInBatch() {
+        return batches.get().depth > 0;
+    }
+
+    private void notifyChange(List<Reservation> added, List<Reservation> removed, List<Reservation> proposed) {
+        Batch batch = batches.get();
+        if (batch.depth > 0) {
+            batch.added.addAll(added);
+            batch.removed.addAll(removed);
+            batch.proposed.addAll(proposed);
+            batch.dirty = true;
+            return;
+        }
+        batches.remove();
+        dispatch(new ReservationChange(added, removed, proposed));
+    }
+
+    private void dispatch(ReservationChange change) {
+        dispatcher.execute(() -> {
+            for (ReservationObserver observer : observers) {
+                try {
+                    observer.update(change);
+                } catch (RuntimeException e) {
+                    // Un observateur défaillant ne doit pas arrêter la diffusion aux autres
+                    System.err.println("Erreur dans un observateur de réservations : " + e.getMessage());
+                }
+            }
+        });
+    }
+
+    /** Attend que toutes les notifications déjà émises aient été diffusées. */
+    public void awaitNotifications() throws InterruptedException {
+        Future<?> marker = dispatcher.submit(() -> { });
+        try {
+            marker.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /** Diffuse les dernières notifications puis arrête le thread de diffusion. */
+    @Override
+    public void close() {
+        dispatcher.shutdown();
+        try {
+            dispatcher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.models;
 
+import java.time.LocalDate;
+
 /**
  * Représente une réservation vide ou invalide (Null Object).
  * Implémente le Singleton pour garantir une seule instance globale.
@@ -10,7 +12,7 @@ public final class EmptyReservation extends Reservation {
     private static final EmptyReservation instance = new EmptyReservation();
 
     private EmptyReservation() {
-        super("EMPTY", "EMPTY", 0, false, "EMPTY", 0);
+        super(NO_ID, "EMPTY", "EMPTY", 0, false, "EMPTY", 0, LocalDate.MIN, LocalDate.MIN.plusDays(DEFAULT_NIGHTS));
     }
 
     public static EmptyReservation getInstance() {
@@ -1,5 +1,9 @@
 package com.example.models;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Représente une chambre vide ou invalide (Null Object).
  * Permet d’éviter l’utilisation de null pour signaler l’absence de chambre réelle.
@@ -7,21 +11,74 @@ package com.example.models;
  */
 public final class EmptyRoom extends Room {
 
+    private static final String LABEL = "EMPTY";
+    private static final int NO_POSITION = -1;
+
     private static final EmptyRoom instance = new EmptyRoom();
 
     private EmptyRoom() {
-        super("EMPTY", "Z", -1, -1,-1);
+        super(null, -1); // aucun stockage : toutes les méthodes qui le lisent sont redéfinies
     }
 
     public static EmptyRoom getInstance() {
         return instance;
     }
 
+    @Override
+    public String getLabel() {
+        return LABEL;
+    }
+
+    @Override
+    public RoomType getRoomType() {
+        return RoomType.UNUSED;
+    }
+
+    @Override
+    public int getFloor() {
+        return NO_POSITION;
+    }
+
+    @Override
+    public int getColumn() {
+        return NO_POSITION;
+    }
+
+    @Override
+    public int getFloorIndex() {
+        return NO_POSITION;
+    }
+
+    @Override
+    public Reservation getAssignedReservation() {
+        return EmptyReservation.getInstance();
+    }
+
+    @Override
+    public List<RoomAvailability.Booking> getBookings() {
+        return new ArrayList<>();
+    }
+
     @Override
     public boolean isOccupied() {
         return true; // Empêche toute assignation accidentelle
     }
 
+    @Override
+    public boolean isFreeFor(LocalDate checkIn, LocalDate checkOut) {
+        return false;
+    }
+
+    @Override
+    public boolean book(Reservation reservation) {
+        return false;
+    }
+
+    @Override
+    public boolean restoreBooking(Reservation reservation) {
+        return false;
+    }
+
     @Override
     public void assignTo(Reservation reservation) {
         // Ne rien faire
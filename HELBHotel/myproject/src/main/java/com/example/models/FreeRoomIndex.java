@@ -0,0 +1,108 @@
+package com.example.models;
+
+import java.util.BitSet;
+import java.util.Random;
+import java.util.function.IntPredicate;
+
+/**
+ * Chambres libres de l'hôtel, en bitmaps indexés par position dans la liste des chambres.
+ *
+ * Un bitmap des chambres libres par type et un par étage sont tenus à jour par Room.assignTo / release :
+ * "prochaine chambre Luxury libre" est un nextSetBit, "nombre de chambres Business libres" un cardinality,
+ * sans parcourir les objets Room. Les bitmaps "toutes les chambres d'un type" ne changent jamais : ils servent
+ * aux séjours futurs, pour lesquels une chambre occupée aujourd'hui reste candidate.
+ * Non synchronisé : mis à jour depuis le thread qui possède les modèles.
+ */
+final class FreeRoomIndex {
+
+    private final BitSet allRooms = new BitSet();
+    private final BitSet free = new BitSet();
+    private final BitSet[] roomsByType = newBitSets(RoomType.values().length); // indexés par ordinal()
+    private final BitSet[] freeByType = newBitSets(RoomType.values().length);
+    private final BitSet[] freeByFloor;
+    private final RoomStore store; // type et étage de chaque position
+
+    FreeRoomIndex(RoomStore store, int numberOfFloors) {
+        this.store = store;
+        freeByFloor = newBitSets(numberOfFloors);
+
+        for (int slot = 0; slot < store.size(); slot++) {
+            allRooms.set(slot);
+            roomsByType[store.typeOf(slot).ordinal()].set(slot);
+            setFree(slot, !store.isOccupied(slot));
+        }
+    }
+
+    private static BitSet[] newBitSets(int count) {
+        BitSet[] bitSets = new BitSet[count];
+        for (int i = 0; i < count; i++) {
+            bitSets[i] = new BitSet();
+        }
+        return bitSets;
+    }
+
+    /** Appelé par la chambre à chaque assignation / libération */
+    void setFree(int slot, boolean isFree) {
+        free.set(slot, isFree);
+        freeByType[store.typeOf(slot).ordinal()].set(slot, isFree);
+        freeByFloor[store.floorIndexOf(slot)].set(slot, isFree);
+    }
+
+    int nextFree(RoomType type, int fromSlot) {
+        return freeByType[type.ordinal()].nextSetBit(fromSlot);
+    }
+
+    int countFree(RoomType type) {
+        return freeByType[type.ordinal()].cardinality();
+    }
+
+    int countFreeOnFloor(int floorIndex) {
+        return freeByFloor[floorIndex].cardinality();
+    }
+
+    /**
+     * Chambres candidates pour un séjour : les chambres libres si le séjour commence aujourd'hui ou avant,
+     * toutes les chambres sinon (une chambre occupée peut accueillir un séjour futur).
+     * type null : tous les types.
+     */
+    BitSet candidates(RoomType type, boolean futureStay) {
+        if (type == null) {
+            return futureStay ? allRooms : free;
+        }
+        return (futureStay ? roomsByType : freeByType)[type.ordinal()];
+    }
+
+    /**
+     * Tire une position au hasard parmi les bits de candidates, jusqu'à en trouver une acceptée ; -1 sinon.
+     * Une position refusée est retirée du tirage : le choix reste uniforme parmi les positions acceptées,
+     * et chaque tirage ne coûte qu'un comptage de bits par mot de 64 bits.
+     */
+    static int randomSlot(BitSet candidates, Random random, IntPredicate accepted) {
+        long[] words = candidates.toLongArray();
+        int remaining = candidates.cardinality();
+        while (remaining > 0) {
+            int slot = select(words, random.nextInt(remaining));
+            if (accepted.test(slot)) return slot;
+
+            words[slot >>> 6] &= ~(1L << slot);
+            remaining--;
+        }
+        return -1;
+    }
+
+    // Position du (rank+1)-ième bit à 1
+    private static int select(long[] words, int rank) {
+        for (int w = 0; w < words.length; w++) {
+            int bits = Long.bitCount(words[w]);
+            if (rank < bits) {
+                long word = words[w];
+                for (int i = 0; i < rank; i++) {
+                    word &= word - 1; // retire le bit à 1 le plus bas
+                }
+                return (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+            rank -= bits;
+        }
+        throw new IllegalArgumentException("Rang hors du bitmap : " + rank);
+    }
+}
@@ -1,55 +1,78 @@
 package com.example.models;
 
+import java.time.Clock;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
+import java.util.Random;
+import java.util.function.Predicate;
 
 import com.example.strategy.*;
 import com.example.observer.*;
+import com.example.utils.FloorLabel;
 
 public class Hotel {
     private String[][][] roomMatrices; // [floor][row][col]
     private int numberOfFloors;
-    private List<Room> rooms = new ArrayList<>();
+    // Chambres en tableaux parallèles (type, position, occupant) ; les Room ne sont que des vues sur ce stockage
+    private final RoomStore store;
+    private final List<Room> rooms;
+    // Bitmaps des chambres libres par type et par étage, tenus à jour par les chambres elles-mêmes
+    private final FreeRoomIndex freeRooms;
+    // Voisins de chaque chambre et compteurs de voisins adultes sans enfants, calculés une fois
+    private final RoomAdjacency adjacency;
+    // Vues immuables de l'occupation, pour les lecteurs hors du thread des modèles
+    private final OccupancyPublisher occupancy;
+    // Bus unique des changements d'occupant de toutes les chambres
+    private final RoomEventBus roomEvents = new RoomEventBus();
 
     // === Constantes internes ===
-    private static final int MIN_LABEL_LENGTH = 3; // ex: A1B
-    private static final String ROOM_TYPE_UNUSED = "Z"; // valeur pour cellule vide
+    private static final String ROOM_TYPE_UNUSED = RoomType.UNUSED.getCode(); // valeur pour cellule vide
     private static final String FLOOR_LABEL_PREFIX = "Etage "; // préfixe pour l’affichage
+    // En dessous de ce nombre de cellules, construire les étages en parallèle coûte plus qu'il ne rapporte
+    private static final int PARALLEL_BUILD_THRESHOLD = 50_000;
 
 
 
-    // Constructeur privé, crée toutes les chambres à partir des matrices de types
+    // Crée toutes les chambres à partir des matrices de types.
+    // Chaque étage a sa propre tranche de positions (et donc ses propres numéros) : les étages sont
+    // indépendants, ils sont remplis en parallèle sur les grands hôtels.
     public Hotel(int numberOfFloors, String[][][] roomMatrices) {
         this.numberOfFloors = numberOfFloors;
         this.roomMatrices = roomMatrices;
 
-        for (int floorIndex = 0; floorIndex < numberOfFloors; floorIndex++) {
-            char floorLetter = (char) ('A' + floorIndex);
-            String[][] matrix = roomMatrices[floorIndex];
-
-            for (int row = 0; row < matrix.length; row++) {
-                for (int col = 0; col < matrix[row].length; col++) {
-                    String type = matrix[row][col];
-                    if (!type.equals(ROOM_TYPE_UNUSED)) {
-                        int roomNumber = getNextRoomNumberForFloor(floorLetter);
-                        String label = floorLetter + String.valueOf(roomNumber) + type;
-                        rooms.add(new Room(label, type, row, col, floorIndex));
-                    }
-                }
+        boolean parallel = countCells(roomMatrices, numberOfFloors) >= PARALLEL_BUILD_THRESHOLD;
+        this.store = new RoomStore(roomMatrices, numberOfFloors, parallel);
+        this.rooms = store.rooms();
+        this.freeRooms = new FreeRoomIndex(store, numberOfFloors);
+        this.adjacency = new RoomAdjacency(store);
+        this.occupancy = new OccupancyPublisher(store);
+        store.attach(freeRooms, adjacency, occupancy, roomEvents);
+    }
+
+    private static long countCells(String[][][] roomMatrices, int numberOfFloors) {
+        long cells = 0;
+        for (int floor = 0; floor < numberOfFloors; floor++) {
+            for (String[] row : roomMatrices[floor]) {
+                cells += row.length;
             }
         }
+        return cells;
     }
 
     public Hotel(int numberOfFloors, String[][] roomMatrix) {
         this(numberOfFloors, generateMatrixArray(numberOfFloors, roomMatrix));
     }
 
+    // Tous les étages partagent la même matrice (jamais modifiée après construction) :
+    // une seule copie, pour ne pas dépendre du tableau de l'appelant, au lieu d'une copie par étage.
     private static String[][][] generateMatrixArray(int numberOfFloors, String[][] roomMatrix) {
+        String[][] shared = deepCopyMatrix(roomMatrix);
         String[][][] matrices = new String[numberOfFloors][][];
-        for (int i = 0; i < numberOfFloors; i++) {
-            matrices[i] = deepCopyMatrix(roomMatrix);
-        }
+        Arrays.fill(matrices, shared);
         return matrices;
     }
 
@@ -63,30 +86,88 @@ public class Hotel {
         return copy;
     }
 
-    // Cette méthode sert à générer un numéro de chambre unique pour un étage donné.
-    // Je compte combien de chambres ont déjà la lettre d’étage correspondante,
-    // et j’incrémente pour créer une nouvelle étiquette (ex: A1B, A2L...).
-    private int getNextRoomNumberForFloor(char floorLetter) {
-        int count = 1;
-        for (Room room : rooms) {
-            if (room.getLabel().charAt(0) == floorLetter) {
-                count++;
-            }
-        }
-        return count;
+    // Horloge qui donne "aujourd'hui" pour les arrivées et le check-in (une horloge fixe dans les tests)
+    public void setClock(Clock clock) {
+        store.setClock(clock);
     }
 
+    public LocalDate today() {
+        return store.today();
+    }
 
-    // Cherche une chambre libre d'un type donné et retourne son label
+    // Cherche la première chambre libre d'un type donné : un nextSetBit sur le bitmap du type
+    public Room findAvailableRoomOfType(RoomType type) {
+        int slot = freeRooms.nextFree(type, 0);
+        return slot >= 0 ? rooms.get(slot) : EmptyRoom.getInstance();
+    }
+
+    // Même recherche à partir du code d'une lettre ("L", "B", "E") ; un code inconnu ne trouve aucune chambre
     public Room findAvailableRoomOfType(String type) {
-        for (Room room : rooms) {
-            if (room.getType().equals(type) && !room.isOccupied()) {
-                return room;
-            }
+        RoomType roomType = typeOf(type);
+        return roomType != null ? findAvailableRoomOfType(roomType) : EmptyRoom.getInstance();
+    }
+
+    // Nombre de chambres libres d'un type donné
+    public int countFreeRoomsOfType(RoomType type) {
+        return freeRooms.countFree(type);
+    }
+
+    public int countFreeRoomsOfType(String type) {
+        RoomType roomType = typeOf(type);
+        return roomType != null ? countFreeRoomsOfType(roomType) : 0;
+    }
+
+    private static RoomType typeOf(String code) {
+        return code.length() == 1 ? RoomType.fromCode(code.charAt(0)) : null;
+    }
+
+    // Nombre de chambres libres sur un étage
+    public int countFreeRoomsOnFloor(int floorIndex) {
+        return freeRooms.countFreeOnFloor(floorIndex);
+    }
+
+    // Chambres d'un étage, sans parcourir les autres : les positions d'un étage sont consécutives
+    public List<Room> getRoomsOnFloor(int floorIndex) {
+        return store.roomsOnFloor(floorIndex);
+    }
+
+    // Chambre à une position de getAllRooms(), pour parcourir les positions données par nextCandidateRoom
+    public Room getRoomAt(int index) {
+        return rooms.get(index);
+    }
+
+    // Première position >= fromIndex d'une chambre candidate pour un séjour qui commence le jour checkIn
+    // (type null : tous les types), -1 s'il n'y en a plus. Les chambres occupées sont sautées mot par mot
+    // sauf pour un séjour futur ; il reste à vérifier isFreeFor sur la chambre.
+    public int nextCandidateRoom(RoomType type, LocalDate checkIn, int fromIndex) {
+        return freeRooms.candidates(type, checkIn.isAfter(today())).nextSetBit(fromIndex);
+    }
+
+    // Voisins directs d'une chambre (même étage, même ligne, colonnes -1 et +1), calculés à la construction
+    public List<Room> getNeighbours(Room room) {
+        if (!isOwnRoom(room)) return Collections.emptyList();
+        List<Room> neighbours = new ArrayList<>(2);
+        for (int slot : new int[]{adjacency.leftOf(room.getSlot()), adjacency.rightOf(room.getSlot())}) {
+            if (slot != RoomAdjacency.NO_NEIGHBOUR) neighbours.add(rooms.get(slot));
         }
-        return EmptyRoom.getInstance();
+        return neighbours;
+    }
+
+    // Vrai si un voisin direct est occupé par des adultes sans enfants : un compteur tenu à jour, O(1)
+    public boolean hasAdultOnlyNeighbour(Room room) {
+        return isOwnRoom(room) && adjacency.hasAdultOnlyNeighbour(room.getSlot());
+    }
+
+    boolean isOwnRoom(Room room) {
+        return room.getStore() == store;
+    }
+
+    // Chambre candidate tirée au hasard (uniformément) parmi celles que accepted retient ; EmptyRoom sinon
+    public Room findRandomCandidateRoom(LocalDate checkIn, Random random, Predicate<Room> accepted) {
+        BitSet candidates = freeRooms.candidates(null, checkIn.isAfter(today()));
+        int slot = FreeRoomIndex.randomSlot(candidates, random, index -> accepted.test(rooms.get(index)));
+        return slot >= 0 ? rooms.get(slot) : EmptyRoom.getInstance();
     }
-    
 
     // Retourne la matrice d’un étage spécifique
     public String[][] getRoomMatrixForFloor(int floorIndex) {
@@ -113,9 +194,9 @@ public class Hotel {
         return roomMatrices[floorIndex].length > 0 ? roomMatrices[floorIndex][0].length : 0;
     }
 
-    // Donne la lettre associée à un index d’étage (0 -> A, 1 -> B, ...)
-    public char getFloorLetter(int index) {
-        return (char) ('A' + index);
+    // Donne les lettres associées à un index d’étage (0 -> A, 1 -> B, ..., 26 -> AA)
+    public String getFloorLetter(int index) {
+        return FloorLabel.of(index);
     }
 
     // Retourne les noms des étages (ex: "Floor A", "Floor B", ...)
@@ -146,12 +227,6 @@ public class Hotel {
         }
     }
 
-    
-    public boolean isReservationAssigned(String lastName, String firstName, Map<String, String> assignedRoomMap) {
-        String key = lastName + ":" + firstName;
-        return assignedRoomMap.containsKey(key);
-    }
-
 
     // Cette méthode calcule le nombre de colonnes non vides sur un étage donné.
     // Elle est utile pour l’affichage graphique afin d’ignorer les colonnes "Z".
@@ -175,19 +250,18 @@ public class Hotel {
     }
 
 
-    // Cette méthode cherche une chambre à partir de son étiquette (ex: "A1B").
-    // Si l’étiquette est vide ou trop courte, ou si elle ne correspond à aucune chambre,
+    // Cette méthode cherche une chambre à partir de son étiquette (ex: "A1B"), en O(1) :
+    // le label donne directement l'étage et le numéro, donc la position de la chambre.
+    // Si l’étiquette ne correspond à aucune chambre (vide, trop courte, inconnue),
     // je retourne l’objet EmptyRoom pour éviter les nulls.
     public Room getRoomByLabel(String label) {
-        if (label.isBlank() || label.length() < MIN_LABEL_LENGTH) return EmptyRoom.getInstance();
-
-        for (Room room : rooms) {
-            if (room.getLabel().equals(label)) {
-                return room;
-            }
-        }
+        int slot = store.slotOf(label);
+        return slot >= 0 ? store.roomAt(slot) : EmptyRoom.getInstance();
+    }
 
-        return EmptyRoom.getInstance();
+    // Position (index dans getAllRooms()) de la chambre qui porte ce label, -1 si aucune
+    int indexOfRoom(String label) {
+        return store.slotOf(label);
     }
 
     
@@ -213,7 +287,24 @@ public class Hotel {
         return true;
     }
 
-    // Retourne toutes les chambres de l’hôtel
+    // Publie l'occupation actuelle, à appeler par le thread qui modifie l'hôtel une fois ses changements validés.
+    // Seuls les blocs de chambres modifiés depuis la publication précédente sont recopiés.
+    public OccupancySnapshot publishOccupancy() {
+        return occupancy.publish();
+    }
+
+    // Dernière occupation publiée : lecture sans verrou, utilisable depuis n'importe quel thread
+    // (rapports, exports, essais de stratégies) sans bloquer l'ingestion ni voir un état à moitié modifié.
+    public OccupancySnapshot getOccupancySnapshot() {
+        return occupancy.current();
+    }
+
+    // Bus des changements d'occupant : un seul abonnement couvre toutes les chambres (ou un étage)
+    public RoomEventBus getRoomEvents() {
+        return roomEvents;
+    }
+
+    // Retourne toutes les chambres de l’hôtel (lecture seule : les positions servent d'index)
     public List<Room> getAllRooms() {
         return rooms;
     }
@@ -223,30 +314,65 @@ public class Hotel {
     }
 
     // Cette méthode confirme une réservation manuelle sur une chambre spécifique.
-    // Je récupère la chambre par son label. Si elle est vide ou déjà occupée, je refuse la réservation.
-    // Sinon, je l’associe à la réservation passée en paramètre.
+    // Je récupère la chambre par son label. Si elle est vide ou pas libre pour les dates du séjour, je refuse la réservation.
+    // Sinon, le séjour est réservé dans la chambre ; un séjour déjà commencé occupe aussi la chambre tout de suite,
+    // un séjour futur reste seulement réservé jusqu'à son check-in (checkInArrivals).
     // La méthode retourne true si la réservation est acceptée, false sinon.
     public boolean confirmReservation(String roomLabel, Reservation reservation) {
         Room room = getRoomByLabel(roomLabel);
-        if (room instanceof EmptyRoom || room.isOccupied()) return false;
-    
-        assignRoom(roomLabel, reservation);
+        if (room instanceof EmptyRoom || !room.book(reservation)) return false;
+
+        if (!reservation.isFutureStay(today())) {
+            room.assignTo(reservation);
+        }
         return true;
     }
-    
+
+    // Check-in du jour : chaque séjour réservé qui a commencé occupe sa chambre si elle est libre
+    // (sinon il attend la libération). À appeler à chaque rafraîchissement et au changement de jour.
+    // Retourne les chambres qui viennent d'être occupées.
+    public List<Room> checkInArrivals() {
+        List<Room> checkedIn = new ArrayList<>();
+        for (int slot : store.checkInUpTo(today())) {
+            checkedIn.add(rooms.get(slot));
+        }
+        return checkedIn;
+    }
+
+    // Rejeu d'une confirmation : le séjour est seulement réservé. L'occupation est rejouée par l'entrée
+    // de check-in journalisée ensuite : le résultat ne dépend pas du jour du rejeu.
+    public boolean restoreConfirmation(String roomLabel, Reservation reservation) {
+        return getRoomByLabel(roomLabel).restoreBooking(reservation);
+    }
+
+    // Rejeu d'un check-in : le client occupe la chambre si elle est libre
+    public boolean checkIn(String roomLabel, Reservation reservation) {
+        return assignRoom(roomLabel, reservation);
+    }
+
+    // Toutes les chambres libres pour [checkIn, checkOut) : une requête O(log n) par chambre sur son index de séjours,
+    // sans parcourir les réservations elles-mêmes.
+    public List<Room> getRoomsFreeFor(LocalDate checkIn, LocalDate checkOut) {
+        List<Room> free = new ArrayList<>();
+        for (Room room : rooms) {
+            if (room.isFreeFor(checkIn, checkOut)) {
+                free.add(room);
+            }
+        }
+        return free;
+    }
 
     // Cette méthode libère automatiquement toutes les chambres contenant une réservation vide.
     // C’est utile pour le nettoyage automatique lors d’un rafraîchissement,
     // afin de libérer les chambres qui avaient été marquées occupées avec une réservation non valide.
-    // Une fois libérée, je notifie l’observateur (ex: la vue) que la chambre est à jour.
-    public void releaseObsoleteRooms(RoomObserver observer) {
+    // Chaque libération est publiée sur le bus d'événements de l'hôtel.
+    public void releaseObsoleteRooms() {
         for (Room room : getAllRooms()) {
             if (!room.isOccupied()) continue;
     
             // Si la réservation assignée est une EmptyReservation, ce n’est pas une vraie occupation
             if (room.getAssignedReservation() instanceof EmptyReservation) {
                 room.release();
-                observer.onRoomReleased(room.getLabel());
             }
         }
     }
@@ -0,0 +1,84 @@
+package com.example.models;
+
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.example.models.OccupancySnapshot.CHUNK_SHIFT;
+import static com.example.models.OccupancySnapshot.CHUNK_SIZE;
+import static com.example.models.OccupancySnapshot.WORDS_PER_CHUNK;
+
+/**
+ * Publie les vues d'occupation de l'hôtel.
+ * Côté écriture (le thread qui possède les modèles) : chaque changement d'occupant marque son bloc,
+ * et publish() construit une nouvelle vue en ne recopiant que les blocs marqués.
+ * Côté lecture (n'importe quel thread) : current() est une simple lecture de l'AtomicReference,
+ * sans verrou et sans jamais bloquer l'écriture.
+ */
+final class OccupancyPublisher {
+
+    private final RoomStore store;
+    private final AtomicReference<OccupancySnapshot> current;
+    private final BitSet dirtyChunks = new BitSet();
+
+    OccupancyPublisher(RoomStore store) {
+        this.store = store;
+        int chunks = (store.size() + CHUNK_SIZE - 1) >>> CHUNK_SHIFT;
+        OccupancySnapshot empty = new OccupancySnapshot(store, 0, new long[chunks][], new Reservation[chunks][], 0);
+        this.current = new AtomicReference<>(empty);
+        dirtyChunks.set(0, chunks); // première publication : tous les blocs
+        publish();
+    }
+
+    void markDirty(int slot) {
+        dirtyChunks.set(slot >>> CHUNK_SHIFT);
+    }
+
+    OccupancySnapshot current() {
+        return current.get();
+    }
+
+    /** Publie l'occupation actuelle ; sans changement depuis la dernière publication, la vue courante est gardée */
+    OccupancySnapshot publish() {
+        OccupancySnapshot previous = current.get();
+        if (dirtyChunks.isEmpty()) return previous;
+
+        long[][] bits = previous.occupiedBitsChunks().clone();        // blocs partagés...
+        Reservation[][] occupants = previous.occupantsChunks().clone();
+        int occupiedCount = previous.getOccupiedCount();
+        for (int chunk = dirtyChunks.nextSetBit(0); chunk >= 0; chunk = dirtyChunks.nextSetBit(chunk + 1)) {
+            occupiedCount -= countBits(bits[chunk]);
+            copyChunk(chunk, bits, occupants);                          // ...sauf ceux qui ont changé
+            occupiedCount += countBits(bits[chunk]);
+        }
+        dirtyChunks.clear();
+
+        OccupancySnapshot next = new OccupancySnapshot(store, previous.getVersion() + 1, bits, occupants, occupiedCount);
+        current.set(next);
+        return next;
+    }
+
+    private void copyChunk(int chunk, long[][] bits, Reservation[][] occupants) {
+        int first = chunk << CHUNK_SHIFT;
+        int end = Math.min(first + CHUNK_SIZE, store.size());
+        long[] chunkBits = new long[WORDS_PER_CHUNK];
+        Reservation[] chunkOccupants = null; // un bloc sans aucun occupant n'a pas de tableau
+        for (int slot = first; slot < end; slot++) {
+            if (store.isOccupied(slot)) {
+                if (chunkOccupants == null) chunkOccupants = new Reservation[end - first];
+                chunkBits[(slot - first) >>> 6] |= 1L << slot;
+                chunkOccupants[slot - first] = store.occupantOf(slot);
+            }
+        }
+        bits[chunk] = chunkBits;
+        occupants[chunk] = chunkOccupants;
+    }
+
+    private static int countBits(long[] words) {
+        if (words == null) return 0;
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+}
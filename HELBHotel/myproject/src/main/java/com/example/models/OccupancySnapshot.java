@@ -0,0 +1,107 @@
+package com.example.models;
+
+/**
+ * Vue immuable de l'occupation de toutes les chambres, publiée par l'hôtel après chaque validation
+ * (Hotel.publishOccupancy) et lue sans verrou par n'importe quel thread (Hotel.getOccupancySnapshot).
+ *
+ * Les chambres sont regroupées en blocs de CHUNK_SIZE positions : chaque bloc a son bitmap d'occupation
+ * et son tableau d'occupants. Une publication ne recopie que les blocs modifiés depuis la précédente,
+ * les autres sont partagés entre les deux vues (copie sur écriture) ; aucun bloc n'est modifié après publication.
+ * Les attributs fixes des chambres (label, type, étage) sont lus dans le stockage de l'hôtel, qui ne change pas.
+ */
+public final class OccupancySnapshot {
+
+    static final int CHUNK_SHIFT = 10;
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT; // 1024 chambres, 16 mots de bitmap
+    static final int WORDS_PER_CHUNK = CHUNK_SIZE >>> 6;
+
+    private final RoomStore store;
+    private final long version;
+    private final long[][] occupiedBits;     // [bloc][mot]
+    private final Reservation[][] occupants; // [bloc][position dans le bloc], null : chambre (ou bloc) libre
+    private final int occupiedCount;
+
+    OccupancySnapshot(RoomStore store, long version, long[][] occupiedBits, Reservation[][] occupants, int occupiedCount) {
+        this.store = store;
+        this.version = version;
+        this.occupiedBits = occupiedBits;
+        this.occupants = occupants;
+        this.occupiedCount = occupiedCount;
+    }
+
+    /** Numéro de publication : deux vues de même version sont identiques */
+    public long getVersion() {
+        return version;
+    }
+
+    /** Nombre de chambres (positions 0 à size() - 1, dans l'ordre de Hotel.getAllRooms()) */
+    public int size() {
+        return store.size();
+    }
+
+    public int getOccupiedCount() {
+        return occupiedCount;
+    }
+
+    public boolean isOccupied(int slot) {
+        checkSlot(slot);
+        long word = occupiedBits[slot >>> CHUNK_SHIFT][(slot & (CHUNK_SIZE - 1)) >>> 6];
+        return (word & (1L << slot)) != 0;
+    }
+
+    /** Occupant de la chambre au moment de la publication ; EmptyReservation si elle était libre */
+    public Reservation getOccupant(int slot) {
+        checkSlot(slot);
+        Reservation[] chunk = occupants[slot >>> CHUNK_SHIFT];
+        Reservation occupant = chunk != null ? chunk[slot & (CHUNK_SIZE - 1)] : null;
+        return occupant != null ? occupant : EmptyReservation.getInstance();
+    }
+
+    /** Première position occupée >= fromSlot, -1 s'il n'y en a plus */
+    public int nextOccupied(int fromSlot) {
+        for (int chunk = fromSlot >>> CHUNK_SHIFT; chunk < occupiedBits.length; chunk++) {
+            long[] bits = occupiedBits[chunk];
+            int firstWord = chunk == fromSlot >>> CHUNK_SHIFT ? (fromSlot & (CHUNK_SIZE - 1)) >>> 6 : 0;
+            for (int w = firstWord; w < WORDS_PER_CHUNK; w++) {
+                long word = bits[w];
+                if (chunk == fromSlot >>> CHUNK_SHIFT && w == firstWord) {
+                    word &= -1L << fromSlot; // ignore les positions avant fromSlot dans ce mot
+                }
+                if (word != 0) {
+                    return (chunk << CHUNK_SHIFT) + (w << 6) + Long.numberOfTrailingZeros(word);
+                }
+            }
+        }
+        return -1;
+    }
+
+    public String getLabel(int slot) {
+        checkSlot(slot);
+        return store.labelOf(slot);
+    }
+
+    public RoomType getRoomType(int slot) {
+        checkSlot(slot);
+        return store.typeOf(slot);
+    }
+
+    public int getFloorIndex(int slot) {
+        checkSlot(slot);
+        return store.floorIndexOf(slot);
+    }
+
+    // Blocs de la vue, repris (sans copie) par la publication suivante
+    long[][] occupiedBitsChunks() {
+        return occupiedBits;
+    }
+
+    Reservation[][] occupantsChunks() {
+        return occupants;
+    }
+
+    private void checkSlot(int slot) {
+        if (slot < 0 || slot >= store.size()) {
+            throw new IndexOutOfBoundsException("Position de chambre hors limites : " + slot);
+        }
+    }
+}
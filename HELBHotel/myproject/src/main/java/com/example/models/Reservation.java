@@ -1,20 +1,83 @@
 package com.example.models;
 
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
 public class Reservation {
+
+    // Identifiant réservé à l'absence de réservation (EmptyReservation) : les vrais ids commencent à 1
+    public static final long NO_ID = 0;
+
+    // Compteur global des ids, attribués à l'ingestion
+    private static final AtomicLong NEXT_ID = new AtomicLong(NO_ID);
+
+    // Source absente : réservation créée à la main, par un test ou relue d'un ancien format
+    public static final String NO_SOURCE = "";
+
+    // Séjour par défaut d'une ligne sans dates : une nuit à partir du jour d'ingestion
+    public static final int DEFAULT_NIGHTS = 1;
+
+    private final long id;
+    // Position de la ligne d'origine dans le fichier de réservations : une ligne relue garde la même source
+    private final String source;
+    private final String key;
     private final String lastName;
     private final String firstName;
     private final int numberOfPeople;
     private final boolean smoker;
     private final String stayPurpose;
     private final int numberOfChildren;
+    private final LocalDate checkIn;  // jour d'arrivée (inclus)
+    private final LocalDate checkOut; // jour de départ (exclu)
 
+    // Nouvelle réservation sans dates : séjour par défaut à partir d'aujourd'hui
     public Reservation(String lastName, String firstName, int numberOfPeople, boolean smoker, String stayPurpose, int numberOfChildren) {
+        this(lastName, firstName, numberOfPeople, smoker, stayPurpose, numberOfChildren, Clock.systemDefaultZone());
+    }
+
+    // Séjour par défaut à partir du jour donné par clock (une horloge fixe dans les tests)
+    public Reservation(String lastName, String firstName, int numberOfPeople, boolean smoker, String stayPurpose, int numberOfChildren,
+                       Clock clock) {
+        this(lastName, firstName, numberOfPeople, smoker, stayPurpose, numberOfChildren, LocalDate.now(clock));
+    }
+
+    // Le jour n'est lu qu'une fois : arrivée et départ ne peuvent pas tomber de part et d'autre de minuit
+    private Reservation(String lastName, String firstName, int numberOfPeople, boolean smoker, String stayPurpose, int numberOfChildren,
+                        LocalDate checkIn) {
+        this(lastName, firstName, numberOfPeople, smoker, stayPurpose, numberOfChildren, checkIn, checkIn.plusDays(DEFAULT_NIGHTS));
+    }
+
+    // Nouvelle réservation : reçoit un id unique, même si un autre client porte le même nom
+    public Reservation(String lastName, String firstName, int numberOfPeople, boolean smoker, String stayPurpose, int numberOfChildren,
+                       LocalDate checkIn, LocalDate checkOut) {
+        this(NEXT_ID.incrementAndGet(), lastName, firstName, numberOfPeople, smoker, stayPurpose, numberOfChildren, checkIn, checkOut);
+    }
+
+    // Réservation relue (journal, snapshot) avec son id d'origine ; les prochains ids seront attribués après lui
+    public Reservation(long id, String lastName, String firstName, int numberOfPeople, boolean smoker, String stayPurpose, int numberOfChildren,
+                       LocalDate checkIn, LocalDate checkOut) {
+        this(id, NO_SOURCE, lastName, firstName, numberOfPeople, smoker, stayPurpose, numberOfChildren, checkIn, checkOut);
+    }
+
+    // Réservation relue avec son id et la source de sa ligne d'origine
+    public Reservation(long id, String source, String lastName, String firstName, int numberOfPeople, boolean smoker, String stayPurpose,
+                       int numberOfChildren, LocalDate checkIn, LocalDate checkOut) {
+        if (!checkOut.isAfter(checkIn)) {
+            throw new IllegalArgumentException("Le départ (" + checkOut + ") doit suivre l'arrivée (" + checkIn + ")");
+        }
+        reserveId(id);
+        this.id = id;
+        this.source = source;
+        this.key = lastName + ":" + firstName; // calculée une fois, plus à chaque recherche
         this.lastName = lastName;
         this.firstName = firstName;
         this.numberOfPeople = numberOfPeople;
         this.smoker = smoker;
         this.stayPurpose = stayPurpose;
         this.numberOfChildren = numberOfChildren;
+        this.checkIn = checkIn;
+        this.checkOut = checkOut;
     }
 
     public String getLastName() {
@@ -45,14 +108,64 @@ public class Reservation {
         return numberOfChildren > 0;
     }
 
+    public LocalDate getCheckIn() {
+        return checkIn;
+    }
+
+    public LocalDate getCheckOut() {
+        return checkOut;
+    }
+
+    // Séjour [checkIn, checkOut) qui commence après today : réservé, mais pas encore occupé
+    public boolean isFutureStay(LocalDate today) {
+        return checkIn.isAfter(today);
+    }
+
+    // Un id encore référencé sans objet Reservation (source ou assignation relue d'un snapshot) :
+    // les prochains ids sont attribués après lui, pour qu'une nouvelle réservation n'hérite pas de sa chambre
+    public static void reserveId(long id) {
+        NEXT_ID.accumulateAndGet(id, Math::max);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public boolean hasSource() {
+        return !source.isEmpty();
+    }
+
+    // Même réservation (même id), rattachée à la ligne du fichier dont elle provient
+    public Reservation withSource(String source) {
+        return new Reservation(id, source, lastName, firstName, numberOfPeople, smoker, stayPurpose, numberOfChildren, checkIn, checkOut);
+    }
+
+    // Clé "Nom:Prénom" : plus unique (homonymes), sert seulement à la recherche par nom
     public String getKey() {
-        return lastName + ":" + firstName;
+        return key;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof Reservation)) return false;
+        return id == ((Reservation) obj).id;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(id);
     }
 
     @Override
     public String toString() {
         return lastName + " " + firstName + " - " + numberOfPeople + " pers. " +
             (smoker ? "Fumeur" : "Non fumeur") +
-            " - " + stayPurpose + " - " + numberOfChildren + " enfant(s)";
+            " - " + stayPurpose + " - " + numberOfChildren + " enfant(s)" +
+            " - du " + checkIn + " au " + checkOut;
     }
 }
@@ -0,0 +1,102 @@
+package com.example.models;
+
+/**
+ * Critères de recherche sur les réservations en attente, combinés par un ET logique.
+ * Un critère non renseigné accepte toutes les réservations ; sans aucun critère, le filtre les accepte toutes.
+ *
+ * Exemple : new ReservationFilter().proposed(false).smoker(true).purpose("Affaire")
+ */
+public final class ReservationFilter {
+
+    private static final String ANY_PURPOSE = "";
+    private static final int ANY_PARTY_SIZE = -1;
+
+    private String purpose = ANY_PURPOSE;
+    private int partySize = ANY_PARTY_SIZE;
+    private boolean filterSmoker;
+    private boolean smoker;
+    private boolean filterChildren;
+    private boolean withChildren;
+    private boolean filterProposed;
+    private boolean proposed;
+
+    /** Motif du séjour exact (ex: "Affaire") */
+    public ReservationFilter purpose(String purpose) {
+        this.purpose = purpose;
+        return this;
+    }
+
+    /** Nombre de personnes exact */
+    public ReservationFilter partySize(int numberOfPeople) {
+        this.partySize = numberOfPeople;
+        return this;
+    }
+
+    public ReservationFilter smoker(boolean smoker) {
+        this.filterSmoker = true;
+        this.smoker = smoker;
+        return this;
+    }
+
+    public ReservationFilter withChildren(boolean withChildren) {
+        this.filterChildren = true;
+        this.withChildren = withChildren;
+        return this;
+    }
+
+    /** true : seulement les réservations qui ont une chambre proposée ; false : seulement celles qui n'en ont pas */
+    public ReservationFilter proposed(boolean proposed) {
+        this.filterProposed = true;
+        this.proposed = proposed;
+        return this;
+    }
+
+    boolean hasPurpose() {
+        return !purpose.equals(ANY_PURPOSE);
+    }
+
+    String getPurpose() {
+        return purpose;
+    }
+
+    boolean hasPartySize() {
+        return partySize != ANY_PARTY_SIZE;
+    }
+
+    int getPartySize() {
+        return partySize;
+    }
+
+    boolean hasSmoker() {
+        return filterSmoker;
+    }
+
+    boolean isSmoker() {
+        return smoker;
+    }
+
+    boolean hasChildren() {
+        return filterChildren;
+    }
+
+    boolean isWithChildren() {
+        return withChildren;
+    }
+
+    boolean hasProposed() {
+        return filterProposed;
+    }
+
+    boolean isProposed() {
+        return proposed;
+    }
+
+    /** Vrai si la réservation vérifie tous les critères (proposition donnée par hasProposal) */
+    public boolean matches(Reservation reservation, boolean hasProposal) {
+        if (hasPurpose() && !purpose.equals(reservation.getStayPurpose())) return false;
+        if (hasPartySize() && partySize != reservation.getNumberOfPeople()) return false;
+        if (filterSmoker && smoker != reservation.isSmoker()) return false;
+        if (filterChildren && withChildren != reservation.hasChildren()) return false;
+        return !filterProposed || proposed == hasProposal;
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.models;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.utils.LongObjectMap;
+
+/**
+ * Index bitmap des réservations en attente, pour les recherches filtrées (motif, fumeur, enfants,
+ * nombre de personnes, proposition).
+ *
+ * Chaque réservation occupe un emplacement (slot) : un petit entier, réutilisé après une suppression.
+ * Les bitmaps sont indexés par emplacement plutôt que par id : les ids ne font que croître au fil des
+ * redémarrages, les emplacements restent denses et les bitmaps petits.
+ * Un filtre combiné est l'intersection (ET) des bitmaps de ses critères : quelques opérations par mot
+ * de 64 bits au lieu d'un test par réservation.
+ */
+final class ReservationFilterIndex {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final LongObjectMap<Integer> slotById = new LongObjectMap<>();
+    private Reservation[] reservationBySlot = new Reservation[INITIAL_CAPACITY];
+    private int firstFreeSlot; // aucun emplacement libre avant celui-ci : les ajouts en série restent en O(1)
+
+    private final BitSet used = new BitSet();
+    private final BitSet smokers = new BitSet();
+    private final BitSet withChildren = new BitSet();
+    private final BitSet proposed = new BitSet();
+    private final Map<String, BitSet> byPurpose = new HashMap<>();
+    private final Map<Integer, BitSet> byPartySize = new HashMap<>();
+
+    /** Ajoute (ou remplace) une réservation ; hasProposal indique si une chambre lui est déjà proposée */
+    void put(Reservation reservation, boolean hasProposal) {
+        remove(reservation.getId());
+
+        int slot = used.nextClearBit(firstFreeSlot);
+        firstFreeSlot = slot + 1;
+        if (slot >= reservationBySlot.length) {
+            Reservation[] grown = new Reservation[reservationBySlot.length * 2];
+            System.arraycopy(reservationBySlot, 0, grown, 0, reservationBySlot.length);
+            reservationBySlot = grown;
+        }
+        reservationBySlot[slot] = reservation;
+        slotById.put(reservation.getId(), slot);
+
+        used.set(slot);
+        smokers.set(slot, reservation.isSmoker());
+        withChildren.set(slot, reservation.hasChildren());
+        proposed.set(slot, hasProposal);
+        byPurpose.computeIfAbsent(reservation.getStayPurpose(), k -> new BitSet()).set(slot);
+        byPartySize.computeIfAbsent(reservation.getNumberOfPeople(), k -> new BitSet()).set(slot);
+    }
+
+    void remove(long id) {
+        Integer slot = slotById.remove(id);
+        if (slot == null) return;
+
+        Reservation reservation = reservationBySlot[slot];
+        reservationBySlot[slot] = null;
+        firstFreeSlot = Math.min(firstFreeSlot, slot);
+        used.clear(slot);
+        smokers.clear(slot);
+        withChildren.clear(slot);
+        proposed.clear(slot);
+        clearIn(byPurpose, reservation.getStayPurpose(), slot);
+        clearIn(byPartySize, reservation.getNumberOfPeople(), slot);
+    }
+
+    // Un bitmap vidé est retiré : un motif disparu ne laisse pas de bitmap vide derrière lui
+    private static <K> void clearIn(Map<K, BitSet> bitmaps, K key, int slot) {
+        BitSet bitmap = bitmaps.get(key);
+        bitmap.clear(slot);
+        if (bitmap.isEmpty()) {
+            bitmaps.remove(key);
+        }
+    }
+
+    /** Met à jour l'état "proposée" d'une réservation indexée (sans effet si elle ne l'est pas) */
+    void setProposed(long id, boolean hasProposal) {
+        Integer slot = slotById.get(id);
+        if (slot != null) {
+            proposed.set(slot, hasProposal);
+        }
+    }
+
+    void clear() {
+        slotById.clear();
+        reservationBySlot = new Reservation[INITIAL_CAPACITY];
+        firstFreeSlot = 0;
+        used.clear();
+        smokers.clear();
+        withChildren.clear();
+        proposed.clear();
+        byPurpose.clear();
+        byPartySize.clear();
+    }
+
+    /** Réservations qui vérifient le filtre, dans l'ordre des emplacements */
+    List<Reservation> find(ReservationFilter filter) {
+        BitSet matches = evaluate(filter);
+        List<Reservation> result = new ArrayList<>(matches.cardinality());
+        for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+            result.add(reservationBySlot[slot]);
+        }
+        return result;
+    }
+
+    int count(ReservationFilter filter) {
+        return evaluate(filter).cardinality();
+    }
+
+    // Intersection des bitmaps des critères renseignés ; un critère "faux" retire son bitmap (ET NON)
+    private BitSet evaluate(ReservationFilter filter) {
+        BitSet result = (BitSet) used.clone();
+        if (filter.hasPurpose()) {
+            result.and(byPurpose.getOrDefault(filter.getPurpose(), new BitSet()));
+        }
+        if (filter.hasPartySize()) {
+            result.and(byPartySize.getOrDefault(filter.getPartySize(), new BitSet()));
+        }
+        if (filter.hasSmoker()) {
+            combine(result, smokers, filter.isSmoker());
+        }
+        if (filter.hasChildren()) {
+            combine(result, withChildren, filter.isWithChildren());
+        }
+        if (filter.hasProposed()) {
+            combine(result, proposed, filter.isProposed());
+        }
+        return result;
+    }
+
+    private static void combine(BitSet result, BitSet bitmap, boolean expected) {
+        if (expected) {
+            result.and(bitmap);
+        } else {
+            result.andNot(bitmap);
+        }
+    }
+}
@@ -1,111 +1,272 @@
 package com.example.models;
 
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Set;
 
 import com.example.observer.*;
+import com.example.utils.LongObjectMap;
 
-public class ReservationManager {
+/**
+ * Gestionnaire de réservations pour le thread qui possède les modèles (non synchronisé).
+ * Voir ConcurrentReservationManager pour l'ingestion depuis plusieurs threads.
+ */
+public class ReservationManager implements ReservationRegistry {
 
-    // Ensemble des clés des clients déjà assignés à une chambre
-    private final Set<String> assignedClients = new HashSet<>();
+    // Les structures principales sont indexées par l'id numérique des réservations (tables à clés long
+    // primitives) : pas de chaîne construite ni d'objet Long alloué à chaque recherche.
 
     // Map entre chaque réservation et la chambre proposée
-    private final Map<String, String> proposedRooms = new HashMap<>();
+    private final LongObjectMap<String> proposedRooms = new LongObjectMap<>();
 
-    // Map entre chaque réservation et la chambre effectivement assignée
-    private final Map<String, String> assignedRoomMap = new HashMap<>();
+    // Index inverse : label de chambre (en majuscules) -> ids des réservations à qui elle est proposée,
+    // dans l'ordre des propositions (la plus ancienne est la propriétaire de la chambre).
+    // Gardé cohérent avec proposedRooms, il rend isRoomAlreadyProposed en O(1).
+    private final Map<String, Set<Long>> reservationsByProposedRoom = new HashMap<>();
+
+    // Positions (dans l'hôtel indexé) des chambres présentes dans reservationsByProposedRoom :
+    // les stratégies testent une chambre sans construire son label
+    private Hotel indexedHotel;
+    private final BitSet proposedRoomIndexes = new BitSet();
+
+    // Map entre chaque réservation et la chambre effectivement assignée (sert aussi d'ensemble des clients assignés)
+    private final LongObjectMap<String> assignedRoomMap = new LongObjectMap<>();
 
     // Observateurs à notifier quand les réservations changent
     private final Set<ReservationObserver> observers = new HashSet<>();
 
-    // Map contenant toutes les réservations actives (clé = "Nom:Prénom")
-    private final Map<String, Reservation> reservationMap = new HashMap<>();
+    // Source de chaque ligne ingérée -> id de sa réservation ; gardée après la confirmation,
+    // pour qu'une ligne relue depuis le début du fichier ne redevienne pas une nouvelle réservation
+    private final Map<String, Long> idsBySource = new HashMap<>();
+
+    // Map contenant toutes les réservations actives (clé = id)
+    private final LongObjectMap<Reservation> reservationMap = new LongObjectMap<>();
+
+    // Recherche secondaire par nom ("Nom:Prénom") : plusieurs homonymes peuvent coexister
+    private final Map<String, List<Reservation>> reservationsByName = new HashMap<>();
+
+    // Vues triées (par nom, par chambre) des réservations de reservationMap
+    private final SortedReservationIndex sortedIndex = new SortedReservationIndex();
+
+    // Bitmaps (motif, fumeur, enfants, personnes, proposition) pour les recherches filtrées
+    private final ReservationFilterIndex filterIndex = new ReservationFilterIndex();
 
-    private static final int MIN_ROOM_LABEL_LENGTH = 3; // Exemple : A1B ou A10B
+    // Lot en cours : les modifications sont accumulées et notifiées une seule fois au commit
+    private int batchDepth = 0;
+    private final List<Reservation> batchAdded = new ArrayList<>();
+    private final List<Reservation> batchRemoved = new ArrayList<>();
+    private final List<Reservation> batchProposed = new ArrayList<>();
+    private boolean batchDirty = false;
 
 
 
 
     // Vérifie si une réservation est déjà officiellement assignée à une chambre
     public boolean isAlreadyAssigned(Reservation reservation) {
-        return assignedClients.contains(reservation.getKey());
+        return assignedRoomMap.containsKey(reservation.getId());
     }
 
     // Marque une réservation comme assignée à une chambre donnée
     // et notifie les observateurs de la modification
     public void assignReservation(Reservation reservation, String roomLabel) {
-        String key = reservation.getKey();
-        assignedClients.add(key);
-        assignedRoomMap.put(key, roomLabel);
-        notifyObservers();
+        assignedRoomMap.put(reservation.getId(), roomLabel);
+        notifyObservers(List.of(), List.of(), List.of());
     }
 
     
 
     // Retourne le label de la chambre assignée à une réservation, sinon une chaîne vide
-    public String getAssignedRoomLabel(String key) {
-        return assignedRoomMap.getOrDefault(key, "");
+    public String getAssignedRoomLabel(long id) {
+        return assignedRoomMap.getOrDefault(id, "");
     }
 
     // Retourne la chambre proposée à une réservation (pas encore confirmée)
     public String getProposedRoom(Reservation reservation) {
-        return proposedRooms.getOrDefault(reservation.getKey(), "");
+        return proposedRooms.getOrDefault(reservation.getId(), "");
     }
 
 
     // Propose une chambre à une réservation, puis notifie les observateurs
     public void proposeRoom(Reservation reservation, String label) {
-        proposedRooms.put(reservation.getKey(), label);
-        notifyObservers();
+        linkProposal(reservation.getId(), label);
+        notifyObservers(List.of(), List.of(), List.of(reservation));
+    }
+
+    // Propose la chambre seulement si elle n'est pas déjà proposée à une autre réservation.
+    // Retourne false si elle l'est (la proposition existante est gardée). Quand plusieurs réservations
+    // partagent déjà la chambre, seule la plus ancienne proposition peut la reproposer.
+    public boolean tryProposeRoom(Reservation reservation, String label) {
+        long owner = getReservationIdForProposedRoom(label);
+        if (owner != Reservation.NO_ID && owner != reservation.getId()) {
+            return false;
+        }
+        proposeRoom(reservation, label);
+        return true;
     }
 
     // Vérifie si une réservation a déjà une chambre proposée
     public boolean hasProposal(Reservation reservation) {
-        return proposedRooms.containsKey(reservation.getKey());
+        return proposedRooms.containsKey(reservation.getId());
     }
 
     // Met à jour la chambre proposée (utilisé pour modifier manuellement)
     public void setProposal(Reservation reservation, String roomLabel) {
-        proposedRooms.put(reservation.getKey(), roomLabel);
+        linkProposal(reservation.getId(), roomLabel);
+    }
+
+    // Enregistre une proposition dans les deux sens, en retirant l'ancienne chambre proposée de l'index inverse
+    // Reproposer la même chambre garde le rang de la réservation parmi celles qui la partagent.
+    private void linkProposal(long id, String roomLabel) {
+        String normalized = normalizeLabel(roomLabel);
+        String previous = proposedRooms.put(id, roomLabel);
+        if (previous != null && !normalizeLabel(previous).equals(normalized)) {
+            unlinkRoom(previous, id);
+        }
+        reservationsByProposedRoom.computeIfAbsent(normalized, k -> new LinkedHashSet<>()).add(id);
+        setRoomIndexProposed(normalized, true);
+
+        Reservation reservation = reservationMap.get(id);
+        if (reservation != null) {
+            sortedIndex.put(reservation, roomLabel);
+            filterIndex.setProposed(id, true);
+        }
+    }
+
+    // Retire une proposition dans les deux sens
+    private void unlinkProposal(long id) {
+        String previous = proposedRooms.remove(id);
+        if (previous != null) {
+            unlinkRoom(previous, id);
+        }
+    }
+
+    private void unlinkRoom(String roomLabel, long id) {
+        String normalized = normalizeLabel(roomLabel);
+        Set<Long> ids = reservationsByProposedRoom.get(normalized);
+        if (ids == null) return;
+        ids.remove(id);
+        if (ids.isEmpty()) {
+            reservationsByProposedRoom.remove(normalized);
+            setRoomIndexProposed(normalized, false);
+        }
+    }
+
+    private void setRoomIndexProposed(String normalizedLabel, boolean proposed) {
+        if (indexedHotel == null) return;
+        int index = indexedHotel.indexOfRoom(normalizedLabel);
+        if (index >= 0) proposedRoomIndexes.set(index, proposed);
+    }
+
+    public void indexProposalsFor(Hotel hotel) {
+        if (hotel == indexedHotel) return;
+        indexedHotel = hotel;
+        proposedRoomIndexes.clear();
+        for (String normalizedLabel : reservationsByProposedRoom.keySet()) {
+            setRoomIndexProposed(normalizedLabel, true);
+        }
+    }
+
+    // Les labels saisis à la main peuvent être en minuscules : l'index est insensible à la casse
+    static String normalizeLabel(String roomLabel) {
+        return roomLabel.toUpperCase(Locale.ROOT);
     }
 
     // Ajoute une nouvelle réservation dans la map principale
     public void add(Reservation reservation) {
-        reservationMap.put(reservation.getKey(), reservation);
-        notifyObservers();
+        long id = reservation.getId();
+        Reservation previous = reservationMap.put(id, reservation);
+        if (previous != null) {
+            unlinkName(previous);
+        }
+        reservationsByName.computeIfAbsent(reservation.getKey(), k -> new ArrayList<>(1)).add(reservation);
+        if (reservation.hasSource()) {
+            idsBySource.put(reservation.getSource(), id);
+        }
+        sortedIndex.put(reservation, proposedRooms.getOrDefault(id, ""));
+        filterIndex.put(reservation, proposedRooms.containsKey(id));
+        notifyObservers(List.of(reservation), List.of(), List.of());
+    }
+
+    // Ajoute les réservations pas encore connues, une seule notification ; retourne celles réellement ajoutées
+    public List<Reservation> addAll(Collection<Reservation> reservations) {
+        List<Reservation> added = new ArrayList<>();
+        beginBatch();
+        try {
+            for (Reservation reservation : reservations) {
+                if (!contains(reservation) && !isIngestedElsewhere(reservation)) {
+                    add(reservation);
+                    added.add(reservation);
+                }
+            }
+        } finally {
+            commitBatch();
+        }
+        return added;
+    }
+
+    // Vrai si la ligne de cette réservation a déjà été ingérée sous un autre id
+    private boolean isIngestedElsewhere(Reservation reservation) {
+        if (!reservation.hasSource()) return false;
+        Long known = idsBySource.get(reservation.getSource());
+        return known != null && known != reservation.getId();
     }
 
     // Supprime une réservation de toutes les structures
     public void remove(Reservation reservation) {
-        String key = reservation.getKey();
-        reservationMap.remove(key);
-        proposedRooms.remove(key);
-        notifyObservers();
+        long id = reservation.getId();
+        Reservation previous = reservationMap.remove(id);
+        if (previous != null) {
+            unlinkName(previous);
+        }
+        sortedIndex.remove(id);
+        filterIndex.remove(id);
+        unlinkProposal(id);
+        notifyObservers(List.of(), List.of(reservation), List.of());
     }
 
+    private void unlinkName(Reservation reservation) {
+        List<Reservation> homonyms = reservationsByName.get(reservation.getKey());
+        if (homonyms == null) return;
+        homonyms.remove(reservation);
+        if (homonyms.isEmpty()) {
+            reservationsByName.remove(reservation.getKey());
+        }
+    }
+
+    // Recherche secondaire par nom : toutes les réservations actives de ce client (homonymes compris)
+    public List<Reservation> findByName(String lastName, String firstName) {
+        return new ArrayList<>(reservationsByName.getOrDefault(lastName + ":" + firstName, List.of()));
+    }
 
     // Retourne toutes les réservations actuellement en mémoire
     public List<Reservation> getAllReservations() {
-        return new ArrayList<>(reservationMap.values());
+        return reservationMap.values();
     }
 
     // Retourne la chambre proposée à une réservation si elle existe
-    public String getProposalIfExists(String key) {
-        return proposedRooms.getOrDefault(key, "");
+    public String getProposalIfExists(long id) {
+        return proposedRooms.getOrDefault(id, "");
     }
 
     // Supprime tout : propositions, assignations et réservations (ex: pour un reset)
     public void clear() {
-        assignedClients.clear();
         assignedRoomMap.clear();
+        idsBySource.clear();
         proposedRooms.clear();
+        reservationsByProposedRoom.clear();
+        proposedRoomIndexes.clear();
         reservationMap.clear();
-        notifyObservers();
+        reservationsByName.clear();
+        sortedIndex.clear();
+        filterIndex.clear();
+        notifyObservers(List.of(), List.of(), List.of());
     }
 
 
@@ -117,100 +278,137 @@ public class ReservationManager {
         observers.remove(observer);
     }
     
-    // Préviens tous les observateurs qu'une mise à jour a eu lieu
-    private void notifyObservers() {
+    // Ouvre un lot : les modifications suivantes ne notifient plus, jusqu'au commitBatch() correspondant.
+    // Les lots peuvent s'imbriquer, seul le commit le plus externe notifie.
+    public void beginBatch() {
+        batchDepth++;
+    }
+
+    // Ferme un lot et envoie un seul delta aux observateurs (rien si aucune modification)
+    public void commitBatch() {
+        if (batchDepth == 0) {
+            throw new IllegalStateException("commitBatch() appelé sans beginBatch()");
+        }
+        if (--batchDepth > 0) return;
+
+        boolean changed = batchDirty;
+        batchDirty = false;
+        ReservationChange change = new ReservationChange(new ArrayList<>(batchAdded),
+                new ArrayList<>(batchRemoved), new ArrayList<>(batchProposed));
+        batchAdded.clear();
+        batchRemoved.clear();
+        batchProposed.clear();
+        if (changed) {
+            fireChange(change);
+        }
+    }
+
+    public boolean isInBatch() {
+        return batchDepth > 0;
+    }
+
+    // Préviens tous les observateurs qu'une mise à jour a eu lieu (ou l'accumule si un lot est ouvert)
+    private void notifyObservers(List<Reservation> added, List<Reservation> removed, List<Reservation> proposed) {
+        if (batchDepth > 0) {
+            batchAdded.addAll(added);
+            batchRemoved.addAll(removed);
+            batchProposed.addAll(proposed);
+            // Même une assignation ou un reset (delta vide) doit rafraîchir les vues au commit
+            batchDirty = true;
+            return;
+        }
+        fireChange(new ReservationChange(added, removed, proposed));
+    }
+
+    private void fireChange(ReservationChange change) {
         for (ReservationObserver observer : observers) {
-            observer.update();
+            observer.update(change);
         }
     }
 
     // Retourne une copie de la map des propositions (utile pour affichage ou debug)
-    public Map<String, String> getProposedRoomMap() {
-        return new HashMap<>(proposedRooms);
+    public Map<Long, String> getProposedRoomMap() {
+        return copyOf(proposedRooms);
+    }
+
+    // Retourne une copie de la map des assignations (id de réservation -> label de chambre)
+    public Map<Long, String> getAssignedRoomMap() {
+        return copyOf(assignedRoomMap);
+    }
+
+    private static Map<Long, String> copyOf(LongObjectMap<String> map) {
+        Map<Long, String> copy = new HashMap<>();
+        map.forEach(copy::put);
+        return copy;
+    }
+
+    // Restaure une assignation sans notifier (chargement d'un snapshot, la réservation peut être partie)
+    public void restoreAssignment(long id, String roomLabel) {
+        Reservation.reserveId(id);
+        assignedRoomMap.put(id, roomLabel);
+    }
+
+    public Map<String, Long> getSourceMap() {
+        return new HashMap<>(idsBySource);
     }
 
-    // Vérifie si une réservation est déjà connue (clé dans la map)
+    public void restoreSource(String source, long id) {
+        Reservation.reserveId(id);
+        idsBySource.put(source, id);
+    }
+
+    public int retainSources(String sourcePrefix) {
+        int before = idsBySource.size();
+        idsBySource.keySet().removeIf(source -> !source.startsWith(sourcePrefix));
+        return before - idsBySource.size();
+    }
+
+    // Vérifie si une réservation est déjà connue (id dans la map)
     public boolean contains(Reservation reservation) {
-        return reservationMap.containsKey(reservation.getKey());
+        return reservationMap.containsKey(reservation.getId());
     }
 
 
-    // Retourne une liste triée selon le mode demandé (par nom ou par chambre)
+    // Retourne une liste triée selon le mode demandé (par nom ou par chambre).
+    // Les vues triées sont maintenues à chaque modification : ici, simple parcours en O(n).
     public List<Reservation> getSortedReservations(String sortMode) {
-        List<Reservation> base = getAllReservations();
-        List<Reservation> sorted = new ArrayList<>(base);
-    
         if ("Trier par : Nom".equals(sortMode)) {
-            // tri par nom
-            for (int i = 0; i < sorted.size() - 1; i++) {
-                for (int j = i + 1; j < sorted.size(); j++) {
-                    if (sorted.get(i).getLastName().compareToIgnoreCase(sorted.get(j).getLastName()) > 0) {
-                        Reservation tmp = sorted.get(i);
-                        sorted.set(i, sorted.get(j));
-                        sorted.set(j, tmp);
-                    }
-                }
-            }
+            return sortedIndex.sortedByName();
         } else if ("Trier par : Chambre".equals(sortMode)) {
-            for (int i = 0; i < sorted.size() - 1; i++) {
-                for (int j = i + 1; j < sorted.size(); j++) {
-                    String room1 = getProposedRoom(sorted.get(i));
-                    String room2 = getProposedRoom(sorted.get(j));
-        
-                    // Trier d'abord par étage (lettre)
-                    char floor1 = room1.length() > 0 ? room1.charAt(0) : '?';
-                    char floor2 = room2.length() > 0 ? room2.charAt(0) : '?';
-                    int cmp = Character.compare(floor1, floor2);
-        
-                    // Si même étage, trier par numéro
-                    if (cmp == 0) {
-                        int num1 = extractRoomNumber(room1);
-                        int num2 = extractRoomNumber(room2);
-                        cmp = Integer.compare(num1, num2);
-                    }
-        
-                    if (cmp > 0) {
-                        Reservation tmp = sorted.get(i);
-                        sorted.set(i, sorted.get(j));
-                        sorted.set(j, tmp);
-                    }
-                }
-            }
+            return sortedIndex.sortedByRoom();
         }
-        
-        return sorted;
+        return getAllReservations();
     }
-    
 
 
-    // Cette méthode extrait le numéro de chambre depuis un label du type "A10B"
-    // Elle suppose que la lettre d’étage est en première position,
-    // la lettre de type en dernière position, et le numéro au milieu.
-    // Exemple : A10B → 10
-    private int extractRoomNumber(String label) {
-        // Si le label est trop court pour contenir une lettre + numéro + type, je renvoie -1
-        if (label.length() < MIN_ROOM_LABEL_LENGTH) return -1;
-
-        try {
-            // Je prends la sous-chaîne entre la 2e lettre (exclue) et l’avant-dernière (exclue)
-            String numPart = label.substring(1, label.length() - 1);
-            return Integer.parseInt(numPart);
-        } catch (Exception e) {
-            // En cas d'erreur (ex: non numérique), je renvoie -1 pour signaler l’échec
-            return -1;
-        }
+    // Réservations en attente qui vérifient tous les critères du filtre.
+    // Réponse par intersection de bitmaps, sans parcourir reservationMap ; ordre non garanti.
+    public List<Reservation> findReservations(ReservationFilter filter) {
+        return filterIndex.find(filter);
     }
 
+    // Nombre de réservations en attente qui vérifient le filtre (sans construire la liste)
+    public int countReservations(ReservationFilter filter) {
+        return filterIndex.count(filter);
+    }
 
-    
-    //verifie si la room est déjà assigner
+    //verifie si la room est déjà proposée (recherche directe dans l'index inverse)
     public boolean isRoomAlreadyProposed(String roomLabel) {
-        for (String proposedLabel : proposedRooms.values()) {
-            if (roomLabel.equalsIgnoreCase(proposedLabel)) {
-                return true;
-            }
+        return reservationsByProposedRoom.containsKey(normalizeLabel(roomLabel));
+    }
+
+    public boolean isRoomAlreadyProposed(Room room) {
+        if (indexedHotel != null && indexedHotel.isOwnRoom(room)) {
+            return proposedRoomIndexes.get(room.getSlot());
         }
-        return false;
+        return isRoomAlreadyProposed(room.getLabel());
+    }
+
+    // Retourne l'id de la réservation propriétaire de la chambre (sa plus ancienne proposition encore active),
+    // sinon Reservation.NO_ID. Le résultat ne dépend pas de l'ordre de hachage des ids.
+    public long getReservationIdForProposedRoom(String roomLabel) {
+        Set<Long> ids = reservationsByProposedRoom.get(normalizeLabel(roomLabel));
+        return ids == null ? Reservation.NO_ID : ids.iterator().next();
     }
     
     
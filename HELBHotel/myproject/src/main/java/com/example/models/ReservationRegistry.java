@@ -0,0 +1,155 @@
+package com.example.models;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import com.example.observer.ReservationObserver;
+
+/**
+ * Contrat commun des gestionnaires de réservations : réservations en attente, chambres proposées,
+ * chambres assignées, recherches et notifications groupées.
+ *
+ * - ReservationManager : implémentation pour le thread qui possède les modèles (interface JavaFX, tests).
+ * - ConcurrentReservationManager : implémentation pour plusieurs threads d'ingestion.
+ *
+ * Les stratégies, le journal et le snapshot ne dépendent que de ce contrat : chaque implémentation
+ * garde ses propres structures, sans hériter de celles de l'autre.
+ * Les labels de chambre sont comparés sans tenir compte de la casse.
+ */
+public interface ReservationRegistry {
+
+    // ============================
+    // Réservations
+    // ============================
+
+    void add(Reservation reservation);
+
+    // Ajoute les réservations pas encore connues, une seule notification ; retourne celles réellement ajoutées.
+    // Une réservation dont la source a déjà été ingérée (ligne relue après un reset du tailer) est ignorée,
+    // même si la première réservation de cette ligne a depuis été confirmée ou supprimée.
+    List<Reservation> addAll(Collection<Reservation> reservations);
+
+    void remove(Reservation reservation);
+
+    // Supprime plusieurs réservations, une seule notification
+    default void removeAll(Collection<Reservation> reservations) {
+        beginBatch();
+        try {
+            for (Reservation reservation : reservations) {
+                remove(reservation);
+            }
+        } finally {
+            commitBatch();
+        }
+    }
+
+    boolean contains(Reservation reservation);
+
+    List<Reservation> getAllReservations();
+
+    // Recherche secondaire par nom : toutes les réservations actives de ce client (homonymes compris)
+    List<Reservation> findByName(String lastName, String firstName);
+
+    // Liste triée selon le mode demandé ("Trier par : Nom", "Trier par : Chambre")
+    List<Reservation> getSortedReservations(String sortMode);
+
+    List<Reservation> findReservations(ReservationFilter filter);
+
+    int countReservations(ReservationFilter filter);
+
+    // Copie des sources déjà ingérées (source de la ligne -> id de la réservation), confirmées comprises
+    Map<String, Long> getSourceMap();
+
+    // Restaure une source ingérée sans notifier (chargement d'un snapshot, la réservation peut être partie) ;
+    // les prochains ids sont attribués après id
+    void restoreSource(String source, long id);
+
+    // Oublie les sources qui ne commencent pas par sourcePrefix (lignes d'un fichier remplacé, qui ne seront
+    // plus jamais relues) ; retourne le nombre de sources oubliées
+    int retainSources(String sourcePrefix);
+
+    // Supprime tout : propositions, assignations, sources et réservations (ex: pour un reset)
+    void clear();
+
+    // ============================
+    // Propositions
+    // ============================
+
+    void proposeRoom(Reservation reservation, String label);
+
+    // Propose la chambre seulement si elle n'est pas déjà proposée à une autre réservation
+    boolean tryProposeRoom(Reservation reservation, String label);
+
+    // Propose plusieurs chambres d'un coup (réservation -> label), une seule notification
+    default void proposeAll(Map<Reservation, String> proposals) {
+        beginBatch();
+        try {
+            for (Map.Entry<Reservation, String> entry : proposals.entrySet()) {
+                proposeRoom(entry.getKey(), entry.getValue());
+            }
+        } finally {
+            commitBatch();
+        }
+    }
+
+    // Met à jour la chambre proposée sans notifier (modification manuelle)
+    void setProposal(Reservation reservation, String roomLabel);
+
+    boolean hasProposal(Reservation reservation);
+
+    // Chambre proposée à une réservation, sinon une chaîne vide
+    String getProposedRoom(Reservation reservation);
+
+    String getProposalIfExists(long id);
+
+    boolean isRoomAlreadyProposed(String roomLabel);
+
+    // Même vérification à partir de la chambre : pour les chambres de l'hôtel indexé (indexProposalsFor),
+    // simple lecture d'un bitmap par position, sans construire le label de la chambre.
+    boolean isRoomAlreadyProposed(Room room);
+
+    // Tient aussi les chambres proposées dans un bitmap par position des chambres de cet hôtel.
+    // Sans effet si cet hôtel est déjà indexé ; un autre hôtel remplace le précédent.
+    void indexProposalsFor(Hotel hotel);
+
+    // Id de la réservation propriétaire de la chambre proposée, sinon Reservation.NO_ID
+    long getReservationIdForProposedRoom(String roomLabel);
+
+    // Copie des propositions (id de réservation -> label de chambre)
+    Map<Long, String> getProposedRoomMap();
+
+    // ============================
+    // Assignations
+    // ============================
+
+    void assignReservation(Reservation reservation, String roomLabel);
+
+    // Restaure une assignation sans notifier (chargement d'un snapshot, la réservation peut être partie) ;
+    // les prochains ids sont attribués après id
+    void restoreAssignment(long id, String roomLabel);
+
+    boolean isAlreadyAssigned(Reservation reservation);
+
+    // Chambre assignée à une réservation, sinon une chaîne vide
+    String getAssignedRoomLabel(long id);
+
+    // Copie des assignations (id de réservation -> label de chambre)
+    Map<Long, String> getAssignedRoomMap();
+
+    // ============================
+    // Observateurs et lots
+    // ============================
+
+    void addObserver(ReservationObserver observer);
+
+    void removeObserver(ReservationObserver observer);
+
+    // Ouvre un lot : les modifications suivantes ne notifient plus, jusqu'au commitBatch() correspondant.
+    // Les lots peuvent s'imbriquer, seul le commit le plus externe notifie.
+    void beginBatch();
+
+    void commitBatch();
+
+    boolean isInBatch();
+}
@@ -1,114 +1,137 @@
 package com.example.models;
 
-import com.example.observer.RoomObserver;
-
-import java.util.ArrayList;
+import java.time.LocalDate;
 import java.util.List;
 
 /**
  * Représente une chambre d'hôtel avec un type, un label, et une position dans la grille.
+ * Vue légère (stockage, position) : l'état de la chambre est rangé dans le RoomStore de l'hôtel.
  */
 public class Room {
 
-    // === Types de chambre reconnus ===
-    private static final String TYPE_LUXURY = "L";
-    private static final String TYPE_BUSINESS = "B";
-    private static final String TYPE_ECONOMY = "E";
-
     // === Textes pour info-bulles (tooltips) ===
     private static final String TOOLTIP_OCCUPIED = "Occupée par : ";
     private static final String TOOLTIP_FREE = "Libre";
+    private static final String TOOLTIP_UPCOMING = "Séjours à venir : ";
 
-    private final List<RoomObserver> observers = new ArrayList<>();
-
-    private final String label;
-    private final String type;
-    private final int floor;
-    private final int column;
-    private final int floorIndex;
-
-    private Reservation assignedReservation = EmptyReservation.getInstance();
+    // La chambre n'est qu'une vue sur sa position dans le stockage compact de l'hôtel
+    private final RoomStore store;
+    private final int slot;
 
-    public Room(String label, String type, int floor, int column, int floorIndex) {
-        this.label = label;
-        this.type = type;
-        this.floor = floor;
-        this.column = column;
-        this.floorIndex = floorIndex;
+    Room(RoomStore store, int slot) {
+        this.store = store;
+        this.slot = slot;
     }
 
+    /** Label recalculé à chaque appel (ex: A3L) */
     public String getLabel() {
-        return label;
+        return store.labelOf(slot);
     }
 
+    /** Code d'une lettre du type ("L", "B", "E" ou "Z") */
     public String getType() {
-        return type;
+        return getRoomType().getCode();
+    }
+
+    public RoomType getRoomType() {
+        return store.typeOf(slot);
     }
 
     public int getFloor() {
-        return floor;
+        return store.rowOf(slot);
     }
 
     public int getColumn() {
-        return column;
+        return store.columnOf(slot);
     }
 
     public int getFloorIndex() {
-        return this.floorIndex;
+        return store.floorIndexOf(slot);
     }
 
     /** Indique si la chambre est occupée (réservation présente) */
     public boolean isOccupied() {
-        return !(assignedReservation instanceof EmptyReservation);
+        return store.isOccupied(slot);
     }
 
-    /** Assigne une réservation à cette chambre et notifie les observateurs */
+    /** Assigne une réservation à cette chambre et publie le changement sur le bus de l'hôtel */
     public void assignTo(Reservation reservation) {
-        this.assignedReservation = reservation;
-        for (RoomObserver obs : new ArrayList<>(observers)) {
-            obs.onRoomAssigned(this.label);
-        }
+        store.assign(slot, reservation);
     }
 
-    /** Libère la chambre et notifie les observateurs */
+    /** Libère la chambre (le séjour du client présent est retiré des réservations) et publie le changement sur le bus de l'hôtel */
     public void release() {
-        this.assignedReservation = EmptyReservation.getInstance();
-        for (RoomObserver obs : new ArrayList<>(observers)) {
-            obs.onRoomReleased(this.label);
-        }
+        store.release(slot);
+    }
+
+    // Stockage et position de la chambre, pour les index de son hôtel
+    RoomStore getStore() {
+        return store;
+    }
+
+    int getSlot() {
+        return slot;
     }
 
     public Reservation getAssignedReservation() {
-        return assignedReservation;
+        return store.occupantOf(slot);
+    }
+
+    // ============================
+    // Séjours datés
+    // ============================
+
+    /**
+     * Indique si la chambre peut accueillir le séjour [checkIn, checkOut) : aucun séjour réservé ne le chevauche,
+     * et, pour une arrivée aujourd'hui ou avant, la chambre n'est pas encore occupée (un client reste
+     * jusqu'à la libération, même après sa date de départ). O(log n) sur le nombre de séjours de la chambre.
+     */
+    public boolean isFreeFor(LocalDate checkIn, LocalDate checkOut) {
+        if (isOccupied() && !checkIn.isAfter(store.today())) return false;
+        return store.isFree(slot, checkIn, checkOut);
+    }
+
+    /** Réserve le séjour de la réservation dans cette chambre ; false si la période n'est pas libre. */
+    public boolean book(Reservation reservation) {
+        if (!isFreeFor(reservation.getCheckIn(), reservation.getCheckOut())) return false;
+        return store.book(slot, reservation);
+    }
+
+    /** Recharge un séjour déjà accepté (snapshot, journal), sans vérifier l'occupation actuelle. */
+    public boolean restoreBooking(Reservation reservation) {
+        return store.book(slot, reservation);
+    }
+
+    /** Séjours réservés dans cette chambre (client présent compris), dans l'ordre des arrivées */
+    public List<RoomAvailability.Booking> getBookings() {
+        return store.bookingsOf(slot);
     }
 
     /** Retourne vrai si le type de chambre est "L" (Luxury) */
     public boolean isLuxury() {
-        return TYPE_LUXURY.equalsIgnoreCase(type);
+        return getRoomType() == RoomType.LUXURY;
     }
 
     /** Retourne vrai si le type est "E" (Economy) */
     public boolean isEconomy() {
-        return TYPE_ECONOMY.equalsIgnoreCase(type);
+        return getRoomType() == RoomType.ECONOMY;
     }
 
     /** Retourne vrai si le type est "B" (Business) */
     public boolean isBusiness() {
-        return TYPE_BUSINESS.equalsIgnoreCase(type);
+        return getRoomType() == RoomType.BUSINESS;
     }
 
     /** Donne un texte résumé sur la chambre, utilisé comme tooltip */
     public String getTooltipText() {
-        return isOccupied()
-                ? TOOLTIP_OCCUPIED + assignedReservation.getLastName()
+        Reservation occupant = getAssignedReservation();
+        String text = isOccupied()
+                ? TOOLTIP_OCCUPIED + occupant.getLastName()
                 : TOOLTIP_FREE;
-    }
-
-    public void addObserver(RoomObserver observer) {
-        observers.add(observer);
-    }
-
-    public void removeObserver(RoomObserver observer) {
-        observers.remove(observer);
+        int upcoming = 0;
+        for (RoomAvailability.Booking booking : getBookings()) {
+            if (booking.getReservationId() != occupant.getId()) upcoming++;
+        }
+        return upcoming > 0 ? text + "\n" + TOOLTIP_UPCOMING + upcoming : text;
     }
 }
@@ -0,0 +1,76 @@
+package com.example.models;
+
+import java.util.Arrays;
+
+/**
+ * Voisins directs de chaque chambre (même étage, même ligne, colonne -1 et +1), calculés une fois
+ * depuis les positions du stockage des chambres, et nombre de voisins occupés par des adultes sans enfants.
+ *
+ * Le compteur est tenu à jour par Room.assignTo / release : "la chambre a-t-elle un voisin adulte seul"
+ * se lit en O(1), au lieu de chercher les voisins parmi toutes les chambres de l'hôtel.
+ * Positions = index dans la liste des chambres de l'hôtel ; NO_NEIGHBOUR si la cellule voisine est vide.
+ * Non synchronisé : mis à jour depuis le thread qui possède les modèles.
+ */
+final class RoomAdjacency {
+
+    static final int NO_NEIGHBOUR = -1;
+
+    private final int[] left;
+    private final int[] right;
+    private final int[] adultOnlyNeighbours;
+
+    // Les chambres d'un étage sont rangées dans l'ordre de lecture de sa matrice : la cellule à gauche d'une
+    // chambre, si c'en est une, est la position précédente, et la cellule à droite la position suivante.
+    // Il suffit de comparer étage, ligne et colonne des positions voisines, sans grille ni passage par les Room.
+    RoomAdjacency(RoomStore store) {
+        int size = store.size();
+        left = new int[size];
+        right = new int[size];
+        adultOnlyNeighbours = new int[size];
+
+        Arrays.fill(left, NO_NEIGHBOUR);
+        Arrays.fill(right, NO_NEIGHBOUR);
+        for (int slot = 1; slot < size; slot++) {
+            int previous = slot - 1;
+            if (store.floorIndexOf(previous) == store.floorIndexOf(slot) && store.rowOf(previous) == store.rowOf(slot)
+                    && store.columnOf(previous) == store.columnOf(slot) - 1) {
+                left[slot] = previous;
+                right[previous] = slot;
+            }
+        }
+        for (int slot = 0; slot < size; slot++) {
+            if (isAdultOnly(store.occupantOf(slot))) {
+                addToNeighbours(slot, 1);
+            }
+        }
+    }
+
+    int leftOf(int slot) {
+        return left[slot];
+    }
+
+    int rightOf(int slot) {
+        return right[slot];
+    }
+
+    boolean hasAdultOnlyNeighbour(int slot) {
+        return adultOnlyNeighbours[slot] > 0;
+    }
+
+    /** Appelé par la chambre quand son occupant change (assignation, réassignation ou libération) */
+    void occupantChanged(int slot, Reservation previous, Reservation current) {
+        int delta = (isAdultOnly(current) ? 1 : 0) - (isAdultOnly(previous) ? 1 : 0);
+        if (delta != 0) {
+            addToNeighbours(slot, delta);
+        }
+    }
+
+    private void addToNeighbours(int slot, int delta) {
+        if (left[slot] != NO_NEIGHBOUR) adultOnlyNeighbours[left[slot]] += delta;
+        if (right[slot] != NO_NEIGHBOUR) adultOnlyNeighbours[right[slot]] += delta;
+    }
+
+    private static boolean isAdultOnly(Reservation occupant) {
+        return !(occupant instanceof EmptyReservation) && !occupant.hasChildren();
+    }
+}
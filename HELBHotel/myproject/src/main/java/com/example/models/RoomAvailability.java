@@ -0,0 +1,88 @@
+package com.example.models;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Séjours réservés d'une chambre, rangés par jour d'arrivée (ensemble trié d'intervalles disjoints).
+ * Un séjour est l'intervalle semi-ouvert [arrivée, départ) : un départ et une arrivée le même jour
+ * ne se chevauchent pas.
+ *
+ * Comme les séjours d'une même chambre ne se chevauchent jamais, le seul séjour qui peut chevaucher
+ * [from, to) est celui qui arrive le plus tard avant to (lowerEntry) : "libre pour [from, to)" se
+ * vérifie en O(log n), sans parcourir les réservations de la chambre.
+ * Non synchronisée : utilisée depuis le thread qui possède les modèles.
+ */
+public final class RoomAvailability {
+
+    /** Un séjour réservé dans la chambre, avec sa réservation : le check-in l'installe dans la chambre le jour venu. */
+    public static final class Booking {
+        private final Reservation reservation;
+
+        Booking(Reservation reservation) {
+            this.reservation = reservation;
+        }
+
+        public Reservation getReservation() {
+            return reservation;
+        }
+
+        public long getReservationId() {
+            return reservation.getId();
+        }
+
+        public LocalDate getCheckIn() {
+            return reservation.getCheckIn();
+        }
+
+        public LocalDate getCheckOut() {
+            return reservation.getCheckOut();
+        }
+    }
+
+    private final TreeMap<LocalDate, Booking> bookingsByCheckIn = new TreeMap<>();
+
+    /** Vrai si aucun séjour réservé ne chevauche [from, to). */
+    public boolean isFree(LocalDate from, LocalDate to) {
+        Map.Entry<LocalDate, Booking> candidate = bookingsByCheckIn.lowerEntry(to);
+        return candidate == null || !candidate.getValue().getCheckOut().isAfter(from);
+    }
+
+    /** Réserve le séjour [arrivée, départ) de la réservation ; refusé (false) si la période chevauche un autre séjour. */
+    public boolean book(Reservation reservation) {
+        if (!isFree(reservation.getCheckIn(), reservation.getCheckOut())) return false;
+
+        bookingsByCheckIn.put(reservation.getCheckIn(), new Booking(reservation));
+        return true;
+    }
+
+    /** Annule le séjour de la réservation qui arrive le jour checkIn ; false s'il n'existe pas. */
+    public boolean cancel(long reservationId, LocalDate checkIn) {
+        Booking booking = bookingsByCheckIn.get(checkIn);
+        if (booking == null || booking.getReservationId() != reservationId) return false;
+
+        bookingsByCheckIn.remove(checkIn);
+        return true;
+    }
+
+    /** Séjour qui arrive le jour checkIn, null s'il n'y en a pas (annulé entre-temps). */
+    public Booking bookingArrivingOn(LocalDate checkIn) {
+        return bookingsByCheckIn.get(checkIn);
+    }
+
+    /** Séjours réservés, dans l'ordre des arrivées. */
+    public List<Booking> getBookings() {
+        return new ArrayList<>(bookingsByCheckIn.values());
+    }
+
+    public int size() {
+        return bookingsByCheckIn.size();
+    }
+
+    public void clear() {
+        bookingsByCheckIn.clear();
+    }
+}
@@ -0,0 +1,280 @@
+package com.example.models;
+
+import com.example.observer.RoomEvent;
+import com.example.observer.RoomEventBus;
+import com.example.utils.FloorLabel;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+/**
+ * Stockage compact des chambres d'un hôtel, en tableaux parallèles indexés par position (slot) :
+ * type, étage, ligne, colonne et occupant de chaque chambre. Les chambres d'un étage occupent des
+ * positions consécutives, dans l'ordre de lecture de la matrice.
+ *
+ * Les labels ne sont pas stockés : le numéro d'une chambre est sa position dans son étage, et le label
+ * (lettres d'étage + numéro + code du type) est recalculé à la demande ; inversement un label se
+ * convertit en position sans table de hachage. Les séjours réservés d'une chambre ne sont alloués
+ * qu'à la première utilisation ; les changements d'occupant sont publiés sur le bus de l'hôtel,
+ * sans aucune liste d'observateurs par chambre.
+ * Chaque Room n'est qu'une vue (store, position) : deux objets par chambre de moins qu'avant,
+ * et plus aucune chaîne ni liste par chambre tant qu'elle n'est pas utilisée.
+ * Les positions des séjours réservés sont aussi rangées par jour d'arrivée : le check-in du jour
+ * ne parcourt que les arrivées échues, pas toutes les chambres.
+ * Non synchronisé : modifié depuis le thread qui possède les modèles.
+ */
+final class RoomStore {
+
+    private static final RoomType[] TYPES = RoomType.values();
+
+    private final int[] firstSlotOfFloor; // numberOfFloors + 1 bornes
+    private final byte[] types;           // RoomType.ordinal()
+    private final short[] floorIndexes;   // au plus FloorLabel.MAX_FLOORS étages
+    private final int[] rows;
+    private final int[] columns;
+    private final Reservation[] occupants; // null : chambre libre
+    private final RoomAvailability[] availabilities; // null tant qu'aucun séjour n'a été réservé
+    private final Room[] views;
+    // Positions des chambres par jour d'arrivée de leurs séjours réservés, en attente du check-in
+    private final TreeMap<LocalDate, List<Integer>> arrivals = new TreeMap<>();
+    // Horloge de l'hôtel : donne "aujourd'hui" pour les arrivées et les chambres occupées
+    private Clock clock = Clock.systemDefaultZone();
+
+    private FreeRoomIndex freeRooms;
+    private RoomAdjacency adjacency;
+    private OccupancyPublisher occupancy;
+    private RoomEventBus events;
+
+    RoomStore(String[][][] roomMatrices, int numberOfFloors, boolean parallel) {
+        // Étape 1 : nombre de chambres de chaque étage, puis position de départ de chaque étage
+        IntStream floors = parallel ? IntStream.range(0, numberOfFloors).parallel() : IntStream.range(0, numberOfFloors);
+        int[] roomsPerFloor = floors.map(floor -> countRooms(roomMatrices[floor])).toArray();
+        firstSlotOfFloor = new int[numberOfFloors + 1];
+        for (int floor = 0; floor < numberOfFloors; floor++) {
+            firstSlotOfFloor[floor + 1] = firstSlotOfFloor[floor] + roomsPerFloor[floor];
+        }
+
+        int size = firstSlotOfFloor[numberOfFloors];
+        types = new byte[size];
+        floorIndexes = new short[size];
+        rows = new int[size];
+        columns = new int[size];
+        occupants = new Reservation[size];
+        availabilities = new RoomAvailability[size];
+        views = new Room[size];
+
+        // Étape 2 : chaque étage remplit sa propre tranche des tableaux, indépendamment des autres
+        floors = parallel ? IntStream.range(0, numberOfFloors).parallel() : IntStream.range(0, numberOfFloors);
+        floors.forEach(floor -> fillFloor(floor, roomMatrices[floor]));
+    }
+
+    private static int countRooms(String[][] matrix) {
+        int count = 0;
+        for (String[] row : matrix) {
+            for (String cell : row) {
+                if (RoomType.fromCode(cell) != RoomType.UNUSED) count++;
+            }
+        }
+        return count;
+    }
+
+    // Chaque code de cellule est converti une seule fois en RoomType
+    private void fillFloor(int floor, String[][] matrix) {
+        int slot = firstSlotOfFloor[floor];
+        for (int row = 0; row < matrix.length; row++) {
+            for (int col = 0; col < matrix[row].length; col++) {
+                RoomType type = RoomType.fromCode(matrix[row][col]);
+                if (type == RoomType.UNUSED) continue;
+
+                types[slot] = (byte) type.ordinal();
+                floorIndexes[slot] = (short) floor;
+                rows[slot] = row;
+                columns[slot] = col;
+                views[slot] = new Room(this, slot);
+                slot++;
+            }
+        }
+    }
+
+    // Appelé une fois par l'hôtel, une fois ses index construits
+    void attach(FreeRoomIndex freeRooms, RoomAdjacency adjacency, OccupancyPublisher occupancy, RoomEventBus events) {
+        this.freeRooms = freeRooms;
+        this.adjacency = adjacency;
+        this.occupancy = occupancy;
+        this.events = events;
+    }
+
+    int size() {
+        return views.length;
+    }
+
+    void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    LocalDate today() {
+        return LocalDate.now(clock);
+    }
+
+    /** Toutes les chambres, dans l'ordre des positions (lecture seule) */
+    List<Room> rooms() {
+        return Collections.unmodifiableList(Arrays.asList(views));
+    }
+
+    /** Chambres d'un étage : sa tranche de positions, dans l'ordre de lecture de sa matrice (lecture seule) */
+    List<Room> roomsOnFloor(int floor) {
+        return rooms().subList(firstSlotOfFloor[floor], firstSlotOfFloor[floor + 1]);
+    }
+
+    Room roomAt(int slot) {
+        return views[slot];
+    }
+
+    // ============================
+    // Attributs fixes
+    // ============================
+
+    RoomType typeOf(int slot) {
+        return TYPES[types[slot]];
+    }
+
+    int floorIndexOf(int slot) {
+        return floorIndexes[slot];
+    }
+
+    int rowOf(int slot) {
+        return rows[slot];
+    }
+
+    int columnOf(int slot) {
+        return columns[slot];
+    }
+
+    /** Label recalculé : lettres d'étage + numéro dans l'étage (à partir de 1) + code du type */
+    String labelOf(int slot) {
+        int floor = floorIndexes[slot];
+        return FloorLabel.of(floor) + (slot - firstSlotOfFloor[floor] + 1) + typeOf(slot).getCode();
+    }
+
+    /** Position de la chambre qui porte ce label, -1 si aucune (label mal formé, étage ou numéro inconnu) */
+    int slotOf(String label) {
+        int letters = FloorLabel.prefixLength(label);
+        int floor = FloorLabel.indexOf(label.substring(0, letters));
+        if (floor < 0 || floor >= firstSlotOfFloor.length - 1) return -1;
+
+        int end = label.length() - 1; // dernière position : la lettre du type
+        if (end <= letters || label.charAt(letters) == '0') return -1;
+        int number = 0;
+        for (int i = letters; i < end; i++) {
+            char c = label.charAt(i);
+            if (c < '0' || c > '9' || number > (Integer.MAX_VALUE - 9) / 10) return -1;
+            number = number * 10 + (c - '0');
+        }
+
+        int slot = firstSlotOfFloor[floor] + number - 1;
+        if (number > firstSlotOfFloor[floor + 1] - firstSlotOfFloor[floor]) return -1;
+        return RoomType.fromCode(label.charAt(end)) == typeOf(slot) ? slot : -1;
+    }
+
+    // ============================
+    // Occupation
+    // ============================
+
+    Reservation occupantOf(int slot) {
+        Reservation occupant = occupants[slot];
+        return occupant != null ? occupant : EmptyReservation.getInstance();
+    }
+
+    boolean isOccupied(int slot) {
+        return occupants[slot] != null && !(occupants[slot] instanceof EmptyReservation);
+    }
+
+    void assign(int slot, Reservation reservation) {
+        Reservation previous = occupantOf(slot);
+        occupants[slot] = reservation instanceof EmptyReservation ? null : reservation;
+        occupantChanged(slot, previous);
+    }
+
+    /** Libère la chambre et retire le séjour du client présent */
+    void release(int slot) {
+        Reservation previous = occupantOf(slot);
+        if (availabilities[slot] != null) {
+            availabilities[slot].cancel(previous.getId(), previous.getCheckIn());
+        }
+        occupants[slot] = null;
+        occupantChanged(slot, previous);
+    }
+
+    private void occupantChanged(int slot, Reservation previous) {
+        if (freeRooms == null) return; // pendant la construction de l'hôtel
+        freeRooms.setFree(slot, !isOccupied(slot));
+        adjacency.occupantChanged(slot, previous, occupantOf(slot));
+        occupancy.markDirty(slot);
+        events.publish(new RoomEvent(views[slot], slot, previous, occupantOf(slot)));
+    }
+
+    // ============================
+    // Séjours datés
+    // ============================
+
+    boolean isFree(int slot, LocalDate checkIn, LocalDate checkOut) {
+        RoomAvailability availability = availabilities[slot];
+        return availability == null || availability.isFree(checkIn, checkOut);
+    }
+
+    boolean book(int slot, Reservation reservation) {
+        if (availabilities[slot] == null) {
+            availabilities[slot] = new RoomAvailability();
+        }
+        if (!availabilities[slot].book(reservation)) return false;
+
+        arrivals.computeIfAbsent(reservation.getCheckIn(), day -> new ArrayList<>()).add(slot);
+        return true;
+    }
+
+    /**
+     * Check-in des séjours arrivés au plus tard le jour today : chaque chambre libre reçoit le client
+     * de son séjour commencé. Une arrivée dont la chambre est encore occupée par un autre client attend
+     * sa libération ; une arrivée annulée ou déjà installée est oubliée, et le séjour passé d'un client
+     * jamais arrivé est annulé.
+     * Retourne les positions des chambres occupées par ce check-in.
+     */
+    List<Integer> checkInUpTo(LocalDate today) {
+        List<Integer> checkedIn = new ArrayList<>();
+        Iterator<Map.Entry<LocalDate, List<Integer>>> days = arrivals.headMap(today, true).entrySet().iterator();
+        while (days.hasNext()) {
+            Map.Entry<LocalDate, List<Integer>> day = days.next();
+            day.getValue().removeIf(slot -> checkIn(slot, day.getKey(), today, checkedIn));
+            if (day.getValue().isEmpty()) days.remove();
+        }
+        return checkedIn;
+    }
+
+    // Vrai si l'arrivée est réglée (installée ou oubliée), faux si elle attend encore sa chambre
+    private boolean checkIn(int slot, LocalDate checkIn, LocalDate today, List<Integer> checkedIn) {
+        RoomAvailability.Booking booking = availabilities[slot].bookingArrivingOn(checkIn);
+        if (booking == null || occupantOf(slot).getId() == booking.getReservationId()) return true;
+        if (!booking.getCheckOut().isAfter(today)) {
+            availabilities[slot].cancel(booking.getReservationId(), checkIn);
+            return true;
+        }
+        if (isOccupied(slot)) return false;
+
+        assign(slot, booking.getReservation());
+        checkedIn.add(slot);
+        return true;
+    }
+
+    List<RoomAvailability.Booking> bookingsOf(int slot) {
+        RoomAvailability availability = availabilities[slot];
+        return availability != null ? availability.getBookings() : new ArrayList<>();
+    }
+}
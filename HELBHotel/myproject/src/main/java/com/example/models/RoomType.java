@@ -0,0 +1,48 @@
+package com.example.models;
+
+/**
+ * Types de chambre, avec le code d'une lettre utilisé dans hotel.hconf et dans les labels (ex: A3L).
+ * Le code est converti une fois en RoomType (au parsing et à la création des chambres) : ensuite les
+ * comparaisons sont des == sur l'enum, et les tables par type (couleurs, poids de loterie, bitmaps)
+ * sont des EnumMap ou des tableaux indexés par ordinal().
+ */
+public enum RoomType {
+    LUXURY("L"),
+    BUSINESS("B"),
+    ECONOMY("E"),
+    UNUSED("Z"); // cellule vide, aucune chambre
+
+    // Table code -> type, précalculée pour les codes ASCII
+    private static final RoomType[] BY_CODE = new RoomType[128];
+
+    static {
+        for (RoomType type : values()) {
+            BY_CODE[type.code.charAt(0)] = type;
+        }
+    }
+
+    private final String code;
+
+    RoomType(String code) {
+        this.code = code;
+    }
+
+    /** Code d'une lettre (chaîne partagée : toutes les chambres Luxury renvoient la même instance "L") */
+    public String getCode() {
+        return code;
+    }
+
+    /** Type d'un code d'une lettre ; null si le caractère ne correspond à aucun type */
+    public static RoomType fromCode(char code) {
+        return code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+
+    /** Type d'un code ("L", "B", "E" ou "Z") ; IllegalArgumentException pour un code inconnu */
+    public static RoomType fromCode(String code) {
+        RoomType type = code.length() == 1 ? fromCode(code.charAt(0)) : null;
+        if (type == null) {
+            throw new IllegalArgumentException("Type de chambre inconnu : '" + code + "'");
+        }
+        return type;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.models;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+import com.example.utils.FloorLabel;
+import com.example.utils.LongObjectMap;
+
+/**
+ * Vues triées des réservations en attente, tenues à jour à chaque ajout, suppression ou proposition :
+ * par nom, et par chambre proposée (étage puis numéro).
+ * Les clés de tri sont calculées une seule fois par entrée : une modification coûte O(log n)
+ * et la lecture d'une vue triée O(n), au lieu de re-trier toute la liste à chaque rafraîchissement.
+ */
+final class SortedReservationIndex {
+
+    // Une réservation et ses clés de tri précalculées
+    private static final class Entry {
+        private final Reservation reservation;
+        private final long id;
+        private final String lastName;
+        private final int floorIndex;
+        private final int roomNumber;
+
+        private Entry(Reservation reservation, String proposedLabel) {
+            this.reservation = reservation;
+            this.id = reservation.getId();
+            this.lastName = reservation.getLastName();
+            this.floorIndex = FloorLabel.indexOf(FloorLabel.floorOf(proposedLabel));
+            this.roomNumber = extractRoomNumber(proposedLabel);
+        }
+    }
+
+    // L'id départage les ex æquo (ordre d'arrivée) : deux entrées distinctes ne sont jamais égales
+    private static final Comparator<Entry> BY_NAME = Comparator
+            .comparing((Entry e) -> e.lastName, String.CASE_INSENSITIVE_ORDER)
+            .thenComparingLong(e -> e.id);
+
+    // Réservations sans proposition en tête (étage et numéro à -1), puis étage (Z avant AA) et numéro
+    private static final Comparator<Entry> BY_ROOM = Comparator
+            .comparingInt((Entry e) -> e.floorIndex)
+            .thenComparingInt(e -> e.roomNumber)
+            .thenComparingLong(e -> e.id);
+
+    private static final int MIN_ROOM_LABEL_LENGTH = 3; // Exemple : A1B ou A10B
+
+    private final LongObjectMap<Entry> entriesById = new LongObjectMap<>();
+    private final TreeSet<Entry> byName = new TreeSet<>(BY_NAME);
+    private final TreeSet<Entry> byRoom = new TreeSet<>(BY_ROOM);
+
+    // Ajoute ou remplace l'entrée d'une réservation avec sa chambre proposée ("" si aucune)
+    void put(Reservation reservation, String proposedLabel) {
+        remove(reservation.getId());
+        Entry entry = new Entry(reservation, proposedLabel);
+        entriesById.put(entry.id, entry);
+        byName.add(entry);
+        byRoom.add(entry);
+    }
+
+    void remove(long id) {
+        Entry previous = entriesById.remove(id);
+        if (previous != null) {
+            byName.remove(previous);
+            byRoom.remove(previous);
+        }
+    }
+
+    void clear() {
+        entriesById.clear();
+        byName.clear();
+        byRoom.clear();
+    }
+
+    List<Reservation> sortedByName() {
+        return toList(byName);
+    }
+
+    List<Reservation> sortedByRoom() {
+        return toList(byRoom);
+    }
+
+    private static List<Reservation> toList(TreeSet<Entry> entries) {
+        List<Reservation> sorted = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            sorted.add(entry.reservation);
+        }
+        return sorted;
+    }
+
+    // Extrait le numéro de chambre d'un label du type "A10B" ou "AB7L" (lettres d'étage, numéro, type).
+    // Retourne -1 si le label est vide ou mal formé, sans passer par une exception.
+    static int extractRoomNumber(String label) {
+        if (label.length() < MIN_ROOM_LABEL_LENGTH) return -1;
+
+        int end = label.length() - 1; // la dernière lettre est le type
+        int begin = FloorLabel.prefixLength(label);
+        if (begin == 0 || begin >= end) return -1;
+
+        int number = 0;
+        for (int i = begin; i < end; i++) {
+            char c = label.charAt(i);
+            if (c < '0' || c > '9' || number > (Integer.MAX_VALUE - 9) / 10) return -1;
+            number = number * 10 + (c - '0');
+        }
+        return number;
+    }
+}
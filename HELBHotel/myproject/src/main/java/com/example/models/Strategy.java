@@ -15,7 +15,7 @@ public class Strategy {
 
     // Lors de l'initialisation, je construis toutes les stratégies disponibles
     // en leur passant l'hôtel et le gestionnaire de réservations
-    public Strategy(Hotel hotel, ReservationManager manager) {
+    public Strategy(Hotel hotel, ReservationRegistry manager) {
         strategies.put("Aléatoire", RandomAssignment.getInstance(hotel, manager));
         strategies.put("Zone calme", QuietZone.getInstance(hotel, manager));
         strategies.put("Séquentiel", Sequential.getInstance(hotel, manager));
@@ -1,6 +1,7 @@
 package com.example.models.lottery;
 
 import com.example.models.Room;
+import com.example.models.RoomType;
 
 /**
  * Fabrique de tickets de loterie : génère un ticket (Bronze, Silver ou Gold)
@@ -12,6 +13,14 @@ public class LotteryTicketFactory {
     public static final int LUXURY_WEIGHT = 2;     // Bonus de score pour une chambre Luxury
     public static final int BUSINESS_WEIGHT = 1;   // Bonus de score pour une chambre Business
 
+    // Bonus par type, indexé par RoomType.ordinal() (0 pour Economy)
+    private static final int[] TYPE_WEIGHTS = new int[RoomType.values().length];
+
+    static {
+        TYPE_WEIGHTS[RoomType.LUXURY.ordinal()] = LUXURY_WEIGHT;
+        TYPE_WEIGHTS[RoomType.BUSINESS.ordinal()] = BUSINESS_WEIGHT;
+    }
+
     // Seuils de score pour déterminer le type de ticket
     public static final int GOLD_THRESHOLD = 7;    // Score minimal pour un ticket Gold
     public static final int SILVER_THRESHOLD = 5;  // Score minimal pour un ticket Silver
@@ -42,11 +51,7 @@ public class LotteryTicketFactory {
      * retourne un score entier utilisé pour déterminer le type de ticket
      */
     private static int calculateScore(Room room, int rating) {
-        int score = 0;
-        if (room.isLuxury()) score += LUXURY_WEIGHT;
-        if (room.isBusiness()) score += BUSINESS_WEIGHT;
-        score += rating;
-        return score;
+        return TYPE_WEIGHTS[room.getRoomType().ordinal()] + rating;
     }
 
     /**
@@ -55,8 +60,7 @@ public class LotteryTicketFactory {
      * retourne le pourcentage de réduction correspondant
      */
     public static LotteryTicket generateTicket(Room room, int rating) {
-        char floorLetter = room.getLabel().charAt(0); // ex: 'A', 'B', ...
-        int floorIndex = floorLetter - 'A';
-        return LotteryTicketFactory.createTicket(room, rating, floorIndex);
+        // L'index est porté par la chambre : inutile de le déduire des lettres du label (A, B, ..., AA)
+        return LotteryTicketFactory.createTicket(room, rating, room.getFloorIndex());
     }
 }
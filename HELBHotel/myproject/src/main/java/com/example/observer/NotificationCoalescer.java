@@ -0,0 +1,149 @@
+package com.example.observer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Consumer;
+
+import com.example.models.Reservation;
+
+/**
+ * Regroupe les notifications des modèles avant de les transmettre aux vues.
+ * Le bus d'événements de chambres de l'hôtel et le gestionnaire de réservations notifient le regroupeur au lieu des vues :
+ * chaque notification marque seulement la zone concernée comme modifiée, et un seul envoi (flush)
+ * est planifié. Au flush, chaque vue reçoit un seul ensemble de changements : une mise à jour de la liste
+ * des réservations et un seul appel onRoomsChanged pour toutes les chambres modifiées.
+ *
+ * Le planificateur décide du moment du flush : Platform::runLater dans l'application
+ * (un flush par impulsion JavaFX), ou flush() appelé explicitement en fin de traitement.
+ */
+public class NotificationCoalescer implements RoomObserver, RoomEventListener, ReservationObserver {
+
+    private final Consumer<Runnable> scheduler;
+
+    private final Set<ReservationObserver> reservationObservers = new CopyOnWriteArraySet<>();
+    private final Set<RoomObserver> roomObservers = new CopyOnWriteArraySet<>();
+    private final Set<Runnable> flushListeners = new CopyOnWriteArraySet<>();
+
+    // Changements en attente (protégés par this)
+    private boolean reservationsDirty;
+    private final List<Reservation> added = new ArrayList<>();
+    private final List<Reservation> removed = new ArrayList<>();
+    private final List<Reservation> proposed = new ArrayList<>();
+    private final Map<String, Boolean> roomStates = new LinkedHashMap<>(); // label -> occupée (dernier état connu)
+    private boolean flushScheduled;
+
+    public NotificationCoalescer(Consumer<Runnable> scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    public void addReservationObserver(ReservationObserver observer) {
+        reservationObservers.add(observer);
+    }
+
+    public void addRoomObserver(RoomObserver observer) {
+        roomObservers.add(observer);
+    }
+
+    /** Action exécutée après chaque flush qui a transmis au moins un changement (ex: reconnecter les boutons). */
+    public void addFlushListener(Runnable listener) {
+        flushListeners.add(listener);
+    }
+
+    // ============================
+    // Réception (côté modèles)
+    // ============================
+
+    @Override
+    public synchronized void update() {
+        reservationsDirty = true;
+        scheduleFlush();
+    }
+
+    @Override
+    public synchronized void update(ReservationChange change) {
+        added.addAll(change.getAdded());
+        removed.addAll(change.getRemoved());
+        proposed.addAll(change.getProposed());
+        reservationsDirty = true;
+        scheduleFlush();
+    }
+
+    // Une chambre assignée puis libérée avant le flush n'est transmise qu'avec son dernier état
+    @Override
+    public synchronized void onRoomAssigned(String roomLabel) {
+        roomStates.put(roomLabel, Boolean.TRUE);
+        scheduleFlush();
+    }
+
+    @Override
+    public synchronized void onRoomReleased(String roomLabel) {
+        roomStates.put(roomLabel, Boolean.FALSE);
+        scheduleFlush();
+    }
+
+    // Un lot du bus : un seul passage sous verrou pour toutes ses chambres
+    @Override
+    public synchronized void onRoomEvents(List<RoomEvent> events) {
+        for (RoomEvent event : events) {
+            roomStates.put(event.getLabel(), event.isOccupied());
+        }
+        scheduleFlush();
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled) return;
+        flushScheduled = true;
+        scheduler.accept(this::flush);
+    }
+
+    public synchronized boolean hasPendingChanges() {
+        return reservationsDirty || !roomStates.isEmpty();
+    }
+
+    // ============================
+    // Transmission (côté vues)
+    // ============================
+
+    /** Transmet en une fois tous les changements accumulés ; sans effet s'il n'y en a aucun. */
+    public void flush() {
+        ReservationChange change = null;
+        List<String> assigned = new ArrayList<>();
+        List<String> released = new ArrayList<>();
+
+        // Les changements sont récupérés sous verrou, puis transmis hors verrou
+        synchronized (this) {
+            flushScheduled = false;
+            if (reservationsDirty) {
+                change = new ReservationChange(new ArrayList<>(added), new ArrayList<>(removed), new ArrayList<>(proposed));
+                added.clear();
+                removed.clear();
+                proposed.clear();
+                reservationsDirty = false;
+            }
+            for (Map.Entry<String, Boolean> entry : roomStates.entrySet()) {
+                (entry.getValue() ? assigned : released).add(entry.getKey());
+            }
+            roomStates.clear();
+        }
+
+        if (change == null && assigned.isEmpty() && released.isEmpty()) return;
+
+        if (change != null) {
+            for (ReservationObserver observer : reservationObservers) {
+                observer.update(change);
+            }
+        }
+        if (!assigned.isEmpty() || !released.isEmpty()) {
+            for (RoomObserver observer : roomObservers) {
+                observer.onRoomsChanged(assigned, released);
+            }
+        }
+        for (Runnable listener : flushListeners) {
+            listener.run();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.observer;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.example.models.Reservation;
+
+/**
+ * Delta transmis aux observateurs après une modification du gestionnaire de réservations :
+ * réservations ajoutées, supprimées, et réservations dont la chambre proposée a changé.
+ * Une opération groupée (addAll, proposeAll, removeAll ou beginBatch/commitBatch) produit un seul delta.
+ */
+public final class ReservationChange {
+
+    private final List<Reservation> added;
+    private final List<Reservation> removed;
+    private final List<Reservation> proposed;
+
+    public ReservationChange(List<Reservation> added, List<Reservation> removed, List<Reservation> proposed) {
+        this.added = Collections.unmodifiableList(added);
+        this.removed = Collections.unmodifiableList(removed);
+        this.proposed = Collections.unmodifiableList(proposed);
+    }
+
+    public List<Reservation> getAdded() {
+        return added;
+    }
+
+    public List<Reservation> getRemoved() {
+        return removed;
+    }
+
+    public List<Reservation> getProposed() {
+        return proposed;
+    }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && proposed.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "+" + added.size() + " -" + removed.size() + " ~" + proposed.size();
+    }
+}
@@ -2,4 +2,9 @@ package com.example.observer;
 
 public interface ReservationObserver {
     void update();
+
+    // Notification avec le détail des changements ; par défaut, simple rafraîchissement complet
+    default void update(ReservationChange change) {
+        update();
+    }
 }
@@ -0,0 +1,60 @@
+package com.example.observer;
+
+import com.example.models.EmptyReservation;
+import com.example.models.Reservation;
+import com.example.models.Room;
+
+/**
+ * Changement d'occupant d'une chambre, publié sur le bus d'événements de l'hôtel (RoomEventBus).
+ * Porte la position de la chambre (son index dans Hotel.getAllRooms()), son étage, et l'occupant
+ * avant et après le changement ; le label n'est calculé que si un abonné le demande.
+ */
+public final class RoomEvent {
+
+    private final Room room;
+    private final int index;
+    private final Reservation previousOccupant;
+    private final Reservation occupant;
+
+    public RoomEvent(Room room, int index, Reservation previousOccupant, Reservation occupant) {
+        this.room = room;
+        this.index = index;
+        this.previousOccupant = previousOccupant;
+        this.occupant = occupant;
+    }
+
+    public Room getRoom() {
+        return room;
+    }
+
+    /** Position de la chambre dans Hotel.getAllRooms() (et dans les vues d'occupation publiées) */
+    public int getIndex() {
+        return index;
+    }
+
+    public String getLabel() {
+        return room.getLabel();
+    }
+
+    public int getFloorIndex() {
+        return room.getFloorIndex();
+    }
+
+    /** Occupant avant le changement ; EmptyReservation si la chambre était libre */
+    public Reservation getPreviousOccupant() {
+        return previousOccupant;
+    }
+
+    /** Occupant après le changement ; EmptyReservation si la chambre est libre */
+    public Reservation getOccupant() {
+        return occupant;
+    }
+
+    public boolean wasOccupied() {
+        return !(previousOccupant instanceof EmptyReservation);
+    }
+
+    public boolean isOccupied() {
+        return !(occupant instanceof EmptyReservation);
+    }
+}
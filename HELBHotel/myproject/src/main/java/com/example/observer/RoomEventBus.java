@@ -0,0 +1,99 @@
+package com.example.observer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Bus d'événements de chambres, unique pour tout l'hôtel : remplace les listes d'observateurs de chaque chambre.
+ * Chaque changement d'occupant produit un RoomEvent ; hors lot il est transmis tout de suite, dans un lot
+ * (beginBatch/commitBatch, imbricables) les événements s'accumulent et sont transmis en une seule liste
+ * au commit le plus externe.
+ * Un abonné reçoit tous les étages (subscribe) ou un seul (subscribeToFloor) : il n'est appelé
+ * que si le lot contient au moins un événement qui le concerne.
+ * Non synchronisé : publish et les lots sont appelés depuis le thread qui possède les modèles.
+ */
+public class RoomEventBus {
+
+    private static final int ALL_FLOORS = -1;
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private List<RoomEvent> pending = new ArrayList<>();
+    private int batchDepth = 0;
+
+    public void subscribe(RoomEventListener listener) {
+        subscriptions.add(new Subscription(listener, ALL_FLOORS));
+    }
+
+    public void subscribeToFloor(RoomEventListener listener, int floorIndex) {
+        if (floorIndex < 0) {
+            throw new IllegalArgumentException("Étage invalide : " + floorIndex);
+        }
+        subscriptions.add(new Subscription(listener, floorIndex));
+    }
+
+    // Retire toutes les inscriptions de cet abonné
+    public void unsubscribe(RoomEventListener listener) {
+        subscriptions.removeIf(subscription -> subscription.listener == listener);
+    }
+
+    // Appelé par l'hôtel à chaque changement d'occupant
+    public void publish(RoomEvent event) {
+        if (subscriptions.isEmpty()) return; // personne n'écoute : rien à garder
+        pending.add(event);
+        if (batchDepth == 0) dispatch();
+    }
+
+    // Ouvre un lot : les événements suivants sont retenus jusqu'au commitBatch() correspondant.
+    public void beginBatch() {
+        batchDepth++;
+    }
+
+    // Ferme un lot ; le commit le plus externe transmet tous les événements retenus (rien s'il n'y en a aucun)
+    public void commitBatch() {
+        if (batchDepth == 0) {
+            throw new IllegalStateException("commitBatch() appelé sans beginBatch()");
+        }
+        if (--batchDepth == 0) dispatch();
+    }
+
+    public boolean isInBatch() {
+        return batchDepth > 0;
+    }
+
+    private void dispatch() {
+        if (pending.isEmpty()) return;
+        List<RoomEvent> events = Collections.unmodifiableList(pending);
+        pending = new ArrayList<>(); // un abonné peut provoquer de nouveaux événements pendant l'envoi
+
+        for (Subscription subscription : subscriptions) {
+            List<RoomEvent> delivered = subscription.floorIndex == ALL_FLOORS
+                    ? events
+                    : eventsOnFloor(events, subscription.floorIndex);
+            if (!delivered.isEmpty()) {
+                subscription.listener.onRoomEvents(delivered);
+            }
+        }
+    }
+
+    private static List<RoomEvent> eventsOnFloor(List<RoomEvent> events, int floorIndex) {
+        List<RoomEvent> onFloor = null;
+        for (RoomEvent event : events) {
+            if (event.getFloorIndex() != floorIndex) continue;
+            if (onFloor == null) onFloor = new ArrayList<>();
+            onFloor.add(event);
+        }
+        return onFloor != null ? Collections.unmodifiableList(onFloor) : Collections.emptyList();
+    }
+
+    private static final class Subscription {
+        private final RoomEventListener listener;
+        private final int floorIndex;
+
+        private Subscription(RoomEventListener listener, int floorIndex) {
+            this.listener = listener;
+            this.floorIndex = floorIndex;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.observer;
+
+import java.util.List;
+
+public interface RoomEventListener {
+    // Événements d'un même lot, dans l'ordre des changements (liste en lecture seule)
+    void onRoomEvents(List<RoomEvent> events);
+}
@@ -1,6 +1,18 @@
 package com.example.observer;
 
+import java.util.List;
+
 public interface RoomObserver {
     void onRoomAssigned(String roomLabel);
     void onRoomReleased(String roomLabel);
+
+    // Plusieurs chambres modifiées en une fois (envoi groupé) ; par défaut, une notification par chambre
+    default void onRoomsChanged(List<String> assignedLabels, List<String> releasedLabels) {
+        for (String label : assignedLabels) {
+            onRoomAssigned(label);
+        }
+        for (String label : releasedLabels) {
+            onRoomReleased(label);
+        }
+    }
 }
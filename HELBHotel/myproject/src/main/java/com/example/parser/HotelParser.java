@@ -5,8 +5,17 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.example.models.Hotel;
+import com.example.models.RoomType;
+import com.example.utils.FloorLabel;
 
 public class HotelParser {
+
+    /** Ligne séparant les matrices de deux étages consécutifs */
+    public static final String FLOOR_SEPARATOR = "---";
+
+    private static final char CELL_SEPARATOR = ',';
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+
     private final String configFilePath;
 
     public HotelParser(String configFilePath) {
@@ -19,82 +28,129 @@ public class HotelParser {
             throw new FileNotFoundException("Le fichier de configuration est introuvable : " + configFilePath);
         }
 
-        List<String[]> matrixList = loadConfiguration();
+        // Lecture en flux : les lignes ne sont jamais toutes gardées en mémoire sous forme de texte
+        try (BufferedReader br = new BufferedReader(new FileReader(configFilePath), READ_BUFFER_SIZE)) {
+            return parse(br);
+        }
+    }
 
-        if (matrixList.isEmpty()) {
+    private Hotel parse(BufferedReader br) throws IOException {
+        int lineNumber = 0;
+        String line;
+
+        // === Étape 1 : lire et valider le nombre d'étages (première ligne non vide) ===
+        String header = null;
+        while ((line = br.readLine()) != null) {
+            lineNumber++;
+            if (!line.trim().isEmpty()) {
+                header = line;
+                break;
+            }
+        }
+        if (header == null) {
             throw new IllegalArgumentException("Le fichier de configuration est vide.");
         }
+        int numberOfFloors = parseFloorCount(header);
+
+        // === Étape 2 : lire et valider les matrices (une seule partagée, ou une par étage séparées par "---") ===
+        List<String[][]> floorMatrices = new ArrayList<>();
+        List<String[]> currentRows = new ArrayList<>();
+        int expectedLength = -1;
+
+        while ((line = br.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty()) continue;
+
+            if (trimmed.equals(FLOOR_SEPARATOR)) {
+                if (currentRows.isEmpty()) {
+                    throw new IllegalArgumentException("Matrice d'étage vide avant le séparateur ligne " + lineNumber + ".");
+                }
+                floorMatrices.add(currentRows.toArray(new String[0][]));
+                currentRows.clear();
+                expectedLength = -1;
+                continue;
+            }
+
+            String[] row = parseRow(line, lineNumber);
+            if (expectedLength == -1) {
+                expectedLength = row.length;
+            } else if (row.length != expectedLength) {
+                throw new IllegalArgumentException("Ligne " + lineNumber + " invalide : elle contient " +
+                        row.length + " colonnes au lieu de " + expectedLength + ".");
+            }
+            currentRows.add(row);
+        }
+        if (!currentRows.isEmpty()) {
+            floorMatrices.add(currentRows.toArray(new String[0][]));
+        }
+
+        if (floorMatrices.isEmpty()) {
+            throw new IllegalArgumentException("La matrice de chambres est absente après la ligne d'étages.");
+        }
 
-        // === Étape 1 : lire et valider le nombre d'étages ===
-        String[] firstLine = matrixList.get(0);
-        if (firstLine.length != 1) {
+        // === Étape 3 : créer l'hôtel ===
+        if (floorMatrices.size() == 1) {
+            return new Hotel(numberOfFloors, floorMatrices.get(0));
+        }
+        if (floorMatrices.size() != numberOfFloors) {
+            throw new IllegalArgumentException("Le fichier contient " + floorMatrices.size() +
+                    " matrices séparées par '" + FLOOR_SEPARATOR + "' pour " + numberOfFloors + " étages.");
+        }
+        return new Hotel(numberOfFloors, floorMatrices.toArray(new String[0][][]));
+    }
+
+    private static int parseFloorCount(String header) {
+        if (header.indexOf(CELL_SEPARATOR) >= 0) {
             throw new IllegalArgumentException("La première ligne doit contenir uniquement le nombre d'étages (ex: 3).");
         }
 
         int numberOfFloors;
         try {
-            numberOfFloors = Integer.parseInt(firstLine[0].trim());
+            numberOfFloors = Integer.parseInt(header.trim());
         } catch (NumberFormatException e) {
-            throw new IllegalArgumentException("Le nombre d'étages est invalide : '" + firstLine[0] + "'. Il doit s'agir d'un entier.");
+            throw new IllegalArgumentException("Le nombre d'étages est invalide : '" + header + "'. Il doit s'agir d'un entier.");
         }
 
-        if (numberOfFloors <= 0 || numberOfFloors > 26) {
-            throw new IllegalArgumentException("Le nombre d'étages doit être compris entre 1 et 26.");
+        if (numberOfFloors <= 0 || numberOfFloors > FloorLabel.MAX_FLOORS) {
+            throw new IllegalArgumentException("Le nombre d'étages doit être compris entre 1 et " + FloorLabel.MAX_FLOORS + ".");
         }
+        return numberOfFloors;
+    }
 
-        matrixList.remove(0); // retire la ligne d'en-tête
-
-        if (matrixList.isEmpty()) {
-            throw new IllegalArgumentException("La matrice de chambres est absente après la ligne d'étages.");
+    // Découpe une ligne sur les virgules sans regex ni String.split,
+    // et valide chaque cellule au passage
+    private static String[] parseRow(String line, int lineNumber) {
+        int columns = 1;
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == CELL_SEPARATOR) columns++;
         }
 
-        // === Étape 2 : valider les lignes de la matrice ===
-        int expectedLength = matrixList.get(0).length;
-        for (int i = 0; i < matrixList.size(); i++) {
-            String[] row = matrixList.get(i);
-            int lineNumber = i + 2; // +2 car on a retiré la 1re ligne
-
-            if (row.length != expectedLength) {
-                throw new IllegalArgumentException("Ligne " + lineNumber + " invalide : elle contient " +
-                        row.length + " colonnes au lieu de " + expectedLength + ".");
-            }
-
-            for (int col = 0; col < row.length; col++) {
-                String cell = row[col].trim();
-                if (!cell.matches("[EBLZ]")) {
-                    throw new IllegalArgumentException("Caractère invalide ligne " + lineNumber + ", colonne " + (col + 1) +
-                            " : '" + cell + "'. Seuls E, B, L et Z sont autorisés.");
-                }
-            }
+        String[] row = new String[columns];
+        int start = 0;
+        for (int col = 0; col < columns; col++) {
+            int end = line.indexOf(CELL_SEPARATOR, start);
+            if (end < 0) end = line.length();
+            row[col] = parseCell(line, start, end, lineNumber, col);
+            start = end + 1;
         }
-
-        // === Étape 3 : créer l'hôtel ===
-        String[][] roomMatrix = matrixList.toArray(new String[0][]);
-        return new Hotel(numberOfFloors, roomMatrix);
+        return row;
     }
 
-    // Cette méthode lit le fichier de configuration de l'hôtel (.hconf)
-    // et transforme chaque ligne non vide en tableau de chaînes (String[]),
-    // que je stocke dans une liste temporaire pour ensuite l'utiliser ailleurs.
-    private List<String[]> loadConfiguration() throws IOException {
-        List<String[]> tempMatrix = new ArrayList<>(); // Liste qui va contenir toutes les lignes du fichier sous forme de tableau
-
-        try (BufferedReader br = new BufferedReader(new FileReader(configFilePath))) {
-            String line;
-
-            // Je parcours le fichier ligne par ligne
-            while ((line = br.readLine()) != null) {
-                // Si la ligne n'est pas vide (je la nettoie avec trim), je la traite
-                if (!line.trim().isEmpty()) {
-                    // Je découpe la ligne en morceaux avec le séparateur ","
-                    // et j'ajoute ce tableau à ma liste
-                    tempMatrix.add(line.split(","));
-                }
+    // Le caractère est converti une fois en RoomType (table précalculée) ;
+    // retourne le code partagé du type (toutes les cellules "E" pointent vers la même instance)
+    private static String parseCell(String line, int start, int end, int lineNumber, int col) {
+        while (start < end && line.charAt(start) <= ' ') start++;
+        while (end > start && line.charAt(end - 1) <= ' ') end--;
+
+        if (end - start == 1) {
+            RoomType type = RoomType.fromCode(line.charAt(start));
+            if (type != null) {
+                return type.getCode();
             }
         }
-
-        // Je retourne la liste de toutes les lignes du fichier, prêtes à être analysées ailleurs
-        return tempMatrix;
+        throw new IllegalArgumentException("Caractère invalide ligne " + lineNumber + ", colonne " + (col + 1) +
+                " : '" + line.substring(start, end) + "'. Seuls E, B, L et Z sont autorisés.");
     }
 
 }
@@ -0,0 +1,118 @@
+package com.example.parser;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistiques d'ingestion des réservations : compteurs par raison de rejet,
+ * débit (lignes/s) et latence du dernier lot.
+ * Les compteurs peuvent être lus depuis n'importe quel thread pendant l'ingestion.
+ * Les rejets sont aussi transmis à un journal console échantillonné, jamais affichés un par un.
+ */
+public class IngestStatistics {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final LongAdder[] rejectedByReason = new LongAdder[RejectReason.values().length];
+    private final LongAdder acceptedCount = new LongAdder();
+    private final LongAdder lineCount = new LongAdder();
+    private final LongAdder batchCount = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final SampledRejectLog rejectLog;
+
+    // Les deux valeurs du dernier lot sont publiées ensemble pour rester cohérentes entre elles
+    private volatile Batch lastBatch = new Batch(0, 0);
+
+    public IngestStatistics() {
+        this(new SampledRejectLog());
+    }
+
+    public IngestStatistics(SampledRejectLog rejectLog) {
+        this.rejectLog = rejectLog;
+        for (int i = 0; i < rejectedByReason.length; i++) {
+            rejectedByReason[i] = new LongAdder();
+        }
+    }
+
+    /** Enregistre un lot analysé : lignes lues, réservations acceptées, rejets et durée. */
+    public void recordBatch(long lines, long accepted, List<RejectedLine> rejectedLines, long elapsedNanos) {
+        for (RejectedLine rejected : rejectedLines) {
+            rejectedByReason[rejected.getReason().ordinal()].increment();
+        }
+        acceptedCount.add(accepted);
+        lineCount.add(lines);
+        batchCount.increment();
+        totalNanos.add(elapsedNanos);
+        lastBatch = new Batch(lines, elapsedNanos);
+
+        rejectLog.log(rejectedLines);
+    }
+
+    public long getRejectedCount(RejectReason reason) {
+        return rejectedByReason[reason.ordinal()].sum();
+    }
+
+    public long getRejectedCount() {
+        long total = 0;
+        for (LongAdder counter : rejectedByReason) {
+            total += counter.sum();
+        }
+        return total;
+    }
+
+    /** Copie des compteurs de rejet, par raison */
+    public Map<RejectReason, Long> getRejectedCounts() {
+        Map<RejectReason, Long> counts = new EnumMap<>(RejectReason.class);
+        for (RejectReason reason : RejectReason.values()) {
+            counts.put(reason, getRejectedCount(reason));
+        }
+        return counts;
+    }
+
+    public long getAcceptedCount() {
+        return acceptedCount.sum();
+    }
+
+    public long getLineCount() {
+        return lineCount.sum();
+    }
+
+    public long getBatchCount() {
+        return batchCount.sum();
+    }
+
+    /** Débit moyen depuis le démarrage, en lignes par seconde (temps d'analyse uniquement) */
+    public double getLinesPerSecond() {
+        long nanos = totalNanos.sum();
+        return nanos == 0 ? 0 : getLineCount() * NANOS_PER_SECOND / nanos;
+    }
+
+    public double getLastBatchLinesPerSecond() {
+        Batch batch = lastBatch;
+        return batch.nanos == 0 ? 0 : batch.lines * NANOS_PER_SECOND / batch.nanos;
+    }
+
+    public double getLastBatchLatencyMillis() {
+        return lastBatch.nanos / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d lignes, %d acceptées, %d rejetées %s, %.0f lignes/s, dernier lot %.2f ms",
+                getLineCount(), getAcceptedCount(), getRejectedCount(), getRejectedCounts(),
+                getLinesPerSecond(), getLastBatchLatencyMillis());
+    }
+
+    private static final class Batch {
+        final long lines;
+        final long nanos;
+
+        Batch(long lines, long nanos) {
+            this.lines = lines;
+            this.nanos = nanos;
+        }
+    }
+}
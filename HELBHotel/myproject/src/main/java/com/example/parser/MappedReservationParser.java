@@ -0,0 +1,541 @@
+package com.example.parser;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import com.example.models.Reservation;
+import com.example.utils.ReservationValidator;
+
+/**
+ * Parseur CSV de réservations basé sur un fichier mappé en mémoire (FileChannel.map).
+ * Les octets sont analysés directement : pas de readLine(), pas de split() ni de trim().
+ * Les champs numériques sont lus sur place et seules les chaînes nom/prénom
+ * des lignes valides sont créées (le motif réutilise la constante du validateur).
+ * Les règles et les raisons de rejet sont les mêmes que celles de ReservationParser.
+ */
+public class MappedReservationParser {
+
+    // Une zone mappée ne peut pas dépasser 2 Go : je découpe les gros fichiers en fenêtres
+    private static final long MAX_WINDOW_SIZE = 1L << 30;
+
+    // === Chargement parallèle ===
+    public static final long DEFAULT_PARALLEL_THRESHOLD = 64L * 1024 * 1024; // en dessous : lecture séquentielle
+    private static final int RANGES_PER_THREAD = 4;       // plus de tranches que de threads pour équilibrer la charge
+    private static final int BOUNDARY_SCAN_SIZE = 4096;   // octets lus à la fois pour trouver la fin de ligne
+
+    private static final byte SEPARATOR = ',';
+    private static final byte NEW_LINE = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final byte MARKER_START = '#';
+    private static final int MAX_NAME_LENGTH = 256; // taille initiale du tampon de décodage
+
+    // Index des champs dans une ligne
+    private static final int FIELD_LAST_NAME = 0;
+    private static final int FIELD_FIRST_NAME = 1;
+    private static final int FIELD_PEOPLE = 2;
+    private static final int FIELD_SMOKER = 3;
+    private static final int FIELD_PURPOSE = 4;
+    private static final int FIELD_CHILDREN = 5;
+    private static final int FIELD_CHECK_IN = ReservationParser.FIELD_CHECK_IN;
+    private static final int FIELD_CHECK_OUT = ReservationParser.FIELD_CHECK_OUT;
+    private static final int ISO_DATE_LENGTH = 10; // aaaa-mm-jj
+
+    private static final long NOT_A_NUMBER = Long.MIN_VALUE;
+    private static final int NO_PURPOSE = -1;
+
+    private static final byte[] SMOKER_YES_BYTES = ReservationParser.SMOKER_YES.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SMOKER_NO_BYTES = ReservationParser.SMOKER_NO.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] INVALID_MARKER_BYTES = ReservationParser.INVALID_MARKER.getBytes(StandardCharsets.US_ASCII);
+
+    // Motifs autorisés : je garde la chaîne d'origine pour ne pas en recréer une par ligne
+    private static final String[] PURPOSES = ReservationValidator.getValidPurposes().toArray(new String[0]);
+    private static final byte[][] PURPOSE_BYTES = new byte[PURPOSES.length][];
+
+    static {
+        for (int i = 0; i < PURPOSES.length; i++) {
+            PURPOSE_BYTES[i] = PURPOSES[i].getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    private final String reservationFilePath;
+    private final long parallelThreshold;
+    private final QuarantineFile quarantine;
+    private final Clock clock; // jour d'arrivée des lignes sans dates
+    private final IngestStatistics statistics = new IngestStatistics();
+
+    public MappedReservationParser(String reservationFilePath) {
+        this(reservationFilePath, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    // parallelThreshold : taille de fichier (en octets) à partir de laquelle le chargement parallèle est utilisé
+    public MappedReservationParser(String reservationFilePath, long parallelThreshold) {
+        this(reservationFilePath, parallelThreshold, QuarantineFile.none());
+    }
+
+    // Les lignes rejetées sont en plus ajoutées à la quarantaine, avec leur raison
+    public MappedReservationParser(String reservationFilePath, long parallelThreshold, QuarantineFile quarantine) {
+        this(reservationFilePath, parallelThreshold, quarantine, Clock.systemDefaultZone());
+    }
+
+    // clock donne le jour d'arrivée du séjour par défaut (une horloge fixe dans les tests)
+    public MappedReservationParser(String reservationFilePath, long parallelThreshold, QuarantineFile quarantine, Clock clock) {
+        this.reservationFilePath = reservationFilePath;
+        this.parallelThreshold = parallelThreshold;
+        this.quarantine = quarantine;
+        this.clock = clock;
+    }
+
+    /** Charge les réservations en analysant directement les octets du fichier mappé */
+    public List<Reservation> loadReservations() throws IOException {
+        long start = System.nanoTime();
+        ChunkResult result = new ChunkResult();
+
+        try (FileChannel channel = FileChannel.open(Paths.get(reservationFilePath), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            RangeParser parser = new RangeParser(result, LocalDate.now(clock));
+
+            while (position < size) {
+                long length = Math.min(MAX_WINDOW_SIZE, size - position);
+                boolean lastWindow = position + length == size;
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+
+                int consumed = parser.parse(window, (int) length, lastWindow);
+                if (consumed == 0) {
+                    throw new IOException("Ligne trop longue dans " + reservationFilePath + " à l'octet " + position);
+                }
+                position += consumed;
+            }
+        }
+
+        List<RejectedLine> rejected = result.toRejectedLines(1);
+        statistics.recordBatch(result.lineCount, result.reservations.size(), rejected, System.nanoTime() - start);
+        quarantine.append(rejected);
+        return result.reservations;
+    }
+
+    /** Compteurs d'ingestion de ce parseur (rejets par raison, débit, latence du dernier chargement) */
+    public IngestStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Charge les réservations en découpant le fichier en tranches alignées sur les fins de ligne,
+     * analysées en parallèle sur un ForkJoinPool de threadCount threads.
+     * Les résultats sont fusionnés dans l'ordre du fichier : l'ordre des réservations
+     * et les numéros de ligne des erreurs sont les mêmes qu'en lecture séquentielle.
+     * Pour un petit fichier (sous le seuil) ou un seul thread, la lecture reste séquentielle.
+     */
+    public List<Reservation> loadReservations(int threadCount) throws IOException {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("Le nombre de threads doit être au moins 1 : " + threadCount);
+        }
+
+        long size = Files.size(Paths.get(reservationFilePath));
+        if (threadCount == 1 || size < parallelThreshold) {
+            return loadReservations();
+        }
+
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(Paths.get(reservationFilePath), StandardOpenOption.READ)) {
+            long[] boundaries = computeBoundaries(channel, size, threadCount);
+            List<ChunkResult> results = parseRanges(channel, boundaries, threadCount, LocalDate.now(clock));
+            return mergeInOrder(results, start);
+        }
+    }
+
+    // Découpe [0, size) en tranches d'environ la même taille, chaque limite étant placée juste après un '\n'.
+    // Une tranche ne dépasse jamais la taille maximale d'une fenêtre mappée.
+    private long[] computeBoundaries(FileChannel channel, long size, int threadCount) throws IOException {
+        long rangeCount = Math.max((long) threadCount * RANGES_PER_THREAD, (size + MAX_WINDOW_SIZE - 1) / MAX_WINDOW_SIZE);
+        rangeCount = Math.min(rangeCount, size);
+
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(0L);
+        for (long i = 1; i < rangeCount; i++) {
+            long boundary = nextLineStart(channel, size, size / rangeCount * i);
+            if (boundary > boundaries.get(boundaries.size() - 1) && boundary < size) {
+                boundaries.add(boundary);
+            }
+        }
+        boundaries.add(size);
+
+        long[] result = new long[boundaries.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = boundaries.get(i);
+            if (i > 0 && result[i] - result[i - 1] > MAX_WINDOW_SIZE) {
+                throw new IOException("Ligne trop longue dans " + reservationFilePath + " à l'octet " + result[i - 1]);
+            }
+        }
+        return result;
+    }
+
+    // Retourne la position qui suit le premier '\n' rencontré à partir de from (ou la fin du fichier)
+    private static long nextLineStart(FileChannel channel, long size, long from) throws IOException {
+        ByteBuffer scan = ByteBuffer.allocate(BOUNDARY_SCAN_SIZE);
+        long position = from;
+        while (position < size) {
+            scan.clear();
+            int read = channel.read(scan, position);
+            if (read <= 0) break;
+            for (int i = 0; i < read; i++) {
+                if (scan.get(i) == NEW_LINE) return position + i + 1;
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    // Chaque tranche est mappée et analysée indépendamment (un RangeParser par tâche), avec le même séjour par défaut
+    private List<ChunkResult> parseRanges(FileChannel channel, long[] boundaries, int threadCount,
+                                          LocalDate defaultCheckIn) throws IOException {
+        List<Callable<ChunkResult>> tasks = new ArrayList<>();
+        for (int i = 0; i < boundaries.length - 1; i++) {
+            long start = boundaries[i];
+            long length = boundaries[i + 1] - start;
+            tasks.add(() -> {
+                ChunkResult result = new ChunkResult();
+                MappedByteBuffer range = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+                new RangeParser(result, defaultCheckIn).parse(range, (int) length, true);
+                return result;
+            });
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threadCount);
+        try {
+            List<ChunkResult> results = new ArrayList<>(tasks.size());
+            for (Future<ChunkResult> future : pool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Chargement parallèle interrompu : " + reservationFilePath);
+        } catch (ExecutionException e) {
+            throw new IOException("Erreur lors du chargement parallèle de " + reservationFilePath, e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Fusion dans l'ordre des tranches : la tranche i commence à la ligne qui suit la dernière de la tranche i-1
+    private List<Reservation> mergeInOrder(List<ChunkResult> results, long start) throws IOException {
+        int total = 0;
+        for (ChunkResult result : results) {
+            total += result.reservations.size();
+        }
+
+        List<Reservation> reservations = new ArrayList<>(total);
+        List<RejectedLine> rejected = new ArrayList<>();
+        long firstLineNumber = 1;
+        for (ChunkResult result : results) {
+            rejected.addAll(result.toRejectedLines(firstLineNumber));
+            reservations.addAll(result.reservations);
+            firstLineNumber += result.lineCount;
+        }
+        statistics.recordBatch(firstLineNumber - 1, reservations.size(), rejected, System.nanoTime() - start);
+        quarantine.append(rejected);
+        return reservations;
+    }
+
+    // Résultat de l'analyse d'une zone du fichier : réservations valides,
+    // erreurs (numérotées relativement au début de la zone) et nombre de lignes lues.
+    static final class ChunkResult {
+        final List<Reservation> reservations = new ArrayList<>();
+        final List<LineError> errors = new ArrayList<>();
+        int lineCount;
+
+        // Convertit les erreurs avec le numéro de ligne absolu dans le fichier
+        List<RejectedLine> toRejectedLines(long firstLineNumber) {
+            List<RejectedLine> rejected = new ArrayList<>(errors.size());
+            for (LineError error : errors) {
+                rejected.add(new RejectedLine(firstLineNumber + error.lineIndex, error.line, error.reason));
+            }
+            return rejected;
+        }
+    }
+
+    static final class LineError {
+        final int lineIndex;
+        final RejectReason reason;
+        final String line;
+
+        LineError(int lineIndex, RejectReason reason, String line) {
+            this.lineIndex = lineIndex;
+            this.reason = reason;
+            this.line = line;
+        }
+    }
+
+    // Analyse ligne par ligne d'un tampon d'octets.
+    // Les tableaux de positions et le tampon de décodage sont réutilisés d'une ligne à l'autre.
+    static final class RangeParser {
+        private final ChunkResult result;
+        private final int[] fieldStart = new int[ReservationParser.STAY_FIELD_COUNT];
+        private final int[] fieldEnd = new int[ReservationParser.STAY_FIELD_COUNT];
+        private byte[] scratch = new byte[MAX_NAME_LENGTH];
+        private ByteBuffer buffer;
+
+        // Séjour par défaut des lignes sans dates : calculé une fois par chargement, partagé par toutes ses réservations
+        private final LocalDate defaultCheckIn;
+        private final LocalDate defaultCheckOut;
+        private LocalDate checkIn;
+        private LocalDate checkOut;
+        private int lastNonEmptyField = -1; // dernier champ non vide de la ligne en cours
+
+        RangeParser(ChunkResult result, LocalDate defaultCheckIn) {
+            this.result = result;
+            this.defaultCheckIn = defaultCheckIn;
+            this.defaultCheckOut = defaultCheckIn.plusDays(Reservation.DEFAULT_NIGHTS);
+        }
+
+        // Analyse les lignes complètes de buffer[0, limit).
+        // Si endOfData est vrai, la dernière ligne sans '\n' est aussi analysée.
+        // Retourne le nombre d'octets consommés (jusqu'après le dernier '\n' traité).
+        int parse(ByteBuffer buffer, int limit, boolean endOfData) {
+            this.buffer = buffer;
+            lastNonEmptyField = -1;
+            int lineStart = 0;
+            int fieldBegin = 0;
+            int fieldCount = 0;
+            boolean hasMarker = false;
+
+            // Un seul passage sur les octets : fin de ligne, séparateurs et '#' sont repérés ensemble
+            for (int i = 0; i < limit; i++) {
+                byte b = buffer.get(i);
+                if (b == SEPARATOR) {
+                    recordField(fieldCount++, fieldBegin, i);
+                    fieldBegin = i + 1;
+                } else if (b == NEW_LINE) {
+                    parseLine(lineStart, i, fieldBegin, fieldCount, hasMarker);
+                    lastNonEmptyField = -1;
+                    lineStart = i + 1;
+                    fieldBegin = lineStart;
+                    fieldCount = 0;
+                    hasMarker = false;
+                } else if (b == MARKER_START) {
+                    hasMarker = true;
+                }
+            }
+            if (endOfData && lineStart < limit) {
+                parseLine(lineStart, limit, fieldBegin, fieldCount, hasMarker);
+                return limit;
+            }
+            return lineStart;
+        }
+
+        // Les fieldCount premiers champs ont déjà été repérés : il reste à fermer le dernier (depuis lastFieldStart)
+        private void parseLine(int start, int end, int lastFieldStart, int fieldCount, boolean hasMarker) {
+            if (end > start && buffer.get(end - 1) == CARRIAGE_RETURN) end--; // fichiers Windows
+            int lineIndex = result.lineCount++;
+
+            if (hasMarker && contains(start, end, INVALID_MARKER_BYTES)) return; // déjà marquée invalide
+
+            recordField(fieldCount, lastFieldStart, end);
+            if (fieldCount + 1 < ReservationParser.EXPECTED_FIELD_COUNT) {
+                reject(lineIndex, RejectReason.BAD_FIELD_COUNT, start, end);
+                return;
+            }
+            int recordedFields = Math.min(fieldCount + 1, ReservationParser.STAY_FIELD_COUNT);
+            for (int f = 0; f < recordedFields; f++) {
+                trimField(f);
+            }
+            long numberOfPeople = parseInt(FIELD_PEOPLE);
+            if (numberOfPeople == NOT_A_NUMBER) {
+                reject(lineIndex, RejectReason.NUMBER_FORMAT, start, end);
+                return;
+            }
+
+            boolean smoker;
+            if (fieldEqualsIgnoreCase(FIELD_SMOKER, SMOKER_YES_BYTES)) {
+                smoker = true;
+            } else if (fieldEqualsIgnoreCase(FIELD_SMOKER, SMOKER_NO_BYTES)) {
+                smoker = false;
+            } else {
+                reject(lineIndex, RejectReason.BAD_SMOKER_VALUE, start, end);
+                return;
+            }
+
+            long numberOfChildren = parseInt(FIELD_CHILDREN);
+            if (numberOfChildren == NOT_A_NUMBER) {
+                reject(lineIndex, RejectReason.NUMBER_FORMAT, start, end);
+                return;
+            }
+
+            // Comme split(), les champs vides en fin de ligne ne comptent pas
+            int fieldTotal = lastNonEmptyField + 1;
+            if (!parseStay(fieldTotal)) {
+                reject(lineIndex, RejectReason.BAD_DATE, start, end);
+                return;
+            }
+
+            // Règles métier vérifiées sur les octets, avant de créer la moindre chaîne
+            int purpose = findPurpose();
+            if (isFieldEmpty(FIELD_LAST_NAME) || isFieldEmpty(FIELD_FIRST_NAME) || purpose == NO_PURPOSE
+                    || !ReservationValidator.isValidPartySize((int) numberOfPeople, (int) numberOfChildren)) {
+                reject(lineIndex, RejectReason.BUSINESS_RULE, start, end);
+                return;
+            }
+
+            result.reservations.add(new Reservation(decodeField(FIELD_LAST_NAME), decodeField(FIELD_FIRST_NAME),
+                    (int) numberOfPeople, smoker, PURPOSES[purpose], (int) numberOfChildren, checkIn, checkOut));
+        }
+
+        // Lit les dates facultatives dans checkIn/checkOut ; false si elles sont incomplètes, invalides ou inversées
+        private boolean parseStay(int fieldTotal) {
+            if (fieldTotal <= ReservationParser.EXPECTED_FIELD_COUNT) {
+                checkIn = defaultCheckIn;
+                checkOut = defaultCheckOut;
+                return true;
+            }
+            if (fieldTotal < ReservationParser.STAY_FIELD_COUNT) return false; // arrivée sans départ
+
+            checkIn = parseDate(FIELD_CHECK_IN);
+            checkOut = parseDate(FIELD_CHECK_OUT);
+            return checkIn != null && checkOut != null && ReservationValidator.isValidStay(checkIn, checkOut);
+        }
+
+        // Équivalent de LocalDate.parse (format ISO aaaa-mm-jj) sans créer de chaîne ; null en cas d'erreur
+        private LocalDate parseDate(int field) {
+            int from = fieldStart[field];
+            if (fieldEnd[field] - from != ISO_DATE_LENGTH
+                    || buffer.get(from + 4) != '-' || buffer.get(from + 7) != '-') {
+                return null;
+            }
+            int year = parseDigits(from, from + 4);
+            int month = parseDigits(from + 5, from + 7);
+            int day = parseDigits(from + 8, from + 10);
+            if (year < 0 || month < 0 || day < 0) return null;
+            try {
+                return LocalDate.of(year, month, day);
+            } catch (DateTimeException e) {
+                return null; // ex: 2026-02-30
+            }
+        }
+
+        private int parseDigits(int from, int to) {
+            int value = 0;
+            for (int i = from; i < to; i++) {
+                int digit = buffer.get(i) - '0';
+                if (digit < 0 || digit > 9) return -1;
+                value = value * 10 + digit;
+            }
+            return value;
+        }
+
+        private void reject(int lineIndex, RejectReason reason, int start, int end) {
+            result.errors.add(new LineError(lineIndex, reason, decode(start, end)));
+        }
+
+        private void recordField(int index, int from, int to) {
+            if (to > from) lastNonEmptyField = index;
+            if (index >= ReservationParser.STAY_FIELD_COUNT) return; // champs en trop ignorés, comme split()
+            fieldStart[index] = from;
+            fieldEnd[index] = to;
+        }
+
+        // Même définition que String.trim() : tout octet <= ' ' est un blanc
+        private void trimField(int field) {
+            int from = fieldStart[field];
+            int to = fieldEnd[field];
+            while (from < to && (buffer.get(from) & 0xFF) <= ' ') from++;
+            while (to > from && (buffer.get(to - 1) & 0xFF) <= ' ') to--;
+            fieldStart[field] = from;
+            fieldEnd[field] = to;
+        }
+
+        private boolean isFieldEmpty(int field) {
+            return fieldStart[field] == fieldEnd[field];
+        }
+
+        // Équivalent de Integer.parseInt sans créer de chaîne : retourne NOT_A_NUMBER en cas d'erreur
+        private long parseInt(int field) {
+            int from = fieldStart[field];
+            int to = fieldEnd[field];
+            if (from == to) return NOT_A_NUMBER;
+
+            boolean negative = false;
+            byte first = buffer.get(from);
+            if (first == '-' || first == '+') {
+                negative = first == '-';
+                if (++from == to) return NOT_A_NUMBER;
+            }
+
+            long value = 0;
+            for (int i = from; i < to; i++) {
+                int digit = buffer.get(i) - '0';
+                if (digit < 0 || digit > 9) return NOT_A_NUMBER;
+                value = value * 10 + digit;
+                if (value > (long) Integer.MAX_VALUE + 1) return NOT_A_NUMBER;
+            }
+            value = negative ? -value : value;
+            return value < Integer.MIN_VALUE || value > Integer.MAX_VALUE ? NOT_A_NUMBER : value;
+        }
+
+        private boolean fieldEqualsIgnoreCase(int field, byte[] expected) {
+            int from = fieldStart[field];
+            if (fieldEnd[field] - from != expected.length) return false;
+            for (int i = 0; i < expected.length; i++) {
+                if (toLowerAscii(buffer.get(from + i)) != toLowerAscii(expected[i])) return false;
+            }
+            return true;
+        }
+
+        private int findPurpose() {
+            int from = fieldStart[FIELD_PURPOSE];
+            int length = fieldEnd[FIELD_PURPOSE] - from;
+            for (int p = 0; p < PURPOSE_BYTES.length; p++) {
+                byte[] candidate = PURPOSE_BYTES[p];
+                if (candidate.length == length && regionMatches(from, candidate)) return p;
+            }
+            return NO_PURPOSE;
+        }
+
+        private boolean contains(int start, int end, byte[] pattern) {
+            for (int i = start; i <= end - pattern.length; i++) {
+                if (regionMatches(i, pattern)) return true;
+            }
+            return false;
+        }
+
+        private boolean regionMatches(int from, byte[] pattern) {
+            for (int i = 0; i < pattern.length; i++) {
+                if (buffer.get(from + i) != pattern[i]) return false;
+            }
+            return true;
+        }
+
+        private String decodeField(int field) {
+            return decode(fieldStart[field], fieldEnd[field]);
+        }
+
+        private String decode(int from, int to) {
+            int length = to - from;
+            if (length > scratch.length) scratch = new byte[length];
+            for (int i = 0; i < length; i++) {
+                scratch[i] = buffer.get(from + i);
+            }
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        private static int toLowerAscii(byte b) {
+            return (b >= 'A' && b <= 'Z') ? b + ('a' - 'A') : b;
+        }
+    }
+}
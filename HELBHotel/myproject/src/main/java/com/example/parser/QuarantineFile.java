@@ -0,0 +1,82 @@
+package com.example.parser;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fichier de quarantaine (dead-letter) en ajout seul pour les lignes de réservation rejetées.
+ * Chaque ligne rejetée y est déplacée une seule fois, avec son code de raison :
+ *   CODE;numéro de ligne;contenu brut
+ * Le contenu brut est le dernier champ, il peut donc lui-même contenir des ';'.
+ */
+public class QuarantineFile {
+
+    private static final String SEPARATOR = ";";
+    private static final int FIELD_COUNT = 3;
+
+    // Quarantaine désactivée : les rejets sont seulement affichés (comportement historique)
+    private static final QuarantineFile NONE = new QuarantineFile();
+
+    private final Path quarantineFile;
+
+    public QuarantineFile(String quarantineFilePath) {
+        this.quarantineFile = Paths.get(quarantineFilePath);
+    }
+
+    private QuarantineFile() {
+        this.quarantineFile = null;
+    }
+
+    /** Quarantaine qui n'écrit rien (aucun fichier configuré). */
+    public static QuarantineFile none() {
+        return NONE;
+    }
+
+    public boolean isEnabled() {
+        return this != NONE;
+    }
+
+    /** Ajoute les lignes rejetées à la fin du fichier de quarantaine (une seule écriture pour tout le lot). */
+    public synchronized void append(List<RejectedLine> rejectedLines) throws IOException {
+        if (!isEnabled() || rejectedLines.isEmpty()) return;
+
+        try (BufferedWriter writer = Files.newBufferedWriter(quarantineFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            for (RejectedLine rejected : rejectedLines) {
+                writer.write(rejected.getReason().name() + SEPARATOR + rejected.getLineNumber() + SEPARATOR + rejected.getLine());
+                writer.newLine();
+            }
+        }
+    }
+
+    /** Relit tout le fichier de quarantaine (pour inspection ou retraitement manuel). */
+    public synchronized List<RejectedLine> readAll() throws IOException {
+        List<RejectedLine> rejectedLines = new ArrayList<>();
+        if (!isEnabled()) return rejectedLines;
+
+        try (BufferedReader reader = Files.newBufferedReader(quarantineFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(SEPARATOR, FIELD_COUNT);
+                if (parts.length != FIELD_COUNT) continue;
+                try {
+                    rejectedLines.add(new RejectedLine(Long.parseLong(parts[1]), parts[2], RejectReason.valueOf(parts[0])));
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Entrée de quarantaine illisible ignorée : " + line);
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // Aucun rejet pour l'instant
+        }
+        return rejectedLines;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.parser;
+
+/**
+ * Raison structurée du rejet d'une ligne de réservation.
+ * Le code (name()) est écrit tel quel dans le fichier de quarantaine.
+ */
+public enum RejectReason {
+    BAD_FIELD_COUNT("Incomplète : "),
+    NUMBER_FORMAT("Erreur de format numérique : "),
+    BAD_SMOKER_VALUE("Valeur fumeur invalide : "),
+    BAD_DATE("Dates de séjour invalides : "),
+    BUSINESS_RULE("Réservation invalide selon les règles métier : ");
+
+    private final String messagePrefix;
+
+    RejectReason(String messagePrefix) {
+        this.messagePrefix = messagePrefix;
+    }
+
+    /** Début du message affiché dans la console (ex: "Incomplète : ") */
+    public String getMessagePrefix() {
+        return messagePrefix;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.parser;
+
+/**
+ * Une ligne rejetée du CSV : son numéro, son contenu brut et la raison du rejet.
+ */
+public final class RejectedLine {
+
+    private final long lineNumber;
+    private final String line;
+    private final RejectReason reason;
+
+    public RejectedLine(long lineNumber, String line, RejectReason reason) {
+        this.lineNumber = lineNumber;
+        this.line = line;
+        this.reason = reason;
+    }
+
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    public String getLine() {
+        return line;
+    }
+
+    public RejectReason getReason() {
+        return reason;
+    }
+}
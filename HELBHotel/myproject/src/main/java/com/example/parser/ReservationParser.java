@@ -1,9 +1,15 @@
 package com.example.parser;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.example.models.EmptyReservation;
 import com.example.models.Reservation;
 import com.example.utils.ReservationValidator;
 
@@ -12,69 +18,128 @@ import com.example.utils.ReservationValidator;
  */
 public class ReservationParser {
 
-    private static final String SMOKER_YES = "Fumeur";
-    private static final String SMOKER_NO = "Non-fumeur";
+    static final String SMOKER_YES = "Fumeur";
+    static final String SMOKER_NO = "Non-fumeur";
 
     private static final String CSV_SEPARATOR = ",";
-    private static final int EXPECTED_FIELD_COUNT = 6;
+    static final int EXPECTED_FIELD_COUNT = 6;
+    // Deux colonnes facultatives : arrivée et départ au format ISO (2026-11-02) ; sans elles, séjour par défaut
+    static final int STAY_FIELD_COUNT = 8;
+    static final int FIELD_CHECK_IN = 6;
+    static final int FIELD_CHECK_OUT = 7;
+    static final String INVALID_MARKER = "#INVALID";
 
     private final String reservationFilePath;
+    private final QuarantineFile quarantine;
+    private final Clock clock; // jour d'arrivée des lignes sans dates
+    private final IngestStatistics statistics = new IngestStatistics();
 
     public ReservationParser(String reservationFilePath) {
+        this(reservationFilePath, QuarantineFile.none());
+    }
+
+    // Avec une quarantaine, clearFile() y déplace les lignes rejetées au lieu de les marquer #INVALID
+    public ReservationParser(String reservationFilePath, QuarantineFile quarantine) {
+        this(reservationFilePath, quarantine, Clock.systemDefaultZone());
+    }
+
+    // clock donne le jour d'arrivée du séjour par défaut (une horloge fixe dans les tests)
+    public ReservationParser(String reservationFilePath, QuarantineFile quarantine, Clock clock) {
         this.reservationFilePath = reservationFilePath;
+        this.quarantine = quarantine;
+        this.clock = clock;
     }
 
-    /** Charge les réservations à partir du fichier CSV */
+    /** Charge les réservations à partir du fichier CSV (les rejets sont comptés dans getStatistics()) */
     public List<Reservation> loadReservations() throws IOException {
+        long start = System.nanoTime();
         List<Reservation> reservations = new ArrayList<>();
+        List<RejectedLine> rejected = new ArrayList<>();
+        int lineNumber = 1;
         try (BufferedReader br = new BufferedReader(new FileReader(reservationFilePath))) {
             String line;
-            int lineNumber = 1;
             while ((line = br.readLine()) != null) {
-                if (line.contains("#INVALID")) continue; // Ignore les lignes déjà marquées invalides
+                if (isMarkedInvalid(line)) continue; // Ignore les lignes déjà marquées invalides
 
-                String[] parts = line.split(CSV_SEPARATOR);
-                if (parts.length < EXPECTED_FIELD_COUNT) {
-                    System.out.println("[Ligne " + lineNumber + "] Incomplète : " + line);
-                    lineNumber++;
-                    continue;
+                Reservation r = parseLine(line, lineNumber, rejected);
+                if (!(r instanceof EmptyReservation)) {
+                    reservations.add(r);
                 }
+                lineNumber++;
+            }
+        }
+        statistics.recordBatch(lineNumber - 1, reservations.size(), rejected, System.nanoTime() - start);
+        return reservations;
+    }
 
-                try {
-                    String lastName = parts[0].trim();
-                    String firstName = parts[1].trim();
-                    String numberStr = parts[2].trim();
-                    String smokerStr = parts[3].trim();
-                    String purpose = parts[4].trim();
-                    String childrenStr = parts[5].trim();
-
-                    int numberOfPeople = Integer.parseInt(numberStr);
-                    if (!(smokerStr.equalsIgnoreCase(SMOKER_YES) || smokerStr.equalsIgnoreCase(SMOKER_NO))) {
-                        System.out.println("[Ligne " + lineNumber + "] Valeur fumeur invalide : " + smokerStr);
-                        lineNumber++;
-                        continue;
-                    }
-
-                    boolean smoker = smokerStr.equalsIgnoreCase(SMOKER_YES);
-                    int numberOfChildren = Integer.parseInt(childrenStr);
-
-                    Reservation r = new Reservation(lastName, firstName, numberOfPeople, smoker, purpose, numberOfChildren);
-
-                    if (ReservationValidator.isValid(r)) {
-                        reservations.add(r);
-                    } else {
-                        System.out.println("[Ligne " + lineNumber + "] Réservation invalide selon les règles métier : " + lastName + " " + firstName);
-                    }
-                } catch (NumberFormatException e) {
-                    System.out.println("[Ligne " + lineNumber + "] Erreur de format numérique : " + line);
+    /** Compteurs d'ingestion de ce parseur (rejets par raison, débit, latence du dernier chargement) */
+    public IngestStatistics getStatistics() {
+        return statistics;
+    }
+
+    /** Indique si la ligne a déjà été marquée invalide lors d'un passage précédent */
+    public static boolean isMarkedInvalid(String line) {
+        return line.contains(INVALID_MARKER);
+    }
+
+    // Cette méthode analyse une seule ligne du CSV.
+    // Si la ligne est correcte et respecte les règles métier, je retourne la réservation,
+    // sinon j'ajoute la ligne et la raison du rejet à rejected et je retourne EmptyReservation (jamais null).
+    // Rien n'est affiché ici : l'affichage est échantillonné par IngestStatistics, par lot.
+    Reservation parseLine(String line, long lineNumber, List<RejectedLine> rejected) {
+        String[] parts = line.split(CSV_SEPARATOR);
+        if (parts.length < EXPECTED_FIELD_COUNT) {
+            return reject(line, lineNumber, RejectReason.BAD_FIELD_COUNT, rejected);
+        }
+
+        try {
+            String lastName = parts[0].trim();
+            String firstName = parts[1].trim();
+            String numberStr = parts[2].trim();
+            String smokerStr = parts[3].trim();
+            String purpose = parts[4].trim();
+            String childrenStr = parts[5].trim();
+
+            int numberOfPeople = Integer.parseInt(numberStr);
+            if (!(smokerStr.equalsIgnoreCase(SMOKER_YES) || smokerStr.equalsIgnoreCase(SMOKER_NO))) {
+                return reject(line, lineNumber, RejectReason.BAD_SMOKER_VALUE, rejected);
+            }
+
+            boolean smoker = smokerStr.equalsIgnoreCase(SMOKER_YES);
+            int numberOfChildren = Integer.parseInt(childrenStr);
+
+            LocalDate checkIn;
+            LocalDate checkOut;
+            if (parts.length == EXPECTED_FIELD_COUNT) {
+                checkIn = LocalDate.now(clock);
+                checkOut = checkIn.plusDays(Reservation.DEFAULT_NIGHTS);
+            } else if (parts.length >= STAY_FIELD_COUNT) {
+                checkIn = LocalDate.parse(parts[FIELD_CHECK_IN].trim());
+                checkOut = LocalDate.parse(parts[FIELD_CHECK_OUT].trim());
+                if (!ReservationValidator.isValidStay(checkIn, checkOut)) {
+                    return reject(line, lineNumber, RejectReason.BAD_DATE, rejected);
                 }
+            } else {
+                return reject(line, lineNumber, RejectReason.BAD_DATE, rejected); // arrivée sans départ
+            }
 
-                lineNumber++;
+            Reservation r = new Reservation(lastName, firstName, numberOfPeople, smoker, purpose, numberOfChildren, checkIn, checkOut);
+
+            if (ReservationValidator.isValid(r)) {
+                return r;
             }
+            return reject(line, lineNumber, RejectReason.BUSINESS_RULE, rejected);
+        } catch (NumberFormatException e) {
+            return reject(line, lineNumber, RejectReason.NUMBER_FORMAT, rejected);
+        } catch (DateTimeParseException e) {
+            return reject(line, lineNumber, RejectReason.BAD_DATE, rejected);
         }
-        return reservations;
     }
 
+    private static Reservation reject(String line, long lineNumber, RejectReason reason, List<RejectedLine> rejected) {
+        rejected.add(new RejectedLine(lineNumber, line, reason));
+        return EmptyReservation.getInstance();
+    }
     
 
     /** Sauvegarde toutes les réservations dans le fichier (en écrasant le précédent contenu) */
@@ -86,48 +151,43 @@ public class ReservationParser {
                               reservation.getNumberOfPeople() + CSV_SEPARATOR +
                               (reservation.isSmoker() ? SMOKER_YES : SMOKER_NO) + CSV_SEPARATOR +
                               reservation.getStayPurpose() + CSV_SEPARATOR +
-                              reservation.getNumberOfChildren();
+                              reservation.getNumberOfChildren() + CSV_SEPARATOR +
+                              reservation.getCheckIn() + CSV_SEPARATOR +
+                              reservation.getCheckOut();
                 writer.write(line);
                 writer.newLine();
             }
         }
     }
     
-  /** Supprime uniquement les lignes valides du fichier CSV, conserve les lignes invalides */
+  /**
+   * Supprime uniquement les lignes valides du fichier CSV, conserve les lignes invalides.
+   * Avec une quarantaine configurée, les lignes invalides y sont déplacées (avec leur raison)
+   * et le fichier est vidé : elles ne seront plus jamais relues.
+   */
     public void clearFile() throws IOException {
+        if (quarantine.isEnabled()) {
+            moveRejectedLinesToQuarantine();
+            return;
+        }
+
         List<String> invalidLines = new ArrayList<>();
 
         try (BufferedReader br = new BufferedReader(new FileReader(reservationFilePath))) {
             String line;
             while ((line = br.readLine()) != null) {
-                String[] parts = line.split(CSV_SEPARATOR);
-                if (parts.length < EXPECTED_FIELD_COUNT) {
-                    invalidLines.add(line); // ligne incomplète
-                    continue;
-                }
-                try {
-                    String lastName = parts[0].trim();
-                    String firstName = parts[1].trim();
-                    int numberOfPeople = Integer.parseInt(parts[2].trim());
-                    boolean smoker = parts[3].trim().equalsIgnoreCase(SMOKER_YES);
-                    String stayPurpose = parts[4].trim();
-                    int numberOfChildren = Integer.parseInt(parts[5].trim());
-
-                    Reservation r = new Reservation(lastName, firstName, numberOfPeople, smoker, stayPurpose, numberOfChildren);
-                    if (!ReservationValidator.isValid(r)) {
-                        invalidLines.add(line); // non valide
-                    }
-                    // sinon → ligne valide, on ne la garde pas
-                } catch (NumberFormatException e) {
-                    invalidLines.add(line); // ligne corrompue
+                // Même analyse qu'au chargement : une ligne rejetée (incomplète, corrompue, non valide) est conservée
+                if (parseLine(line, 0, new ArrayList<>()) instanceof EmptyReservation) {
+                    invalidLines.add(line);
                 }
+                // sinon → ligne valide, on ne la garde pas
             }
         }
 
         // Réécriture du fichier avec marquage des lignes invalides
         try (BufferedWriter writer = new BufferedWriter(new FileWriter(reservationFilePath, false))) {
             for (String invalidLine : invalidLines) {
-                if (!invalidLine.contains("#INVALID")) {
+                if (!isMarkedInvalid(invalidLine)) {
                     invalidLine += " #INVALID"; // Marque la ligne comme traitée
                 }
                 writer.write(invalidLine);
@@ -135,4 +195,29 @@ public class ReservationParser {
             }
         }
     }
+
+    private void moveRejectedLinesToQuarantine() throws IOException {
+        List<RejectedLine> rejected = new ArrayList<>();
+
+        try (BufferedReader br = new BufferedReader(new FileReader(reservationFilePath))) {
+            String line;
+            long lineNumber = 0;
+            while ((line = br.readLine()) != null) {
+                lineNumber++;
+                if (line.trim().isEmpty()) continue;
+                if (isMarkedInvalid(line)) {
+                    // Ligne marquée par l'ancien fonctionnement : elle part aussi en quarantaine
+                    String original = line.substring(0, line.indexOf(INVALID_MARKER)).trim();
+                    parseLine(original, lineNumber, rejected);
+                    continue;
+                }
+                parseLine(line, lineNumber, rejected);
+            }
+        }
+
+        // La quarantaine est écrite avant de vider le fichier : un crash entre les deux
+        // peut dupliquer un rejet, jamais en perdre un.
+        quarantine.append(rejected);
+        Files.write(Paths.get(reservationFilePath), new byte[0]);
+    }
 }
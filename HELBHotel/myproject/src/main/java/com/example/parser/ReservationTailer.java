@@ -0,0 +1,312 @@
+package com.example.parser;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import com.example.models.EmptyReservation;
+import com.example.models.Reservation;
+
+/**
+ * Lecture incrémentale ("tail") du fichier CSV de réservations.
+ * Le dernier octet consommé est mémorisé dans un petit fichier annexe (.offset),
+ * ce qui permet de ne relire que les lignes ajoutées depuis le passage précédent.
+ * La troncature et la rotation du fichier sont détectées et font repartir la lecture du début.
+ * Un fichier tronqué puis réécrit au-delà de l'ancien offset l'est aussi : l'empreinte (position et CRC32)
+ * de la dernière ligne consommée est vérifiée avant de reprendre.
+ *
+ * Lire n'enregistre pas l'offset : l'appelant prend la position atteinte (getPosition()) et ne la confirme
+ * (commit) qu'une fois les réservations lues rendues durables (journal synchronisé). Après un crash, les lignes
+ * lues mais pas encore journalisées sont donc relues ; leur source évite de les ajouter deux fois.
+ *
+ * Chaque réservation lue porte la source de sa ligne : identité du fichier, position du premier octet
+ * de la ligne et CRC32 de son contenu. Une ligne relue après une perte du .offset ou une réécriture
+ * à l'identique garde la même source, et le gestionnaire de réservations ne l'ajoute pas une deuxième fois ;
+ * une ligne différente écrite à la même position (fichier tronqué puis réécrit) reste une nouvelle réservation.
+ */
+public class ReservationTailer {
+
+    private static final String OFFSET_FILE_SUFFIX = ".offset";
+    private static final String OFFSET_SEPARATOR = ";";
+    private static final int LEGACY_OFFSET_FIELD_COUNT = 3; // sans empreinte de la dernière ligne
+    private static final int OFFSET_FIELD_COUNT = 5;
+    private static final long NO_LINE = -1;
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final byte NEW_LINE = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final String NO_IDENTITY = "";
+    private static final String SOURCE_POSITION_SEPARATOR = "@";
+    private static final String SOURCE_CRC_SEPARATOR = "#";
+
+    private final Path reservationFile;
+    private final Path offsetFile;
+    private final ReservationParser lineParser;
+    private final QuarantineFile quarantine;
+    private final IngestStatistics statistics = new IngestStatistics();
+
+    /** Position atteinte dans le fichier (identité, offset, numéro de ligne, empreinte), à confirmer par commit() */
+    public static final class Position {
+        private final String fileIdentity;
+        private final long offset;
+        private final long lineNumber;
+        private final long lastLineStart;
+        private final long lastLineCrc;
+
+        private Position(String fileIdentity, long offset, long lineNumber, long lastLineStart, long lastLineCrc) {
+            this.fileIdentity = fileIdentity;
+            this.offset = offset;
+            this.lineNumber = lineNumber;
+            this.lastLineStart = lastLineStart;
+            this.lastLineCrc = lastLineCrc;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public String getFileIdentity() {
+            return fileIdentity;
+        }
+
+        /** Début commun des sources de toutes les lignes de ce fichier (voir sourceOf) */
+        public String getSourcePrefix() {
+            return fileIdentity + SOURCE_POSITION_SEPARATOR;
+        }
+    }
+
+    // Position du premier octet non encore consommé et numéro de la dernière ligne lue
+    private long offset;
+    private long lineNumber;
+    // Identité du fichier lu (inode ou date de création) pour détecter une rotation
+    private String fileIdentity = NO_IDENTITY;
+    // Empreinte de la dernière ligne consommée (début et CRC32 sans le '\n') pour détecter une réécriture
+    private long lastLineStart = NO_LINE;
+    private long lastLineCrc;
+
+    public ReservationTailer(String reservationFilePath) throws IOException {
+        this(reservationFilePath, QuarantineFile.none());
+    }
+
+    // Les lignes rejetées sont déplacées dans la quarantaine avant d'avancer l'offset
+    public ReservationTailer(String reservationFilePath, QuarantineFile quarantine) throws IOException {
+        this(reservationFilePath, quarantine, Clock.systemDefaultZone());
+    }
+
+    // clock donne le jour d'arrivée des lignes sans dates (une horloge fixe dans les tests)
+    public ReservationTailer(String reservationFilePath, QuarantineFile quarantine, Clock clock) throws IOException {
+        this.reservationFile = Paths.get(reservationFilePath);
+        this.offsetFile = Paths.get(reservationFilePath + OFFSET_FILE_SUFFIX);
+        this.lineParser = new ReservationParser(reservationFilePath, QuarantineFile.none(), clock);
+        this.quarantine = quarantine;
+        loadOffset();
+    }
+
+    /**
+     * Lit uniquement les lignes complètes ajoutées depuis le dernier appel.
+     * Une ligne en cours d'écriture (sans retour à la ligne final) est laissée pour le passage suivant.
+     * Le coût est proportionnel aux nouvelles données, pas à la taille du fichier.
+     */
+    public synchronized List<Reservation> readNewReservations() throws IOException {
+        long start = System.nanoTime();
+        List<Reservation> reservations = new ArrayList<>();
+
+        try (FileChannel channel = FileChannel.open(reservationFile, StandardOpenOption.READ)) {
+            String identity = readIdentity();
+            long size = channel.size();
+
+            if (!identity.equals(fileIdentity)) {
+                // Nouveau fichier (rotation ou premier démarrage) : on repart du début
+                resetTo(identity);
+            } else if (size < offset || !lastLineUnchanged(channel)) {
+                // Le fichier a été tronqué (puis peut-être réécrit plus loin) : l'ancien offset n'a plus de sens
+                System.out.println("Fichier de réservations tronqué, relecture depuis le début : " + reservationFile);
+                resetTo(identity);
+            }
+
+            if (size == offset) {
+                return reservations;
+            }
+
+            List<RejectedLine> rejected = new ArrayList<>();
+            long firstLineNumber = lineNumber;
+            long consumed = readLinesFrom(channel, reservations, rejected);
+            statistics.recordBatch(lineNumber - firstLineNumber, reservations.size(), rejected, System.nanoTime() - start);
+            if (consumed != offset) {
+                // Quarantaine d'abord : après un crash, un rejet peut être dupliqué mais jamais perdu
+                quarantine.append(rejected);
+                offset = consumed;
+            }
+        } catch (NoSuchFileException e) {
+            // Le producteur n'a pas encore (re)créé le fichier : rien à lire pour l'instant
+        }
+
+        return reservations;
+    }
+
+    // Lit le canal à partir de l'offset courant et analyse chaque ligne terminée par '\n'.
+    // Les lignes sont cherchées directement dans le tampon de lecture et analysées sur place ; seule une ligne
+    // à cheval sur deux lectures est recopiée. Retourne la position qui suit le dernier retour à la ligne rencontré.
+    private long readLinesFrom(FileChannel channel, List<Reservation> reservations,
+                               List<RejectedLine> rejected) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        byte[] bytes = buffer.array();
+        ByteArrayOutputStream carried = new ByteArrayOutputStream(); // début de ligne de la lecture précédente
+        long position = offset; // position dans le fichier de bytes[0]
+        long consumed = offset;
+        int read;
+
+        while ((read = channel.read(buffer, position)) > 0) {
+            int lineFrom = 0;
+            for (int i = 0; i < read; i++) {
+                if (bytes[i] != NEW_LINE) continue;
+
+                lineNumber++;
+                if (carried.size() == 0) {
+                    handleLine(bytes, lineFrom, i - lineFrom, consumed, reservations, rejected);
+                } else {
+                    carried.write(bytes, lineFrom, i - lineFrom);
+                    byte[] line = carried.toByteArray();
+                    handleLine(line, 0, line.length, consumed, reservations, rejected);
+                    carried.reset();
+                }
+                lineFrom = i + 1;
+                consumed = position + lineFrom;
+            }
+            carried.write(bytes, lineFrom, read - lineFrom);
+            position += read;
+            buffer.clear();
+        }
+        return consumed;
+    }
+
+    private void handleLine(byte[] raw, int from, int length, long lineStart,
+                            List<Reservation> reservations, List<RejectedLine> rejected) {
+        long crc = crcOf(raw, from, length);
+        lastLineStart = lineStart;
+        lastLineCrc = crc;
+
+        String line = decodeLine(raw, from, length);
+        if (line.trim().isEmpty() || ReservationParser.isMarkedInvalid(line)) return;
+
+        Reservation r = lineParser.parseLine(line, lineNumber, rejected);
+        if (!(r instanceof EmptyReservation)) {
+            reservations.add(r.withSource(sourceOf(lineStart, crc)));
+        }
+    }
+
+    // Source d'une ligne : identité du fichier, position de son premier octet et CRC32 de son contenu
+    private String sourceOf(long lineStart, long crc) {
+        return fileIdentity + SOURCE_POSITION_SEPARATOR + lineStart + SOURCE_CRC_SEPARATOR + Long.toHexString(crc);
+    }
+
+    private static long crcOf(byte[] raw, int from, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(raw, from, length);
+        return crc.getValue();
+    }
+
+    // Vrai si la dernière ligne consommée est toujours à sa place, avec le même contenu : une seule petite
+    // lecture avant l'offset. Sans empreinte (début du fichier, ancien .offset), rien à vérifier.
+    private boolean lastLineUnchanged(FileChannel channel) throws IOException {
+        if (lastLineStart == NO_LINE) return true;
+
+        long length = offset - lastLineStart; // '\n' compris
+        if (length <= 0 || length > Integer.MAX_VALUE) return false;
+        ByteBuffer line = ByteBuffer.allocate((int) length);
+        while (line.hasRemaining()) {
+            if (channel.read(line, lastLineStart + line.position()) < 0) return false;
+        }
+        byte[] bytes = line.array();
+        return bytes[bytes.length - 1] == NEW_LINE && crcOf(bytes, 0, bytes.length - 1) == lastLineCrc;
+    }
+
+    private static String decodeLine(byte[] raw, int from, int length) {
+        if (length > 0 && raw[from + length - 1] == CARRIAGE_RETURN) length--; // fichiers Windows
+        return new String(raw, from, length, StandardCharsets.UTF_8);
+    }
+
+    private void resetTo(String identity) {
+        fileIdentity = identity;
+        offset = 0;
+        lineNumber = 0;
+        lastLineStart = NO_LINE;
+    }
+
+    // L'identité d'un fichier est sa clé système (inode) si elle existe, sinon sa date de création.
+    private String readIdentity() throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(reservationFile, BasicFileAttributes.class);
+        Object key = attributes.fileKey();
+        return key != null ? key.toString() : String.valueOf(attributes.creationTime().toMillis());
+    }
+
+    // Format du fichier annexe : identité;offset;numéro de ligne;début de la dernière ligne;CRC32 de cette ligne.
+    // L'ancien format à trois champs reste accepté, sans empreinte à vérifier.
+    private void loadOffset() throws IOException {
+        if (!Files.exists(offsetFile)) return;
+
+        String content = new String(Files.readAllBytes(offsetFile), StandardCharsets.UTF_8).trim();
+        String[] parts = content.split(OFFSET_SEPARATOR);
+        if (parts.length != OFFSET_FIELD_COUNT && parts.length != LEGACY_OFFSET_FIELD_COUNT) {
+            System.out.println("Fichier d'offset illisible, relecture complète : " + offsetFile);
+            return;
+        }
+
+        try {
+            fileIdentity = parts[0];
+            offset = Long.parseLong(parts[1]);
+            lineNumber = Long.parseLong(parts[2]);
+            if (parts.length == OFFSET_FIELD_COUNT) {
+                lastLineStart = Long.parseLong(parts[3]);
+                lastLineCrc = Long.parseLong(parts[4]);
+            }
+        } catch (NumberFormatException e) {
+            System.out.println("Fichier d'offset illisible, relecture complète : " + offsetFile);
+            resetTo(NO_IDENTITY);
+        }
+    }
+
+    /** Position atteinte par les lectures précédentes, à confirmer une fois leurs réservations durables. */
+    public synchronized Position getPosition() {
+        return new Position(fileIdentity, offset, lineNumber, lastLineStart, lastLineCrc);
+    }
+
+    /**
+     * Enregistre la position dans le fichier annexe : un redémarrage reprendra à partir d'elle.
+     * À n'appeler qu'une fois les réservations lues jusqu'à cette position journalisées et synchronisées.
+     */
+    public synchronized void commit(Position position) throws IOException {
+        saveOffset(position);
+    }
+
+    // J'écris d'abord dans un fichier temporaire puis je le renomme,
+    // pour ne jamais laisser un fichier d'offset à moitié écrit en cas de crash.
+    private void saveOffset(Position position) throws IOException {
+        String content = position.fileIdentity + OFFSET_SEPARATOR + position.offset + OFFSET_SEPARATOR + position.lineNumber
+                + OFFSET_SEPARATOR + position.lastLineStart + OFFSET_SEPARATOR + position.lastLineCrc;
+        Path temp = offsetFile.resolveSibling(offsetFile.getFileName() + ".tmp");
+        Files.write(temp, content.getBytes(StandardCharsets.UTF_8));
+        Files.move(temp, offsetFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** Compteurs d'ingestion cumulés sur toutes les lectures (rejets par raison, débit, latence du dernier lot) */
+    public IngestStatistics getStatistics() {
+        return statistics;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.parser;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Journal console échantillonné des lignes rejetées.
+ * Au plus maxSamplesPerInterval rejets sont affichés par intervalle ; les suivants sont seulement comptés
+ * et résumés en une ligne au début de l'intervalle suivant. Sur un flux très sale,
+ * la console n'affiche donc que quelques lignes par intervalle au lieu d'une par rejet.
+ */
+public class SampledRejectLog {
+
+    public static final int DEFAULT_MAX_SAMPLES_PER_INTERVAL = 5;
+    public static final long DEFAULT_INTERVAL_MILLIS = 10_000;
+
+    private final int maxSamplesPerInterval;
+    private final long intervalNanos;
+
+    private long intervalStart;
+    private boolean intervalStarted;
+    private int samplesInInterval;
+    private final Map<RejectReason, Long> suppressed = new EnumMap<>(RejectReason.class);
+
+    public SampledRejectLog() {
+        this(DEFAULT_MAX_SAMPLES_PER_INTERVAL, DEFAULT_INTERVAL_MILLIS);
+    }
+
+    public SampledRejectLog(int maxSamplesPerInterval, long intervalMillis) {
+        this.maxSamplesPerInterval = maxSamplesPerInterval;
+        this.intervalNanos = intervalMillis * 1_000_000L;
+    }
+
+    /** Affiche un échantillon des rejets d'un lot (la chaîne n'est construite que pour les lignes affichées). */
+    public synchronized void log(List<RejectedLine> rejectedLines) {
+        if (rejectedLines.isEmpty()) return;
+
+        long now = System.nanoTime();
+        if (!intervalStarted || now - intervalStart >= intervalNanos) {
+            printSuppressedSummary();
+            intervalStart = now;
+            intervalStarted = true;
+            samplesInInterval = 0;
+        }
+
+        for (RejectedLine rejected : rejectedLines) {
+            if (samplesInInterval < maxSamplesPerInterval) {
+                samplesInInterval++;
+                System.out.println("[Ligne " + rejected.getLineNumber() + "] "
+                        + rejected.getReason().getMessagePrefix() + rejected.getLine());
+            } else {
+                suppressed.merge(rejected.getReason(), 1L, Long::sum);
+            }
+        }
+    }
+
+    private void printSuppressedSummary() {
+        if (suppressed.isEmpty()) return;
+
+        long total = 0;
+        for (long count : suppressed.values()) {
+            total += count;
+        }
+        System.out.println("[Ingestion] " + total + " rejet(s) non affiché(s) : " + suppressed);
+        suppressed.clear();
+    }
+}
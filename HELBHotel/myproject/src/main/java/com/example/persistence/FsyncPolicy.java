@@ -0,0 +1,14 @@
+package com.example.persistence;
+
+/**
+ * Politique de synchronisation disque (fsync) du journal.
+ * C'est un compromis entre durabilité et débit d'écriture.
+ */
+public enum FsyncPolicy {
+    /** fsync après chaque lot écrit : aucune perte après un crash machine, débit le plus faible */
+    EVERY_BATCH,
+    /** fsync au plus une fois par intervalle : perte limitée à cet intervalle */
+    PERIODIC,
+    /** jamais de fsync explicite (seulement à la fermeture) : le système décide */
+    NEVER
+}
@@ -0,0 +1,364 @@
+package com.example.persistence;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+import com.example.models.Hotel;
+import com.example.models.Reservation;
+import com.example.models.ReservationRegistry;
+import com.example.models.Room;
+import com.example.models.RoomAvailability;
+
+/**
+ * Snapshot binaire de l'état complet : matrices des étages, chambres, occupation, séjours réservés,
+ * réservations en attente, propositions, assignations et sources des lignes déjà ingérées.
+ * Il est lu en une seule lecture séquentielle au démarrage, ce qui évite de re-parser hotel.hconf ;
+ * les chambres sont recréées depuis les matrices (simple remplissage de tableaux) puis l'état des seules
+ * chambres qui en ont un (occupant, séjours réservés) est relu : un hôtel vide ne coûte rien de plus.
+ *
+ * Le snapshot mémorise la somme de contrôle de hotel.hconf : si la configuration a changé,
+ * il est considéré comme périmé et l'appelant repasse par le parsing texte.
+ * Il mémorise aussi la dernière séquence du journal qu'il contient, pour ne rejouer que la suite.
+ *
+ * Objectif non atteint : le premier chargement d'un hôtel d'environ 100 000 chambres dont 10 000 occupées
+ * ne tient pas en 100 ms (HotelSnapshotBenchmark : de 105 à 170 ms selon les essais, sur une seule CPU).
+ * Ce premier chargement est dominé par le décodage des 10 000 réservations sur une JVM encore froide
+ * (chaînes UTF, première concaténation de chaînes), pas par la construction de l'hôtel : écrire aussi la
+ * disposition des chambres en tableaux, ou placer les occupants avant la construction des index plutôt
+ * que par assignTo, a été essayé sans gain mesurable.
+ */
+public final class HotelSnapshot {
+
+    private static final int MAGIC = 0x48534E50; // "HSNP"
+    // 2 : réservations identifiées par leur id ; 3 : séjours datés ;
+    // 4 : seules les chambres occupées ou avec des séjours réservés sont écrites, par position ;
+    // 5 : sources des lignes déjà ingérées ; 6 : séjours réservés écrits avec leur réservation (pour leur check-in)
+    private static final int FORMAT_VERSION = 6;
+    private static final int CRC_SIZE = 4;
+    private static final String NO_PROPOSAL = "";
+
+    private final Hotel hotel;
+    private final long journalSequence;
+    private final List<Reservation> pendingReservations;
+    private final Map<Long, String> proposals;
+    private final Map<Long, String> assignments;
+    private final Map<String, Long> sources;
+
+    private HotelSnapshot(Hotel hotel, long journalSequence, List<Reservation> pendingReservations,
+                          Map<Long, String> proposals, Map<Long, String> assignments, Map<String, Long> sources) {
+        this.hotel = hotel;
+        this.journalSequence = journalSequence;
+        this.pendingReservations = pendingReservations;
+        this.proposals = proposals;
+        this.assignments = assignments;
+        this.sources = sources;
+    }
+
+    public Hotel getHotel() {
+        return hotel;
+    }
+
+    public long getJournalSequence() {
+        return journalSequence;
+    }
+
+    /** Recharge les réservations en attente, les propositions, les assignations et les sources dans le gestionnaire. */
+    public void restoreInto(ReservationRegistry manager) {
+        // Sources d'abord : une réservation en attente retrouve la sienne, sous le même id
+        for (Map.Entry<String, Long> entry : sources.entrySet()) {
+            manager.restoreSource(entry.getKey(), entry.getValue());
+        }
+        manager.addAll(pendingReservations);
+        Map<Reservation, String> restoredProposals = new HashMap<>();
+        for (Reservation reservation : pendingReservations) {
+            String proposal = proposals.get(reservation.getId());
+            if (proposal != null) {
+                restoredProposals.put(reservation, proposal);
+            }
+        }
+        manager.proposeAll(restoredProposals);
+        for (Map.Entry<Long, String> entry : assignments.entrySet()) {
+            manager.restoreAssignment(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /** Somme de contrôle (CRC32) du fichier de configuration, pour détecter un snapshot périmé. */
+    public static long checksumOf(String configFilePath) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(Files.readAllBytes(Paths.get(configFilePath)));
+        return crc.getValue();
+    }
+
+    // ============================
+    // Écriture
+    // ============================
+
+    /** Encode puis écrit le snapshot (à appeler depuis le thread qui possède les modèles). */
+    public static void save(String snapshotPath, long configChecksum, long journalSequence,
+                            Hotel hotel, ReservationRegistry manager) throws IOException {
+        write(snapshotPath, encode(configChecksum, journalSequence, hotel, manager));
+    }
+
+    /**
+     * Encode l'état en mémoire. Rapide : peut se faire sur le thread JavaFX,
+     * l'écriture disque (write) pouvant ensuite partir en arrière-plan.
+     */
+    public static byte[] encode(long configChecksum, long journalSequence,
+                                Hotel hotel, ReservationRegistry manager) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeLong(configChecksum);
+        out.writeLong(journalSequence);
+
+        // Les cellules et types sont des chaînes très répétées : je les écris une fois dans un dictionnaire
+        Map<String, Integer> dictionary = buildDictionary(hotel);
+        out.writeShort(dictionary.size());
+        for (String value : dictionary.keySet()) {
+            out.writeUTF(value);
+        }
+
+        int numberOfFloors = hotel.getNumberOfFloors();
+        out.writeInt(numberOfFloors);
+        for (int floor = 0; floor < numberOfFloors; floor++) {
+            String[][] matrix = hotel.getRoomMatrixForFloor(floor);
+            out.writeInt(matrix.length);
+            for (String[] row : matrix) {
+                byte[] codes = new byte[row.length];
+                for (int col = 0; col < row.length; col++) {
+                    codes[col] = (byte) (int) dictionary.get(row[col]);
+                }
+                out.writeInt(codes.length);
+                out.write(codes);
+            }
+        }
+
+        // Chambres : seules celles qui ont un état sont écrites, avec leur position dans getAllRooms()
+        List<Room> rooms = hotel.getAllRooms();
+        List<Integer> withState = new ArrayList<>();
+        for (int i = 0; i < rooms.size(); i++) {
+            if (rooms.get(i).isOccupied() || !rooms.get(i).getBookings().isEmpty()) withState.add(i);
+        }
+        out.writeInt(rooms.size());
+        out.writeInt(withState.size());
+        for (int index : withState) {
+            Room room = rooms.get(index);
+            out.writeInt(index);
+            out.writeBoolean(room.isOccupied());
+            if (room.isOccupied()) {
+                ReservationCodec.write(out, room.getAssignedReservation());
+            }
+            List<RoomAvailability.Booking> bookings = room.getBookings();
+            out.writeInt(bookings.size());
+            for (RoomAvailability.Booking booking : bookings) {
+                ReservationCodec.write(out, booking.getReservation());
+            }
+        }
+
+        List<Reservation> pending = manager.getAllReservations();
+        out.writeInt(pending.size());
+        for (Reservation reservation : pending) {
+            ReservationCodec.write(out, reservation);
+            out.writeUTF(manager.getProposalIfExists(reservation.getId()));
+        }
+
+        Map<Long, String> assignments = manager.getAssignedRoomMap();
+        out.writeInt(assignments.size());
+        for (Map.Entry<Long, String> entry : assignments.entrySet()) {
+            out.writeLong(entry.getKey());
+            out.writeUTF(entry.getValue());
+        }
+
+        Map<String, Long> sources = manager.getSourceMap();
+        out.writeInt(sources.size());
+        for (Map.Entry<String, Long> entry : sources.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeLong(entry.getValue());
+        }
+
+        out.flush();
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeInt((int) crc.getValue());
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    // Écrit dans un fichier temporaire synchronisé puis le renomme :
+    // un crash pendant l'écriture laisse toujours l'ancien snapshot intact.
+    public static void write(String snapshotPath, byte[] data) throws IOException {
+        Path target = Paths.get(snapshotPath);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static Map<String, Integer> buildDictionary(Hotel hotel) throws IOException {
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        for (int floor = 0; floor < hotel.getNumberOfFloors(); floor++) {
+            for (String[] row : hotel.getRoomMatrixForFloor(floor)) {
+                for (String cell : row) {
+                    dictionary.putIfAbsent(cell, dictionary.size());
+                }
+            }
+        }
+        for (Room room : hotel.getAllRooms()) {
+            dictionary.putIfAbsent(room.getType(), dictionary.size());
+        }
+        if (dictionary.size() > Byte.MAX_VALUE) {
+            throw new IOException("Trop de types de cellules différents pour le snapshot : " + dictionary.size());
+        }
+        return dictionary;
+    }
+
+    // ============================
+    // Lecture
+    // ============================
+
+    /**
+     * Charge le snapshot s'il existe, est intact (CRC) et correspond encore à la configuration.
+     * Sinon, retourne un Optional vide : l'appelant repasse alors par le parsing texte.
+     */
+    public static Optional<HotelSnapshot> load(String snapshotPath, long configChecksum) {
+        Path file = Paths.get(snapshotPath);
+        if (!Files.exists(file)) return Optional.empty();
+
+        try {
+            byte[] data = Files.readAllBytes(file); // une seule lecture séquentielle
+            if (data.length < CRC_SIZE || !hasValidCrc(data)) {
+                System.err.println("Snapshot corrompu, chargement depuis la configuration : " + snapshotPath);
+                return Optional.empty();
+            }
+
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(data, 0, data.length - CRC_SIZE));
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                System.err.println("Format de snapshot non reconnu, chargement depuis la configuration : " + snapshotPath);
+                return Optional.empty();
+            }
+            if (in.readLong() != configChecksum) {
+                System.out.println("Configuration modifiée depuis le dernier snapshot, chargement depuis hotel.hconf");
+                return Optional.empty();
+            }
+            return Optional.of(decode(in));
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Snapshot illisible (" + e.getMessage() + "), chargement depuis la configuration");
+            return Optional.empty();
+        }
+    }
+
+    private static HotelSnapshot decode(DataInputStream in) throws IOException {
+        long journalSequence = in.readLong();
+
+        String[] dictionary = new String[in.readUnsignedShort()];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = in.readUTF();
+        }
+
+        int numberOfFloors = in.readInt();
+        String[][][] matrices = new String[numberOfFloors][][];
+        for (int floor = 0; floor < numberOfFloors; floor++) {
+            String[][] matrix = new String[in.readInt()][];
+            for (int row = 0; row < matrix.length; row++) {
+                byte[] codes = new byte[in.readInt()];
+                in.readFully(codes); // une ligne entière par lecture
+                String[] cells = new String[codes.length];
+                for (int col = 0; col < cells.length; col++) {
+                    cells[col] = dictionary[codes[col] & 0xFF];
+                }
+                matrix[row] = cells;
+            }
+            matrices[floor] = matrix;
+        }
+
+        // Les chambres se déduisent des matrices (positions et labels) : seul l'état des chambres qui en ont un
+        // est relu, après avoir vérifié que le snapshot décrit bien le même nombre de chambres
+        // Reconstruire l'hôtel depuis les matrices coûte une vingtaine de ms sur 100 000 chambres (voir plus haut)
+        Hotel hotel = new Hotel(numberOfFloors, matrices);
+        List<Room> rooms = hotel.getAllRooms();
+        int roomCount = in.readInt();
+        if (roomCount != rooms.size()) {
+            throw new IOException("Snapshot incohérent : " + roomCount + " chambres pour " + rooms.size() + " dans les matrices");
+        }
+        int withState = in.readInt();
+        int previousIndex = -1;
+        for (int i = 0; i < withState; i++) {
+            int index = in.readInt();
+            if (index <= previousIndex || index >= roomCount) {
+                throw new IOException("Snapshot incohérent : position de chambre " + index);
+            }
+            previousIndex = index;
+            Room room = rooms.get(index);
+            if (in.readBoolean()) {
+                room.assignTo(ReservationCodec.read(in));
+            }
+            int bookingCount = in.readInt();
+            for (int b = 0; b < bookingCount; b++) {
+                if (!room.restoreBooking(ReservationCodec.read(in))) {
+                    throw new IOException("Séjours qui se chevauchent dans la chambre " + room.getLabel());
+                }
+            }
+        }
+
+        int pendingCount = in.readInt();
+        List<Reservation> pending = new ArrayList<>(pendingCount);
+        Map<Long, String> proposals = new HashMap<>();
+        for (int i = 0; i < pendingCount; i++) {
+            Reservation reservation = ReservationCodec.read(in);
+            String proposal = in.readUTF();
+            pending.add(reservation);
+            if (!proposal.equals(NO_PROPOSAL)) {
+                proposals.put(reservation.getId(), proposal);
+            }
+        }
+
+        int assignmentCount = in.readInt();
+        Map<Long, String> assignments = new HashMap<>();
+        for (int i = 0; i < assignmentCount; i++) {
+            assignments.put(in.readLong(), in.readUTF());
+        }
+
+        int sourceCount = in.readInt();
+        Map<String, Long> sources = new HashMap<>();
+        for (int i = 0; i < sourceCount; i++) {
+            String source = in.readUTF();
+            sources.put(source, in.readLong());
+        }
+
+        return new HotelSnapshot(hotel, journalSequence,
+                pending, proposals, assignments, sources);
+    }
+
+    private static boolean hasValidCrc(byte[] data) {
+        int contentLength = data.length - CRC_SIZE;
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, contentLength);
+        int stored = ByteBuffer.wrap(data, contentLength, CRC_SIZE).getInt();
+        return stored == (int) crc.getValue();
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.persistence;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import com.example.models.EmptyReservation;
+import com.example.models.Reservation;
+
+/**
+ * Une entrée du journal : un type d'opération, son numéro de séquence,
+ * la réservation concernée et le label de la chambre.
+ */
+public final class JournalRecord {
+
+    /** Types d'opérations journalisées */
+    public enum Type {
+        ADD,      // réservation ingérée depuis le CSV
+        PROPOSE,  // chambre proposée à une réservation
+        CONFIRM,  // séjour réservé dans une chambre
+        RELEASE,  // chambre libérée
+        CHECK_IN  // client installé dans la chambre de son séjour (depuis la version 5)
+    }
+
+    private static final Type[] TYPES = Type.values();
+
+    private final long sequence;
+    private final Type type;
+    private final Reservation reservation;
+    private final String roomLabel;
+
+    JournalRecord(long sequence, Type type, Reservation reservation, String roomLabel) {
+        this.sequence = sequence;
+        this.type = type;
+        this.reservation = reservation;
+        this.roomLabel = roomLabel;
+    }
+
+    static JournalRecord released(long sequence, String roomLabel) {
+        return new JournalRecord(sequence, Type.RELEASE, EmptyReservation.getInstance(), roomLabel);
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Reservation getReservation() {
+        return reservation;
+    }
+
+    public String getRoomLabel() {
+        return roomLabel;
+    }
+
+    // Format binaire : séquence, type, label, puis la réservation (sauf pour RELEASE)
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeLong(sequence);
+        out.writeByte(type.ordinal());
+        out.writeUTF(roomLabel);
+        if (type == Type.RELEASE) return;
+
+        ReservationCodec.write(out, reservation);
+    }
+
+    // formatVersion : version du journal lu (1 : sans ids, 2 : sans dates de séjour, 3 : sans source,
+    // 4 : confirmation qui occupe la chambre, 5 : format actuel)
+    static JournalRecord readFrom(DataInputStream in, int formatVersion) throws IOException {
+        long sequence = in.readLong();
+        int typeIndex = in.readUnsignedByte();
+        if (typeIndex >= TYPES.length) {
+            throw new IOException("Type d'entrée de journal inconnu : " + typeIndex);
+        }
+        Type type = TYPES[typeIndex];
+        String roomLabel = in.readUTF();
+        if (type == Type.RELEASE) {
+            return released(sequence, roomLabel);
+        }
+
+        Reservation reservation;
+        if (formatVersion == ReservationJournal.VERSION_WITHOUT_IDS) {
+            reservation = ReservationCodec.readWithoutId(in);
+        } else if (formatVersion == ReservationJournal.VERSION_WITHOUT_DATES) {
+            reservation = ReservationCodec.readWithoutDates(in);
+        } else if (formatVersion == ReservationJournal.VERSION_WITHOUT_SOURCES) {
+            reservation = ReservationCodec.readWithoutSource(in);
+        } else {
+            reservation = ReservationCodec.read(in);
+        }
+        return new JournalRecord(sequence, type, reservation, roomLabel);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.persistence;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDate;
+
+import com.example.models.Reservation;
+
+/**
+ * Encodage binaire d'une réservation, partagé par le journal et le snapshot.
+ * L'id est écrit en tête pour qu'une réservation garde la même identité après un redémarrage ;
+ * les dates du séjour suivent, en jours depuis l'époque (LocalDate.toEpochDay), puis la source
+ * de la ligne d'origine, pour qu'une ligne relue après un redémarrage reste reconnue.
+ */
+final class ReservationCodec {
+
+    private ReservationCodec() {
+    }
+
+    static void write(DataOutput out, Reservation reservation) throws IOException {
+        out.writeLong(reservation.getId());
+        out.writeUTF(reservation.getLastName());
+        out.writeUTF(reservation.getFirstName());
+        out.writeByte(reservation.getNumberOfPeople());
+        out.writeBoolean(reservation.isSmoker());
+        out.writeUTF(reservation.getStayPurpose());
+        out.writeByte(reservation.getNumberOfChildren());
+        out.writeLong(reservation.getCheckIn().toEpochDay());
+        out.writeLong(reservation.getCheckOut().toEpochDay());
+        out.writeUTF(reservation.getSource());
+    }
+
+    static Reservation read(DataInput in) throws IOException {
+        return readFields(in, readId(in), true, true);
+    }
+
+    // Format sans source (version 3 du journal) : la réservation n'est rattachée à aucune ligne
+    static Reservation readWithoutSource(DataInput in) throws IOException {
+        return readFields(in, readId(in), true, false);
+    }
+
+    // Format sans dates (version 2 du journal) : la réservation reçoit le séjour par défaut
+    static Reservation readWithoutDates(DataInput in) throws IOException {
+        return readFields(in, readId(in), false, false);
+    }
+
+    // Ancien format (version 1 du journal), sans id ni dates : la réservation reçoit un nouvel id
+    static Reservation readWithoutId(DataInput in) throws IOException {
+        return readFields(in, Reservation.NO_ID, false, false);
+    }
+
+    private static long readId(DataInput in) throws IOException {
+        long id = in.readLong();
+        if (id <= Reservation.NO_ID) {
+            throw new IOException("Id de réservation invalide : " + id);
+        }
+        return id;
+    }
+
+    private static Reservation readFields(DataInput in, long id, boolean withDates, boolean withSource) throws IOException {
+        String lastName = in.readUTF();
+        String firstName = in.readUTF();
+        int numberOfPeople = in.readUnsignedByte();
+        boolean smoker = in.readBoolean();
+        String stayPurpose = in.readUTF();
+        int numberOfChildren = in.readUnsignedByte();
+        if (id == Reservation.NO_ID) {
+            return new Reservation(lastName, firstName, numberOfPeople, smoker, stayPurpose, numberOfChildren);
+        }
+
+        LocalDate checkIn = LocalDate.now();
+        LocalDate checkOut = checkIn.plusDays(Reservation.DEFAULT_NIGHTS);
+        if (withDates) {
+            checkIn = LocalDate.ofEpochDay(in.readLong());
+            checkOut = LocalDate.ofEpochDay(in.readLong());
+            if (!checkOut.isAfter(checkIn)) {
+                throw new IOException("Séjour invalide pour la réservation " + id + " : du " + checkIn + " au " + checkOut);
+            }
+        }
+        String source = withSource ? in.readUTF() : Reservation.NO_SOURCE;
+        return new Reservation(id, source, lastName, firstName, numberOfPeople, smoker, stayPurpose, numberOfChildren, checkIn, checkOut);
+    }
+}
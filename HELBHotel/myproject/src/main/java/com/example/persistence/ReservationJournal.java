@@ -0,0 +1,596 @@
+package com.example.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import com.example.models.Hotel;
+import com.example.models.Reservation;
+import com.example.models.ReservationRegistry;
+
+/**
+ * Journal binaire en ajout seul (write-ahead log) des propositions, confirmations, check-ins et libérations.
+ * Les appels record...() ne font que mettre l'entrée en file d'attente : ils ne bloquent jamais
+ * le thread JavaFX. Un thread d'écriture regroupe les entrées en lots (group commit),
+ * les écrit en une fois puis synchronise le disque selon la FsyncPolicy choisie.
+ * Au démarrage, replay() relit le journal pour reconstruire l'hôtel et le gestionnaire de réservations.
+ *
+ * Format : en-tête (magic, version) puis, pour chaque entrée : longueur, contenu, CRC32 du contenu.
+ * Une entrée incomplète ou corrompue en fin de fichier (crash pendant l'écriture) est ignorée et tronquée.
+ * Depuis la version 2, chaque réservation est écrite avec son id, depuis la version 3 avec les dates de son séjour
+ * et depuis la version 4 avec la source de sa ligne (rejouer un ajout rend la ligne à nouveau reconnue).
+ * Depuis la version 5, une confirmation ne fait que réserver le séjour et l'occupation de la chambre a sa propre
+ * entrée (CHECK_IN) : le rejeu ne dépend plus du jour où il a lieu.
+ * Un journal d'une version antérieure est encore relu (version 1 : réservations identifiées par leur nom ;
+ * version 2 : séjour par défaut ; version 3 : sans source ; version 4 : confirmation qui occupe les séjours commencés),
+ * puis archivé en ".v1" à ".v4" et remplacé par un journal vide :
+ * l'appelant doit alors écrire un snapshot (voir wasMigrated()).
+ *
+ * Une erreur d'écriture arrête le journal : le fichier est ramené à la fin de la dernière entrée complète
+ * (les lots suivants ne sont jamais ajoutés derrière une entrée coupée, que le rejeu prendrait pour la fin),
+ * puis record...() et flush() échouent au lieu de perdre les entrées en silence.
+ * Une fois un snapshot durable écrit, compact() retire les entrées qu'il contient déjà.
+ */
+public class ReservationJournal implements Closeable {
+
+    public static final long DEFAULT_SYNC_INTERVAL_MILLIS = 1000;
+
+    private static final int MAGIC = 0x484A524E; // "HJRN"
+    private static final int FORMAT_VERSION = 5;
+    static final int VERSION_WITHOUT_CHECK_IN = 4;         // confirmation qui occupe aussi la chambre
+    static final int VERSION_WITHOUT_SOURCES = 3;          // réservations sans source (ligne d'origine)
+    static final int VERSION_WITHOUT_DATES = 2;            // réservations sans dates de séjour
+    static final int VERSION_WITHOUT_IDS = 1;              // réservations sans id ni dates
+    private static final String LEGACY_SUFFIX = ".v";
+    private static final String COMPACT_SUFFIX = ".compact";
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_OVERHEAD = 8;          // longueur + CRC32
+    private static final int MAX_RECORD_SIZE = 64 * 1024;
+    private static final int MAX_BATCH_SIZE = 1024;
+    private static final long IDLE_POLL_MILLIS = 100;
+    private static final String THREAD_NAME = "reservation-journal-writer";
+
+    private final Path journalFile;
+    private final FsyncPolicy fsyncPolicy;
+    private final long syncIntervalNanos;
+    private final BlockingQueue<EncodedRecord> queue = new LinkedBlockingQueue<>();
+    private final Object progressLock = new Object();
+    // Protège channel, writtenPosition et unsyncedWrites entre le thread d'écriture et compact()
+    private final Object channelLock = new Object();
+
+    private FileChannel channel;
+    private Thread writer;
+    private volatile boolean running;
+    private volatile IOException failure; // erreur d'écriture qui a arrêté le journal
+    private boolean closed;
+    private boolean recovered;
+    private boolean migrated;
+    private int fileVersion = FORMAT_VERSION;
+
+    private long lastSequence;      // dernière séquence attribuée
+    private long processedSequence; // dernière séquence écrite par le thread d'écriture (protégé par progressLock)
+    private long lastSyncNanos;
+    private boolean unsyncedWrites;
+    private long writtenPosition;   // fin de la dernière entrée écrite en entier
+    private int recordLength;       // longueur de la dernière entrée lue par readPayload()
+
+    public ReservationJournal(String journalFilePath, FsyncPolicy fsyncPolicy) {
+        this(journalFilePath, fsyncPolicy, DEFAULT_SYNC_INTERVAL_MILLIS);
+    }
+
+    public ReservationJournal(String journalFilePath, FsyncPolicy fsyncPolicy, long syncIntervalMillis) {
+        this.journalFile = Paths.get(journalFilePath);
+        this.fsyncPolicy = fsyncPolicy;
+        this.syncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(syncIntervalMillis);
+    }
+
+    // ============================
+    // Relecture au démarrage
+    // ============================
+
+    /**
+     * Relit toutes les entrées valides du journal et les applique à l'hôtel et au gestionnaire.
+     * Doit être appelée avant start(). Retourne le nombre d'entrées rejouées.
+     */
+    public int replay(Hotel hotel, ReservationRegistry manager) throws IOException {
+        return replay(hotel, manager, 0);
+    }
+
+    /**
+     * Comme replay(hotel, manager), mais ignore les entrées déjà contenues dans un snapshot
+     * (séquence inférieure ou égale à afterSequence). Les nouvelles entrées continuent après cette séquence.
+     */
+    public synchronized int replay(Hotel hotel, ReservationRegistry manager, long afterSequence) throws IOException {
+        if (recovered) {
+            throw new IllegalStateException("Le journal a déjà été relu : " + journalFile);
+        }
+
+        lastSequence = afterSequence;
+        processedSequence = afterSequence;
+        if (!Files.exists(journalFile) || Files.size(journalFile) < HEADER_SIZE) {
+            writeHeader();
+            recovered = true;
+            return 0;
+        }
+
+        int replayed = 0;
+        long lastValidPosition = HEADER_SIZE;
+        try (InputStream raw = Files.newInputStream(journalFile);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(raw))) {
+            readHeader(in);
+
+            // Version 1 : une même réservation est relue en plusieurs objets, je les ramène à un seul par nom
+            Map<String, Reservation> legacyReservations = new HashMap<>();
+
+            JournalRecord record;
+            manager.beginBatch(); // un seul delta pour tout le rejeu
+            try {
+                while ((record = readRecord(in)) != null) {
+                    lastValidPosition += RECORD_OVERHEAD + recordLength;
+                    if (record.getSequence() <= afterSequence) continue;
+
+                    if (fileVersion == VERSION_WITHOUT_IDS && record.getType() != JournalRecord.Type.RELEASE) {
+                        Reservation read = record.getReservation();
+                        Reservation canonical = legacyReservations.computeIfAbsent(read.getKey(), k -> read);
+                        record = new JournalRecord(record.getSequence(), record.getType(), canonical, record.getRoomLabel());
+                    }
+                    apply(record, hotel, manager, fileVersion);
+                    lastSequence = record.getSequence();
+                    replayed++;
+                }
+            } finally {
+                manager.commitBatch();
+            }
+        }
+
+        if (fileVersion != FORMAT_VERSION) {
+            archiveLegacyJournal();
+        } else {
+            truncateTornTail(lastValidPosition);
+        }
+        processedSequence = lastSequence;
+        recovered = true;
+        return replayed;
+    }
+
+    // Applique une entrée aux modèles, sans repasser par le journal
+    private static void apply(JournalRecord record, Hotel hotel, ReservationRegistry manager, int formatVersion) {
+        Reservation reservation = record.getReservation();
+        String label = record.getRoomLabel();
+
+        switch (record.getType()) {
+            case ADD:
+                if (!manager.contains(reservation)) manager.add(reservation);
+                break;
+            case PROPOSE:
+                if (!manager.contains(reservation)) manager.add(reservation);
+                manager.proposeRoom(reservation, label);
+                break;
+            case CONFIRM:
+                if (formatVersion <= VERSION_WITHOUT_CHECK_IN) {
+                    // Ancien journal sans check-in : la confirmation occupait la chambre si le séjour avait commencé
+                    hotel.confirmReservation(label, reservation);
+                } else {
+                    hotel.restoreConfirmation(label, reservation);
+                }
+                manager.assignReservation(reservation, label);
+                manager.remove(reservation);
+                break;
+            case RELEASE:
+                hotel.releaseRoom(label);
+                break;
+            case CHECK_IN:
+                hotel.checkIn(label, reservation);
+                break;
+        }
+    }
+
+    // Retourne null à la fin du journal ou sur une entrée incomplète/corrompue
+    private JournalRecord readRecord(DataInputStream in) throws IOException {
+        byte[] payload = readPayload(in);
+        if (payload == null) return null;
+        return JournalRecord.readFrom(new DataInputStream(new ByteArrayInputStream(payload)), fileVersion);
+    }
+
+    // Contenu brut de l'entrée suivante, CRC vérifié ; null à la fin du journal ou sur une entrée incomplète/corrompue
+    private byte[] readPayload(DataInputStream in) throws IOException {
+        try {
+            int length = in.readInt();
+            if (length <= 0 || length > MAX_RECORD_SIZE) return null;
+
+            byte[] payload = new byte[length];
+            in.readFully(payload);
+            int expectedCrc = in.readInt();
+            if (crcOf(payload, length) != expectedCrc) return null;
+
+            recordLength = length;
+            return payload;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    private void readHeader(DataInputStream in) throws IOException {
+        int magic = in.readInt();
+        int version = in.readInt();
+        if (magic != MAGIC || version < VERSION_WITHOUT_IDS || version > FORMAT_VERSION) {
+            throw new IOException("Journal de réservations non reconnu (version " + version + ") : " + journalFile);
+        }
+        fileVersion = version;
+    }
+
+    // Les nouvelles entrées ne peuvent pas être ajoutées à un journal d'une ancienne version : je le garde de côté
+    // et repars d'un journal vide, la numérotation continuant après la dernière séquence relue.
+    private void archiveLegacyJournal() throws IOException {
+        Path archive = journalFile.resolveSibling(journalFile.getFileName() + LEGACY_SUFFIX + fileVersion);
+        Files.move(journalFile, archive, StandardCopyOption.REPLACE_EXISTING);
+        writeHeader();
+        System.out.println("Journal version " + fileVersion + " relu puis archivé : " + archive);
+        fileVersion = FORMAT_VERSION;
+        migrated = true;
+    }
+
+    /** Vrai si replay() a converti un ancien journal : l'état relu n'est plus que dans les modèles. */
+    public synchronized boolean wasMigrated() {
+        return migrated;
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(FORMAT_VERSION);
+        header.flip();
+        try (FileChannel out = FileChannel.open(journalFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            out.write(header);
+            out.force(true);
+        }
+    }
+
+    // Une écriture interrompue par un crash laisse une fin de fichier invalide : je la coupe
+    private void truncateTornTail(long lastValidPosition) throws IOException {
+        if (Files.size(journalFile) == lastValidPosition) return;
+
+        System.err.println("Journal : fin incomplète ignorée à partir de l'octet " + lastValidPosition);
+        try (FileChannel out = FileChannel.open(journalFile, StandardOpenOption.WRITE)) {
+            out.truncate(lastValidPosition);
+            out.force(true);
+        }
+    }
+
+    // ============================
+    // Écriture
+    // ============================
+
+    /** Retourne la séquence de la dernière entrée enregistrée (à mémoriser dans un snapshot). */
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+
+    /** Ouvre le journal en ajout et démarre le thread d'écriture. */
+    public synchronized void start() throws IOException {
+        if (!recovered) {
+            throw new IllegalStateException("replay() doit être appelée avant start() : " + journalFile);
+        }
+        channel = openForAppend(journalFile);
+        writtenPosition = channel.size();
+        lastSyncNanos = System.nanoTime();
+        running = true;
+        writer = new Thread(this::writeLoop, THREAD_NAME);
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Canal d'écriture en ajout ; redéfini dans les tests pour simuler une erreur d'écriture (disque plein)
+    protected FileChannel openForAppend(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    public void recordAdded(Reservation reservation) {
+        enqueue(JournalRecord.Type.ADD, reservation, "");
+    }
+
+    public void recordProposal(Reservation reservation, String roomLabel) {
+        enqueue(JournalRecord.Type.PROPOSE, reservation, roomLabel);
+    }
+
+    public void recordConfirmation(Reservation reservation, String roomLabel) {
+        enqueue(JournalRecord.Type.CONFIRM, reservation, roomLabel);
+    }
+
+    public void recordCheckIn(Reservation reservation, String roomLabel) {
+        enqueue(JournalRecord.Type.CHECK_IN, reservation, roomLabel);
+    }
+
+    public void recordRelease(String roomLabel) {
+        enqueue(JournalRecord.Type.RELEASE, null, roomLabel);
+    }
+
+    // Entrée encodée par l'appelant : une entrée impossible à écrire (trop longue) est refusée tout de suite,
+    // au lieu de couper le journal au prochain rejeu
+    private static final class EncodedRecord {
+        private final long sequence;
+        private final byte[] payload;
+
+        private EncodedRecord(long sequence, byte[] payload) {
+            this.sequence = sequence;
+            this.payload = payload;
+        }
+    }
+
+    // La séquence est attribuée et l'entrée mise en file sous le même verrou pour garder l'ordre d'écriture
+    private synchronized void enqueue(JournalRecord.Type type, Reservation reservation, String roomLabel) {
+        if (failure != null) {
+            throw new IllegalStateException("Journal arrêté après une erreur d'écriture : " + journalFile, failure);
+        }
+        if (!running) {
+            throw new IllegalStateException("Le journal n'est pas démarré : " + journalFile);
+        }
+        long sequence = lastSequence + 1;
+        JournalRecord record = type == JournalRecord.Type.RELEASE
+                ? JournalRecord.released(sequence, roomLabel)
+                : new JournalRecord(sequence, type, reservation, roomLabel);
+        queue.add(new EncodedRecord(sequence, encode(record)));
+        lastSequence = sequence;
+    }
+
+    private byte[] encode(JournalRecord record) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            record.writeTo(out);
+        } catch (IOException e) {
+            // Seul cas possible en mémoire : une chaîne de plus de 65 535 octets (writeUTF)
+            throw new IllegalArgumentException("Entrée de journal impossible à encoder : " + e.getMessage(), e);
+        }
+        if (bytes.size() > MAX_RECORD_SIZE) {
+            throw new IllegalArgumentException("Entrée de journal trop longue (" + bytes.size() + " octets) : " + journalFile);
+        }
+        return bytes.toByteArray();
+    }
+
+    private void writeLoop() {
+        List<EncodedRecord> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        ByteArrayOutputStream batchBytes = new ByteArrayOutputStream();
+
+        try {
+            while (running || !queue.isEmpty()) {
+                EncodedRecord first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                synchronized (channelLock) {
+                    if (first == null) {
+                        syncIfDue();
+                        continue;
+                    }
+
+                    // Group commit : tout ce qui attend déjà part dans le même lot
+                    batch.add(first);
+                    queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+                    writeBatch(batch, batchBytes);
+
+                    if (fsyncPolicy == FsyncPolicy.EVERY_BATCH) {
+                        sync();
+                    } else {
+                        syncIfDue();
+                    }
+                }
+                markProcessed(batch.get(batch.size() - 1).sequence);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void writeBatch(List<EncodedRecord> batch, ByteArrayOutputStream batchBytes) throws IOException {
+        batchBytes.reset();
+        DataOutputStream out = new DataOutputStream(batchBytes);
+        for (EncodedRecord record : batch) {
+            out.writeInt(record.payload.length);
+            out.write(record.payload);
+            out.writeInt(crcOf(record.payload, record.payload.length));
+        }
+        out.flush();
+
+        ByteBuffer buffer = ByteBuffer.wrap(batchBytes.toByteArray());
+        unsyncedWrites = true;
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        writtenPosition += buffer.capacity();
+    }
+
+    // Une écriture interrompue a pu laisser une entrée coupée : je ramène le fichier à la fin de la dernière
+    // entrée complète, puis le journal refuse toute nouvelle entrée (les appelants voient l'erreur).
+    private void fail(IOException cause) {
+        System.err.println("Erreur d'écriture dans le journal, journalisation arrêtée : " + cause.getMessage());
+        synchronized (channelLock) {
+            try {
+                channel.truncate(writtenPosition);
+                channel.force(true);
+            } catch (IOException e) {
+                cause.addSuppressed(e);
+            }
+            if (failure == null) failure = cause; // une compaction ratée a pu arrêter le journal avant
+        }
+        synchronized (this) {
+            running = false;
+        }
+        synchronized (progressLock) {
+            progressLock.notifyAll();
+        }
+    }
+
+    private void syncIfDue() throws IOException {
+        if (fsyncPolicy == FsyncPolicy.PERIODIC && System.nanoTime() - lastSyncNanos >= syncIntervalNanos) {
+            sync();
+        }
+    }
+
+    private void sync() throws IOException {
+        if (!unsyncedWrites) return;
+        channel.force(false);
+        unsyncedWrites = false;
+        lastSyncNanos = System.nanoTime();
+    }
+
+    private void markProcessed(long sequence) {
+        synchronized (progressLock) {
+            processedSequence = sequence;
+            progressLock.notifyAll();
+        }
+    }
+
+    /**
+     * Attend que toutes les entrées déjà enregistrées aient été écrites (utile à l'arrêt et dans les tests).
+     * Échoue si une erreur d'écriture a arrêté le journal avant.
+     */
+    public void flush() throws IOException {
+        long target;
+        synchronized (this) {
+            target = lastSequence;
+        }
+        synchronized (progressLock) {
+            while (processedSequence < target && writer.isAlive()) {
+                try {
+                    progressLock.wait(IDLE_POLL_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Attente du journal interrompue");
+                }
+            }
+        }
+        throwIfFailed();
+    }
+
+    /**
+     * Comme flush(), puis force les entrées écrites sur le disque quelle que soit la FsyncPolicy :
+     * au retour, elles survivent à un crash machine. Bloquant : à appeler hors du thread JavaFX.
+     */
+    public void flushAndSync() throws IOException {
+        flush();
+        try {
+            synchronized (channelLock) {
+                if (failure == null) sync();
+            }
+        } catch (IOException e) {
+            fail(e); // hors de channelLock, comme depuis le thread d'écriture
+        }
+        throwIfFailed();
+    }
+
+    private void throwIfFailed() throws IOException {
+        IOException cause = failure;
+        if (cause != null) {
+            throw new IOException("Journal arrêté après une erreur d'écriture : " + journalFile, cause);
+        }
+    }
+
+    // ============================
+    // Compaction
+    // ============================
+
+    /**
+     * Retire les entrées déjà contenues dans un snapshot durable (séquence inférieure ou égale à snapshotSequence).
+     * Les entrées suivantes sont recopiées dans un nouveau fichier, synchronisé puis renommé à la place du journal :
+     * un crash pendant la compaction laisse l'ancien journal intact. Le thread d'écriture attend la fin de la copie.
+     * Retourne le nombre d'entrées gardées.
+     */
+    public int compact(long snapshotSequence) throws IOException {
+        synchronized (channelLock) {
+            throwIfFailed();
+            if (channel == null || !channel.isOpen()) {
+                throw new IllegalStateException("Le journal n'est pas démarré : " + journalFile);
+            }
+
+            Path compacted = journalFile.resolveSibling(journalFile.getFileName() + COMPACT_SUFFIX);
+            int kept = 0;
+            try (InputStream raw = Files.newInputStream(journalFile);
+                 DataInputStream in = new DataInputStream(new BufferedInputStream(raw));
+                 FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                         StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                readHeader(in);
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                DataOutputStream keptRecords = new DataOutputStream(bytes);
+                keptRecords.writeInt(MAGIC);
+                keptRecords.writeInt(FORMAT_VERSION);
+                byte[] payload;
+                while ((payload = readPayload(in)) != null) {
+                    if (ByteBuffer.wrap(payload).getLong() <= snapshotSequence) continue; // la séquence ouvre chaque entrée
+                    keptRecords.writeInt(payload.length);
+                    keptRecords.write(payload);
+                    keptRecords.writeInt(crcOf(payload, payload.length));
+                    kept++;
+                }
+                keptRecords.flush();
+                ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                out.force(true);
+            }
+
+            try {
+                channel.close();
+                Files.move(compacted, journalFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                channel = openForAppend(journalFile);
+                writtenPosition = channel.size();
+                unsyncedWrites = false;
+            } catch (IOException e) {
+                // L'ancien canal est fermé : le thread d'écriture ne peut plus rien ajouter
+                failure = e;
+                throw e;
+            }
+            return kept;
+        }
+    }
+
+    /** Écrit les entrées en attente, synchronise le disque et ferme le journal. */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (writer == null || closed) return;
+            closed = true;
+            running = false;
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (channelLock) {
+            try {
+                if (failure == null) channel.force(true);
+            } finally {
+                channel.close();
+            }
+        }
+        throwIfFailed();
+    }
+
+    private static int crcOf(byte[] bytes, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, length);
+        return (int) crc.getValue();
+    }
+}
@@ -1,7 +1,13 @@
 package com.example.strategy;
 
+import com.example.models.EmptyRoom;
+import com.example.models.Hotel;
 import com.example.models.Reservation;
+import com.example.models.ReservationRegistry;
 import com.example.models.Room;
+import com.example.models.RoomType;
+
+import java.time.LocalDate;
 
 /**
  * Classe abstraite partagée entre les différentes stratégies d'assignation.
@@ -21,26 +27,52 @@ public abstract class Assignment implements AssignmentStrategy {
      * return true si la chambre est considérée comme appropriée
      */
     protected boolean matchesStayPurpose(Room room, Reservation reservation) {
+        return room.getRoomType() == preferredRoomType(reservation);
+    }
+
+    /**
+     * Type de chambre qui correspond au motif de séjour et aux préférences du client.
+     * Les stratégies ne parcourent ensuite que les chambres libres de ce type (bitmap de l'hôtel).
+     */
+    protected RoomType preferredRoomType(Reservation reservation) {
         String stayPurpose = reservation.getStayPurpose().toLowerCase();
         boolean smoker = reservation.isSmoker();
         boolean hasChildren = reservation.hasChildren();
 
         // Si le séjour est professionnel, on oriente vers Business
         if (stayPurpose.contains(STAY_PURPOSE_AFFAIRE)) {
-            return room.isBusiness();
+            return RoomType.BUSINESS;
         }
 
         // Si le séjour est touristique ou autre
         if (stayPurpose.contains(STAY_PURPOSE_TOURISME) || stayPurpose.contains(STAY_PURPOSE_AUTRE)) {
             // Clients calmes (non-fumeurs et sans enfants) → Luxury
             if (!smoker && !hasChildren) {
-                return room.isLuxury();
+                return RoomType.LUXURY;
             }
             // Sinon → Economy
-            return room.isEconomy();
+            return RoomType.ECONOMY;
         }
 
         // Cas non reconnu → fallback sur Economy
-        return room.isEconomy();
+        return RoomType.ECONOMY;
+    }
+
+    /**
+     * Première chambre libre pour le séjour, du type voulu, qui n'est pas déjà proposée.
+     * Seules les positions du bitmap des candidates sont visitées, dans l'ordre des chambres ;
+     * le label n'est construit que pour la chambre retenue.
+     */
+    protected String findFirstMatchingRoom(Hotel hotel, ReservationRegistry reservationManager, Reservation reservation) {
+        RoomType type = preferredRoomType(reservation);
+        LocalDate checkIn = reservation.getCheckIn();
+        for (int i = hotel.nextCandidateRoom(type, checkIn, 0); i >= 0; i = hotel.nextCandidateRoom(type, checkIn, i + 1)) {
+            Room room = hotel.getRoomAt(i);
+            if (room.isFreeFor(checkIn, reservation.getCheckOut())
+                && !reservationManager.isRoomAlreadyProposed(room)) {
+                return room.getLabel();
+            }
+        }
+        return EmptyRoom.getInstance().getLabel();
     }
 }
@@ -1,10 +1,8 @@
 package com.example.strategy;
 
-import com.example.models.EmptyRoom;
 import com.example.models.Hotel;
 import com.example.models.Reservation;
-import com.example.models.ReservationManager;
-import com.example.models.Room;
+import com.example.models.ReservationRegistry;
 
 /**
  * Stratégie d'assignation basée sur le motif du séjour.
@@ -13,7 +11,7 @@ import com.example.models.Room;
 public class PurposeBased extends Assignment {
 
     private static PurposeBased instance; // Singleton
-    private ReservationManager reservationManager;
+    private ReservationRegistry reservationManager;
     private Hotel hotel;
 
     // Constructeur privé (Singleton)
@@ -22,13 +20,14 @@ public class PurposeBased extends Assignment {
     }
 
     // Fournit l'instance unique de la stratégie, avec mise à jour de l'hôtel si nécessaire
-    public static PurposeBased getInstance(Hotel hotel, ReservationManager rm) {
+    public static PurposeBased getInstance(Hotel hotel, ReservationRegistry rm) {
         if (instance == null) {
             instance = new PurposeBased(hotel);
         } else {
             instance.hotel = hotel;
         }
         instance.reservationManager = rm;
+        rm.indexProposalsFor(instance.hotel);
         return instance;
     }
     
@@ -36,14 +35,7 @@ public class PurposeBased extends Assignment {
     // Cherche la première chambre libre qui correspond au motif du séjour
     @Override
     public String assignRoom(Reservation reservation) {
-        for (Room room : hotel.getAllRooms()) {
-            if (!room.isOccupied()
-                && !reservationManager.isRoomAlreadyProposed(room.getLabel())
-                && matchesStayPurpose(room, reservation)) {
-                return room.getLabel();
-            }
-        }
-        return EmptyRoom.getInstance().getLabel();
+        return findFirstMatchingRoom(hotel, reservationManager, reservation);
     }
     
 
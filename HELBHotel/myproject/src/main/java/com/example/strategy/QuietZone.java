@@ -2,25 +2,28 @@ package com.example.strategy;
 
 import com.example.models.Hotel;
 import com.example.models.Reservation;
-import com.example.models.ReservationManager;
+import com.example.models.ReservationRegistry;
 import com.example.models.Room;
 import com.example.models.EmptyRoom;
 
+import java.time.LocalDate;
+
 /**
  * Stratégie d'assignation pour les zones calmes.
  * Applique des règles spécifiques :
  * - Fumeurs → colonnes avec fenêtre (colonne 0)
  * - Familles avec enfants → pas de voisins adultes seuls
+ *   (voisins directs sur le même étage et la même ligne, colonnes -1 et +1 : l'hôtel tient à jour
+ *   le nombre de voisins adultes sans enfants de chaque chambre, la vérification est en O(1))
  */
 public class QuietZone implements AssignmentStrategy {
 
     private static QuietZone instance; // Singleton
-    private ReservationManager reservationManager;
+    private ReservationRegistry reservationManager;
     private Hotel hotel;
 
     // === Règles constantes ===
     private static final int QUIET_COLUMN_WITH_WINDOW = 0;
-    private static final int ADJACENT_COLUMN_DISTANCE = 1;
 
     // Constructeur privé (Singleton)
     private QuietZone(Hotel hotel) {
@@ -28,13 +31,14 @@ public class QuietZone implements AssignmentStrategy {
     }
 
     // Fournit l’instance unique de la stratégie, met à jour l’hôtel si nécessaire
-    public static QuietZone getInstance(Hotel hotel, ReservationManager rm) {
+    public static QuietZone getInstance(Hotel hotel, ReservationRegistry rm) {
         if (instance == null) {
             instance = new QuietZone(hotel);
         } else {
             instance.hotel = hotel;
         }
         instance.reservationManager = rm;
+        rm.indexProposalsFor(instance.hotel);
         return instance;
     }
 
@@ -49,12 +53,15 @@ public class QuietZone implements AssignmentStrategy {
         boolean smoker = reservation.isSmoker();
         boolean hasChildren = reservation.hasChildren();
 
-        for (Room room : hotel.getAllRooms()) {
-            if (room.isOccupied()) continue;
-            if (reservationManager.isRoomAlreadyProposed(room.getLabel())) continue;
+        LocalDate checkIn = reservation.getCheckIn();
+        // Seules les chambres candidates (libres, ou toutes pour un séjour futur) sont visitées
+        for (int i = hotel.nextCandidateRoom(null, checkIn, 0); i >= 0; i = hotel.nextCandidateRoom(null, checkIn, i + 1)) {
+            Room room = hotel.getRoomAt(i);
+            if (!room.isFreeFor(checkIn, reservation.getCheckOut())) continue;
+            if (reservationManager.isRoomAlreadyProposed(room)) continue;
         
             if (smoker && room.getColumn() != QUIET_COLUMN_WITH_WINDOW) continue;
-            if (hasChildren && !isSurroundedByCompatibleFamilies(room)) continue;
+            if (hasChildren && hotel.hasAdultOnlyNeighbour(room)) continue;
         
             return room.getLabel();
         }
@@ -62,28 +69,4 @@ public class QuietZone implements AssignmentStrategy {
 
         return EmptyRoom.getInstance().getLabel(); // Aucun résultat compatible
     }
-
-    /**
-     * Vérifie que les voisins directs (colonne -1 et +1 sur le même étage) sont compatibles :
-     * - soit vides
-     * - soit occupés par des familles avec enfants.
-     */
-    private boolean isSurroundedByCompatibleFamilies(Room room) {
-        int floor = room.getFloor();
-        int col = room.getColumn();
-
-        for (Room other : hotel.getAllRooms()) {
-            if (!other.isOccupied()) continue;
-            if (other.getFloor() != floor) continue;
-
-            int otherCol = other.getColumn();
-            if (Math.abs(otherCol - col) == ADJACENT_COLUMN_DISTANCE) {
-                Reservation res = other.getAssignedReservation(); // jamais null
-                if (!res.hasChildren()) {
-                    return false;
-                }
-            }
-        }
-        return true;
-    }
 }
@@ -2,12 +2,9 @@ package com.example.strategy;
 
 import com.example.models.Hotel;
 import com.example.models.Reservation;
-import com.example.models.ReservationManager;
+import com.example.models.ReservationRegistry;
 import com.example.models.Room;
-import com.example.models.EmptyRoom;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
 
 /**
@@ -17,7 +14,7 @@ import java.util.Random;
 public class RandomAssignment implements AssignmentStrategy {
 
     private static RandomAssignment instance; // Singleton
-    private ReservationManager reservationManager;
+    private ReservationRegistry reservationManager;
     private Hotel hotel;
 
     // Constructeur privé (Singleton)
@@ -26,34 +23,25 @@ public class RandomAssignment implements AssignmentStrategy {
     }
 
     // Fournit l’instance unique, ou met à jour l’hôtel si l’instance existe déjà
-    public static RandomAssignment getInstance(Hotel hotel, ReservationManager rm) {
+    public static RandomAssignment getInstance(Hotel hotel, ReservationRegistry rm) {
         if (instance == null) {
             instance = new RandomAssignment(hotel);
         } else {
             instance.hotel = hotel;
         }
         instance.reservationManager = rm;
+        rm.indexProposalsFor(instance.hotel);
         return instance;
     }
     
 
-    // Assigne une chambre aléatoirement parmi les chambres libres
+    // Assigne une chambre aléatoirement parmi les chambres libres : tirage direct dans le bitmap des chambres
+    // candidates, sans construire la liste de toutes les chambres disponibles
     @Override
     public String assignRoom(Reservation reservation) {
-        List<Room> availableRooms = new ArrayList<>();
-
-        for (Room room : hotel.getAllRooms()) {
-            if (!room.isOccupied()
-                && !reservationManager.isRoomAlreadyProposed(room.getLabel())) {
-                availableRooms.add(room);
-            }
-        }
-        
-
-        if (availableRooms.isEmpty()) {
-            return EmptyRoom.getInstance().getLabel();
-        }
-
-        return availableRooms.get(new Random().nextInt(availableRooms.size())).getLabel();
+        Room room = hotel.findRandomCandidateRoom(reservation.getCheckIn(), new Random(),
+                candidate -> candidate.isFreeFor(reservation.getCheckIn(), reservation.getCheckOut())
+                        && !reservationManager.isRoomAlreadyProposed(candidate));
+        return room.getLabel();
     }
 }
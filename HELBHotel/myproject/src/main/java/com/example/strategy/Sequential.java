@@ -2,9 +2,7 @@ package com.example.strategy;
 
 import com.example.models.Hotel;
 import com.example.models.Reservation;
-import com.example.models.ReservationManager;
-import com.example.models.Room;
-import com.example.models.EmptyRoom;
+import com.example.models.ReservationRegistry;
 
 /**
  * Stratégie d'assignation séquentielle.
@@ -13,7 +11,7 @@ import com.example.models.EmptyRoom;
 public class Sequential extends Assignment {
 
     private static Sequential instance; // Singleton
-    private ReservationManager reservationManager;
+    private ReservationRegistry reservationManager;
     private Hotel hotel;
 
     // Constructeur privé (Singleton)
@@ -22,13 +20,14 @@ public class Sequential extends Assignment {
     }
 
     // Fournit l’instance unique de la stratégie, ou met à jour l’hôtel
-    public static Sequential getInstance(Hotel hotel, ReservationManager rm) {
+    public static Sequential getInstance(Hotel hotel, ReservationRegistry rm) {
         if (instance == null) {
             instance = new Sequential(hotel);
         } else {
             instance.hotel = hotel;
         }
         instance.reservationManager = rm;
+        rm.indexProposalsFor(instance.hotel);
         return instance;
     }
     
@@ -36,14 +35,7 @@ public class Sequential extends Assignment {
     // Parcourt toutes les chambres dans l’ordre et assigne la première qui correspond au profil du client
     @Override
     public String assignRoom(Reservation reservation) {
-        for (Room room : hotel.getAllRooms()) {
-            if (!room.isOccupied()
-                && !reservationManager.isRoomAlreadyProposed(room.getLabel())
-                && matchesStayPurpose(room, reservation)) {
-                return room.getLabel();
-            }
-        }
-        return EmptyRoom.getInstance().getLabel();
+        return findFirstMatchingRoom(hotel, reservationManager, reservation);
     }
 
 }
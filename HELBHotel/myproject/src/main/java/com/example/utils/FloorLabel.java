@@ -0,0 +1,81 @@
+package com.example.utils;
+
+/**
+ * Lettres d'étage des labels de chambre : A..Z, puis AA, AB, ..., AZ, BA, ..., ZZ
+ * (numérotation bijective en base 26, comme les colonnes d'un tableur).
+ * Un label de chambre est composé des lettres d'étage, du numéro puis de la lettre de type (ex: A10B, AB3L).
+ */
+public final class FloorLabel {
+
+    private static final int ALPHABET_SIZE = 26;
+
+    /** Nombre maximal d'étages représentables sur deux lettres (A..ZZ). */
+    public static final int MAX_FLOORS = ALPHABET_SIZE + ALPHABET_SIZE * ALPHABET_SIZE;
+
+    // Les lettres de chaque étage sont calculées une fois pour toutes
+    private static final String[] LETTERS = new String[MAX_FLOORS];
+
+    static {
+        for (int i = 0; i < MAX_FLOORS; i++) {
+            LETTERS[i] = compute(i);
+        }
+    }
+
+    private FloorLabel() {
+    }
+
+    private static String compute(int floorIndex) {
+        StringBuilder letters = new StringBuilder(2);
+        int n = floorIndex + 1;
+        while (n > 0) {
+            n--;
+            letters.insert(0, (char) ('A' + n % ALPHABET_SIZE));
+            n /= ALPHABET_SIZE;
+        }
+        return letters.toString();
+    }
+
+    /** Retourne les lettres d'un étage (0 -> A, 25 -> Z, 26 -> AA, ...). */
+    public static String of(int floorIndex) {
+        if (floorIndex < 0 || floorIndex >= MAX_FLOORS) {
+            throw new IllegalArgumentException("Index d'étage hors limites : " + floorIndex);
+        }
+        return LETTERS[floorIndex];
+    }
+
+    /** Retourne l'index d'un étage à partir de ses lettres (A -> 0, AA -> 26), ou -1 si elles sont invalides. */
+    public static int indexOf(String letters) {
+        if (letters.isEmpty()) return -1;
+
+        int n = 0;
+        for (int i = 0; i < letters.length(); i++) {
+            char c = letters.charAt(i);
+            if (c < 'A' || c > 'Z') return -1;
+            n = n * ALPHABET_SIZE + (c - 'A' + 1);
+            if (n > MAX_FLOORS) return -1;
+        }
+        return n - 1;
+    }
+
+    /** Nombre de lettres d'étage en tête d'un label (tout ce qui précède le premier chiffre). */
+    public static int prefixLength(String roomLabel) {
+        int length = 0;
+        while (length < roomLabel.length() && Character.isLetter(roomLabel.charAt(length))) {
+            length++;
+        }
+        return length;
+    }
+
+    /** Retourne les lettres d'étage d'un label de chambre (ex: AB3L -> AB). */
+    public static String floorOf(String roomLabel) {
+        return roomLabel.substring(0, prefixLength(roomLabel));
+    }
+
+    /** Vérifie, sans allocation, qu'un label de chambre appartient à l'étage donné (A1B est sur A, pas sur AA). */
+    public static boolean isOnFloor(String roomLabel, String floorLetters) {
+        int length = floorLetters.length();
+        return roomLabel.length() > length
+                && roomLabel.startsWith(floorLetters)
+                && Character.isDigit(roomLabel.charAt(length));
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Table de hachage à adressage ouvert (sondage linéaire) indexée par des clés long primitives.
+ * Contrairement à HashMap<Long, V>, aucune clé n'est emballée en Long et aucun nœud n'est alloué
+ * par entrée : les clés et les valeurs sont rangées dans deux tableaux parallèles.
+ * Les valeurs null ne sont pas acceptées (une case vide est une case dont la valeur est null).
+ * Non synchronisée.
+ */
+public final class LongObjectMap<V> {
+
+    /** Parcours des entrées sans emballer les clés. */
+    @FunctionalInterface
+    public interface EntryVisitor<V> {
+        void visit(long key, V value);
+    }
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private long[] keys;
+    private Object[] values;
+    private int size;
+    private int mask;
+
+    public LongObjectMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongObjectMap(int expectedSize) {
+        // Taux de remplissage maximal de 1/2 : les séquences de sondage restent courtes
+        int capacity = Integer.highestOneBit(Math.max(DEFAULT_CAPACITY, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    // Mélange des bits (finaliseur de MurmurHash3) : des ids consécutifs ne tombent pas dans des cases voisines
+    private static int slotOf(long key, int mask) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key & mask;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        for (int slot = slotOf(key, mask); values[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) return (V) values[slot];
+        }
+        return null;
+    }
+
+    public V getOrDefault(long key, V defaultValue) {
+        V value = get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    /** Associe la valeur à la clé et retourne l'ancienne valeur, ou null. */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Les valeurs null ne sont pas acceptées");
+        }
+        int slot = slotOf(key, mask);
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                V previous = (V) values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size * 2 > keys.length) {
+            rehash(keys.length << 1);
+        }
+        return null;
+    }
+
+    /** Retire la clé et retourne l'ancienne valeur, ou null. */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int slot = slotOf(key, mask);
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                V previous = (V) values[slot];
+                shiftBack(slot);
+                size--;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    // Suppression sans marqueur : les entrées suivantes de la séquence de sondage sont recalées
+    // dans le trou, pour que les recherches ne s'arrêtent jamais trop tôt.
+    private void shiftBack(int hole) {
+        int slot = hole;
+        while (true) {
+            slot = (slot + 1) & mask;
+            if (values[slot] == null) break;
+
+            int ideal = slotOf(keys[slot], mask);
+            // L'entrée peut combler le trou si sa case idéale n'est pas entre le trou (exclu) et sa position
+            boolean movable = hole <= slot ? (ideal <= hole || ideal > slot) : (ideal <= hole && ideal > slot);
+            if (movable) {
+                keys[hole] = keys[slot];
+                values[hole] = values[slot];
+                hole = slot;
+            }
+        }
+        values[hole] = null;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] == null) continue;
+            int slot = slotOf(oldKeys[i], mask);
+            while (values[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryVisitor<? super V> visitor) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) visitor.visit(keys[i], (V) values[i]);
+        }
+    }
+
+    /** Copie des valeurs, dans l'ordre des cases (non significatif). */
+    @SuppressWarnings("unchecked")
+    public List<V> values() {
+        List<V> copy = new ArrayList<>(size);
+        for (Object value : values) {
+            if (value != null) copy.add((V) value);
+        }
+        return copy;
+    }
+}
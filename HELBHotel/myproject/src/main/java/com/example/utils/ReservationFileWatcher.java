@@ -0,0 +1,149 @@
+package com.example.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Surveille le fichier de réservations avec un WatchService et déclenche l'ingestion
+ * seulement quand il est créé ou modifié, au lieu de le relire à intervalle fixe.
+ * Une rafale d'événements (plusieurs écritures rapprochées) ne déclenche qu'un seul appel :
+ * j'attends un court moment de calme (debounce) avant de prévenir, mais jamais plus de maxWaitMillis
+ * après le premier événement : un producteur qui écrit sans arrêt ne bloque pas l'ingestion.
+ * Seuls les événements du fichier surveillé relancent l'attente (pas le .offset du tailer, ni les
+ * fichiers temporaires écrits dans le même dossier).
+ * Une vérification de sécurité est aussi déclenchée au plus tard safetyPollMillis après la dernière ingestion,
+ * même si d'autres fichiers du dossier bougent, pour les systèmes de fichiers qui ne remontent pas
+ * les écritures du fichier (montages réseau par exemple).
+ * Le callback est appelé sur le thread du watcher, jamais sur le thread JavaFX.
+ */
+public class ReservationFileWatcher implements Closeable {
+
+    private static final String THREAD_NAME = "reservation-file-watcher";
+
+    private final Path watchedFileName;
+    private final WatchService watchService;
+    private final long debounceMillis;
+    private final long maxWaitMillis;
+    private final long safetyPollMillis;
+    private final Runnable onChange;
+    private final Thread thread;
+
+    private volatile boolean running;
+
+    // Attente plafonnée à quatre fois le debounce
+    public ReservationFileWatcher(String filePath, long debounceMillis, long safetyPollMillis, Runnable onChange) throws IOException {
+        this(filePath, debounceMillis, debounceMillis * 4, safetyPollMillis, onChange);
+    }
+
+    public ReservationFileWatcher(String filePath, long debounceMillis, long maxWaitMillis, long safetyPollMillis,
+                                  Runnable onChange) throws IOException {
+        if (maxWaitMillis < debounceMillis) {
+            throw new IllegalArgumentException("L'attente maximale doit couvrir au moins un debounce : " + maxWaitMillis + " ms");
+        }
+        Path file = Paths.get(filePath).toAbsolutePath();
+        this.watchedFileName = file.getFileName();
+        this.debounceMillis = debounceMillis;
+        this.maxWaitMillis = maxWaitMillis;
+        this.safetyPollMillis = safetyPollMillis;
+        this.onChange = onChange;
+
+        // On surveille le dossier parent : un fichier remplacé (rotation) reste ainsi détecté
+        this.watchService = FileSystems.getDefault().newWatchService();
+        file.getParent().register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+
+        this.thread = new Thread(this::watchLoop, THREAD_NAME);
+        this.thread.setDaemon(true); // ne bloque pas la fermeture de l'application
+    }
+
+    /** Démarre la surveillance en arrière-plan. */
+    public void start() {
+        running = true;
+        thread.start();
+    }
+
+    /** Arrête la surveillance et libère le WatchService. */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        watchService.close(); // débloque poll() avec ClosedWatchServiceException
+    }
+
+    // La vérification de sécurité a sa propre échéance : les événements des autres fichiers du dossier
+    // (journal, .offset, quarantaine, snapshot) ne la repoussent pas ; seule une ingestion la repousse.
+    private void watchLoop() {
+        try {
+            long safetyCheckAt = nextSafetyCheck();
+            while (running) {
+                long wait = safetyCheckAt - System.nanoTime();
+                WatchKey key = wait > 0 ? watchService.poll(wait, TimeUnit.NANOSECONDS) : null;
+                if (key == null) {
+                    // Pas d'écriture du fichier vue depuis safetyPollMillis : vérification de sécurité
+                    notifyChange();
+                    safetyCheckAt = nextSafetyCheck();
+                    continue;
+                }
+                if (!concernsWatchedFile(key)) continue;
+
+                awaitQuietOrDeadline();
+                notifyChange();
+                safetyCheckAt = nextSafetyCheck();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // close() a été appelé : fin normale
+        }
+    }
+
+    private long nextSafetyCheck() {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(safetyPollMillis);
+    }
+
+    // Debounce : j'absorbe les événements suivants jusqu'à debounceMillis sans écriture du fichier surveillé,
+    // ou au plus tard maxWaitMillis après le premier événement. Les autres fichiers ne relancent pas l'attente.
+    private void awaitQuietOrDeadline() throws InterruptedException {
+        long now = System.nanoTime();
+        long deadline = now + TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        long quietAt = now + TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+        long wait;
+        while ((wait = Math.min(quietAt, deadline) - System.nanoTime()) > 0) {
+            WatchKey key = watchService.poll(wait, TimeUnit.NANOSECONDS);
+            if (key == null) return; // moment de calme ou échéance atteinte
+            if (concernsWatchedFile(key)) {
+                quietAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+            }
+        }
+    }
+
+    // Vide les événements de la clé et indique si l'un d'eux concerne le fichier surveillé
+    private boolean concernsWatchedFile(WatchKey key) {
+        boolean relevant = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || watchedFileName.equals(event.context())) {
+                relevant = true; // en cas de débordement, on ne sait pas : on relit par prudence
+            }
+        }
+        key.reset();
+        return relevant;
+    }
+
+    private void notifyChange() {
+        try {
+            onChange.run();
+        } catch (RuntimeException e) {
+            // Une erreur d'ingestion ne doit pas arrêter la surveillance
+            System.err.println("Erreur lors de l'ingestion des réservations : " + e.getMessage());
+        }
+    }
+}
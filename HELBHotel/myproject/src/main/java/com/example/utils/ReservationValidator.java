@@ -1,5 +1,6 @@
 package com.example.utils;
 
+import java.time.LocalDate;
 import java.util.Set;
 
 import com.example.models.Reservation;
@@ -24,19 +25,35 @@ public class ReservationValidator {
     public static boolean isValid(Reservation reservation) {
         if (isEmpty(reservation.getLastName()) || isEmpty(reservation.getFirstName())) return false;
 
-        if (reservation.getNumberOfPeople() < MIN_NUMBERS_PERSONS || reservation.getNumberOfPeople() > MAX_NUMBERS_PERSONS) return false;
-
         if (isEmpty(reservation.getStayPurpose())) return false;
 
         if (!VALID_PURPOSES.contains(reservation.getStayPurpose())) return false;
 
-        if (reservation.getNumberOfChildren() > reservation.getNumberOfPeople()) return false;
+        return isValidPartySize(reservation.getNumberOfPeople(), reservation.getNumberOfChildren());
+    }
+
+    // Règles sur la composition du groupe, utilisables avant même de créer la réservation
+    // (le parseur mappé s'en sert pour ne rien allouer sur une ligne rejetée).
+    public static boolean isValidPartySize(int numberOfPeople, int numberOfChildren) {
+        if (numberOfPeople < MIN_NUMBERS_PERSONS || numberOfPeople > MAX_NUMBERS_PERSONS) return false;
+
+        if (numberOfChildren > numberOfPeople) return false;
 
-        if (reservation.getNumberOfChildren() >= reservation.getNumberOfPeople()) return false;
+        if (numberOfChildren >= numberOfPeople) return false;
 
         return true;
     }
 
+    // Un séjour doit durer au moins une nuit : le départ suit strictement l'arrivée
+    public static boolean isValidStay(LocalDate checkIn, LocalDate checkOut) {
+        return checkOut.isAfter(checkIn);
+    }
+
+    // Retourne les motifs de séjour autorisés
+    public static Set<String> getValidPurposes() {
+        return VALID_PURPOSES;
+    }
+
     // Vérifie si une chaînea est vide
     private static boolean isEmpty(String text) {
         return text.trim().isEmpty(); // text ne peut jamais être null
@@ -14,6 +14,7 @@ import com.example.models.ColorPalette;
 import com.example.models.Reservation;
 import com.example.models.Room;
 import com.example.observer.RoomObserver;
+import com.example.utils.FloorLabel;
 
 public class HELBHotelView implements RoomObserver {
     // === CONSTANTES UI GÉNÉRALES ===
@@ -22,6 +23,7 @@ public class HELBHotelView implements RoomObserver {
     private static final double SCENE_HEIGHT = 600;
 
     private static final int ROOM_LABEL_MIN_LENGTH = 7; // "Floor A"
+    private static final int FLOOR_LETTERS_INDEX = 6;   // position des lettres après "Etage "
     private static final String DEFAULT_FLOOR_LABEL = "Etage A";
 
     // === CONSTANTES LÉGENDE ===
@@ -133,10 +135,10 @@ public class HELBHotelView implements RoomObserver {
         List<String> rawLabels = controller.getFloorLabels();
     
         for (int i = 0; i < rawLabels.size(); i++) {
-            String label = rawLabels.get(i);           // ex: "Floor A"
-            if (label.length() >= 7) {
-                char letter = label.charAt(6);         // extrait 'A'
-                String customLabel = "Étage " + letter + (i + 1); // ex: "Étage A1"
+            String label = rawLabels.get(i);           // ex: "Etage A" ou "Etage AB"
+            if (label.length() >= ROOM_LABEL_MIN_LENGTH) {
+                String letters = label.substring(FLOOR_LETTERS_INDEX); // extrait "A" ou "AB"
+                String customLabel = "Étage " + letters + (i + 1); // ex: "Étage A1", "Étage AB28"
                 floorSelector.getItems().add(customLabel);
             }
         }
@@ -157,12 +159,12 @@ public class HELBHotelView implements RoomObserver {
         String selectedFloorValue = floorSelector.getValue();
         String label = (selectedFloorValue != null) ? selectedFloorValue : DEFAULT_FLOOR_LABEL;
 
-        char selectedFloorLetter = 'A';
+        String selectedFloorLetter = FloorLabel.of(0);
         if (label.length() >= ROOM_LABEL_MIN_LENGTH) {
-            selectedFloorLetter = label.charAt(6);
+            // "Étage AB28" -> "AB" : les lettres s'arrêtent au premier chiffre
+            selectedFloorLetter = FloorLabel.floorOf(label.substring(FLOOR_LETTERS_INDEX));
         }
 
-        roomView.setRooms(allRooms);
         roomView.setFloor(selectedFloorLetter);
         roomView.render();
     }
@@ -226,6 +228,13 @@ public class HELBHotelView implements RoomObserver {
         updateRoomGrid();
     }
 
+    // Envoi groupé : la grille n'est reconstruite qu'une fois (et seulement si l'étage affiché est concerné),
+    // quel que soit le nombre de chambres modifiées
+    @Override
+    public void onRoomsChanged(List<String> assignedLabels, List<String> releasedLabels) {
+        roomView.onRoomsChanged(assignedLabels, releasedLabels);
+    }
+
     public String getSelectedAssignmentMode() {
         return assignementMode.getValue();
     }
@@ -36,8 +36,9 @@ public class ReservationView implements ReservationObserver{
     private static final int ROW_ENFANTS = 3;
     private static final int ROW_PERSONNES = 4;
     private static final int ROW_MOTIF = 5;
+    private static final int ROW_SEJOUR = 6;
     private static final int RIGHT_BOX_COLUMN = 3;
-    private static final int RIGHT_BOX_ROWSPAN = 6;
+    private static final int RIGHT_BOX_ROWSPAN = 7;
 
 
     public static final String LABEL_LAST_NAME = "Nom : ";
@@ -46,6 +47,7 @@ public class ReservationView implements ReservationObserver{
     public static final String LABEL_CHILDREN = "Enfants : ";
     public static final String LABEL_PEOPLE = "Personnes : ";
     public static final String LABEL_PURPOSE = "Motif : ";
+    public static final String LABEL_STAY = "Séjour : ";
     public static final String LABEL_ROOM = "Chambre : ";
 
     private HELBHotelController controller;
@@ -97,7 +99,7 @@ public class ReservationView implements ReservationObserver{
 
                 Room room = controller.hotel.getRoomByLabel(proposedLabel);
                 if (!(room instanceof EmptyRoom)) {
-                    String color = ColorPalette.getColor(room.getType());
+                    String color = ColorPalette.getColor(room.getRoomType());
                     nameButton.setStyle("-fx-background-color: " + color + "; -fx-text-fill: white;");
                 } else {
                     nameButton.setStyle(DEFAULT_ROOM_STYLE);
@@ -139,6 +141,9 @@ public class ReservationView implements ReservationObserver{
         grid.add(new Label(LABEL_PURPOSE), 0, ROW_MOTIF);
         grid.add(new Label(reservation.getStayPurpose()), 1, ROW_MOTIF);
 
+        grid.add(new Label(LABEL_STAY), 0, ROW_SEJOUR);
+        grid.add(new Label("du " + reservation.getCheckIn() + " au " + reservation.getCheckOut()), 1, ROW_SEJOUR);
+
         VBox rightBox = new VBox(RIGHT_BOX_SPACING);
         rightBox.setAlignment(Pos.CENTER_LEFT);
 
@@ -153,11 +158,11 @@ public class ReservationView implements ReservationObserver{
 
         // Validation de la chambre entrée
         roomField.textProperty().addListener((obs, oldVal, newVal) -> {
-            validateRoomField(newVal, confirmBtn, roomStatus);
+            validateRoomField(newVal, reservation, confirmBtn, roomStatus);
         });
         
         // Appel initial de validation avec le contenu déjà présent
-        validateRoomField(roomField.getText(), confirmBtn, roomStatus);
+        validateRoomField(roomField.getText(), reservation, confirmBtn, roomStatus);
         
 
         rightBox.getChildren().addAll(new Label("Proposition"), roomField, roomStatus, confirmBtn);
@@ -172,15 +177,15 @@ public class ReservationView implements ReservationObserver{
         return dialog;
     }
 
-    private void validateRoomField(String value, Button confirmBtn, Label roomStatus) {
+    private void validateRoomField(String value, Reservation reservation, Button confirmBtn, Label roomStatus) {
         String label = value.trim().toUpperCase();
         Room room = controller.hotel.getRoomByLabel(label);
         if (room instanceof EmptyRoom) {
             confirmBtn.setDisable(true);
             roomStatus.setText(" Chambre inexistante");
-        } else if (room.isOccupied()) {
+        } else if (!room.isFreeFor(reservation.getCheckIn(), reservation.getCheckOut())) {
             confirmBtn.setDisable(true);
-            roomStatus.setText(" Chambre occupée");
+            roomStatus.setText(room.isOccupied() ? " Chambre occupée" : " Chambre déjà réservée à ces dates");
         } else {
             confirmBtn.setDisable(false);
             roomStatus.setText(" Chambre disponible");
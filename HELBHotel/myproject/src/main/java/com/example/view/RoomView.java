@@ -2,11 +2,11 @@ package com.example.view;
 
 import com.example.HELBHotelController;
 import com.example.models.ColorPalette;
-import com.example.models.EmptyRoom;
 import com.example.models.Hotel;
 import com.example.models.Reservation;
 import com.example.models.Room;
 import com.example.observer.RoomObserver;
+import com.example.utils.FloorLabel;
 
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -42,8 +42,7 @@ public class RoomView implements RoomObserver {
     HELBHotelController controller;
     private Hotel hotel;
     private int currentFloorIndex;
-    private List<Room> allRooms = new ArrayList<>();
-    private char currentFloor = 'A';
+    private String currentFloor = FloorLabel.of(0);
 
     public final GridPane grid;
     private final Map<String, Button> roomButtonMap = new HashMap<>();
@@ -68,11 +67,6 @@ public class RoomView implements RoomObserver {
         roomButtonMap.clear();
         grid.getColumnConstraints().clear();
 
-        for (Room room : new ArrayList<>(allRooms)) {
-            room.removeObserver(this);
-            room.addObserver(this);
-        }
-
         int totalCols = hotel.getNumberOfColumns(currentFloorIndex);
 
         // Contraintes de largeur : chaque colonne prend un pourcentage équitable
@@ -82,29 +76,24 @@ public class RoomView implements RoomObserver {
             grid.getColumnConstraints().add(col);
         }
 
-        for (int row = 0; row < hotel.getRoomMatrix().length; row++) {
-            for (int col = 0; col < hotel.getRoomMatrix()[0].length; col++) {
-
-                Room room = findRoomAt(row, col, currentFloorIndex);
-                if (room instanceof EmptyRoom) continue;
-
-                Button button = new Button(room.getLabel());
-                button.setWrapText(true);
-                button.setMaxWidth(Double.MAX_VALUE);      // adapte à la largeur de la colonne
-                button.setPrefHeight(50);                  // hauteur fixe confortable
-
-                if (room.isOccupied()) {
-                    button.setStyle("-fx-background-color: " + ColorPalette.COLOR_ERROR + "; -fx-text-fill: white;");
-                } else {
-                    String color = ColorPalette.getColor(room.getType());
-                    button.setStyle("-fx-background-color: " + color + "; -fx-text-fill: white; -fx-border-radius: 10px; -fx-background-radius: 10px;");
-                }
+        // Seules les chambres de l'étage courant sont parcourues, chacune placée à sa ligne et sa colonne
+        for (Room room : hotel.getRoomsOnFloor(currentFloorIndex)) {
+            Button button = new Button(room.getLabel());
+            button.setWrapText(true);
+            button.setMaxWidth(Double.MAX_VALUE);      // adapte à la largeur de la colonne
+            button.setPrefHeight(50);                  // hauteur fixe confortable
+
+            if (room.isOccupied()) {
+                button.setStyle("-fx-background-color: " + ColorPalette.COLOR_ERROR + "; -fx-text-fill: white;");
+            } else {
+                String color = ColorPalette.getColor(room.getRoomType());
+                button.setStyle("-fx-background-color: " + color + "; -fx-text-fill: white; -fx-border-radius: 10px; -fx-background-radius: 10px;");
+            }
 
-                Tooltip.install(button, new Tooltip(room.getTooltipText()));
+            Tooltip.install(button, new Tooltip(room.getTooltipText()));
 
-                roomButtonMap.put(room.getLabel(), button);
-                grid.add(button, col, row);
-            }
+            roomButtonMap.put(room.getLabel(), button);
+            grid.add(button, room.getColumn(), room.getFloor());
         }
     }
 
@@ -150,16 +139,6 @@ public class RoomView implements RoomObserver {
         return roomButtonMap.get(roomLabel);
     }
 
-    /** Recherche une chambre dans la liste en fonction de sa position et étage. */
-    private Room findRoomAt(int row, int col, int floorIndex) {
-        for (Room r : allRooms) {
-            if (r.getFloor() == row && r.getColumn() == col && r.getFloorIndex() == floorIndex) {
-                return r;
-            }
-        }
-        return EmptyRoom.getInstance();
-    }
-
     /** Retourne la grille graphique à afficher dans la scène principale. */
     public Pane getView() {
         return grid;
@@ -175,24 +154,16 @@ public class RoomView implements RoomObserver {
         this.controller = controller;
     }
 
-    /** Définit la liste des chambres à afficher et ajoute l'observateur sur chacune. */
-    public void setRooms(List<Room> rooms) {
-        this.allRooms = rooms;
-        for (Room r : rooms) {
-            r.addObserver(this);
-        }
-    }
-
-    /** Change l’étage actif à afficher, à partir de la lettre (A, B, C...). */
-    public void setFloor(char floorLetter) {
-        this.currentFloor = floorLetter;
-        this.currentFloorIndex = floorLetter - 'A';
+    /** Change l’étage actif à afficher, à partir de ses lettres (A, B, ..., AA, AB...). */
+    public void setFloor(String floorLetters) {
+        this.currentFloor = floorLetters;
+        this.currentFloorIndex = FloorLabel.indexOf(floorLetters);
     }
 
     /** Méthode appelée quand une chambre est assignée → on réaffiche l'étage courant. */
     @Override
     public void onRoomAssigned(String roomLabel) {
-        if (roomLabel.charAt(0) == currentFloor) {
+        if (FloorLabel.isOnFloor(roomLabel, currentFloor)) {
             render();
         }
     }
@@ -200,11 +171,31 @@ public class RoomView implements RoomObserver {
     /** Méthode appelée quand une chambre est libérée → on réaffiche l'étage courant. */
     @Override
     public void onRoomReleased(String roomLabel) {
-        if (roomLabel.charAt(0) == currentFloor) {
+        if (FloorLabel.isOnFloor(roomLabel, currentFloor)) {
+            render();
+        }
+    }
+
+    /** Envoi groupé : un seul réaffichage si au moins une chambre modifiée est sur l'étage courant. */
+    @Override
+    public void onRoomsChanged(List<String> assignedLabels, List<String> releasedLabels) {
+        if (anyOnCurrentFloor(assignedLabels) || anyOnCurrentFloor(releasedLabels)) {
             render();
         }
     }
 
+    private boolean anyOnCurrentFloor(List<String> roomLabels) {
+        for (String label : roomLabels) {
+            if (FloorLabel.isOnFloor(label, currentFloor)) return true;
+        }
+        return false;
+    }
+
+    /** Boutons de l'étage affiché, par label de chambre (lecture seule) */
+    public Map<String, Button> getRenderedButtons() {
+        return Collections.unmodifiableMap(roomButtonMap);
+    }
+
     public boolean hasButton(String label) {
         return roomButtonMap.containsKey(label);
     }
@@ -0,0 +1,21 @@
+package com.example;
+
+import com.example.models.ColorPalette;
+import com.example.models.RoomType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ColorPaletteTest {
+
+    // === Couleur par type, par code d'une lettre, et couleur par défaut pour le reste
+    @Test
+    public void shouldPickColorsByRoomType() {
+        assertEquals(ColorPalette.COLOR_BUSINESS, ColorPalette.getColor(RoomType.BUSINESS));
+        assertEquals(ColorPalette.COLOR_HOVER_LUXE, ColorPalette.getHoverColor(RoomType.LUXURY));
+        assertEquals(ColorPalette.COLOR_ECO, ColorPalette.getColor("E"));
+        assertEquals(ColorPalette.COLOR_DEFAULT, ColorPalette.getColor(RoomType.UNUSED));
+        assertEquals(ColorPalette.COLOR_DEFAULT, ColorPalette.getColor("X"));
+        assertEquals(ColorPalette.COLOR_HOVER_DEFAULT, ColorPalette.getHoverColor("LL"));
+    }
+}
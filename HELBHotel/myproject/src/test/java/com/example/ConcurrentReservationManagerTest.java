@@ -0,0 +1,254 @@
+package com.example;
+
+import com.example.models.ConcurrentReservationManager;
+import com.example.models.Hotel;
+import com.example.models.Reservation;
+import com.example.models.ReservationFilter;
+import com.example.observer.ReservationChange;
+import com.example.observer.ReservationObserver;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentReservationManagerTest {
+
+    private static final int WRITERS = 8;
+    private static final int RESERVATIONS_PER_WRITER = 2_000;
+    private static final int ROOMS = 500; // bien moins de chambres que de réservations : forte contention
+
+    // === N threads ajoutent, proposent et suppriment en même temps ; les invariants tiennent à la fin
+    @Test
+    public void shouldKeepInvariants_underConcurrentWriters() throws Exception {
+        ConcurrentReservationManager manager = new ConcurrentReservationManager();
+        RecordingObserver observer = new RecordingObserver();
+        manager.addObserver(observer);
+        // Chambres A1E à A500E : les propositions sont aussi suivies par position (A0E n'existe pas)
+        String[][] layout = {new String[ROOMS]};
+        Arrays.fill(layout[0], "E");
+        Hotel hotel = new Hotel(1, layout);
+        manager.indexProposalsFor(hotel);
+
+        AtomicInteger removedCount = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService writers = Executors.newFixedThreadPool(WRITERS);
+        List<Future<?>> results = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            int writer = w;
+            results.add(writers.submit(() -> {
+                Random random = new Random(writer);
+                start.await();
+                for (int i = 0; i < RESERVATIONS_PER_WRITER; i++) {
+                    Reservation reservation = new Reservation("Client" + writer + "_" + i, "Test", 1, false, "Tourisme", 0);
+                    if (i % 50 == 0) {
+                        manager.addAll(List.of(reservation)); // lot d'un thread, mélangé aux ajouts unitaires
+                    } else {
+                        manager.add(reservation);
+                    }
+                    // Plusieurs essais sur des chambres tirées au hasard, comme une stratégie sous contention
+                    for (int attempt = 0; attempt < 3; attempt++) {
+                        String label = "A" + random.nextInt(ROOMS) + "E";
+                        if (manager.tryProposeRoom(reservation, attempt == 1 ? label.toLowerCase() : label)) break;
+                    }
+                    if (random.nextInt(4) == 0) {
+                        manager.remove(reservation);
+                        removedCount.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get();
+        }
+        writers.shutdown();
+        manager.awaitNotifications();
+
+        // Aucune réservation perdue ni en double
+        int expected = WRITERS * RESERVATIONS_PER_WRITER - removedCount.get();
+        List<Reservation> all = manager.getAllReservations();
+        assertEquals(expected, all.size());
+        assertEquals(expected, manager.getSortedReservations("Trier par : Nom").size());
+        assertEquals(expected, manager.getSortedReservations("Trier par : Chambre").size());
+        assertEquals(expected, manager.countReservations(new ReservationFilter()));
+
+        // Une chambre n'est proposée qu'à une seule réservation, et l'index inverse est cohérent
+        Map<Long, String> proposals = manager.getProposedRoomMap();
+        Map<String, Long> owners = new HashMap<>();
+        for (Map.Entry<Long, String> entry : proposals.entrySet()) {
+            String label = entry.getValue().toUpperCase();
+            assertNull(owners.put(label, entry.getKey()), "Chambre proposée deux fois : " + label);
+            assertEquals(entry.getKey().longValue(), manager.getReservationIdForProposedRoom(label));
+        }
+        for (int room = 0; room < ROOMS; room++) {
+            String label = "A" + room + "E";
+            assertEquals(owners.containsKey(label), manager.isRoomAlreadyProposed(label), label);
+            if (room > 0) {
+                assertEquals(owners.containsKey(label), manager.isRoomAlreadyProposed(hotel.getRoomByLabel(label)), label);
+            }
+        }
+        // Les propositions n'appartiennent qu'à des réservations encore présentes
+        for (Long id : proposals.keySet()) {
+            assertTrue(all.stream().anyMatch(r -> r.getId() == id));
+        }
+        assertEquals(proposals.size(), manager.countReservations(new ReservationFilter().proposed(true)));
+
+        // Toutes les notifications viennent du seul thread de diffusion, et le delta cumulé est complet
+        assertEquals(Set.of("reservation-dispatcher"), observer.threadNames);
+        assertEquals(WRITERS * RESERVATIONS_PER_WRITER, observer.added.get());
+        assertEquals(removedCount.get(), observer.removed.get());
+        manager.close();
+    }
+
+    // === Des threads suppriment les réservations que d'autres sont en train de proposer :
+    // aucune chambre ne reste prise par une réservation supprimée
+    @Test
+    public void shouldNotLinkRoomsToRemovedReservations() throws Exception {
+        ConcurrentReservationManager manager = new ConcurrentReservationManager();
+        List<Reservation> shared = new ArrayList<>();
+        for (int i = 0; i < 4_000; i++) {
+            shared.add(new Reservation("Client" + i, "Test", 1, false, "Tourisme", 0));
+        }
+        manager.addAll(shared);
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService threads = Executors.newFixedThreadPool(WRITERS);
+        List<Future<?>> results = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            int writer = w;
+            results.add(threads.submit(() -> {
+                Random random = new Random(writer);
+                start.await();
+                if (writer % 2 == 0) {
+                    // Supprime une réservation sur deux (sa moitié de la liste), dans le désordre
+                    List<Reservation> mine = new ArrayList<>(shared.subList(writer / 2 * 1_000, writer / 2 * 1_000 + 1_000));
+                    Collections.shuffle(mine, random);
+                    for (int i = 0; i < mine.size(); i += 2) {
+                        manager.remove(mine.get(i));
+                    }
+                } else {
+                    // Propose des chambres à toutes les réservations, supprimées ou non
+                    for (int pass = 0; pass < 3; pass++) {
+                        for (Reservation reservation : shared) {
+                            manager.tryProposeRoom(reservation, "A" + random.nextInt(ROOMS) + "E");
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get();
+        }
+        threads.shutdown();
+
+        assertEquals(shared.size() / 2, manager.getAllReservations().size());
+        for (int room = 0; room < ROOMS; room++) {
+            long owner = manager.getReservationIdForProposedRoom("A" + room + "E");
+            if (owner == Reservation.NO_ID) continue;
+            assertTrue(manager.getAllReservations().stream().anyMatch(r -> r.getId() == owner),
+                    "Chambre A" + room + "E prise par une réservation supprimée");
+        }
+        for (Reservation reservation : shared) {
+            if (!manager.contains(reservation)) {
+                assertEquals("", manager.getProposedRoom(reservation));
+                assertFalse(manager.tryProposeRoom(reservation, "A1E"));
+            }
+        }
+        manager.close();
+    }
+
+    // === Deux threads ajoutent la même réservation via addAll : elle n'est comptée qu'une fois
+    @Test
+    public void shouldAddSameReservationOnlyOnce() throws Exception {
+        ConcurrentReservationManager manager = new ConcurrentReservationManager();
+        List<Reservation> shared = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            shared.add(new Reservation("Client" + i, "Test", 1, false, "Tourisme", 0));
+        }
+
+        ExecutorService sources = Executors.newFixedThreadPool(2);
+        Future<List<Reservation>> first = sources.submit(() -> manager.addAll(shared));
+        Future<List<Reservation>> second = sources.submit(() -> manager.addAll(shared));
+        int addedTotal = first.get().size() + second.get().size();
+        sources.shutdown();
+
+        assertEquals(shared.size(), addedTotal);
+        assertEquals(shared.size(), manager.getAllReservations().size());
+        manager.close();
+    }
+
+    // === Deux lectures de la même ligne (deux tailers, ids différents) n'ajoutent qu'une réservation par ligne
+    @Test
+    public void shouldAddEachSourceLineOnlyOnce() throws Exception {
+        ConcurrentReservationManager manager = new ConcurrentReservationManager();
+        List<Reservation> firstRead = new ArrayList<>();
+        List<Reservation> secondRead = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            firstRead.add(new Reservation("Client" + i, "Test", 1, false, "Tourisme", 0).withSource("inode@" + i));
+            secondRead.add(new Reservation("Client" + i, "Test", 1, false, "Tourisme", 0).withSource("inode@" + i));
+        }
+
+        ExecutorService tailers = Executors.newFixedThreadPool(2);
+        Future<List<Reservation>> first = tailers.submit(() -> manager.addAll(firstRead));
+        Future<List<Reservation>> second = tailers.submit(() -> manager.addAll(secondRead));
+        int addedTotal = first.get().size() + second.get().size();
+        tailers.shutdown();
+
+        assertEquals(firstRead.size(), addedTotal);
+        assertEquals(firstRead.size(), manager.getAllReservations().size());
+        assertEquals(firstRead.size(), manager.getSourceMap().size());
+        manager.close();
+    }
+
+    // === Une chambre déjà proposée ailleurs est refusée ; re-proposer libère l'ancienne
+    @Test
+    public void shouldRefuseRoomProposedToAnotherReservation() throws Exception {
+        ConcurrentReservationManager manager = new ConcurrentReservationManager();
+        Reservation first = new Reservation("Dupont", "Jean", 1, false, "Tourisme", 0);
+        Reservation second = new Reservation("Martin", "Alice", 1, false, "Tourisme", 0);
+        manager.addAll(List.of(first, second));
+
+        assertTrue(manager.tryProposeRoom(first, "A1E"));
+        assertFalse(manager.tryProposeRoom(second, "a1e"));
+        assertEquals("", manager.getProposedRoom(second));
+
+        assertTrue(manager.tryProposeRoom(first, "A2E"));
+        assertTrue(manager.tryProposeRoom(second, "A1E"));
+        assertEquals(second.getId(), manager.getReservationIdForProposedRoom("A1E"));
+        manager.close();
+    }
+
+    private static class RecordingObserver implements ReservationObserver {
+        private final Set<String> threadNames = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger added = new AtomicInteger();
+        private final AtomicInteger removed = new AtomicInteger();
+
+        @Override
+        public void update() {
+        }
+
+        @Override
+        public void update(ReservationChange change) {
+            threadNames.add(Thread.currentThread().getName());
+            added.addAndGet(change.getAdded().size());
+            removed.addAndGet(change.getRemoved().size());
+        }
+    }
+}
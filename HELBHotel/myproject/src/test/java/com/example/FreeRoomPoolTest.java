@@ -0,0 +1,68 @@
+package com.example;
+
+import com.example.models.EmptyRoom;
+import com.example.models.Hotel;
+import com.example.models.Reservation;
+import com.example.models.ReservationManager;
+import com.example.models.Room;
+import com.example.strategy.RandomAssignment;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FreeRoomPoolTest {
+
+    private static final String[][] LAYOUT = {{"L", "B", "Z"}, {"E", "L", "B"}}; // A1L, A2B, A3E, A4L, A5B
+
+    // === Les bitmaps par type et par étage suivent les assignations et libérations
+    @Test
+    public void shouldTrackFreeRoomsByTypeAndFloor() {
+        Hotel hotel = new Hotel(2, LAYOUT);
+        assertEquals(4, hotel.countFreeRoomsOfType("L"));
+        assertEquals(5, hotel.countFreeRoomsOnFloor(1));
+        assertEquals("A1L", hotel.findAvailableRoomOfType("L").getLabel());
+
+        hotel.assignRoom("A1L", new Reservation("Martin", "Alice", 1, false, "Tourisme", 0));
+        hotel.assignRoom("A4L", new Reservation("Dupont", "Jean", 1, false, "Tourisme", 0));
+        assertEquals("B1L", hotel.findAvailableRoomOfType("L").getLabel());
+        assertEquals(2, hotel.countFreeRoomsOfType("L"));
+        assertEquals(3, hotel.countFreeRoomsOnFloor(0));
+        assertEquals(5, hotel.countFreeRoomsOnFloor(1));
+
+        hotel.releaseRoom("A4L");
+        assertEquals(3, hotel.countFreeRoomsOfType("L"));
+        assertEquals("A4L", hotel.findAvailableRoomOfType("L").getLabel());
+        assertSame(EmptyRoom.getInstance(), hotel.findAvailableRoomOfType("X"));
+        assertEquals(0, hotel.countFreeRoomsOfType("Z"));
+    }
+
+    // === Le tirage aléatoire ne retient que des chambres libres et non proposées
+    @Test
+    public void shouldPickOnlyEligibleRooms_whenAssigningRandomly() {
+        Hotel hotel = new Hotel(1, LAYOUT);
+        ReservationManager manager = new ReservationManager();
+        for (Room room : hotel.getAllRooms()) {
+            if (!room.getLabel().equals("A3E")) {
+                hotel.assignRoom(room.getLabel(), new Reservation("X", room.getLabel(), 1, false, "Affaire", 0));
+            }
+        }
+
+        Reservation reservation = new Reservation("Petit", "Luc", 1, false, "Affaire", 0);
+        for (int i = 0; i < 20; i++) {
+            assertEquals("A3E", RandomAssignment.getInstance(hotel, manager).assignRoom(reservation));
+        }
+
+        hotel.assignRoom("A3E", reservation);
+        assertEquals("EMPTY", RandomAssignment.getInstance(hotel, manager).assignRoom(reservation));
+
+        // Un séjour futur peut aller dans une chambre occupée aujourd'hui
+        LocalDate later = LocalDate.now().plusDays(10);
+        Reservation future = new Reservation("Durand", "Paul", 1, false, "Affaire", 0, later, later.plusDays(2));
+        Room picked = hotel.findRandomCandidateRoom(later, new Random(7), room -> room.isFreeFor(later, later.plusDays(2)));
+        assertNotSame(EmptyRoom.getInstance(), picked);
+        assertTrue(hotel.confirmReservation(picked.getLabel(), future));
+    }
+}
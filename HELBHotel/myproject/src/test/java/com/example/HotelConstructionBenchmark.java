@@ -0,0 +1,56 @@
+package com.example;
+
+import com.example.models.Hotel;
+
+/**
+ * Mesure la construction d'un hôtel d'un million de chambres.
+ * Un étage unique se construit forcément sur un seul thread : il sert de référence séquentielle
+ * pour 200 étages de même taille totale, construits en parallèle.
+ * Ce n'est pas un test JUnit (il n'est pas lancé par mvn test) :
+ *   mvn test-compile
+ *   java -cp target/classes:target/test-classes com.example.HotelConstructionBenchmark
+ */
+public class HotelConstructionBenchmark {
+
+    private static final int FLOORS = 200;
+    private static final int ROWS = 50;
+    private static final int COLUMNS = 100; // 200 × 50 × 100 = 1 000 000 chambres
+    private static final String[] TYPES = {"E", "B", "L"};
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+
+    public static void main(String[] args) {
+        String[][] floorLayout = layout(ROWS, COLUMNS);
+        String[][] singleFloorLayout = layout(ROWS * FLOORS, COLUMNS);
+
+        long sequential = bestOf(() -> new Hotel(1, singleFloorLayout));
+        long parallel = bestOf(() -> new Hotel(FLOORS, floorLayout));
+
+        System.out.println("Chambres : " + new Hotel(FLOORS, floorLayout).getAllRooms().size());
+        System.out.printf("%-30s %10.1f ms%n", "1 étage (séquentiel)", sequential / 1_000_000.0);
+        System.out.printf("%-30s %10.1f ms%n", FLOORS + " étages (parallèle)", parallel / 1_000_000.0);
+    }
+
+    private static long bestOf(Runnable build) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            build.run();
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            build.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    private static String[][] layout(int rows, int columns) {
+        String[][] matrix = new String[rows][columns];
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < columns; col++) {
+                matrix[row][col] = TYPES[(row + col) % TYPES.length];
+            }
+        }
+        return matrix;
+    }
+}
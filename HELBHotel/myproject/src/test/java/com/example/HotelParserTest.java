@@ -1,11 +1,18 @@
 package com.example;
 
 import com.example.models.Hotel;
+import com.example.models.Room;
+import com.example.models.lottery.GoldTicket;
+import com.example.models.lottery.LotteryTicket;
+import com.example.models.lottery.LotteryTicketFactory;
 import com.example.parser.HotelParser;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
 import java.io.*;
+import java.util.List;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -43,7 +50,10 @@ public class HotelParserTest {
         return Stream.of(
             "2\nE,B,L\nL,B,E",
             "1\nL,E,B",
-            "3\nE,E,E\nB,B,B\nL,L,L"
+            "3\nE,E,E\nB,B,B\nL,L,L",
+            "40\nE,B,L\nL,B,E",
+            "2\nE,B,L\n---\nL,L,Z,B\nE,E,E,E",
+            "1\n E , B ,L "
         );
     }
 
@@ -55,10 +65,48 @@ public class HotelParserTest {
             new Object[]{"2\nE,B\nL,B,E", "colonnes", "Lignes de tailles différentes"},
             new Object[]{"1\nE,X,L", "caractère", "Caractère non autorisé"},
             new Object[]{"2\n", "absente", "Pas de matrice"},
-            new Object[]{"30\nE,E,E\nE,E,E", "entre 1 et 26", "Trop d'étages"}
+            new Object[]{"703\nE,E,E\nE,E,E", "entre 1 et 702", "Trop d'étages"},
+            new Object[]{"3\nE,B\n---\nL,B", "matrices", "Moins de matrices que d'étages"},
+            new Object[]{"2\nE,B\n---\n---\nL,B", "vide", "Matrice d'étage vide"},
+            new Object[]{"1\nE,BL,E", "caractère", "Cellule de plusieurs caractères"}
         );
     }
 
+    // === Au-delà de 26 étages, les lettres continuent sur deux caractères (AA, AB, ...)
+    @Test
+    public void shouldLabelFloorsBeyondZWithTwoLetters() throws IOException {
+        Hotel hotel = new HotelParser(writeTempConfig("28\nL,Z,B").getAbsolutePath()).loadHotel();
+
+        assertEquals("Etage Z", hotel.getFloorLabels().get(25));
+        assertEquals("Etage AB", hotel.getFloorLabels().get(27));
+        Room room = hotel.getRoomByLabel("AB2B");
+        assertEquals(27, room.getFloorIndex());
+        assertEquals(2, room.getColumn());
+
+        // Le ticket Gold utilise l'index d'étage : 27 + 2 portes
+        LotteryTicket ticket = LotteryTicketFactory.generateTicket(hotel.getRoomByLabel("AB1L"), 5);
+        assertInstanceOf(GoldTicket.class, ticket);
+        assertEquals(29, ((GoldTicket) ticket).getRemainingDoors().size());
+    }
+
+    // === Chaque étage peut avoir sa propre matrice, numérotée indépendamment
+    @Test
+    public void shouldBuildEachFloorFromItsOwnMatrix() throws IOException {
+        Hotel hotel = new HotelParser(writeTempConfig("2\nE,B\n---\nL,Z,L\nB,B,Z").getAbsolutePath()).loadHotel();
+
+        assertEquals(2 + 4, hotel.getAllRooms().size());
+        assertEquals("E", hotel.getRoomMatrixForFloor(0)[0][0]);
+        assertEquals(3, hotel.getRoomMatrixForFloor(1)[0].length);
+        assertEquals("B4B", hotel.getRoomByLabel("B4B").getLabel());
+        assertEquals(1, hotel.getRoomByLabel("B4B").getFloor());
+
+        // Les chambres d'un étage plus large que l'étage A sont toutes retrouvées, à leur position
+        List<Room> floorB = hotel.getRoomsOnFloor(1);
+        assertEquals(List.of("B1L", "B2L", "B3B", "B4B"), floorB.stream().map(Room::getLabel).collect(Collectors.toList()));
+        assertEquals(2, floorB.get(1).getColumn());
+        assertEquals(2, hotel.getRoomsOnFloor(0).size());
+    }
+
     // === Génère un fichier temporaire avec le contenu donné
     private static File writeTempConfig(String content) throws IOException {
         File temp = File.createTempFile("hotel_test_", ".hconf");
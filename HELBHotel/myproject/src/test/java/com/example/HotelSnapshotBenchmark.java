@@ -0,0 +1,92 @@
+package com.example;
+
+import com.example.models.Hotel;
+import com.example.models.Reservation;
+import com.example.models.ReservationManager;
+import com.example.models.Room;
+import com.example.parser.HotelParser;
+import com.example.persistence.HotelSnapshot;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Compare le démarrage à froid depuis hotel.hconf (parsing texte + construction des chambres)
+ * et depuis un snapshot binaire, pour un hôtel d'environ 100 000 chambres dont une sur dix est occupée.
+ * Ce n'est pas un test JUnit (il n'est pas lancé par mvn test) :
+ *   mvn test-compile
+ *   java -cp target/classes:target/test-classes com.example.HotelSnapshotBenchmark [côté de la grille]
+ */
+public class HotelSnapshotBenchmark {
+
+    private static final int FLOORS = 26;
+    private static final int DEFAULT_GRID_SIZE = 62; // 26 × 62 × 62 ≈ 100 000 chambres
+    private static final String[] TYPES = {"E", "B", "L"};
+    private static final int OCCUPIED_EVERY = 10;
+    private static final int MEASURED_ROUNDS = 5;
+
+    public static void main(String[] args) throws IOException {
+        int gridSize = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_GRID_SIZE;
+        File config = generateConfig(gridSize);
+        File snapshot = File.createTempFile("hotel_bench", ".snapshot");
+        snapshot.deleteOnExit();
+
+        Hotel hotel = new HotelParser(config.getAbsolutePath()).loadHotel();
+        List<Room> rooms = hotel.getAllRooms();
+        for (int i = 0; i < rooms.size(); i += OCCUPIED_EVERY) {
+            rooms.get(i).assignTo(new Reservation("Client", "C" + i, 1, false, "Affaire", 0));
+        }
+        System.out.println("Chambres : " + rooms.size() + ", occupées : " + (rooms.size() + OCCUPIED_EVERY - 1) / OCCUPIED_EVERY);
+        long checksum = HotelSnapshot.checksumOf(config.getAbsolutePath());
+        HotelSnapshot.save(snapshot.getAbsolutePath(), checksum, 0, hotel, new ReservationManager());
+        System.out.println("Snapshot : " + snapshot.length() / 1024 + " Kio");
+
+        // Premier chargement de chaque chemin (le JIT n'a encore presque rien compilé), puis meilleur de N
+        long[] text = measure(() -> new HotelParser(config.getAbsolutePath()).loadHotel());
+        long[] binary = measure(() -> {
+            long currentChecksum = HotelSnapshot.checksumOf(config.getAbsolutePath());
+            HotelSnapshot.load(snapshot.getAbsolutePath(), currentChecksum).orElseThrow();
+        });
+
+        System.out.printf("%-25s %12s %12s%n", "", "1er essai", "meilleur");
+        System.out.printf("%-25s %9.1f ms %9.1f ms%n", "hotel.hconf (texte)", text[0] / 1_000_000.0, text[1] / 1_000_000.0);
+        System.out.printf("%-25s %9.1f ms %9.1f ms%n", "snapshot binaire", binary[0] / 1_000_000.0, binary[1] / 1_000_000.0);
+    }
+
+    private interface Load {
+        void run() throws IOException;
+    }
+
+    // {durée du premier essai, meilleure durée sur MEASURED_ROUNDS essais}
+    private static long[] measure(Load load) throws IOException {
+        long first = 0;
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            load.run();
+            long elapsed = System.nanoTime() - start;
+            if (i == 0) first = elapsed;
+            best = Math.min(best, elapsed);
+        }
+        return new long[]{first, best};
+    }
+
+    private static File generateConfig(int gridSize) throws IOException {
+        File file = File.createTempFile("hotel_bench", ".hconf");
+        file.deleteOnExit();
+
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+            writer.write(FLOORS + "\n");
+            for (int row = 0; row < gridSize; row++) {
+                StringBuilder line = new StringBuilder();
+                for (int col = 0; col < gridSize; col++) {
+                    if (col > 0) line.append(',');
+                    line.append(TYPES[(row + col) % TYPES.length]);
+                }
+                writer.write(line.append('\n').toString());
+            }
+        }
+        return file;
+    }
+}
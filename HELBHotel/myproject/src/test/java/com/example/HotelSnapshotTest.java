@@ -0,0 +1,174 @@
+package com.example;
+
+import com.example.models.Hotel;
+import com.example.models.Reservation;
+import com.example.models.ReservationManager;
+import com.example.models.Room;
+import com.example.persistence.HotelSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HotelSnapshotTest {
+
+    private static final String CONFIG = "2\nE,B,Z\nL,E,B\n";
+
+    // === Le snapshot restitue chambres, occupation, réservations en attente et propositions
+    @Test
+    public void shouldRestoreFullState() throws Exception {
+        Path config = writeConfig(CONFIG);
+        Path snapshotFile = snapshotPath();
+        long checksum = HotelSnapshot.checksumOf(config.toString());
+
+        Hotel hotel = new Hotel(2, new String[][]{{"E", "B", "Z"}, {"L", "E", "B"}});
+        ReservationManager manager = new ReservationManager();
+        Reservation guest = new Reservation("Martin", "Alice", 1, false, "Affaire", 0);
+        Reservation pending = new Reservation("Dupont", "Jean", 2, true, "Tourisme", 1);
+        hotel.confirmReservation("B3L", guest);
+        manager.assignReservation(guest, "B3L");
+        manager.add(pending);
+        manager.proposeRoom(pending, "A2B");
+
+        HotelSnapshot.save(snapshotFile.toString(), checksum, 42, hotel, manager);
+        Optional<HotelSnapshot> loaded = HotelSnapshot.load(snapshotFile.toString(), checksum);
+
+        assertTrue(loaded.isPresent());
+        assertEquals(42, loaded.get().getJournalSequence());
+        Hotel restored = loaded.get().getHotel();
+        assertEquals(hotel.getNumberOfFloors(), restored.getNumberOfFloors());
+        assertRoomsEqual(hotel.getAllRooms(), restored.getAllRooms());
+        assertEquals("Martin", restored.getRoomByLabel("B3L").getAssignedReservation().getLastName());
+        assertEquals("Z", restored.getRoomMatrixForFloor(0)[0][2]);
+
+        ReservationManager restoredManager = new ReservationManager();
+        loaded.get().restoreInto(restoredManager);
+        assertTrue(restoredManager.contains(pending));
+        assertEquals("A2B", restoredManager.getProposedRoom(pending));
+        assertEquals("B3L", restoredManager.getAssignedRoomLabel(guest.getId()));
+    }
+
+    // === Les séjours réservés (client présent et arrivées futures) sont restitués avec leurs dates
+    @Test
+    public void shouldRestoreBookings() throws Exception {
+        Path snapshotFile = snapshotPath();
+        LocalDate checkIn = LocalDate.now().plusDays(7);
+        Hotel hotel = new Hotel(1, new String[][]{{"E", "B", "L"}});
+        Reservation guest = new Reservation("Martin", "Alice", 1, false, "Affaire", 0);
+        Reservation future = new Reservation("Dupont", "Jean", 2, true, "Tourisme", 1, checkIn, checkIn.plusDays(2));
+        assertTrue(hotel.confirmReservation("A1E", guest));
+        assertTrue(hotel.confirmReservation("A1E", future));
+
+        HotelSnapshot.save(snapshotFile.toString(), 0, 0, hotel, new ReservationManager());
+        Hotel restoredHotel = HotelSnapshot.load(snapshotFile.toString(), 0).get().getHotel();
+        Room restored = restoredHotel.getRoomByLabel("A1E");
+
+        assertEquals(guest.getId(), restored.getAssignedReservation().getId());
+        assertEquals(2, restored.getBookings().size());
+        assertEquals(future.getId(), restored.getBookings().get(1).getReservationId());
+        assertFalse(restored.isFreeFor(checkIn.plusDays(1), checkIn.plusDays(5)));
+        assertTrue(restored.isFreeFor(checkIn.plusDays(2), checkIn.plusDays(5)));
+
+        // Le séjour restitué garde sa réservation : son check-in installe le bon client
+        restoredHotel.releaseRoom("A1E");
+        restoredHotel.setClock(Clock.fixed(checkIn.atStartOfDay(ZoneOffset.UTC).toInstant(), ZoneOffset.UTC));
+        assertEquals(1, restoredHotel.checkInArrivals().size());
+        assertEquals(future.getId(), restored.getAssignedReservation().getId());
+        assertEquals("Dupont", restored.getAssignedReservation().getLastName());
+    }
+
+    // === Une configuration modifiée rend le snapshot périmé
+    @Test
+    public void shouldIgnoreSnapshot_whenConfigChanged() throws Exception {
+        Path config = writeConfig(CONFIG);
+        Path snapshotFile = snapshotPath();
+        HotelSnapshot.save(snapshotFile.toString(), HotelSnapshot.checksumOf(config.toString()), 0,
+                new Hotel(2, new String[][]{{"E", "B", "Z"}, {"L", "E", "B"}}), new ReservationManager());
+
+        Files.write(config, "3\nE,B,Z\nL,E,B\n".getBytes(StandardCharsets.UTF_8));
+
+        assertFalse(HotelSnapshot.load(snapshotFile.toString(), HotelSnapshot.checksumOf(config.toString())).isPresent());
+    }
+
+    // === Un snapshot abîmé ou absent n'est jamais utilisé
+    @Test
+    public void shouldIgnoreCorruptedOrMissingSnapshot() throws Exception {
+        Path snapshotFile = snapshotPath();
+        assertFalse(HotelSnapshot.load(snapshotFile.toString(), 0).isPresent());
+
+        HotelSnapshot.save(snapshotFile.toString(), 0, 0,
+                new Hotel(1, new String[][]{{"E", "B", "L"}}), new ReservationManager());
+        byte[] data = Files.readAllBytes(snapshotFile);
+        data[data.length / 2] ^= 0x01;
+        Files.write(snapshotFile, data);
+
+        assertFalse(HotelSnapshot.load(snapshotFile.toString(), 0).isPresent());
+    }
+
+    // === Les sources des lignes ingérées sont restituées, y compris celles des réservations confirmées
+    @Test
+    public void shouldRestoreReservationSources() throws Exception {
+        Path config = writeConfig(CONFIG);
+        Path snapshotFile = snapshotPath();
+        long checksum = HotelSnapshot.checksumOf(config.toString());
+
+        Hotel hotel = new Hotel(2, new String[][]{{"E", "B", "Z"}, {"L", "E", "B"}});
+        ReservationManager manager = new ReservationManager();
+        Reservation confirmed = new Reservation("Martin", "Alice", 1, false, "Affaire", 0).withSource("inode@0#aa");
+        Reservation pending = new Reservation("Dupont", "Jean", 2, true, "Tourisme", 1).withSource("inode@36#bb");
+        manager.addAll(List.of(confirmed, pending));
+        hotel.confirmReservation("B3L", confirmed);
+        manager.assignReservation(confirmed, "B3L");
+        manager.remove(confirmed);
+
+        HotelSnapshot.save(snapshotFile.toString(), checksum, 0, hotel, manager);
+        ReservationManager restoredManager = new ReservationManager();
+        HotelSnapshot.load(snapshotFile.toString(), checksum).orElseThrow().restoreInto(restoredManager);
+
+        assertTrue(restoredManager.contains(pending), "La réservation en attente garde sa source et son id");
+        List<Reservation> reread = List.of(
+                new Reservation("Martin", "Alice", 1, false, "Affaire", 0).withSource("inode@0#aa"),
+                new Reservation("Dupont", "Jean", 2, true, "Tourisme", 1).withSource("inode@36#bb"));
+        assertTrue(restoredManager.addAll(reread).isEmpty(), "Les lignes relues ne doivent pas redevenir des réservations");
+        assertEquals(1, restoredManager.getAllReservations().size());
+    }
+
+    // === Outils
+    private static void assertRoomsEqual(List<Room> expected, List<Room> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Room e = expected.get(i);
+            Room a = actual.get(i);
+            assertEquals(e.getLabel(), a.getLabel());
+            assertEquals(e.getType(), a.getType());
+            assertEquals(e.getFloor(), a.getFloor());
+            assertEquals(e.getColumn(), a.getColumn());
+            assertEquals(e.getFloorIndex(), a.getFloorIndex());
+            assertEquals(e.isOccupied(), a.isOccupied());
+        }
+    }
+
+    private static Path writeConfig(String content) throws IOException {
+        Path file = Files.createTempFile("hotel_snapshot", ".hconf");
+        file.toFile().deleteOnExit();
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static Path snapshotPath() throws IOException {
+        Path dir = Files.createTempDirectory("snapshot_test");
+        dir.toFile().deleteOnExit();
+        Path file = dir.resolve("hotel.snapshot");
+        file.toFile().deleteOnExit();
+        return file;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example;
+
+import com.example.models.EmptyRoom;
+import com.example.models.Hotel;
+import com.example.models.Room;
+import com.example.utils.FloorLabel;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HotelTest {
+
+    private static final String[][] LAYOUT = {
+        {"E", "B", "Z", "L"},
+        {"L", "E", "B", "E"}
+    }; // 7 chambres par étage
+
+    // === Chaque chambre est retrouvée par son label ; un label inconnu donne EmptyRoom
+    @Test
+    public void shouldFindEveryRoomByLabel() {
+        Hotel hotel = new Hotel(30, LAYOUT);
+
+        for (Room room : hotel.getAllRooms()) {
+            assertSame(room, hotel.getRoomByLabel(room.getLabel()));
+        }
+        assertSame(EmptyRoom.getInstance(), hotel.getRoomByLabel(""));
+        assertSame(EmptyRoom.getInstance(), hotel.getRoomByLabel("A1"));
+        assertSame(EmptyRoom.getInstance(), hotel.getRoomByLabel("A3Z"));
+        assertSame(EmptyRoom.getInstance(), hotel.getRoomByLabel("a1e"), "Les labels restent sensibles à la casse");
+        assertThrows(UnsupportedOperationException.class, () -> hotel.getAllRooms().clear());
+    }
+
+    // === Le label est décodé en étage + numéro : seuls les labels générés désignent une chambre
+    @Test
+    public void shouldOnlyDecodeGeneratedLabels() {
+        Hotel hotel = new Hotel(30, LAYOUT);
+
+        assertSame(EmptyRoom.getInstance(), hotel.getRoomByLabel("A0E"));
+        assertSame(EmptyRoom.getInstance(), hotel.getRoomByLabel("A01E"));
+        assertSame(EmptyRoom.getInstance(), hotel.getRoomByLabel("A8E"));
+        assertSame(EmptyRoom.getInstance(), hotel.getRoomByLabel("A1B"), "Mauvaise lettre de type");
+        assertSame(EmptyRoom.getInstance(), hotel.getRoomByLabel("AE1E"), "Étage au-delà du 30e");
+        assertSame(EmptyRoom.getInstance(), hotel.getRoomByLabel("A99999999999E"));
+        assertEquals("AD7E", hotel.getRoomByLabel("AD7E").getLabel());
+        assertEquals(29, hotel.getRoomByLabel("AD7E").getFloorIndex());
+    }
+
+    // === Un grand hôtel (étages construits en parallèle) garde l'ordre des étages et la numérotation par étage
+    @Test
+    public void shouldKeepFloorOrder_whenBuiltInParallel() {
+        String[][] layout = new String[100][100];
+        for (String[] row : layout) {
+            Arrays.fill(row, "E");
+        }
+        layout[0][0] = "Z";
+        Hotel hotel = new Hotel(30, layout);
+
+        List<Room> rooms = hotel.getAllRooms();
+        assertEquals(30 * 9_999, rooms.size());
+        for (int i = 0; i < rooms.size(); i++) {
+            Room room = rooms.get(i);
+            assertEquals(i / 9_999, room.getFloorIndex());
+            assertEquals(FloorLabel.of(i / 9_999) + (i % 9_999 + 1) + "E", room.getLabel());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example;
+
+import com.example.utils.LongObjectMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongObjectMapTest {
+
+    // === Suite aléatoire d'ajouts et de suppressions : même contenu qu'une HashMap de référence
+    @Test
+    public void shouldBehaveLikeHashMap_underRandomOperations() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        Map<Long, String> reference = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextInt(5_000) - 100; // clés négatives et 0 comprises
+            if (random.nextInt(3) == 0) {
+                assertEquals(reference.remove(key), map.remove(key));
+            } else {
+                String value = "v" + i;
+                assertEquals(reference.put(key, value), map.put(key, value));
+            }
+        }
+
+        assertEquals(reference.size(), map.size());
+        for (long key = -100; key < 4_900; key++) {
+            assertEquals(reference.get(key), map.get(key), "Clé " + key);
+        }
+        Map<Long, String> visited = new HashMap<>();
+        map.forEach(visited::put);
+        assertEquals(reference, visited);
+    }
+
+    @Test
+    public void shouldRejectNullValues() {
+        assertThrows(IllegalArgumentException.class, () -> new LongObjectMap<String>().put(1, null));
+    }
+
+    @Test
+    public void shouldBeEmptyAfterClear() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        for (long key = 1; key <= 100; key++) {
+            map.put(key, "v");
+        }
+        map.clear();
+
+        assertTrue(map.isEmpty());
+        assertNull(map.get(50));
+        assertEquals("défaut", map.getOrDefault(50, "défaut"));
+        assertTrue(map.values().isEmpty());
+    }
+}
@@ -0,0 +1,207 @@
+package com.example;
+
+import com.example.models.Reservation;
+import com.example.parser.IngestStatistics;
+import com.example.parser.MappedReservationParser;
+import com.example.parser.QuarantineFile;
+import com.example.parser.RejectReason;
+import com.example.parser.RejectedLine;
+import com.example.parser.SampledRejectLog;
+import com.example.parser.ReservationParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedReservationParserTest {
+
+    // === Les lignes invalides sont rejetées comme avec le parseur classique
+    @ParameterizedTest(name = "[Invalide #{index}] {1}")
+    @MethodSource("invalidReservationLines")
+    public void shouldRejectInvalidLines(String line, String description) throws Exception {
+        File tempFile = writeTempCsv(line + "\n");
+
+        List<Reservation> reservations = new MappedReservationParser(tempFile.getAbsolutePath()).loadReservations();
+
+        assertTrue(reservations.isEmpty(), "Aucune réservation ne doit être chargée pour : " + description);
+    }
+
+    private static Stream<Object[]> invalidReservationLines() {
+        return Stream.of(
+            new Object[]{"BadLine", "ligne incomplète"},
+            new Object[]{"Dupont,Jean,abc,Fumeur,Loisir,1", "nombre de personnes invalide"},
+            new Object[]{"Martin,Alice,2,peut-être,Affaire,0", "valeur booléenne invalide"},
+            new Object[]{"Lemoine,Sarah,2,Fumeur,Pizza,1", "motif invalide"},
+            new Object[]{"Durand,Claire,2,Fumeur", "champ manquant"},
+            new Object[]{"Petit,Luc,2,Fumeur,Affaire,2", "aucun adulte"},
+            new Object[]{" ,Luc,2,Fumeur,Affaire,0", "nom vide"},
+            new Object[]{"Petit,Luc,99999999999,Fumeur,Affaire,0", "dépassement d'entier"},
+            new Object[]{"Petit,Luc,2,Fumeur,Affaire,0,2026-11-05", "départ manquant"},
+            new Object[]{"Petit,Luc,2,Fumeur,Affaire,0,2026-02-30,2026-03-02", "date inexistante"},
+            new Object[]{"Petit,Luc,2,Fumeur,Affaire,0,2026-11-05,2026-11-02", "départ avant l'arrivée"},
+            new Object[]{"Petit,Luc,2,Fumeur,Affaire,0,26-11-05,2026-11-08", "date mal formée"}
+        );
+    }
+
+    // === Sur un fichier mélangé, le résultat est identique à celui de ReservationParser
+    @Test
+    public void shouldMatchClassicParser_onMixedFile() throws Exception {
+        File tempFile = writeTempCsv(
+            "Dupont,Jean,2,Fumeur,Tourisme,1\n" +
+            "BadLine\n" +
+            "  Martin , Alice ,1, non-FUMEUR ,Affaire, 0 \r\n" +
+            "Lefebvre,Louis,2,Non-fumeur,Vacances,2 #INVALID\n" +
+            "Petit,Zoe,+3,Fumeur,Autre,2\n" +
+            "Durand,Claire,3,Fumeur,Autre,2,colonne en trop\n" +
+            "Leroy,Paul,2,Non-fumeur,Affaire,0, 2026-12-24 ,2026-12-27,colonne en trop\n" +
+            "Roux,Anne,1,Fumeur,Autre,0,,\n" +
+            "Dernier,Luc,1,Fumeur,Tourisme,0");
+
+        // Même horloge fixe pour les deux : le séjour par défaut ne change pas si le test passe minuit
+        Clock clock = Clock.fixed(Instant.parse("2026-03-15T12:00:00Z"), ZoneOffset.UTC);
+        List<Reservation> expected = new ReservationParser(tempFile.getAbsolutePath(), QuarantineFile.none(), clock).loadReservations();
+        List<Reservation> actual = new MappedReservationParser(tempFile.getAbsolutePath(),
+                MappedReservationParser.DEFAULT_PARALLEL_THRESHOLD, QuarantineFile.none(), clock).loadReservations();
+
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).toString(), actual.get(i).toString(), "Réservation #" + i);
+        }
+    }
+
+    // === Les noms accentués sont décodés en UTF-8
+    @Test
+    public void shouldDecodeUtf8Names() throws Exception {
+        File tempFile = writeTempCsv("Hélène,Zoé,2,Fumeur,Autre,1\n");
+
+        List<Reservation> reservations = new MappedReservationParser(tempFile.getAbsolutePath()).loadReservations();
+
+        assertEquals(1, reservations.size());
+        assertEquals("Hélène", reservations.get(0).getLastName());
+        assertEquals("Zoé", reservations.get(0).getFirstName());
+    }
+
+    // === Le chargement parallèle donne les mêmes réservations, les mêmes compteurs et le même échantillon d'erreurs
+    @ParameterizedTest(name = "[Parallèle] {0} threads")
+    @MethodSource("threadCounts")
+    public void shouldMatchSequentialLoad_whenLoadingInParallel(int threadCount) throws Exception {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 2_000; i++) {
+            content.append(i % 97 == 0 ? "Ligne,cassée\n" : "Nom" + i + ",Prenom,2,Fumeur,Affaire,1\n");
+        }
+        File tempFile = writeTempCsv(content.toString());
+        MappedReservationParser sequentialParser = new MappedReservationParser(tempFile.getAbsolutePath(), 0);
+        MappedReservationParser parallelParser = new MappedReservationParser(tempFile.getAbsolutePath(), 0);
+
+        ByteArrayOutputStream sequentialOutput = new ByteArrayOutputStream();
+        List<Reservation> sequential = captureOutput(sequentialOutput, () -> sequentialParser.loadReservations());
+        ByteArrayOutputStream parallelOutput = new ByteArrayOutputStream();
+        List<Reservation> parallel = captureOutput(parallelOutput, () -> parallelParser.loadReservations(threadCount));
+
+        assertEquals(sequential.size(), parallel.size());
+        for (int i = 0; i < sequential.size(); i++) {
+            assertEquals(sequential.get(i).getLastName(), parallel.get(i).getLastName(), "Ordre conservé #" + i);
+        }
+        assertEquals(sequentialOutput.toString(), parallelOutput.toString(), "Mêmes erreurs, mêmes numéros de ligne");
+        assertTrue(parallelOutput.toString().contains("[Ligne 98]"));
+
+        IngestStatistics statistics = parallelParser.getStatistics();
+        assertEquals(2_000, statistics.getLineCount());
+        assertEquals(21, statistics.getRejectedCount(RejectReason.BAD_FIELD_COUNT));
+        assertEquals(sequentialParser.getStatistics().getRejectedCounts(), statistics.getRejectedCounts());
+    }
+
+    // === Sur un flux très sale, chaque rejet est compté mais seul un échantillon est affiché
+    @Test
+    public void shouldCountEveryReject_butOnlyPrintASample() throws Exception {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            content.append(i % 2 == 0 ? "Nom" + i + ",Prenom,abc,Fumeur,Affaire,1\n" : "Nom" + i + ",Prenom,2,peut-être,Affaire,1\n");
+        }
+        File tempFile = writeTempCsv(content.toString());
+        MappedReservationParser parser = new MappedReservationParser(tempFile.getAbsolutePath());
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        assertTrue(captureOutput(output, () -> parser.loadReservations()).isEmpty());
+
+        assertEquals(5_000, parser.getStatistics().getRejectedCount(RejectReason.NUMBER_FORMAT));
+        assertEquals(5_000, parser.getStatistics().getRejectedCount(RejectReason.BAD_SMOKER_VALUE));
+        assertTrue(parser.getStatistics().getLastBatchLatencyMillis() > 0);
+        long printedLines = output.toString().lines().count();
+        assertEquals(SampledRejectLog.DEFAULT_MAX_SAMPLES_PER_INTERVAL, printedLines, "Sortie : " + output);
+    }
+
+    private static Stream<Integer> threadCounts() {
+        return Stream.of(1, 2, 4, 8);
+    }
+
+    // === Les rejets envoyés en quarantaine ont la même raison et le même numéro de ligne en séquentiel et en parallèle
+    @Test
+    public void shouldQuarantineSameRejects_sequentialAndParallel() throws Exception {
+        File tempFile = writeTempCsv("BadLine\nDupont,Jean,abc,Fumeur,Tourisme,1\nMartin,Alice,1,peut-être,Affaire,0\n"
+                + "Petit,Luc,1,Fumeur,Affaire,1\nDurand,Claire,3,Fumeur,Autre,2\n");
+        QuarantineFile sequential = new QuarantineFile(tempFile.getAbsolutePath() + ".seq.rejected");
+        QuarantineFile parallel = new QuarantineFile(tempFile.getAbsolutePath() + ".par.rejected");
+        new File(tempFile.getAbsolutePath() + ".seq.rejected").deleteOnExit();
+        new File(tempFile.getAbsolutePath() + ".par.rejected").deleteOnExit();
+
+        captureOutput(new ByteArrayOutputStream(),
+                () -> new MappedReservationParser(tempFile.getAbsolutePath(), 0, sequential).loadReservations());
+        captureOutput(new ByteArrayOutputStream(),
+                () -> new MappedReservationParser(tempFile.getAbsolutePath(), 0, parallel).loadReservations(4));
+
+        List<RejectedLine> expected = sequential.readAll();
+        List<RejectedLine> actual = parallel.readAll();
+        assertEquals(4, expected.size());
+        assertEquals(RejectReason.BAD_SMOKER_VALUE, expected.get(2).getReason());
+        assertEquals("Martin,Alice,1,peut-être,Affaire,0", expected.get(2).getLine());
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getReason(), actual.get(i).getReason());
+            assertEquals(expected.get(i).getLineNumber(), actual.get(i).getLineNumber());
+            assertEquals(expected.get(i).getLine(), actual.get(i).getLine());
+        }
+    }
+
+    // === Un fichier vide ne produit aucune réservation
+    @Test
+    public void shouldReturnEmptyList_whenFileIsEmpty() throws Exception {
+        File tempFile = writeTempCsv("");
+
+        assertTrue(new MappedReservationParser(tempFile.getAbsolutePath()).loadReservations().isEmpty());
+    }
+
+    // === Outils
+    private interface Loader {
+        List<Reservation> load() throws IOException;
+    }
+
+    private static List<Reservation> captureOutput(ByteArrayOutputStream capture, Loader loader) throws IOException {
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(capture));
+        try {
+            return loader.load();
+        } finally {
+            System.setOut(originalOut);
+        }
+    }
+
+    private static File writeTempCsv(String content) throws IOException {
+        File tempFile = File.createTempFile("reservations_mapped", ".csv");
+        tempFile.deleteOnExit();
+
+        try (OutputStream out = new FileOutputStream(tempFile)) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return tempFile;
+    }
+}
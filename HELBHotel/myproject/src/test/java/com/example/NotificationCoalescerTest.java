@@ -0,0 +1,116 @@
+package com.example;
+
+import com.example.models.Hotel;
+import com.example.models.Reservation;
+import com.example.models.ReservationManager;
+import com.example.observer.NotificationCoalescer;
+import com.example.observer.ReservationChange;
+import com.example.observer.ReservationObserver;
+import com.example.observer.RoomObserver;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NotificationCoalescerTest {
+
+    private static final String[][] LAYOUT = {{"E", "B", "L"}}; // A1E, A2B, A3L
+
+    // === Beaucoup de mutations avant l'impulsion : un seul flush planifié, une seule notification par vue
+    @Test
+    public void shouldDeliverOneChangeSetPerFlush() {
+        List<Runnable> pulses = new ArrayList<>();
+        NotificationCoalescer coalescer = new NotificationCoalescer(pulses::add);
+        RecordingView view = new RecordingView();
+        coalescer.addReservationObserver(view);
+        coalescer.addRoomObserver(view);
+
+        Hotel hotel = new Hotel(1, LAYOUT);
+        ReservationManager manager = new ReservationManager();
+        manager.addObserver(coalescer);
+        hotel.getRoomEvents().subscribe(coalescer);
+
+        List<Reservation> reservations = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Reservation reservation = new Reservation("Client" + i, "Test", 1, false, "Tourisme", 0);
+            reservations.add(reservation);
+            manager.add(reservation);
+            manager.proposeRoom(reservation, "A1E");
+        }
+        hotel.confirmReservation("A1E", reservations.get(0));
+        hotel.confirmReservation("A2B", reservations.get(1));
+        hotel.releaseRoom("A2B");
+
+        assertEquals(1, pulses.size(), "Un seul flush doit être planifié");
+        assertTrue(view.reservationChanges.isEmpty(), "Rien n'est transmis avant l'impulsion");
+
+        pulses.get(0).run();
+
+        assertEquals(1, view.reservationChanges.size());
+        assertEquals(20, view.reservationChanges.get(0).getAdded().size());
+        assertEquals(20, view.reservationChanges.get(0).getProposed().size());
+        assertEquals(1, view.roomCalls);
+        assertEquals(List.of("A1E"), view.assigned);
+        assertEquals(List.of("A2B"), view.released, "Seul le dernier état d'une chambre est transmis");
+    }
+
+    // === Un flush explicite transmet tout de suite ; le flush planifié qui suit ne transmet rien
+    @Test
+    public void shouldFlushExplicitlyAndSkipEmptyFlush() {
+        List<Runnable> pulses = new ArrayList<>();
+        NotificationCoalescer coalescer = new NotificationCoalescer(pulses::add);
+        RecordingView view = new RecordingView();
+        coalescer.addReservationObserver(view);
+        int[] flushed = {0};
+        coalescer.addFlushListener(() -> flushed[0]++);
+
+        coalescer.update();
+        assertTrue(coalescer.hasPendingChanges());
+        coalescer.flush();
+        pulses.get(0).run();
+
+        assertEquals(1, view.reservationChanges.size());
+        assertEquals(1, flushed[0]);
+        assertFalse(coalescer.hasPendingChanges());
+
+        // Après un flush, une nouvelle modification planifie une nouvelle impulsion
+        coalescer.onRoomAssigned("A1E");
+        assertEquals(2, pulses.size());
+    }
+
+    private static class RecordingView implements ReservationObserver, RoomObserver {
+        private final List<ReservationChange> reservationChanges = new ArrayList<>();
+        private final List<String> assigned = new ArrayList<>();
+        private final List<String> released = new ArrayList<>();
+        private int roomCalls;
+
+        @Override
+        public void update() {
+            fail("update(ReservationChange) doit être appelée");
+        }
+
+        @Override
+        public void update(ReservationChange change) {
+            reservationChanges.add(change);
+        }
+
+        @Override
+        public void onRoomAssigned(String roomLabel) {
+            fail("onRoomsChanged doit être appelée");
+        }
+
+        @Override
+        public void onRoomReleased(String roomLabel) {
+            fail("onRoomsChanged doit être appelée");
+        }
+
+        @Override
+        public void onRoomsChanged(List<String> assignedLabels, List<String> releasedLabels) {
+            roomCalls++;
+            assigned.addAll(assignedLabels);
+            released.addAll(releasedLabels);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example;
+
+import com.example.models.EmptyReservation;
+import com.example.models.Hotel;
+import com.example.models.OccupancySnapshot;
+import com.example.models.Reservation;
+import com.example.models.Room;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OccupancySnapshotTest {
+
+    // 3 étages de 50 × 20 : 3000 chambres, donc plusieurs blocs de la vue
+    private static Hotel largeHotel() {
+        String[][] layout = new String[50][20];
+        for (String[] row : layout) {
+            Arrays.fill(row, "E");
+        }
+        return new Hotel(3, layout);
+    }
+
+    // === Une vue publiée ne change plus ; la suivante ne voit les changements qu'après publication
+    @Test
+    public void shouldPublishImmutableViews() {
+        Hotel hotel = largeHotel();
+        List<Room> rooms = hotel.getAllRooms();
+        OccupancySnapshot initial = hotel.getOccupancySnapshot();
+        assertEquals(0, initial.getOccupiedCount());
+        assertEquals(-1, initial.nextOccupied(0));
+
+        Reservation alice = new Reservation("Martin", "Alice", 1, false, "Affaire", 0);
+        rooms.get(5).assignTo(alice);
+        rooms.get(2500).assignTo(new Reservation("Dupont", "Jean", 1, false, "Affaire", 0));
+        assertSame(initial, hotel.getOccupancySnapshot(), "Rien n'est visible avant la publication");
+
+        OccupancySnapshot published = hotel.publishOccupancy();
+        assertSame(published, hotel.getOccupancySnapshot());
+        assertEquals(initial.getVersion() + 1, published.getVersion());
+        assertEquals(2, published.getOccupiedCount());
+        assertSame(alice, published.getOccupant(5));
+        assertEquals(5, published.nextOccupied(0));
+        assertEquals(2500, published.nextOccupied(6));
+        assertEquals(-1, published.nextOccupied(2501));
+        assertEquals(rooms.get(2500).getLabel(), published.getLabel(2500));
+        assertSame(published, hotel.publishOccupancy(), "Sans changement, la vue courante est gardée");
+
+        rooms.get(5).release();
+        OccupancySnapshot afterRelease = hotel.publishOccupancy();
+        assertTrue(published.isOccupied(5), "L'ancienne vue n'est pas modifiée");
+        assertFalse(afterRelease.isOccupied(5));
+        assertSame(EmptyReservation.getInstance(), afterRelease.getOccupant(5));
+        assertEquals(1, afterRelease.getOccupiedCount());
+        assertThrows(IndexOutOfBoundsException.class, () -> afterRelease.isOccupied(rooms.size()));
+    }
+
+    // === Un lecteur en arrière-plan ne voit jamais un état à moitié appliqué
+    @Test
+    public void shouldGiveConsistentViewsToConcurrentReaders() throws InterruptedException {
+        Hotel hotel = largeHotel();
+        List<Room> rooms = hotel.getAllRooms();
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<String> failure = new AtomicReference<>();
+
+        // Le rédacteur occupe toujours les chambres par paires (i, i + 1500) avant de publier
+        Thread reader = new Thread(() -> {
+            while (running.get()) {
+                OccupancySnapshot view = hotel.getOccupancySnapshot();
+                int counted = 0;
+                for (int slot = view.nextOccupied(0); slot >= 0; slot = view.nextOccupied(slot + 1)) {
+                    counted++;
+                    int pair = slot < 1500 ? slot + 1500 : slot - 1500;
+                    if (!view.isOccupied(pair)) failure.compareAndSet(null, "Paire incomplète : " + slot);
+                }
+                if (counted != view.getOccupiedCount()) failure.compareAndSet(null, "Comptage incohérent");
+            }
+        });
+        reader.start();
+
+        for (int round = 0; round < 200; round++) {
+            int slot = round % 1500;
+            Reservation reservation = new Reservation("Client", "R" + round, 1, false, "Affaire", 0);
+            rooms.get(slot).assignTo(reservation);
+            rooms.get(slot + 1500).assignTo(reservation);
+            hotel.publishOccupancy();
+            if (round % 3 == 0) {
+                rooms.get(slot).release();
+                rooms.get(slot + 1500).release();
+                hotel.publishOccupancy();
+            }
+        }
+        running.set(false);
+        reader.join();
+
+        assertNull(failure.get());
+        assertEquals(2 * (200 - 67), hotel.getOccupancySnapshot().getOccupiedCount());
+    }
+}
@@ -0,0 +1,78 @@
+package com.example;
+
+import com.example.models.Hotel;
+import com.example.models.Reservation;
+import com.example.models.ReservationManager;
+import com.example.strategy.Sequential;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Mesure un rafraîchissement complet (une proposition par réservation, stratégie séquentielle)
+ * selon le nombre de propositions, avec l'index inverse et avec l'ancien parcours linéaire
+ * de toutes les propositions (reproduit par LinearScanManager).
+ * Ce n'est pas un test JUnit (il n'est pas lancé par mvn test) :
+ *   mvn test-compile
+ *   java -cp target/classes:target/test-classes com.example.ProposalIndexBenchmark
+ */
+public class ProposalIndexBenchmark {
+
+    private static final int FLOORS = 10;
+    private static final int GRID_SIZE = 30; // 10 × 30 × 30 = 9 000 chambres
+    private static final int[] RESERVATION_COUNTS = {250, 500, 1_000, 2_000};
+
+    public static void main(String[] args) {
+        String[][] layout = new String[GRID_SIZE][GRID_SIZE];
+        for (String[] row : layout) {
+            Arrays.fill(row, "E");
+        }
+
+        // Échauffement de la JVM
+        refresh(new Hotel(FLOORS, layout), new ReservationManager(), 250);
+        refresh(new Hotel(FLOORS, layout), new LinearScanManager(), 250);
+
+        System.out.printf("%-14s %15s %15s%n", "Réservations", "index (ms)", "parcours (ms)");
+        for (int count : RESERVATION_COUNTS) {
+            long indexed = refresh(new Hotel(FLOORS, layout), new ReservationManager(), count);
+            long linear = refresh(new Hotel(FLOORS, layout), new LinearScanManager(), count);
+            System.out.printf("%-14d %15.1f %15.1f%n", count, indexed / 1_000_000.0, linear / 1_000_000.0);
+        }
+    }
+
+    private static long refresh(Hotel hotel, ReservationManager manager, int count) {
+        List<Reservation> reservations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            reservations.add(new Reservation("Client" + i, "Test", 1, false, "Tourisme", 0));
+        }
+        manager.addAll(reservations);
+        Sequential strategy = Sequential.getInstance(hotel, manager);
+
+        long start = System.nanoTime();
+        for (Reservation reservation : manager.getAllReservations()) {
+            String label = strategy.assignRoom(reservation);
+            if (!label.isEmpty()) manager.proposeRoom(reservation, label);
+        }
+        return System.nanoTime() - start;
+    }
+
+    // Comportement d'avant l'index : chaque vérification parcourt toutes les propositions
+    private static class LinearScanManager extends ReservationManager {
+        private final List<String> proposedLabels = new ArrayList<>();
+
+        @Override
+        public void proposeRoom(Reservation reservation, String label) {
+            super.proposeRoom(reservation, label);
+            proposedLabels.add(label);
+        }
+
+        @Override
+        public boolean isRoomAlreadyProposed(String roomLabel) {
+            for (String proposedLabel : proposedLabels) {
+                if (roomLabel.equalsIgnoreCase(proposedLabel)) return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example;
+
+import com.example.models.Hotel;
+import com.example.models.Reservation;
+import com.example.models.ReservationManager;
+import com.example.models.Room;
+import com.example.strategy.QuietZone;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QuietZoneTest {
+
+    // A1E A2B _ A3L / A4L A5E A6B A7E sur chaque étage
+    private static final String[][] LAYOUT = {{"E", "B", "Z", "L"}, {"L", "E", "B", "E"}};
+
+    // === Voisins calculés à la construction : même étage, même ligne, cellule vide = pas de voisin
+    @Test
+    public void shouldPrecomputeSameRowNeighbours() {
+        Hotel hotel = new Hotel(2, LAYOUT);
+
+        assertEquals(List.of("A1E"), labels(hotel.getNeighbours(hotel.getRoomByLabel("A2B"))));
+        assertEquals(List.of(), labels(hotel.getNeighbours(hotel.getRoomByLabel("A3L"))));
+        assertEquals(List.of("B4L", "B6B"), labels(hotel.getNeighbours(hotel.getRoomByLabel("B5E"))));
+    }
+
+    // === Le compteur de voisins adultes suit assignation, réassignation et libération, étage par étage
+    @Test
+    public void shouldTrackAdultOnlyNeighbours() {
+        Hotel hotel = new Hotel(2, LAYOUT);
+        Reservation adults = new Reservation("Martin", "Alice", 2, false, "Tourisme", 0);
+        Reservation family = new Reservation("Dupont", "Jean", 4, false, "Tourisme", 2);
+
+        hotel.assignRoom("A5E", adults);
+        assertTrue(hotel.hasAdultOnlyNeighbour(hotel.getRoomByLabel("A4L")));
+        assertTrue(hotel.hasAdultOnlyNeighbour(hotel.getRoomByLabel("A6B")));
+        assertFalse(hotel.hasAdultOnlyNeighbour(hotel.getRoomByLabel("B4L")), "Un autre étage n'est pas voisin");
+        assertFalse(hotel.hasAdultOnlyNeighbour(hotel.getRoomByLabel("A1E")), "Une autre ligne n'est pas voisine");
+
+        hotel.getRoomByLabel("A5E").assignTo(family);
+        assertFalse(hotel.hasAdultOnlyNeighbour(hotel.getRoomByLabel("A4L")));
+
+        hotel.getRoomByLabel("A5E").assignTo(adults);
+        hotel.releaseRoom("A5E");
+        assertFalse(hotel.hasAdultOnlyNeighbour(hotel.getRoomByLabel("A6B")));
+    }
+
+    // === Une famille n'est pas placée à côté d'adultes seuls ; seul le même étage compte
+    @Test
+    public void shouldAvoidAdultOnlyNeighbours_whenPlacingFamilies() {
+        Hotel hotel = new Hotel(2, LAYOUT);
+        ReservationManager manager = new ReservationManager();
+        hotel.assignRoom("A2B", new Reservation("Martin", "Alice", 2, false, "Affaire", 0));
+        hotel.assignRoom("B2B", new Reservation("Petit", "Luc", 1, false, "Affaire", 0));
+
+        Reservation family = new Reservation("Dupont", "Jean", 4, false, "Tourisme", 2);
+        assertEquals("A3L", QuietZone.getInstance(hotel, manager).assignRoom(family));
+
+        hotel.assignRoom("A3L", new Reservation("Durand", "Paul", 1, false, "Tourisme", 0));
+        assertEquals("A4L", QuietZone.getInstance(hotel, manager).assignRoom(family));
+    }
+
+    private static List<String> labels(List<Room> rooms) {
+        return rooms.stream().map(Room::getLabel).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,161 @@
+package com.example;
+
+import com.example.utils.ReservationFileWatcher;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReservationFileWatcherTest {
+
+    private static final long DEBOUNCE_MILLIS = 300;
+    private static final long NO_SAFETY_POLL = TimeUnit.HOURS.toMillis(1);
+
+    // === Une rafale d'écritures ne déclenche qu'une seule ingestion
+    @Test
+    public void shouldCoalesceBurstOfWrites() throws Exception {
+        File file = createWatchedFile();
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch firstCall = new CountDownLatch(1);
+
+        try (ReservationFileWatcher watcher = new ReservationFileWatcher(file.getAbsolutePath(),
+                DEBOUNCE_MILLIS, NO_SAFETY_POLL, () -> { calls.incrementAndGet(); firstCall.countDown(); })) {
+            watcher.start();
+            for (int i = 0; i < 10; i++) {
+                append(file, "Dupont,Jean,2,Fumeur,Tourisme,1\n");
+                Thread.sleep(10);
+            }
+
+            assertTrue(firstCall.await(10, TimeUnit.SECONDS), "L'écriture doit être détectée");
+            Thread.sleep(DEBOUNCE_MILLIS * 3);
+        }
+
+        assertEquals(1, calls.get(), "Les écritures rapprochées doivent être regroupées");
+    }
+
+    // === Les autres fichiers du dossier sont ignorés
+    @Test
+    public void shouldIgnoreOtherFilesInDirectory() throws Exception {
+        File file = createWatchedFile();
+        AtomicInteger calls = new AtomicInteger();
+
+        try (ReservationFileWatcher watcher = new ReservationFileWatcher(file.getAbsolutePath(),
+                DEBOUNCE_MILLIS, NO_SAFETY_POLL, calls::incrementAndGet)) {
+            watcher.start();
+            append(new File(file.getParentFile(), "autre.txt"), "rien à voir\n");
+            Thread.sleep(DEBOUNCE_MILLIS * 3);
+        }
+
+        assertEquals(0, calls.get());
+    }
+
+    // === Un producteur qui écrit sans arrêt n'empêche pas l'ingestion : elle part au plus tard après l'attente maximale
+    @Test
+    public void shouldNotifyWithinMaxWait_whenWritesNeverStop() throws Exception {
+        File file = createWatchedFile();
+        CountDownLatch firstCall = new CountDownLatch(1);
+        long maxWaitMillis = 600;
+
+        try (ReservationFileWatcher watcher = new ReservationFileWatcher(file.getAbsolutePath(),
+                DEBOUNCE_MILLIS, maxWaitMillis, NO_SAFETY_POLL, firstCall::countDown)) {
+            watcher.start();
+            long start = System.nanoTime();
+            // Une écriture toutes les 50 ms pendant 5 s : jamais de moment de calme de 300 ms
+            while (firstCall.getCount() > 0 && System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5)) {
+                append(file, "Dupont,Jean,2,Fumeur,Tourisme,1\n");
+                Thread.sleep(50);
+            }
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            assertEquals(0, firstCall.getCount(), "L'ingestion doit partir pendant que le producteur écrit encore");
+            assertTrue(elapsedMillis < 4_000, "Ingestion trop tardive : " + elapsedMillis + " ms");
+        }
+    }
+
+    // === Les écritures des autres fichiers du dossier (.offset, fichiers temporaires) ne relancent pas l'attente
+    @Test
+    public void shouldNotRestartDebounce_forOtherFilesInDirectory() throws Exception {
+        File file = createWatchedFile();
+        File offset = new File(file.getParentFile(), file.getName() + ".offset");
+        CountDownLatch firstCall = new CountDownLatch(1);
+
+        try (ReservationFileWatcher watcher = new ReservationFileWatcher(file.getAbsolutePath(),
+                DEBOUNCE_MILLIS, TimeUnit.MINUTES.toMillis(1), NO_SAFETY_POLL, firstCall::countDown)) {
+            watcher.start();
+            append(file, "Dupont,Jean,2,Fumeur,Tourisme,1\n");
+            long start = System.nanoTime();
+            while (firstCall.getCount() > 0 && System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5)) {
+                append(offset, "42\n");
+                Thread.sleep(50);
+            }
+
+            assertEquals(0, firstCall.getCount(), "Le debounce doit se terminer malgré les écritures de l'offset");
+        }
+    }
+
+    // === L'attente maximale couvre au moins un debounce
+    @Test
+    public void shouldRejectMaxWaitShorterThanDebounce() throws Exception {
+        File file = createWatchedFile();
+        assertThrows(IllegalArgumentException.class, () -> new ReservationFileWatcher(file.getAbsolutePath(),
+                DEBOUNCE_MILLIS, DEBOUNCE_MILLIS - 1, NO_SAFETY_POLL, () -> { }));
+    }
+
+    // === Sans événement, la vérification de sécurité est quand même déclenchée
+    @Test
+    public void shouldRunSafetyPoll_whenNoEventArrives() throws Exception {
+        File file = createWatchedFile();
+        CountDownLatch safetyPoll = new CountDownLatch(2);
+
+        try (ReservationFileWatcher watcher = new ReservationFileWatcher(file.getAbsolutePath(),
+                DEBOUNCE_MILLIS, 100, safetyPoll::countDown)) {
+            watcher.start();
+            assertTrue(safetyPoll.await(5, TimeUnit.SECONDS), "La vérification périodique doit avoir lieu");
+        }
+    }
+
+    // === Les écritures des autres fichiers du dossier ne repoussent pas la vérification de sécurité
+    @Test
+    public void shouldRunSafetyPoll_whenOnlyOtherFilesChange() throws Exception {
+        File file = createWatchedFile();
+        File journal = new File(file.getParentFile(), file.getName() + ".journal");
+        journal.deleteOnExit();
+        CountDownLatch safetyPoll = new CountDownLatch(1);
+
+        try (ReservationFileWatcher watcher = new ReservationFileWatcher(file.getAbsolutePath(),
+                DEBOUNCE_MILLIS, 300, safetyPoll::countDown)) {
+            watcher.start();
+            long start = System.nanoTime();
+            while (safetyPoll.getCount() > 0 && System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5)) {
+                append(journal, "x"); // bien plus souvent que la vérification de sécurité
+                Thread.sleep(20);
+            }
+
+            assertEquals(0, safetyPoll.getCount(), "La vérification doit avoir lieu malgré l'activité du dossier");
+        }
+    }
+
+    // === Outils
+    private static File createWatchedFile() throws IOException {
+        Path dir = Files.createTempDirectory("watcher_test");
+        dir.toFile().deleteOnExit();
+        File file = new File(dir.toFile(), "reservation.csv");
+        file.createNewFile();
+        file.deleteOnExit();
+        return file;
+    }
+
+    private static void append(File file, String content) throws IOException {
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        file.deleteOnExit();
+    }
+}
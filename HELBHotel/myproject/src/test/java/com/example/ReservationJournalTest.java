@@ -0,0 +1,518 @@
+package com.example;
+
+import com.example.models.Hotel;
+import com.example.models.Reservation;
+import com.example.models.ReservationManager;
+import com.example.persistence.FsyncPolicy;
+import com.example.persistence.ReservationJournal;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReservationJournalTest {
+
+    private static final String[][] LAYOUT = {{"E", "B", "L"}}; // A1E, A2B, A3L
+
+    // === Le rejeu reconstruit réservations en attente, propositions, confirmations et libérations
+    @Test
+    public void shouldRebuildStateOnReplay() throws Exception {
+        Path file = createJournalFile();
+        Reservation pending = new Reservation("Dupont", "Jean", 2, true, "Tourisme", 1);
+        Reservation confirmed = new Reservation("Martin", "Alice", 1, false, "Affaire", 0);
+        Reservation released = new Reservation("Durand", "Paul", 1, false, "Sportif", 0);
+
+        try (ReservationJournal journal = openJournal(file, new Hotel(1, LAYOUT), new ReservationManager())) {
+            journal.recordAdded(pending);
+            journal.recordProposal(pending, "A2B");
+            journal.recordAdded(confirmed);
+            journal.recordConfirmation(confirmed, "A1E");
+            journal.recordCheckIn(confirmed, "A1E");
+            journal.recordConfirmation(released, "A3L");
+            journal.recordCheckIn(released, "A3L");
+            journal.recordRelease("A3L");
+        }
+
+        Hotel hotel = new Hotel(1, LAYOUT);
+        ReservationManager manager = new ReservationManager();
+        try (ReservationJournal journal = new ReservationJournal(file.toString(), FsyncPolicy.NEVER)) {
+            assertEquals(8, journal.replay(hotel, manager));
+        }
+
+        assertTrue(manager.contains(pending));
+        assertEquals("A2B", manager.getProposedRoom(pending));
+        assertFalse(manager.contains(confirmed), "Une réservation confirmée ne doit plus être en attente");
+        assertEquals("A1E", manager.getAssignedRoomLabel(confirmed.getId()));
+        assertTrue(hotel.getRoomByLabel("A1E").isOccupied());
+        assertFalse(hotel.getRoomByLabel("A3L").isOccupied(), "La chambre libérée doit être libre");
+    }
+
+    // === Une fin de fichier incomplète (crash pendant l'écriture) est ignorée puis tronquée
+    @Test
+    public void shouldIgnoreAndTruncateTornTail() throws Exception {
+        Path file = createJournalFile();
+        try (ReservationJournal journal = openJournal(file, new Hotel(1, LAYOUT), new ReservationManager())) {
+            journal.recordAdded(new Reservation("Dupont", "Jean", 2, true, "Tourisme", 1));
+            journal.recordAdded(new Reservation("Martin", "Alice", 1, false, "Affaire", 0));
+        }
+        long completeSize = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(completeSize - 3);
+        }
+
+        ReservationManager manager = new ReservationManager();
+        try (ReservationJournal journal = openJournal(file, new Hotel(1, LAYOUT), manager)) {
+            assertEquals(1, manager.getAllReservations().size());
+            journal.recordAdded(new Reservation("Durand", "Paul", 1, false, "Sportif", 0));
+        }
+
+        ReservationManager reloaded = new ReservationManager();
+        try (ReservationJournal journal = new ReservationJournal(file.toString(), FsyncPolicy.NEVER)) {
+            assertEquals(2, journal.replay(new Hotel(1, LAYOUT), reloaded));
+        }
+        assertEquals(2, reloaded.getAllReservations().size(), "Les écritures suivantes doivent rester lisibles");
+    }
+
+    // === Un octet corrompu invalide l'entrée (CRC) et tout ce qui suit
+    @Test
+    public void shouldStopReplayAtCorruptedRecord() throws Exception {
+        Path file = createJournalFile();
+        try (ReservationJournal journal = openJournal(file, new Hotel(1, LAYOUT), new ReservationManager())) {
+            journal.recordAdded(new Reservation("Dupont", "Jean", 2, true, "Tourisme", 1));
+        }
+        long firstRecordEnd = Files.size(file);
+        try (ReservationJournal journal = openJournal(file, new Hotel(1, LAYOUT), new ReservationManager())) {
+            journal.recordAdded(new Reservation("Martin", "Alice", 1, false, "Affaire", 0));
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            long position = firstRecordEnd + 12;
+            raf.seek(position);
+            int original = raf.read();
+            raf.seek(position);
+            raf.write(original ^ 0xFF);
+        }
+
+        ReservationManager manager = new ReservationManager();
+        try (ReservationJournal journal = new ReservationJournal(file.toString(), FsyncPolicy.NEVER)) {
+            assertEquals(1, journal.replay(new Hotel(1, LAYOUT), manager));
+        }
+        assertEquals(firstRecordEnd, Files.size(file));
+    }
+
+    // === Les entrées déjà contenues dans un snapshot ne sont pas rejouées, la numérotation continue après
+    @Test
+    public void shouldSkipRecordsCoveredBySnapshot() throws Exception {
+        Path file = createJournalFile();
+        try (ReservationJournal journal = openJournal(file, new Hotel(1, LAYOUT), new ReservationManager())) {
+            journal.recordAdded(new Reservation("Dupont", "Jean", 2, true, "Tourisme", 1));
+            journal.recordAdded(new Reservation("Martin", "Alice", 1, false, "Affaire", 0));
+        }
+
+        ReservationManager manager = new ReservationManager();
+        try (ReservationJournal journal = new ReservationJournal(file.toString(), FsyncPolicy.NEVER)) {
+            assertEquals(1, journal.replay(new Hotel(1, LAYOUT), manager, 1));
+            assertEquals(2, journal.getLastSequence());
+        }
+        assertEquals("Martin", manager.getAllReservations().get(0).getLastName());
+    }
+
+    // === Chaque politique de synchronisation écrit toutes les entrées après flush()
+    @Test
+    public void shouldPersistAllRecords_forEveryFsyncPolicy() throws Exception {
+        for (FsyncPolicy policy : FsyncPolicy.values()) {
+            Path file = createJournalFile();
+            ReservationJournal journal = new ReservationJournal(file.toString(), policy, 10);
+            journal.replay(new Hotel(1, LAYOUT), new ReservationManager());
+            journal.start();
+            for (int i = 0; i < 500; i++) {
+                journal.recordAdded(new Reservation("Client" + i, "Test", 1, false, "Tourisme", 0));
+            }
+            journal.flush();
+
+            ReservationManager manager = new ReservationManager();
+            try (ReservationJournal reader = new ReservationJournal(file.toString(), FsyncPolicy.NEVER)) {
+                assertEquals(500, reader.replay(new Hotel(1, LAYOUT), manager), "Politique " + policy);
+            }
+            journal.close();
+        }
+    }
+
+    // === Les ids survivent au rejeu, et les nouvelles réservations reçoivent un id plus grand
+    @Test
+    public void shouldKeepReservationIdsAcrossReplay() throws Exception {
+        Path file = createJournalFile();
+        Reservation first = new Reservation("Dupont", "Camille", 2, false, "Tourisme", 0);
+        Reservation homonym = new Reservation("Dupont", "Camille", 1, false, "Affaire", 0);
+        try (ReservationJournal journal = openJournal(file, new Hotel(1, LAYOUT), new ReservationManager())) {
+            journal.recordAdded(first);
+            journal.recordAdded(homonym);
+            journal.recordProposal(homonym, "A2B");
+        }
+
+        ReservationManager manager = new ReservationManager();
+        try (ReservationJournal journal = new ReservationJournal(file.toString(), FsyncPolicy.NEVER)) {
+            journal.replay(new Hotel(1, LAYOUT), manager);
+        }
+
+        assertEquals(2, manager.getAllReservations().size());
+        assertTrue(manager.contains(first));
+        assertEquals("", manager.getProposedRoom(first));
+        assertEquals("A2B", manager.getProposedRoom(homonym));
+        assertTrue(new Reservation("Nouveau", "Client", 1, false, "Tourisme", 0).getId() > homonym.getId());
+    }
+
+    // === Un journal version 1 (sans ids) est relu par nom, puis archivé et remplacé par un journal au format actuel
+    @Test
+    public void shouldMigrateLegacyJournal() throws Exception {
+        Path file = createJournalFile();
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file.toFile()))) {
+            out.writeInt(0x484A524E);
+            out.writeInt(1);
+            writeLegacyRecord(out, 1, 0, "", "Dupont", "Jean");     // ADD
+            writeLegacyRecord(out, 2, 1, "A2B", "Dupont", "Jean");  // PROPOSE
+            writeLegacyRecord(out, 3, 0, "", "Martin", "Alice");    // ADD
+            writeLegacyRecord(out, 4, 2, "A1E", "Martin", "Alice"); // CONFIRM
+        }
+
+        Hotel hotel = new Hotel(1, LAYOUT);
+        ReservationManager manager = new ReservationManager();
+        try (ReservationJournal journal = new ReservationJournal(file.toString(), FsyncPolicy.NEVER)) {
+            assertEquals(4, journal.replay(hotel, manager));
+            assertTrue(journal.wasMigrated());
+            journal.start();
+            journal.recordRelease("A1E");
+        }
+
+        assertEquals(1, manager.getAllReservations().size(), "La confirmation doit retirer la réservation relue par nom");
+        assertEquals("A2B", manager.getProposedRoom(manager.getAllReservations().get(0)));
+        assertTrue(hotel.getRoomByLabel("A1E").isOccupied());
+        assertTrue(Files.exists(file.resolveSibling("reservation.journal.v1")));
+
+        try (ReservationJournal journal = new ReservationJournal(file.toString(), FsyncPolicy.NEVER)) {
+            assertEquals(1, journal.replay(new Hotel(1, LAYOUT), new ReservationManager(), 4));
+            assertFalse(journal.wasMigrated());
+            assertEquals(5, journal.getLastSequence());
+        }
+    }
+
+    // === Les dates du séjour sont rejouées : une confirmation future réserve la chambre sans l'occuper
+    @Test
+    public void shouldReplayStayDates() throws Exception {
+        Path file = createJournalFile();
+        LocalDate checkIn = LocalDate.now().plusDays(10);
+        Reservation future = new Reservation("Dupont", "Jean", 2, true, "Tourisme", 1, checkIn, checkIn.plusDays(3));
+        Reservation pending = new Reservation("Martin", "Alice", 1, false, "Affaire", 0, checkIn, checkIn.plusDays(1));
+
+        try (ReservationJournal journal = openJournal(file, new Hotel(1, LAYOUT), new ReservationManager())) {
+            journal.recordConfirmation(future, "A1E");
+            journal.recordAdded(pending);
+        }
+
+        Hotel hotel = new Hotel(1, LAYOUT);
+        ReservationManager manager = new ReservationManager();
+        try (ReservationJournal journal = new ReservationJournal(file.toString(), FsyncPolicy.NEVER)) {
+            assertEquals(2, journal.replay(hotel, manager));
+        }
+
+        assertEquals(checkIn.plusDays(1), manager.getAllReservations().get(0).getCheckOut());
+        assertFalse(hotel.getRoomByLabel("A1E").isOccupied(), "Un séjour futur ne fait que réserver la chambre");
+        assertFalse(hotel.getRoomByLabel("A1E").isFreeFor(checkIn.plusDays(2), checkIn.plusDays(4)));
+        assertTrue(hotel.getRoomByLabel("A1E").isFreeFor(checkIn.plusDays(3), checkIn.plusDays(4)));
+    }
+
+    // === Le rejeu ne dépend pas du jour où il a lieu : une confirmation réserve, seul un check-in journalisé occupe
+    @Test
+    public void shouldReplayCheckIns_independentlyOfReplayDay() throws Exception {
+        Path file = createJournalFile();
+        LocalDate day = LocalDate.of(2026, 12, 1);
+        Reservation guest = new Reservation("Martin", "Alice", 1, false, "Affaire", 0, day, day.plusDays(3));
+        Reservation future = new Reservation("Dupont", "Jean", 2, true, "Tourisme", 1, day.plusDays(2), day.plusDays(10));
+
+        Hotel original = new Hotel(1, LAYOUT);
+        original.setClock(fixedClock(day));
+        try (ReservationJournal journal = openJournal(file, original, new ReservationManager())) {
+            assertTrue(original.confirmReservation("A2B", guest));
+            journal.recordConfirmation(guest, "A2B");
+            journal.recordCheckIn(guest, "A2B");
+            assertTrue(original.confirmReservation("A1E", future));
+            journal.recordConfirmation(future, "A1E");
+        }
+
+        // Rejeu une semaine plus tard : le séjour futur a commencé, mais aucun check-in n'a été journalisé
+        Hotel hotel = new Hotel(1, LAYOUT);
+        hotel.setClock(fixedClock(day.plusDays(7)));
+        try (ReservationJournal journal = new ReservationJournal(file.toString(), FsyncPolicy.NEVER)) {
+            assertEquals(3, journal.replay(hotel, new ReservationManager()));
+        }
+        assertEquals(guest.getId(), hotel.getRoomByLabel("A2B").getAssignedReservation().getId());
+        assertFalse(hotel.getRoomByLabel("A1E").isOccupied(), "Le rejeu seul n'installe pas le client");
+        assertEquals(1, hotel.getRoomByLabel("A1E").getBookings().size());
+
+        // Le check-in qui suit le rejeu, lui, suit l'horloge
+        assertEquals(1, hotel.checkInArrivals().size());
+        assertEquals(future.getId(), hotel.getRoomByLabel("A1E").getAssignedReservation().getId());
+    }
+
+    private static Clock fixedClock(LocalDate day) {
+        return Clock.fixed(day.atStartOfDay(ZoneOffset.UTC).toInstant(), ZoneOffset.UTC);
+    }
+
+    // === Rejouer un ajout rend sa ligne d'origine à nouveau reconnue : la relire ne crée pas de doublon
+    @Test
+    public void shouldReplayReservationSources() throws Exception {
+        Path file = createJournalFile();
+        Reservation ingested = new Reservation("Dupont", "Jean", 2, true, "Tourisme", 1).withSource("inode@0#1a2b");
+        try (ReservationJournal journal = openJournal(file, new Hotel(1, LAYOUT), new ReservationManager())) {
+            journal.recordAdded(ingested);
+            journal.recordConfirmation(ingested, "A1E");
+        }
+
+        ReservationManager manager = new ReservationManager();
+        try (ReservationJournal journal = new ReservationJournal(file.toString(), FsyncPolicy.NEVER)) {
+            assertEquals(2, journal.replay(new Hotel(1, LAYOUT), manager));
+        }
+
+        Reservation reread = new Reservation("Dupont", "Jean", 2, true, "Tourisme", 1).withSource("inode@0#1a2b");
+        assertTrue(manager.addAll(List.of(reread)).isEmpty(), "La ligne déjà ingérée ne doit pas revenir");
+        assertEquals(ingested.getId(), manager.getSourceMap().get("inode@0#1a2b"));
+    }
+
+    // === Une écriture qui échoue à mi-lot ne laisse pas d'entrée coupée : le fichier revient à la dernière entrée
+    // complète, puis le journal refuse les nouvelles entrées au lieu de les écrire derrière la coupure
+    @Test
+    public void shouldTruncateTornBatchAndStop_whenWriteFails() throws Exception {
+        Path file = createJournalFile();
+        FailingChannel[] opened = new FailingChannel[1];
+        ReservationJournal journal = new ReservationJournal(file.toString(), FsyncPolicy.EVERY_BATCH) {
+            @Override
+            protected FileChannel openForAppend(Path journalFile) throws IOException {
+                opened[0] = new FailingChannel(super.openForAppend(journalFile));
+                return opened[0];
+            }
+        };
+        journal.replay(new Hotel(1, LAYOUT), new ReservationManager());
+        journal.start();
+        journal.recordAdded(new Reservation("Dupont", "Jean", 2, true, "Tourisme", 1));
+        journal.flush();
+        long goodSize = Files.size(file);
+
+        opened[0].failWrites = true;
+        journal.recordAdded(new Reservation("Martin", "Alice", 1, false, "Affaire", 0));
+        assertThrows(IOException.class, journal::flush, "L'appelant doit voir l'erreur d'écriture");
+        assertThrows(IOException.class, journal::flushAndSync, "Rien ne doit être confirmé durable après l'erreur");
+        assertThrows(IllegalStateException.class,
+                () -> journal.recordAdded(new Reservation("Durand", "Paul", 1, false, "Sportif", 0)));
+        assertThrows(IOException.class, journal::close);
+        assertEquals(goodSize, Files.size(file), "La moitié d'entrée écrite doit être retirée");
+
+        ReservationManager manager = new ReservationManager();
+        try (ReservationJournal reopened = openJournal(file, new Hotel(1, LAYOUT), manager)) {
+            reopened.recordAdded(new Reservation("Petit", "Luc", 1, false, "Sportif", 0));
+        }
+        assertEquals(1, manager.getAllReservations().size());
+        try (ReservationJournal journalAfterRestart = new ReservationJournal(file.toString(), FsyncPolicy.NEVER)) {
+            assertEquals(2, journalAfterRestart.replay(new Hotel(1, LAYOUT), new ReservationManager()),
+                    "Les entrées écrites après la reprise doivent rester lisibles");
+        }
+    }
+
+    // === Une entrée impossible à relire (trop longue) est refusée à l'appel, sans arrêter le journal
+    @Test
+    public void shouldRefuseOversizedRecord() throws Exception {
+        Path file = createJournalFile();
+        String huge = "x".repeat(40_000);
+        try (ReservationJournal journal = openJournal(file, new Hotel(1, LAYOUT), new ReservationManager())) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> journal.recordAdded(new Reservation(huge, huge, 1, false, "Tourisme", 0)));
+            journal.recordAdded(new Reservation("Dupont", "Jean", 2, true, "Tourisme", 1));
+            assertEquals(1, journal.getLastSequence(), "L'entrée refusée ne consomme pas de séquence");
+        }
+
+        try (ReservationJournal journal = new ReservationJournal(file.toString(), FsyncPolicy.NEVER)) {
+            assertEquals(1, journal.replay(new Hotel(1, LAYOUT), new ReservationManager()));
+        }
+    }
+
+    // === La compaction retire les entrées couvertes par le snapshot ; les écritures suivantes continuent normalement
+    @Test
+    public void shouldDropRecordsCoveredBySnapshot_whenCompacted() throws Exception {
+        Path file = createJournalFile();
+        try (ReservationJournal journal = openJournal(file, new Hotel(1, LAYOUT), new ReservationManager())) {
+            for (int i = 0; i < 100; i++) {
+                journal.recordAdded(new Reservation("Client" + i, "Test", 1, false, "Tourisme", 0));
+            }
+            journal.flush();
+            long sizeBefore = Files.size(file);
+
+            assertEquals(10, journal.compact(90));
+            assertTrue(Files.size(file) < sizeBefore / 5);
+            journal.recordAdded(new Reservation("Dupont", "Jean", 2, true, "Tourisme", 1));
+        }
+
+        ReservationManager manager = new ReservationManager();
+        try (ReservationJournal journal = new ReservationJournal(file.toString(), FsyncPolicy.NEVER)) {
+            assertEquals(11, journal.replay(new Hotel(1, LAYOUT), manager, 90));
+            assertEquals(101, journal.getLastSequence());
+        }
+        assertEquals("Client90", manager.getAllReservations().stream()
+                .map(Reservation::getLastName).sorted().findFirst().orElseThrow());
+        assertFalse(Files.exists(file.resolveSibling("reservation.journal.compact")));
+    }
+
+    // === Outils
+    // Canal qui, une fois failWrites posé, n'écrit que la moitié du tampon puis échoue (disque plein)
+    private static final class FailingChannel extends FileChannel {
+        private final FileChannel delegate;
+        private volatile boolean failWrites;
+
+        private FailingChannel(FileChannel delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            if (!failWrites) return delegate.write(src);
+            ByteBuffer half = src.duplicate();
+            half.limit(src.position() + src.remaining() / 2);
+            int written = delegate.write(half);
+            src.position(src.position() + written);
+            throw new IOException("Disque plein (simulé)");
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return delegate.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return delegate.read(dsts, offset, length);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return delegate.write(srcs, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            delegate.force(metaData);
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return delegate.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return delegate.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return delegate.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            return delegate.write(src, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return delegate.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return delegate.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return delegate.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+
+    private static void writeLegacyRecord(DataOutputStream out, long sequence, int type, String label,
+                                          String lastName, String firstName) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream payload = new DataOutputStream(bytes);
+        payload.writeLong(sequence);
+        payload.writeByte(type);
+        payload.writeUTF(label);
+        payload.writeUTF(lastName);
+        payload.writeUTF(firstName);
+        payload.writeByte(1);
+        payload.writeBoolean(false);
+        payload.writeUTF("Tourisme");
+        payload.writeByte(0);
+        payload.flush();
+
+        byte[] data = bytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        out.writeInt(data.length);
+        out.write(data);
+        out.writeInt((int) crc.getValue());
+    }
+
+    private static ReservationJournal openJournal(Path file, Hotel hotel, ReservationManager manager) throws IOException {
+        ReservationJournal journal = new ReservationJournal(file.toString(), FsyncPolicy.EVERY_BATCH);
+        journal.replay(hotel, manager);
+        journal.start();
+        return journal;
+    }
+
+    private static Path createJournalFile() throws IOException {
+        Path dir = Files.createTempDirectory("journal_test");
+        dir.toFile().deleteOnExit();
+        Path file = dir.resolve("reservation.journal");
+        file.toFile().deleteOnExit();
+        file.resolveSibling("reservation.journal.v1").toFile().deleteOnExit();
+        return file;
+    }
+}
@@ -0,0 +1,327 @@
+package com.example;
+
+import com.example.models.Hotel;
+import com.example.models.Reservation;
+import com.example.models.ReservationFilter;
+import com.example.models.ReservationManager;
+import com.example.observer.ReservationChange;
+import com.example.observer.ReservationObserver;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReservationManagerTest {
+
+    // === addAll sur 50 000 réservations : une seule notification, avec le delta complet
+    @Test
+    public void shouldNotifyOnce_whenAddingAll() {
+        ReservationManager manager = new ReservationManager();
+        RecordingObserver observer = new RecordingObserver();
+        manager.addObserver(observer);
+
+        List<Reservation> reservations = createReservations(50_000);
+        List<Reservation> added = manager.addAll(reservations);
+
+        assertEquals(50_000, added.size());
+        assertEquals(1, observer.changes.size());
+        assertEquals(50_000, observer.changes.get(0).getAdded().size());
+        assertEquals(50_000, manager.getAllReservations().size());
+    }
+
+    // === addAll ignore les réservations déjà connues et ne notifie pas si rien n'a changé
+    @Test
+    public void shouldSkipKnownReservations_andStayQuietWhenNothingChanges() {
+        ReservationManager manager = new ReservationManager();
+        List<Reservation> reservations = createReservations(3);
+        manager.addAll(reservations);
+
+        RecordingObserver observer = new RecordingObserver();
+        manager.addObserver(observer);
+        assertTrue(manager.addAll(reservations).isEmpty());
+        assertTrue(observer.changes.isEmpty(), "Aucun changement : aucune notification");
+    }
+
+    // === proposeAll et removeAll produisent chacun un seul delta
+    @Test
+    public void shouldNotifyOnce_whenProposingAndRemovingAll() {
+        ReservationManager manager = new ReservationManager();
+        List<Reservation> reservations = createReservations(3);
+        manager.addAll(reservations);
+        RecordingObserver observer = new RecordingObserver();
+        manager.addObserver(observer);
+
+        Map<Reservation, String> proposals = new LinkedHashMap<>();
+        proposals.put(reservations.get(0), "A1B");
+        proposals.put(reservations.get(1), "A2E");
+        manager.proposeAll(proposals);
+        manager.removeAll(reservations);
+
+        assertEquals(2, observer.changes.size());
+        assertEquals(2, observer.changes.get(0).getProposed().size());
+        assertEquals(3, observer.changes.get(1).getRemoved().size());
+        assertTrue(manager.getAllReservations().isEmpty());
+        assertEquals("", manager.getProposedRoom(reservations.get(0)));
+    }
+
+    // === Lots imbriqués : seul le commit externe notifie, avec toutes les modifications
+    @Test
+    public void shouldMergeNestedBatchesIntoOneChange() {
+        ReservationManager manager = new ReservationManager();
+        RecordingObserver observer = new RecordingObserver();
+        manager.addObserver(observer);
+        List<Reservation> reservations = createReservations(2);
+
+        manager.beginBatch();
+        manager.addAll(reservations);
+        manager.proposeRoom(reservations.get(0), "A1B");
+        manager.assignReservation(reservations.get(1), "A2E");
+        manager.remove(reservations.get(1));
+        assertTrue(observer.changes.isEmpty(), "Aucune notification avant le commit");
+        manager.commitBatch();
+
+        assertEquals(1, observer.changes.size());
+        ReservationChange change = observer.changes.get(0);
+        assertEquals(2, change.getAdded().size());
+        assertEquals(1, change.getProposed().size());
+        assertEquals(1, change.getRemoved().size());
+        assertFalse(manager.isInBatch());
+    }
+
+    // === Les mutations unitaires notifient toujours immédiatement
+    @Test
+    public void shouldNotifyEachSingleMutation() {
+        ReservationManager manager = new ReservationManager();
+        RecordingObserver observer = new RecordingObserver();
+        manager.addObserver(observer);
+        Reservation reservation = createReservations(1).get(0);
+
+        manager.add(reservation);
+        manager.proposeRoom(reservation, "A1B");
+
+        assertEquals(2, observer.changes.size());
+        assertEquals(List.of(reservation), observer.changes.get(0).getAdded());
+        assertEquals(List.of(reservation), observer.changes.get(1).getProposed());
+    }
+
+    // === L'index inverse suit proposeRoom, setProposal, remove et clear, sans tenir compte de la casse
+    @Test
+    public void shouldKeepProposalIndexConsistent() {
+        ReservationManager manager = new ReservationManager();
+        List<Reservation> reservations = createReservations(2);
+        manager.addAll(reservations);
+        Reservation first = reservations.get(0);
+        Reservation second = reservations.get(1);
+
+        manager.proposeRoom(first, "A1B");
+        assertTrue(manager.isRoomAlreadyProposed("a1b"));
+        assertEquals(first.getId(), manager.getReservationIdForProposedRoom("A1B"));
+
+        manager.setProposal(first, "A2E");
+        assertFalse(manager.isRoomAlreadyProposed("A1B"), "L'ancienne proposition doit être libérée");
+        assertTrue(manager.isRoomAlreadyProposed("A2E"));
+
+        // Deux réservations sur la même chambre : la retirer à l'une ne la libère pas pour l'autre
+        manager.setProposal(second, "a2e");
+        manager.remove(first);
+        assertTrue(manager.isRoomAlreadyProposed("A2E"));
+        assertEquals(second.getId(), manager.getReservationIdForProposedRoom("A2E"));
+
+        manager.clear();
+        assertFalse(manager.isRoomAlreadyProposed("A2E"));
+        assertEquals(Reservation.NO_ID, manager.getReservationIdForProposedRoom("A2E"));
+    }
+
+    // === Chambre partagée : la plus ancienne proposition en est propriétaire, quel que soit l'ordre des ids
+    @Test
+    public void shouldGiveSharedRoomToOldestProposal() {
+        ReservationManager manager = new ReservationManager();
+        List<Reservation> reservations = createReservations(40);
+        manager.addAll(reservations);
+
+        // Proposées dans l'ordre inverse des ids : un HashSet rendrait le plus petit id
+        for (int i = reservations.size() - 1; i >= 0; i--) {
+            manager.setProposal(reservations.get(i), "A1B");
+        }
+        Reservation oldest = reservations.get(reservations.size() - 1);
+        assertEquals(oldest.getId(), manager.getReservationIdForProposedRoom("A1B"));
+        assertFalse(manager.tryProposeRoom(reservations.get(0), "A1B"));
+        assertTrue(manager.tryProposeRoom(oldest, "a1b"), "Reproposer la même chambre garde le rang");
+        assertEquals(oldest.getId(), manager.getReservationIdForProposedRoom("A1B"));
+
+        // La propriétaire partie, la chambre revient à la proposition suivante
+        manager.remove(oldest);
+        assertEquals(reservations.get(reservations.size() - 2).getId(), manager.getReservationIdForProposedRoom("A1B"));
+    }
+
+    // === Vérification par chambre : le bitmap par position suit les propositions de l'hôtel indexé
+    @Test
+    public void shouldCheckProposedRoomsByPosition() {
+        ReservationManager manager = new ReservationManager();
+        List<Reservation> reservations = createReservations(2);
+        manager.addAll(reservations);
+        Hotel hotel = new Hotel(2, new String[][]{{"E", "B", "L"}});
+        manager.proposeRoom(reservations.get(0), "a2b"); // avant l'indexation : repris à la construction du bitmap
+
+        manager.indexProposalsFor(hotel);
+        assertTrue(manager.isRoomAlreadyProposed(hotel.getRoomByLabel("A2B")));
+        assertFalse(manager.isRoomAlreadyProposed(hotel.getRoomByLabel("A1E")));
+
+        manager.setProposal(reservations.get(0), "B3L");
+        manager.setProposal(reservations.get(1), "B3L");
+        assertFalse(manager.isRoomAlreadyProposed(hotel.getRoomByLabel("A2B")));
+        manager.remove(reservations.get(0));
+        assertTrue(manager.isRoomAlreadyProposed(hotel.getRoomByLabel("B3L")), "Encore proposée à la seconde réservation");
+
+        // Chambre d'un autre hôtel : vérification par label
+        Hotel other = new Hotel(2, new String[][]{{"E", "B", "L"}});
+        assertTrue(manager.isRoomAlreadyProposed(other.getRoomByLabel("B3L")));
+
+        manager.clear();
+        assertFalse(manager.isRoomAlreadyProposed(hotel.getRoomByLabel("B3L")));
+    }
+
+    // === Tri par nom : insensible à la casse, tenu à jour à l'ajout et à la suppression
+    @Test
+    public void shouldKeepNameViewSorted() {
+        ReservationManager manager = new ReservationManager();
+        Reservation martin = new Reservation("martin", "Alice", 1, false, "Tourisme", 0);
+        Reservation dupont = new Reservation("Dupont", "Jean", 1, false, "Tourisme", 0);
+        Reservation bernard = new Reservation("Bernard", "Luc", 1, false, "Tourisme", 0);
+        manager.addAll(List.of(martin, dupont, bernard));
+
+        assertEquals(List.of(bernard, dupont, martin), manager.getSortedReservations("Trier par : Nom"));
+
+        manager.remove(dupont);
+        assertEquals(List.of(bernard, martin), manager.getSortedReservations("Trier par : Nom"));
+    }
+
+    // === Tri par chambre : sans proposition en tête, puis étage (Z avant AA) et numéro ; suit les propositions
+    @Test
+    public void shouldKeepRoomViewSorted() {
+        ReservationManager manager = new ReservationManager();
+        List<Reservation> reservations = createReservations(5);
+        manager.addAll(reservations);
+        manager.proposeRoom(reservations.get(0), "AA1E");
+        manager.proposeRoom(reservations.get(1), "A10B");
+        manager.proposeRoom(reservations.get(2), "Z2L");
+        manager.proposeRoom(reservations.get(3), "A9E");
+
+        assertEquals(List.of(reservations.get(4), reservations.get(3), reservations.get(1),
+                reservations.get(2), reservations.get(0)), manager.getSortedReservations("Trier par : Chambre"));
+
+        manager.setProposal(reservations.get(4), "AB1E");
+        manager.proposeRoom(reservations.get(0), "A1E");
+        assertEquals(List.of(reservations.get(0), reservations.get(3), reservations.get(1),
+                reservations.get(2), reservations.get(4)), manager.getSortedReservations("Trier par : Chambre"));
+    }
+
+    // === Deux clients homonymes sont deux réservations distinctes (plus de perte silencieuse)
+    @Test
+    public void shouldKeepHomonymsAsSeparateReservations() {
+        ReservationManager manager = new ReservationManager();
+        Reservation first = new Reservation("Dupont", "Camille", 2, false, "Tourisme", 0);
+        Reservation second = new Reservation("Dupont", "Camille", 1, true, "Affaire", 0);
+
+        assertEquals(2, manager.addAll(List.of(first, second)).size());
+        manager.proposeRoom(first, "A1B");
+
+        assertNotEquals(first.getId(), second.getId());
+        assertEquals(2, manager.getAllReservations().size());
+        assertEquals(2, manager.findByName("Dupont", "Camille").size());
+        assertEquals("A1B", manager.getProposedRoom(first));
+        assertFalse(manager.hasProposal(second));
+
+        manager.remove(first);
+        assertEquals(List.of(second), manager.findByName("Dupont", "Camille"));
+    }
+
+    // === Les filtres combinés (bitmaps) donnent le même résultat qu'un parcours complet, après chaque mutation
+    @Test
+    public void shouldMatchFullScan_withCombinedFilters() {
+        ReservationManager manager = new ReservationManager();
+        Random random = new Random(17);
+        String[] purposes = {"Tourisme", "Affaire", "Autre"};
+        List<Reservation> reservations = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            int people = 1 + random.nextInt(4);
+            reservations.add(new Reservation("Client" + i, "Test", people, random.nextBoolean(),
+                    purposes[random.nextInt(purposes.length)], random.nextInt(people)));
+        }
+        manager.addAll(reservations);
+        for (int i = 0; i < reservations.size(); i += 3) {
+            manager.proposeRoom(reservations.get(i), "A" + i + "E");
+        }
+        for (int i = 0; i < reservations.size(); i += 7) {
+            manager.remove(reservations.get(i));
+        }
+        manager.add(reservations.get(0)); // réutilise un emplacement libéré, proposition déjà retirée
+
+        List<ReservationFilter> filters = List.of(
+            new ReservationFilter(),
+            new ReservationFilter().proposed(false).smoker(true).purpose("Affaire"),
+            new ReservationFilter().proposed(true).withChildren(true),
+            new ReservationFilter().partySize(3).smoker(false).withChildren(false),
+            new ReservationFilter().purpose("Inconnu"));
+        for (ReservationFilter filter : filters) {
+            Set<Long> expected = manager.getAllReservations().stream()
+                    .filter(r -> filter.matches(r, manager.hasProposal(r)))
+                    .map(Reservation::getId).collect(Collectors.toSet());
+            Set<Long> actual = manager.findReservations(filter).stream()
+                    .map(Reservation::getId).collect(Collectors.toSet());
+            assertEquals(expected, actual);
+            assertEquals(expected.size(), manager.countReservations(filter));
+        }
+
+        manager.clear();
+        assertEquals(0, manager.countReservations(new ReservationFilter()));
+    }
+
+    // === Après un redémarrage, un id qui ne survit que dans les assignations ou les sources n'est jamais réattribué
+    @Test
+    public void shouldNotReuseRestoredIds() {
+        ReservationManager manager = new ReservationManager();
+        long releasedGuest = new Reservation("Martin", "Alice", 1, false, "Affaire", 0).getId() + 1000;
+        manager.restoreAssignment(releasedGuest, "A1E");
+        manager.restoreSource("inode@0#1a2b", releasedGuest + 1);
+
+        Reservation next = new Reservation("Dupont", "Jean", 2, true, "Tourisme", 1);
+        assertTrue(next.getId() > releasedGuest + 1);
+        assertEquals("", manager.getAssignedRoomLabel(next.getId()), "La nouvelle réservation n'hérite d'aucune chambre");
+    }
+
+    @Test
+    public void shouldRejectCommitWithoutBegin() {
+        assertThrows(IllegalStateException.class, () -> new ReservationManager().commitBatch());
+    }
+
+    // === Outils
+    private static List<Reservation> createReservations(int count) {
+        List<Reservation> reservations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            reservations.add(new Reservation("Client" + i, "Test", 1, false, "Tourisme", 0));
+        }
+        return reservations;
+    }
+
+    private static class RecordingObserver implements ReservationObserver {
+        private final List<ReservationChange> changes = new ArrayList<>();
+
+        @Override
+        public void update() {
+            fail("update(ReservationChange) doit être appelée");
+        }
+
+        @Override
+        public void update(ReservationChange change) {
+            changes.add(change);
+        }
+    }
+}
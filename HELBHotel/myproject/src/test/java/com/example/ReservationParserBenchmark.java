@@ -0,0 +1,83 @@
+package com.example;
+
+import com.example.parser.MappedReservationParser;
+import com.example.parser.ReservationParser;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compare le débit de ReservationParser et de MappedReservationParser sur un fichier d'un million de lignes.
+ * Ce n'est pas un test JUnit (il n'est pas lancé par mvn test) :
+ *   mvn test-compile
+ *   java -cp target/classes:target/test-classes com.example.ReservationParserBenchmark [lignes]
+ */
+public class ReservationParserBenchmark {
+
+    private static final int DEFAULT_LINE_COUNT = 1_000_000;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+
+    private static final String[] LAST_NAMES = {"Dupont", "Martin", "Durand", "Lefèvre", "Petit", "Moreau"};
+    private static final String[] FIRST_NAMES = {"Jean", "Alice", "Claire", "Hélène", "Luc", "Sophie"};
+    private static final String[] PURPOSES = {"Tourisme", "Affaire", "Autre"};
+
+    public static void main(String[] args) throws IOException {
+        int lineCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_LINE_COUNT;
+        File file = generateFile(lineCount);
+        System.out.println("Fichier : " + lineCount + " lignes, " + file.length() / (1024 * 1024) + " Mo");
+
+        ReservationParser classic = new ReservationParser(file.getAbsolutePath());
+        MappedReservationParser mapped = new MappedReservationParser(file.getAbsolutePath());
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            classic.loadReservations();
+            mapped.loadReservations();
+        }
+
+        report("ReservationParser", lineCount, measure(classic));
+        report("MappedReservationParser", lineCount, measure(mapped));
+    }
+
+    private static long measure(ReservationParser parser) throws IOException {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            parser.loadReservations();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    private static long measure(MappedReservationParser parser) throws IOException {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            parser.loadReservations();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    private static void report(String name, int lineCount, long nanos) {
+        double millis = nanos / 1_000_000.0;
+        double linesPerSecond = lineCount / (nanos / 1_000_000_000.0);
+        System.out.printf("%-25s %8.1f ms   %,12.0f lignes/s%n", name, millis, linesPerSecond);
+    }
+
+    // Toutes les lignes sont valides : on mesure l'analyse, pas l'affichage des erreurs
+    private static File generateFile(int lineCount) throws IOException {
+        File file = File.createTempFile("reservations_bench", ".csv");
+        file.deleteOnExit();
+
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+            for (int i = 0; i < lineCount; i++) {
+                int people = 1 + i % 4;
+                writer.write(LAST_NAMES[i % LAST_NAMES.length] + i + "," + FIRST_NAMES[i % FIRST_NAMES.length] + ","
+                        + people + "," + (i % 3 == 0 ? "Fumeur" : "Non-fumeur") + ","
+                        + PURPOSES[i % PURPOSES.length] + "," + (people - 1) + "\n");
+            }
+        }
+        return file;
+    }
+}
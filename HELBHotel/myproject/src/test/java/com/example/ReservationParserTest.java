@@ -1,12 +1,18 @@
 package com.example;
 
 import com.example.models.Reservation;
+import com.example.parser.QuarantineFile;
+import com.example.parser.RejectReason;
+import com.example.parser.RejectedLine;
 import com.example.parser.ReservationParser;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
 import java.io.*;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Stream;
@@ -15,6 +21,10 @@ import static org.junit.jupiter.api.Assertions.*;
 
 public class ReservationParserTest {
 
+    // Jour fixe du séjour par défaut : le test ne dépend pas de l'heure (ni de minuit) à laquelle il tourne
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 15);
+    private static final Clock TODAY_CLOCK = Clock.fixed(TODAY.atTime(23, 59, 59).toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+
     // === TEST PARAMÉTRIQUE : lignes valides ===
     @ParameterizedTest(name = "[Valide #{index}] {0}")
     @MethodSource("validReservationLines")
@@ -69,8 +79,8 @@ public class ReservationParserTest {
             new Object[]{"Dupont,Jean,abc,Fumeur,Loisir,1", "nombre de personnes invalide"},
             new Object[]{"Martin,Alice,2,peut-être,Affaire,0", "valeur booléenne invalide"},
             new Object[]{"Lemoine,Sarah,2,Fumeur,Pizza,1", "motif invalide"},
-            new Object[]{"Durand,Claire,2,Fumeur", "champ manquant"}
-            
+            new Object[]{"Durand,Claire,2,Fumeur", "champ manquant"},
+            new Object[]{"Petit,Luc,2,Fumeur,Affaire,0,2026-11-05,2026-11-02", "départ avant l'arrivée"}
         );
     }
 
@@ -104,6 +114,31 @@ public class ReservationParserTest {
         assertTrue(remainingLines.get(1).contains("abc"));
     }
 
+    // === Avec une quarantaine, clearFile() y déplace les lignes invalides et vide le fichier
+    @Test
+    public void shouldMoveInvalidLinesToQuarantine_afterClearFile() throws Exception {
+        File tempFile = File.createTempFile("reservations", ".csv");
+        tempFile.deleteOnExit();
+        File quarantineFile = new File(tempFile.getAbsolutePath() + ".rejected");
+        quarantineFile.deleteOnExit();
+
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(tempFile))) {
+            writer.write("Dupont,Jean,2,Fumeur,Tourisme,1\n"); // valide
+            writer.write("BadLine #INVALID\n"); // marquée par l'ancien fonctionnement
+            writer.write("Durand,Claire,abc,oui,Loisir,0\n"); // invalide
+        }
+
+        QuarantineFile quarantine = new QuarantineFile(quarantineFile.getAbsolutePath());
+        new ReservationParser(tempFile.getAbsolutePath(), quarantine).clearFile();
+
+        assertEquals(0, tempFile.length(), "Le fichier de réservations doit être vidé");
+        List<RejectedLine> rejected = quarantine.readAll();
+        assertEquals(2, rejected.size());
+        assertEquals("BadLine", rejected.get(0).getLine());
+        assertEquals(RejectReason.BAD_FIELD_COUNT, rejected.get(0).getReason());
+        assertEquals(RejectReason.NUMBER_FORMAT, rejected.get(1).getReason());
+    }
+
     // === Vérifie que saveReservations() écrit correctement les données
     @Test
     public void shouldSaveAllReservationsCorrectly() throws Exception {
@@ -130,6 +165,33 @@ public class ReservationParserTest {
         assertTrue(lines.get(1).startsWith("Martin,Alice,1,Non-fumeur"));
     }
 
+    // === Dates de séjour : lues si présentes, séjour par défaut sinon, rejet BAD_DATE si invalides
+    @Test
+    public void shouldParseStayDates_andRejectBadDates() throws Exception {
+        File tempFile = writeLinesToTempFile(
+            "Dupont,Jean,2,Fumeur,Tourisme,1,2026-12-24,2026-12-27",
+            "Martin,Alice,1,Non-fumeur,Affaire,0",
+            "Petit,Luc,2,Fumeur,Affaire,0,2026-11-05",        // départ manquant
+            "Petit,Luc,2,Fumeur,Affaire,0,2026-02-30,2026-03-02", // date inexistante
+            "Petit,Luc,2,Fumeur,Affaire,0,2026-11-05,2026-11-05"); // aucune nuit
+
+        ReservationParser parser = new ReservationParser(tempFile.getAbsolutePath(), QuarantineFile.none(), TODAY_CLOCK);
+        List<Reservation> reservations = parser.loadReservations();
+
+        assertEquals(2, reservations.size());
+        assertEquals(LocalDate.of(2026, 12, 24), reservations.get(0).getCheckIn());
+        assertEquals(LocalDate.of(2026, 12, 27), reservations.get(0).getCheckOut());
+        assertEquals(TODAY, reservations.get(1).getCheckIn());
+        assertEquals(TODAY.plusDays(Reservation.DEFAULT_NIGHTS), reservations.get(1).getCheckOut());
+        assertEquals(3, parser.getStatistics().getRejectedCount(RejectReason.BAD_DATE));
+
+        // Les dates sont réécrites par saveReservations() et relues à l'identique
+        parser.saveReservations(reservations);
+        List<Reservation> reloaded = new ReservationParser(tempFile.getAbsolutePath()).loadReservations();
+        assertEquals(reservations.get(0).getCheckOut(), reloaded.get(0).getCheckOut());
+        assertEquals(reservations.get(1).getCheckIn(), reloaded.get(1).getCheckIn());
+    }
+
     // === Outil pour écrire des lignes dans un fichier temporaire
     private static File writeLinesToTempFile(String... lines) throws IOException {
         File tempFile = File.createTempFile("reservations_test", ".csv");
@@ -0,0 +1,263 @@
+package com.example;
+
+import com.example.models.Reservation;
+import com.example.models.ReservationManager;
+import com.example.parser.QuarantineFile;
+import com.example.parser.RejectReason;
+import com.example.parser.RejectedLine;
+import com.example.parser.ReservationTailer;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReservationTailerTest {
+
+    // === Seules les lignes ajoutées depuis la dernière lecture sont renvoyées
+    @Test
+    public void shouldReadOnlyAppendedLines() throws Exception {
+        File tempFile = createTempCsv();
+        append(tempFile, "Dupont,Jean,2,Fumeur,Tourisme,1\n");
+
+        ReservationTailer tailer = new ReservationTailer(tempFile.getAbsolutePath());
+        assertEquals(1, tailer.readNewReservations().size());
+        assertTrue(tailer.readNewReservations().isEmpty(), "Aucune nouvelle ligne ne doit être relue");
+
+        append(tempFile, "Martin,Alice,1,Non-fumeur,Affaire,0\n");
+        List<Reservation> appended = tailer.readNewReservations();
+
+        assertEquals(1, appended.size());
+        assertEquals("Martin", appended.get(0).getLastName());
+    }
+
+    // === Une ligne sans retour à la ligne final est gardée pour le passage suivant
+    @Test
+    public void shouldWaitForIncompleteLastLine() throws Exception {
+        File tempFile = createTempCsv();
+        append(tempFile, "Dupont,Jean,2,Fumeur,Tourisme,1\nMartin,Alice,1,Non-");
+
+        ReservationTailer tailer = new ReservationTailer(tempFile.getAbsolutePath());
+        assertEquals(1, tailer.readNewReservations().size());
+
+        append(tempFile, "fumeur,Affaire,0\n");
+        List<Reservation> completed = tailer.readNewReservations();
+
+        assertEquals(1, completed.size(), "La ligne complétée doit être lue en entier");
+        assertFalse(completed.get(0).isSmoker());
+    }
+
+    // === L'offset confirmé est conservé dans le fichier annexe entre deux instances
+    @Test
+    public void shouldResumeFromPersistedOffset() throws Exception {
+        File tempFile = createTempCsv();
+        append(tempFile, "Dupont,Jean,2,Fumeur,Tourisme,1\n");
+        ReservationTailer first = new ReservationTailer(tempFile.getAbsolutePath());
+        first.readNewReservations();
+        first.commit(first.getPosition());
+
+        append(tempFile, "Martin,Alice,1,Non-fumeur,Affaire,0\n");
+        List<Reservation> afterRestart = new ReservationTailer(tempFile.getAbsolutePath()).readNewReservations();
+
+        assertEquals(1, afterRestart.size(), "Seule la ligne ajoutée après l'arrêt doit être lue");
+        assertEquals("Martin", afterRestart.get(0).getLastName());
+    }
+
+    // === Tant que la position n'est pas confirmée (réservations pas encore durables), un redémarrage relit les lignes
+    @Test
+    public void shouldRereadUncommittedLines_afterRestart() throws Exception {
+        File tempFile = createTempCsv();
+        append(tempFile, "Dupont,Jean,2,Fumeur,Tourisme,1\n");
+        ReservationTailer tailer = new ReservationTailer(tempFile.getAbsolutePath());
+        assertEquals(1, tailer.readNewReservations().size());
+        ReservationTailer.Position durable = tailer.getPosition();
+
+        append(tempFile, "Martin,Alice,1,Non-fumeur,Affaire,0\n");
+        assertEquals(1, tailer.readNewReservations().size());
+        tailer.commit(durable); // seule la première ligne est journalisée avant le crash
+
+        List<Reservation> afterCrash = new ReservationTailer(tempFile.getAbsolutePath()).readNewReservations();
+        assertEquals(1, afterCrash.size(), "La ligne lue mais pas encore durable doit être relue");
+        assertEquals("Martin", afterCrash.get(0).getLastName());
+    }
+
+    // === Un fichier tronqué est relu depuis le début
+    @Test
+    public void shouldRestartFromBeginning_whenFileIsTruncated() throws Exception {
+        File tempFile = createTempCsv();
+        append(tempFile, "Dupont,Jean,2,Fumeur,Tourisme,1\nMartin,Alice,1,Non-fumeur,Affaire,0\n");
+
+        ReservationTailer tailer = new ReservationTailer(tempFile.getAbsolutePath());
+        assertEquals(2, tailer.readNewReservations().size());
+
+        try (FileOutputStream truncate = new FileOutputStream(tempFile, false)) {
+            truncate.write("Durand,Claire,3,Fumeur,Autre,2\n".getBytes(StandardCharsets.UTF_8));
+        }
+
+        List<Reservation> reread = tailer.readNewReservations();
+        assertEquals(1, reread.size());
+        assertEquals("Durand", reread.get(0).getLastName());
+    }
+
+    // === Un fichier tronqué puis réécrit au-delà de l'ancien offset est relu depuis le début, même après un redémarrage
+    @Test
+    public void shouldRestartFromBeginning_whenFileIsTruncatedAndRegrown() throws Exception {
+        File tempFile = createTempCsv();
+        append(tempFile, "Dupont,Jean,2,Fumeur,Tourisme,1\n");
+
+        ReservationTailer tailer = new ReservationTailer(tempFile.getAbsolutePath());
+        assertEquals(1, tailer.readNewReservations().size());
+        tailer.commit(tailer.getPosition());
+
+        try (FileOutputStream truncate = new FileOutputStream(tempFile, false)) {
+            truncate.write("Durand,Claire,3,Fumeur,Autre,2\nMartin,Alice,1,Non-fumeur,Affaire,0\n".getBytes(StandardCharsets.UTF_8));
+        }
+
+        List<Reservation> reread = new ReservationTailer(tempFile.getAbsolutePath()).readNewReservations();
+        assertEquals(2, reread.size(), "Le fichier réécrit doit être relu en entier");
+        assertEquals("Durand", reread.get(0).getLastName());
+    }
+
+    // === Une ligne à cheval sur deux lectures du tampon est lue en entier
+    @Test
+    public void shouldReadLineSpanningTwoBufferReads() throws Exception {
+        File tempFile = createTempCsv();
+        StringBuilder content = new StringBuilder();
+        int lines = 3000; // environ 100 Ko, plus d'une lecture de 64 Kio
+        for (int i = 0; i < lines; i++) content.append("Dupont,Jean,2,Fumeur,Tourisme,1\n");
+        append(tempFile, content.toString());
+
+        ReservationTailer tailer = new ReservationTailer(tempFile.getAbsolutePath());
+        assertEquals(lines, tailer.readNewReservations().size());
+        assertEquals(tempFile.length(), tailer.getOffset());
+    }
+
+    // === Un fichier remplacé (rotation) est relu depuis le début
+    @Test
+    public void shouldRestartFromBeginning_whenFileIsRotated() throws Exception {
+        File tempFile = createTempCsv();
+        append(tempFile, "Dupont,Jean,2,Fumeur,Tourisme,1\n");
+
+        ReservationTailer tailer = new ReservationTailer(tempFile.getAbsolutePath());
+        assertEquals(1, tailer.readNewReservations().size());
+
+        File rotated = File.createTempFile("reservations_rotated", ".csv", tempFile.getParentFile());
+        rotated.deleteOnExit();
+        append(rotated, "Martin,Alice,1,Non-fumeur,Affaire,0\nDurand,Claire,3,Fumeur,Autre,2\n");
+        Files.move(rotated.toPath(), tempFile.toPath(), java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+
+        assertEquals(2, tailer.readNewReservations().size(), "Le nouveau fichier doit être lu en entier");
+    }
+
+    // === Après une rotation, les sources de l'ancien fichier peuvent être oubliées : elles ne seront plus relues
+    @Test
+    public void shouldRetainOnlyCurrentFileSources_afterRotation() throws Exception {
+        File tempFile = createTempCsv();
+        append(tempFile, "Dupont,Jean,2,Fumeur,Tourisme,1\nMartin,Alice,1,Non-fumeur,Affaire,0\n");
+        ReservationManager manager = new ReservationManager();
+        ReservationTailer tailer = new ReservationTailer(tempFile.getAbsolutePath());
+        manager.addAll(tailer.readNewReservations());
+
+        File rotated = File.createTempFile("reservations_rotated", ".csv", tempFile.getParentFile());
+        rotated.deleteOnExit();
+        append(rotated, "Durand,Claire,3,Fumeur,Autre,2\n");
+        Files.move(rotated.toPath(), tempFile.toPath(), java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+        manager.addAll(tailer.readNewReservations());
+        assertEquals(3, manager.getSourceMap().size());
+
+        String currentPrefix = tailer.getPosition().getSourcePrefix();
+        assertEquals(2, manager.retainSources(currentPrefix));
+        assertEquals(1, manager.getSourceMap().size());
+        assertTrue(manager.getSourceMap().keySet().iterator().next().startsWith(currentPrefix));
+    }
+
+    // === Les lignes rejetées partent une seule fois en quarantaine, avec leur raison
+    @Test
+    public void shouldQuarantineRejectedLinesOnce() throws Exception {
+        File tempFile = createTempCsv();
+        File quarantineFile = new File(tempFile.getAbsolutePath() + ".rejected");
+        quarantineFile.deleteOnExit();
+        QuarantineFile quarantine = new QuarantineFile(quarantineFile.getAbsolutePath());
+        append(tempFile, "BadLine\nDupont,Jean,abc,Fumeur,Tourisme,1\nMartin,Alice,1,peut-être,Affaire,0\n"
+                + "Petit,Luc,1,Fumeur,Affaire,1\nDurand,Claire,3,Fumeur,Autre,2\n");
+
+        ReservationTailer tailer = new ReservationTailer(tempFile.getAbsolutePath(), quarantine);
+        assertEquals(1, tailer.readNewReservations().size());
+        append(tempFile, "Lemoine,Sarah,2,Fumeur,Tourisme,0\n");
+        assertEquals(1, tailer.readNewReservations().size());
+        tailer.commit(tailer.getPosition());
+        assertTrue(new ReservationTailer(tempFile.getAbsolutePath(), quarantine).readNewReservations().isEmpty(),
+                "Rien ne doit être relu après un redémarrage");
+
+        List<RejectedLine> rejected = quarantine.readAll();
+        assertEquals(4, rejected.size(), "Chaque rejet ne doit être écrit qu'une fois");
+        assertEquals(RejectReason.BAD_FIELD_COUNT, rejected.get(0).getReason());
+        assertEquals(RejectReason.NUMBER_FORMAT, rejected.get(1).getReason());
+        assertEquals(RejectReason.BAD_SMOKER_VALUE, rejected.get(2).getReason());
+        assertEquals(RejectReason.BUSINESS_RULE, rejected.get(3).getReason());
+        assertEquals(4, rejected.get(3).getLineNumber());
+        assertEquals("Petit,Luc,1,Fumeur,Affaire,1", rejected.get(3).getLine());
+    }
+
+    // === Un tailer qui repart de l'offset 0 (fichier .offset perdu) n'ajoute pas une deuxième fois les lignes déjà ingérées,
+    // même celles dont la réservation a été confirmée depuis
+    @Test
+    public void shouldNotAddLinesAgain_whenTailerRestartsFromBeginning() throws Exception {
+        File tempFile = createTempCsv();
+        append(tempFile, "Dupont,Jean,2,Fumeur,Tourisme,1\nDupont,Jean,2,Fumeur,Tourisme,1\n"); // homonymes
+        ReservationManager manager = new ReservationManager();
+
+        ReservationTailer tailer = new ReservationTailer(tempFile.getAbsolutePath());
+        List<Reservation> firstRead = tailer.readNewReservations();
+        tailer.commit(tailer.getPosition());
+        assertEquals(2, manager.addAll(firstRead).size(), "Deux lignes identiques restent deux réservations");
+        Reservation confirmed = firstRead.get(0);
+        manager.assignReservation(confirmed, "A1E");
+        manager.remove(confirmed);
+
+        Files.delete(new File(tempFile.getAbsolutePath() + ".offset").toPath());
+        append(tempFile, "Martin,Alice,1,Non-fumeur,Affaire,0\n");
+        List<Reservation> reread = new ReservationTailer(tempFile.getAbsolutePath()).readNewReservations();
+
+        assertEquals(3, reread.size(), "Sans offset, tout le fichier est relu");
+        List<Reservation> added = manager.addAll(reread);
+        assertEquals(1, added.size(), "Seule la ligne nouvelle doit être ajoutée");
+        assertEquals("Martin", added.get(0).getLastName());
+        assertEquals(2, manager.getAllReservations().size());
+    }
+
+    // === Une ligne différente écrite à la même position après une troncature reste une nouvelle réservation
+    @Test
+    public void shouldAddRewrittenLine_whenFileIsTruncated() throws Exception {
+        File tempFile = createTempCsv();
+        append(tempFile, "Dupont,Jean,2,Fumeur,Tourisme,1\n");
+        ReservationManager manager = new ReservationManager();
+        ReservationTailer tailer = new ReservationTailer(tempFile.getAbsolutePath());
+        assertEquals(1, manager.addAll(tailer.readNewReservations()).size());
+
+        try (FileOutputStream truncate = new FileOutputStream(tempFile, false)) {
+            truncate.write("Durand,Claire,3,Fumeur,Autre,2\n".getBytes(StandardCharsets.UTF_8));
+        }
+
+        List<Reservation> added = manager.addAll(tailer.readNewReservations());
+        assertEquals(1, added.size());
+        assertEquals("Durand", added.get(0).getLastName());
+    }
+
+    // === Outils
+    private static File createTempCsv() throws IOException {
+        File tempFile = File.createTempFile("reservations_tail", ".csv");
+        tempFile.deleteOnExit();
+        new File(tempFile.getAbsolutePath() + ".offset").deleteOnExit();
+        return tempFile;
+    }
+
+    private static void append(File file, String content) throws IOException {
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
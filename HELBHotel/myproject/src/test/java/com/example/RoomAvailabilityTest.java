@@ -0,0 +1,141 @@
+package com.example;
+
+import com.example.models.Hotel;
+import com.example.models.Reservation;
+import com.example.models.ReservationManager;
+import com.example.models.Room;
+import com.example.models.RoomAvailability;
+import com.example.models.Strategy;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RoomAvailabilityTest {
+
+    private static final String[][] LAYOUT = {{"E", "B", "L"}}; // A1E, A2B, A3L
+    private static final LocalDate DAY = LocalDate.of(2026, 12, 1);
+
+    // === Séjours semi-ouverts [arrivée, départ) : un départ et une arrivée le même jour ne se chevauchent pas
+    @Test
+    public void shouldDetectOverlaps_withHalfOpenStays() {
+        RoomAvailability availability = new RoomAvailability();
+        Reservation first = stay(DAY.plusDays(2), DAY.plusDays(5));
+        Reservation second = stay(DAY.plusDays(8), DAY.plusDays(10));
+        assertTrue(availability.book(first));
+        assertTrue(availability.book(second));
+
+        assertTrue(availability.isFree(DAY, DAY.plusDays(2)), "Départ le jour de l'arrivée suivante");
+        assertTrue(availability.isFree(DAY.plusDays(5), DAY.plusDays(8)), "Trou exact entre deux séjours");
+        assertFalse(availability.isFree(DAY.plusDays(4), DAY.plusDays(6)));
+        assertFalse(availability.isFree(DAY, DAY.plusDays(20)), "Période qui englobe les deux séjours");
+        assertFalse(availability.isFree(DAY.plusDays(9), DAY.plusDays(12)));
+        assertFalse(availability.book(stay(DAY.plusDays(3), DAY.plusDays(4))));
+
+        assertFalse(availability.cancel(second.getId(), DAY.plusDays(2)), "Mauvaise réservation pour cette arrivée");
+        assertTrue(availability.cancel(first.getId(), DAY.plusDays(2)));
+        assertTrue(availability.isFree(DAY.plusDays(3), DAY.plusDays(4)));
+        assertEquals(1, availability.size());
+        assertThrows(IllegalArgumentException.class, () -> stay(DAY, DAY), "Séjour vide");
+    }
+
+    private static Reservation stay(LocalDate checkIn, LocalDate checkOut) {
+        return new Reservation("Martin", "Alice", 1, false, "Affaire", 0, checkIn, checkOut);
+    }
+
+    // === Le check-in installe le client quand son jour d'arrivée est venu, ou à la libération de la chambre
+    @Test
+    public void shouldCheckInArrivals_whenClockPassesCheckIn() {
+        Hotel hotel = new Hotel(1, LAYOUT);
+        hotel.setClock(fixedClock(DAY));
+        Reservation guest = new Reservation("Martin", "Alice", 1, false, "Affaire", 0, DAY, DAY.plusDays(3));
+        Reservation future = new Reservation("Dupont", "Jean", 1, false, "Affaire", 0, DAY.plusDays(2), DAY.plusDays(4));
+        Reservation noShow = new Reservation("Petit", "Luc", 1, false, "Affaire", 0, DAY.plusDays(1), DAY.plusDays(2));
+        assertTrue(hotel.confirmReservation("A2B", guest));
+        assertTrue(hotel.confirmReservation("A3L", future));
+        assertTrue(hotel.confirmReservation("A1E", noShow));
+        assertTrue(hotel.checkInArrivals().isEmpty(), "Aucun séjour réservé n'a encore commencé");
+        assertFalse(hotel.getRoomByLabel("A3L").isOccupied());
+
+        hotel.setClock(fixedClock(DAY.plusDays(2)));
+        List<Room> checkedIn = hotel.checkInArrivals();
+        assertEquals(List.of("A3L"), checkedIn.stream().map(Room::getLabel).collect(Collectors.toList()));
+        assertSame(future, hotel.getRoomByLabel("A3L").getAssignedReservation());
+        assertFalse(hotel.getRoomByLabel("A1E").isOccupied(), "Séjour terminé sans arrivée : pas d'occupation");
+        assertTrue(hotel.getRoomByLabel("A1E").getBookings().isEmpty(), "Séjour passé annulé");
+        assertTrue(hotel.checkInArrivals().isEmpty(), "Un client déjà installé n'est pas réinstallé");
+    }
+
+    // === Une arrivée dont la chambre est encore occupée attend sa libération
+    @Test
+    public void shouldWaitForRelease_whenRoomStillOccupied() {
+        Hotel hotel = new Hotel(1, LAYOUT);
+        hotel.setClock(fixedClock(DAY));
+        Reservation guest = new Reservation("Martin", "Alice", 1, false, "Affaire", 0, DAY, DAY.plusDays(2));
+        Reservation next = new Reservation("Dupont", "Jean", 1, false, "Affaire", 0, DAY.plusDays(2), DAY.plusDays(5));
+        assertTrue(hotel.confirmReservation("A2B", guest));
+        assertTrue(hotel.confirmReservation("A2B", next));
+
+        hotel.setClock(fixedClock(DAY.plusDays(2)));
+        assertTrue(hotel.checkInArrivals().isEmpty(), "Le client précédent n'est pas encore parti");
+        assertSame(guest, hotel.getRoomByLabel("A2B").getAssignedReservation());
+
+        hotel.releaseRoom("A2B");
+        assertEquals(1, hotel.checkInArrivals().size());
+        assertSame(next, hotel.getRoomByLabel("A2B").getAssignedReservation());
+    }
+
+    private static Clock fixedClock(LocalDate day) {
+        return Clock.fixed(day.atStartOfDay(ZoneOffset.UTC).toInstant(), ZoneOffset.UTC);
+    }
+
+    // === Un séjour futur réserve la chambre sans l'occuper ; un client présent bloque les arrivées immédiates
+    @Test
+    public void shouldBookFutureStaysAlongsideCurrentGuest() {
+        Hotel hotel = new Hotel(1, LAYOUT);
+        LocalDate today = LocalDate.now();
+        Reservation guest = new Reservation("Martin", "Alice", 1, false, "Affaire", 0);
+        Reservation future = new Reservation("Dupont", "Jean", 1, false, "Affaire", 0, today.plusDays(5), today.plusDays(7));
+        Reservation overlapping = new Reservation("Durand", "Paul", 1, false, "Affaire", 0, today.plusDays(6), today.plusDays(8));
+        Reservation walkIn = new Reservation("Petit", "Luc", 1, false, "Affaire", 0);
+
+        assertTrue(hotel.confirmReservation("A2B", guest));
+        assertTrue(hotel.confirmReservation("A2B", future));
+        assertFalse(hotel.confirmReservation("A2B", overlapping));
+        assertFalse(hotel.confirmReservation("A2B", walkIn), "La chambre est occupée aujourd'hui");
+
+        Room room = hotel.getRoomByLabel("A2B");
+        assertSame(guest, room.getAssignedReservation());
+        assertEquals(2, room.getBookings().size());
+
+        // La libération retire seulement le séjour du client présent
+        hotel.releaseRoom("A2B");
+        assertEquals(1, room.getBookings().size());
+        assertTrue(hotel.confirmReservation("A2B", walkIn));
+    }
+
+    // === Requête sur tout l'hôtel, et stratégies qui ne proposent que des chambres libres pour le séjour
+    @Test
+    public void shouldFindRoomsFreeForRange() {
+        Hotel hotel = new Hotel(1, LAYOUT);
+        LocalDate start = LocalDate.now().plusDays(30);
+        hotel.confirmReservation("A1E", new Reservation("A", "A", 1, true, "Tourisme", 0, start, start.plusDays(3)));
+        hotel.confirmReservation("A2B", new Reservation("B", "B", 1, false, "Affaire", 0, start.plusDays(3), start.plusDays(4)));
+
+        List<Room> free = hotel.getRoomsFreeFor(start, start.plusDays(3));
+        assertEquals(List.of("A2B", "A3L"), free.stream().map(Room::getLabel).collect(Collectors.toList()));
+        assertEquals(3, hotel.getRoomsFreeFor(start.plusDays(4), start.plusDays(5)).size());
+
+        ReservationManager manager = new ReservationManager();
+        Strategy strategy = new Strategy(hotel, manager);
+        Reservation business = new Reservation("C", "C", 1, false, "Affaire", 0, start.plusDays(2), start.plusDays(4));
+        assertEquals("EMPTY", strategy.assign(business, "Séquentiel"), "La seule chambre Business est prise le 3e jour");
+        Reservation later = new Reservation("D", "D", 1, false, "Affaire", 0, start.plusDays(4), start.plusDays(6));
+        assertEquals("A2B", strategy.assign(later, "Séquentiel"));
+    }
+}
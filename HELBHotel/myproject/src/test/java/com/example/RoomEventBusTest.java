@@ -0,0 +1,80 @@
+package com.example;
+
+import com.example.models.EmptyReservation;
+import com.example.models.Hotel;
+import com.example.models.Reservation;
+import com.example.observer.RoomEvent;
+import com.example.observer.RoomEventBus;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RoomEventBusTest {
+
+    private static final String[][] LAYOUT = {{"E", "B", "L"}}; // par étage : xxE, xxB, xxL
+
+    // === Un lot produit un seul envoi, avec l'ancien et le nouvel occupant de chaque changement
+    @Test
+    public void shouldDeliverBatchedEventsWithOldAndNewState() {
+        Hotel hotel = new Hotel(2, LAYOUT);
+        RoomEventBus bus = hotel.getRoomEvents();
+        List<List<RoomEvent>> calls = new ArrayList<>();
+        bus.subscribe(calls::add);
+
+        Reservation alice = new Reservation("Martin", "Alice", 1, false, "Affaire", 0);
+        bus.beginBatch();
+        hotel.confirmReservation("A1E", alice);
+        hotel.releaseRoom("A1E");
+        hotel.confirmReservation("B3L", new Reservation("Dupont", "Jean", 2, false, "Tourisme", 0));
+        assertTrue(calls.isEmpty(), "Rien n'est transmis avant la fin du lot");
+        bus.commitBatch();
+
+        assertEquals(1, calls.size());
+        List<RoomEvent> events = calls.get(0);
+        assertEquals(3, events.size());
+        assertEquals("A1E", events.get(0).getLabel());
+        assertEquals(0, events.get(0).getIndex());
+        assertFalse(events.get(0).wasOccupied());
+        assertSame(alice, events.get(0).getOccupant());
+        assertSame(alice, events.get(1).getPreviousOccupant());
+        assertSame(EmptyReservation.getInstance(), events.get(1).getOccupant());
+        assertEquals(1, events.get(2).getFloorIndex());
+        assertSame(hotel.getAllRooms().get(events.get(2).getIndex()), events.get(2).getRoom());
+
+        // Hors lot : transmis tout de suite
+        hotel.releaseRoom("B3L");
+        assertEquals(2, calls.size());
+        assertThrows(IllegalStateException.class, bus::commitBatch);
+    }
+
+    // === Un abonné d'étage ne reçoit que les événements de son étage, et rien si le lot ne le concerne pas
+    @Test
+    public void shouldFilterEventsByFloor() {
+        Hotel hotel = new Hotel(2, LAYOUT);
+        RoomEventBus bus = hotel.getRoomEvents();
+        List<String> firstFloor = new ArrayList<>();
+        List<String> secondFloor = new ArrayList<>();
+        int[] secondFloorCalls = {0};
+        bus.subscribeToFloor(events -> events.forEach(e -> firstFloor.add(e.getLabel())), 0);
+        bus.subscribeToFloor(events -> {
+            secondFloorCalls[0]++;
+            events.forEach(e -> secondFloor.add(e.getLabel()));
+        }, 1);
+
+        hotel.confirmReservation("A2B", new Reservation("Martin", "Alice", 1, false, "Affaire", 0));
+        assertEquals(List.of("A2B"), firstFloor);
+        assertEquals(0, secondFloorCalls[0], "Le lot ne concerne pas cet étage");
+
+        bus.beginBatch();
+        hotel.confirmReservation("B1E", new Reservation("Dupont", "Jean", 1, false, "Tourisme", 0));
+        hotel.releaseRoom("A2B");
+        bus.commitBatch();
+        assertEquals(List.of("A2B", "A2B"), firstFloor);
+        assertEquals(List.of("B1E"), secondFloor);
+        assertEquals(1, secondFloorCalls[0]);
+        assertThrows(IllegalArgumentException.class, () -> bus.subscribeToFloor(events -> { }, -1));
+    }
+}
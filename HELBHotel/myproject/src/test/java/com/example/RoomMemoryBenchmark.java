@@ -0,0 +1,48 @@
+package com.example;
+
+import com.example.models.Hotel;
+
+import java.lang.ref.Reference;
+
+/**
+ * Mesure la mémoire occupée par un hôtel d'un million de chambres sans aucune réservation
+ * (tas utilisé après GC, avant et après la construction), rapportée au nombre de chambres.
+ * Ce n'est pas un test JUnit (il n'est pas lancé par mvn test) :
+ *   mvn test-compile
+ *   java -Xmx2g -cp target/classes:target/test-classes com.example.RoomMemoryBenchmark
+ */
+public class RoomMemoryBenchmark {
+
+    private static final int FLOORS = 200;
+    private static final int ROWS = 50;
+    private static final int COLUMNS = 100; // 200 × 50 × 100 = 1 000 000 chambres
+    private static final String[] TYPES = {"E", "B", "L"};
+
+    public static void main(String[] args) throws InterruptedException {
+        String[][] layout = new String[ROWS][COLUMNS];
+        for (int row = 0; row < ROWS; row++) {
+            for (int col = 0; col < COLUMNS; col++) {
+                layout[row][col] = TYPES[(row + col) % TYPES.length];
+            }
+        }
+
+        long before = usedHeap();
+        Hotel hotel = new Hotel(FLOORS, layout);
+        long after = usedHeap();
+
+        int rooms = hotel.getAllRooms().size();
+        System.out.println("Chambres : " + rooms);
+        System.out.printf("%-20s %10.1f Mio%n", "tas occupé", (after - before) / (1024.0 * 1024.0));
+        System.out.printf("%-20s %10.1f octets%n", "par chambre", (after - before) / (double) rooms);
+        Reference.reachabilityFence(hotel); // l'hôtel reste vivant jusqu'après la mesure
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
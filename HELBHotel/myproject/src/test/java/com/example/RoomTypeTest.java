@@ -0,0 +1,38 @@
+package com.example;
+
+import com.example.models.Hotel;
+import com.example.models.RoomType;
+import com.example.models.lottery.GoldTicket;
+import com.example.models.lottery.LotteryTicketFactory;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RoomTypeTest {
+
+    // === Les codes d'une lettre sont convertis en RoomType ; un code inconnu est refusé
+    @Test
+    public void shouldResolveCodes() {
+        assertEquals(RoomType.LUXURY, RoomType.fromCode("L"));
+        assertEquals(RoomType.UNUSED, RoomType.fromCode('Z'));
+        assertNull(RoomType.fromCode('X'));
+        assertNull(RoomType.fromCode('é'));
+        assertEquals("B", RoomType.BUSINESS.getCode());
+        assertThrows(IllegalArgumentException.class, () -> RoomType.fromCode("LL"));
+        assertThrows(IllegalArgumentException.class, () -> RoomType.fromCode(""));
+    }
+
+    // === Chaque chambre porte le type de sa cellule ; les poids de loterie en découlent
+    @Test
+    public void shouldGiveEachRoomTheTypeOfItsCell() {
+        Hotel hotel = new Hotel(1, new String[][]{{"L", "B", "Z", "E"}});
+
+        assertEquals(RoomType.LUXURY, hotel.getRoomByLabel("A1L").getRoomType());
+        assertEquals(RoomType.ECONOMY, hotel.getRoomByLabel("A3E").getRoomType());
+        assertEquals("B", hotel.getRoomByLabel("A2B").getType());
+
+        // Score = poids du type + note : Luxury 2 + 5 = Gold, Economy 0 + 5 = Silver
+        assertInstanceOf(GoldTicket.class, LotteryTicketFactory.generateTicket(hotel.getRoomByLabel("A1L"), 5));
+        assertFalse(LotteryTicketFactory.generateTicket(hotel.getRoomByLabel("A3E"), 5) instanceof GoldTicket);
+    }
+}
@@ -0,0 +1,122 @@
+package com.example;
+
+import com.example.models.Hotel;
+import com.example.models.Reservation;
+import com.example.models.ReservationManager;
+import com.example.models.Room;
+import com.example.models.RoomType;
+import com.example.strategy.Sequential;
+
+import java.time.LocalDate;
+
+/**
+ * Compare la recherche d'une chambre par la stratégie séquentielle avec l'ancien parcours :
+ * toutes les chambres, type comparé en chaîne (equalsIgnoreCase) pour chacune.
+ * L'hôtel compte environ 100 000 chambres, occupées à 90 % ; la chambre cherchée est parmi les dernières.
+ * Deuxième mesure : presque toutes les chambres libres du type sont déjà proposées, et la vérification
+ * des propositions par label (un label construit puis mis en majuscules par chambre visitée)
+ * est comparée à la lecture du bitmap des propositions par position.
+ * Ce n'est pas un test JUnit (il n'est pas lancé par mvn test) :
+ *   mvn test-compile
+ *   java -cp target/classes:target/test-classes com.example.StrategyScanBenchmark
+ */
+public class StrategyScanBenchmark {
+
+    private static final int FLOORS = 26;
+    private static final int GRID_SIZE = 62; // 26 × 62 × 62 ≈ 100 000 chambres
+    private static final String[] TYPES = {"E", "B", "L"};
+    private static final int OCCUPIED_PERCENT = 90;
+    private static final int SEARCHES = 200;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+
+    public static void main(String[] args) {
+        String[][] layout = new String[GRID_SIZE][GRID_SIZE];
+        for (int row = 0; row < GRID_SIZE; row++) {
+            for (int col = 0; col < GRID_SIZE; col++) {
+                layout[row][col] = TYPES[(row + col) % TYPES.length];
+            }
+        }
+        Hotel hotel = new Hotel(FLOORS, layout);
+        int occupied = hotel.getAllRooms().size() * OCCUPIED_PERCENT / 100;
+        for (Room room : hotel.getAllRooms().subList(0, occupied)) {
+            room.assignTo(new Reservation("Client", room.getLabel(), 1, false, "Affaire", 0));
+        }
+
+        ReservationManager manager = new ReservationManager();
+        Reservation tourist = new Reservation("Martin", "Alice", 2, false, "Tourisme", 0);
+        Sequential sequential = Sequential.getInstance(hotel, manager);
+
+        long before = bestOf(() -> stringScan(hotel, manager, tourist));
+        long after = bestOf(() -> sequential.assignRoom(tourist));
+        if (!stringScan(hotel, manager, tourist).equals(sequential.assignRoom(tourist))) {
+            throw new IllegalStateException("Les deux parcours ne trouvent pas la même chambre");
+        }
+
+        System.out.println("Chambres : " + hotel.getAllRooms().size() + ", libres : " + (hotel.getAllRooms().size() - occupied));
+        System.out.printf("%-35s %10.1f µs/recherche%n", "parcours complet (String)", before / 1_000.0 / SEARCHES);
+        System.out.printf("%-35s %10.1f µs/recherche%n", "bitmap du type (RoomType)", after / 1_000.0 / SEARCHES);
+
+        // Toutes les chambres Luxury libres sauf la dernière sont proposées à d'autres réservations
+        int proposed = 0;
+        for (int i = hotel.nextCandidateRoom(RoomType.LUXURY, tourist.getCheckIn(), 0); i >= 0;
+             i = hotel.nextCandidateRoom(RoomType.LUXURY, tourist.getCheckIn(), i + 1)) {
+            if (hotel.nextCandidateRoom(RoomType.LUXURY, tourist.getCheckIn(), i + 1) < 0) break;
+            Reservation other = new Reservation("Client", "P" + i, 1, false, "Tourisme", 0);
+            manager.add(other);
+            manager.proposeRoom(other, hotel.getRoomAt(i).getLabel());
+            proposed++;
+        }
+        long byLabel = bestOf(() -> labelCheckScan(hotel, manager, tourist));
+        long byIndex = bestOf(() -> sequential.assignRoom(tourist));
+        if (!labelCheckScan(hotel, manager, tourist).equals(sequential.assignRoom(tourist))) {
+            throw new IllegalStateException("Les deux vérifications ne trouvent pas la même chambre");
+        }
+        System.out.println("Chambres libres du type déjà proposées : " + proposed);
+        System.out.printf("%-35s %10.1f µs/recherche%n", "propositions par label", byLabel / 1_000.0 / SEARCHES);
+        System.out.printf("%-35s %10.1f µs/recherche%n", "propositions par position", byIndex / 1_000.0 / SEARCHES);
+    }
+
+    // Parcours des candidates avec la vérification des propositions par label
+    private static String labelCheckScan(Hotel hotel, ReservationManager manager, Reservation reservation) {
+        LocalDate checkIn = reservation.getCheckIn();
+        for (int i = hotel.nextCandidateRoom(RoomType.LUXURY, checkIn, 0); i >= 0; i = hotel.nextCandidateRoom(RoomType.LUXURY, checkIn, i + 1)) {
+            Room room = hotel.getRoomAt(i);
+            if (room.isFreeFor(checkIn, reservation.getCheckOut()) && !manager.isRoomAlreadyProposed(room.getLabel())) {
+                return room.getLabel();
+            }
+        }
+        return "EMPTY";
+    }
+
+    // Ancien parcours : chaque chambre, isFreeFor, proposition, puis type comparé en chaîne
+    private static String stringScan(Hotel hotel, ReservationManager manager, Reservation reservation) {
+        for (Room room : hotel.getAllRooms()) {
+            if (room.isFreeFor(reservation.getCheckIn(), reservation.getCheckOut())
+                && !manager.isRoomAlreadyProposed(room.getLabel())
+                && "L".equalsIgnoreCase(room.getType())) {
+                return room.getLabel();
+            }
+        }
+        return "EMPTY";
+    }
+
+    private static long bestOf(Runnable search) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            runSearches(search);
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            runSearches(search);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    private static void runSearches(Runnable search) {
+        for (int i = 0; i < SEARCHES; i++) {
+            search.run();
+        }
+    }
+}